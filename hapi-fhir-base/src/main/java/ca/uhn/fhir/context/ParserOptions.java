@@ -48,6 +48,35 @@ public class ParserOptions {
 	private boolean myAutoContainReferenceTargetsWithNoId = true;
 	private Set<String> myEncodeElementsForSummaryMode = null;
 	private Set<String> myDontEncodeElementsForSummaryMode = null;
+	private boolean myStreamingJsonParsing = false;
+
+	/**
+	 * If set to {@literal true} (default is {@literal false}), the JSON parser will read documents
+	 * from the underlying token stream instead of first loading the complete document into an
+	 * intermediate tree. Repeating complex elements directly within the root resource (most
+	 * importantly <code>Bundle.entry</code>) are parsed one at a time as they are read, so peak
+	 * memory use when parsing large Bundles is roughly proportional to the resulting resource model.
+	 *
+	 * @since 7.8.0
+	 */
+	public boolean isStreamingJsonParsing() {
+		return myStreamingJsonParsing;
+	}
+
+	/**
+	 * If set to {@literal true} (default is {@literal false}), the JSON parser will read documents
+	 * from the underlying token stream instead of first loading the complete document into an
+	 * intermediate tree. Repeating complex elements directly within the root resource (most
+	 * importantly <code>Bundle.entry</code>) are parsed one at a time as they are read, so peak
+	 * memory use when parsing large Bundles is roughly proportional to the resulting resource model.
+	 *
+	 * @return Returns a reference to <code>this</code> parser so that method calls can be chained together
+	 * @since 7.8.0
+	 */
+	public ParserOptions setStreamingJsonParsing(boolean theStreamingJsonParsing) {
+		myStreamingJsonParsing = theStreamingJsonParsing;
+		return this;
+	}
 
 	/**
 	 * If set to {@literal true} (which is the default), contained resources may be specified by
@@ -0,0 +1,78 @@
+/*-
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.context.support;
+
+import java.util.Objects;
+
+/**
+ * Represents a single code to be validated as part of a
+ * {@link IValidationSupport#validateCodesInValueSet(ValidationSupportContext, ConceptValidationOptions, java.util.List, org.hl7.fhir.instance.model.api.IBaseResource) bulk validation}
+ * request.
+ *
+ * @since 7.8.0
+ */
+public class CodeValidationRequest {
+	private final String mySystem;
+	private final String myCode;
+	private final String myDisplay;
+
+	/**
+	 * @param theSystem  The CodeSystem URL (may be <code>null</code> if the system should be inferred)
+	 * @param theCode    The code
+	 * @param theDisplay The display name, if it should be validated (may be <code>null</code>)
+	 */
+	public CodeValidationRequest(String theSystem, String theCode, String theDisplay) {
+		mySystem = theSystem;
+		myCode = theCode;
+		myDisplay = theDisplay;
+	}
+
+	public String getSystem() {
+		return mySystem;
+	}
+
+	public String getCode() {
+		return myCode;
+	}
+
+	public String getDisplay() {
+		return myDisplay;
+	}
+
+	@Override
+	public boolean equals(Object theO) {
+		if (this == theO) return true;
+		if (!(theO instanceof CodeValidationRequest)) return false;
+		CodeValidationRequest that = (CodeValidationRequest) theO;
+		return Objects.equals(mySystem, that.mySystem)
+				&& Objects.equals(myCode, that.myCode)
+				&& Objects.equals(myDisplay, that.myDisplay);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(mySystem, myCode, myDisplay);
+	}
+
+	@Override
+	public String toString() {
+		return mySystem + "|" + myCode;
+	}
+}
@@ -330,6 +330,40 @@ public interface IValidationSupport {
 		return null;
 	}
 
+	/**
+	 * Validates a group of codes against a single ValueSet. This is equivalent to calling
+	 * {@link #validateCodeInValueSet(ValidationSupportContext, ConceptValidationOptions, String, String, String, IBaseResource)}
+	 * for each request, but allows implementations to validate the whole group at once (e.g. with a single
+	 * ValueSet expansion, database query or remote service call). The default implementation simply calls
+	 * the single code method for each request.
+	 *
+	 * @param theValidationSupportContext The validation support module will be passed in to this method. This is convenient in cases where the operation needs to make calls to
+	 *                                    other method in the support chain, so that they can be passed through the entire chain. Implementations of this interface may always safely ignore this parameter.
+	 * @param theRequests                 The codes to validate
+	 * @param theValueSet                 The ValueSet to validate against. Must not be null, and must be a ValueSet resource.
+	 * @return Returns a list containing exactly one entry for each request, in the same order as the requests. An entry
+	 * 		is <code>null</code> if this validation support module can not handle that request.
+	 * @since 7.8.0
+	 */
+	@Nonnull
+	default List<CodeValidationResult> validateCodesInValueSet(
+			ValidationSupportContext theValidationSupportContext,
+			ConceptValidationOptions theOptions,
+			@Nonnull List<CodeValidationRequest> theRequests,
+			@Nonnull IBaseResource theValueSet) {
+		List<CodeValidationResult> retVal = new ArrayList<>(theRequests.size());
+		for (CodeValidationRequest next : theRequests) {
+			retVal.add(validateCodeInValueSet(
+					theValidationSupportContext,
+					theOptions,
+					next.getSystem(),
+					next.getCode(),
+					next.getDisplay(),
+					theValueSet));
+		}
+		return retVal;
+	}
+
 	/**
 	 * Look up a code using the system and code value.
 	 * @deprecated This method has been deprecated in HAPI FHIR 7.0.0. Use {@link IValidationSupport#lookupCode(ValidationSupportContext, LookupCodeRequest)} instead.
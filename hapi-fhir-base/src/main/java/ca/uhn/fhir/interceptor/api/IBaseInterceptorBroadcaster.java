@@ -75,6 +75,10 @@ public interface IBaseInterceptorBroadcaster<POINTCUT extends IPointcut> {
 	 */
 	boolean hasHooks(POINTCUT thePointcut);
 
+	/**
+	 * Returns the invokers registered for the given pointcut, sorted by their order. The
+	 * returned list is a newly created list, so callers may modify it.
+	 */
 	List<IInvoker> getInvokersForPointcut(POINTCUT thePointcut);
 
 	interface IInvoker extends Comparable<IInvoker> {
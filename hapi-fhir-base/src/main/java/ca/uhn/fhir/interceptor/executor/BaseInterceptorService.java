@@ -45,6 +45,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -53,13 +56,16 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.EnumSet;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -75,13 +81,28 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	private static final AttributeKey<String> OTEL_INTERCEPTOR_METHOD_NAME_ATT_KEY =
 			AttributeKey.stringKey("hapifhir.interceptor.method_name");
 
+	/**
+	 * Hook methods with more than this number of parameters are invoked through a
+	 * spreader method handle (which requires an argument array) instead of being
+	 * invoked directly.
+	 */
+	private static final int MAX_DIRECT_METHOD_HANDLE_ARITY = 6;
+
 	private final List<Object> myInterceptors = new ArrayList<>();
 	private final ListMultimap<POINTCUT, IInvoker> myGlobalInvokers = ArrayListMultimap.create();
 	private final ListMultimap<POINTCUT, IInvoker> myAnonymousInvokers = ArrayListMultimap.create();
 	private final Object myRegistryMutex = new Object();
 	private final Class<POINTCUT> myPointcutType;
-	private volatile EnumSet<POINTCUT> myRegisteredPointcuts;
+	private final AtomicLongArray myHookInvocationCounts;
+	private final Map<String, LongAdder> myInterceptorInvocationNanos = new ConcurrentHashMap<>();
+	/**
+	 * Immutable snapshot of the invokers for each pointcut, indexed by pointcut ordinal. This
+	 * is rebuilt whenever the registry changes so that reads never need to take a lock.
+	 */
+	private volatile List<IInvoker>[] myInvokersByPointcut;
 	private boolean myWarnOnInterceptorWithNoHooks = true;
+	private volatile boolean myUseMethodHandleInvokers = false;
+	private volatile boolean myCollectHookMetrics = false;
 
 	/**
 	 * Constructor which uses a default name of "default"
@@ -100,7 +121,8 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	public BaseInterceptorService(Class<POINTCUT> thePointcutType, String theName) {
 		super();
 		myPointcutType = thePointcutType;
-		rebuildRegisteredPointcutSet();
+		myHookInvocationCounts = new AtomicLongArray(thePointcutType.getEnumConstants().length);
+		rebuildInvokerSnapshot();
 	}
 
 	/**
@@ -110,6 +132,114 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 		myWarnOnInterceptorWithNoHooks = theWarnOnInterceptorWithNoHooks;
 	}
 
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), hook methods will be invoked
+	 * using a {@link MethodHandle} which is bound to the interceptor instance and adapted to the
+	 * hook method signature when the interceptor is registered, instead of using
+	 * reflection. This avoids allocating an argument array and performing reflective access
+	 * checks on every hook invocation.
+	 * <p>
+	 * This setting only affects interceptors which are registered after it is changed, so it
+	 * should generally be set before any interceptors are registered.
+	 * </p>
+	 *
+	 * @since 7.8.0
+	 */
+	public void setUseMethodHandleInvokers(boolean theUseMethodHandleInvokers) {
+		myUseMethodHandleInvokers = theUseMethodHandleInvokers;
+	}
+
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), hook methods will be invoked
+	 * using a {@link MethodHandle} which is bound to the interceptor instance and adapted to the
+	 * hook method signature when the interceptor is registered, instead of using
+	 * reflection.
+	 *
+	 * @since 7.8.0
+	 */
+	public boolean isUseMethodHandleInvokers() {
+		return myUseMethodHandleInvokers;
+	}
+
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), the service will keep count of
+	 * the number of hook methods invoked for each pointcut, as well as the total time spent
+	 * in each interceptor. These values can be retrieved using {@link #getHookInvocationCounts()}
+	 * and {@link #getInterceptorInvocationNanos()}.
+	 *
+	 * @since 7.8.0
+	 */
+	public void setCollectHookMetrics(boolean theCollectHookMetrics) {
+		myCollectHookMetrics = theCollectHookMetrics;
+	}
+
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), the service will keep count of
+	 * the number of hook methods invoked for each pointcut, as well as the total time spent
+	 * in each interceptor.
+	 *
+	 * @since 7.8.0
+	 */
+	public boolean isCollectHookMetrics() {
+		return myCollectHookMetrics;
+	}
+
+	/**
+	 * Returns the number of hook methods which have been invoked for each pointcut since
+	 * metrics collection was enabled (or since {@link #clearHookMetrics()} was last called).
+	 * Pointcuts with no invocations are not included.
+	 *
+	 * @see #setCollectHookMetrics(boolean)
+	 * @since 7.8.0
+	 */
+	@Nonnull
+	public Map<POINTCUT, Long> getHookInvocationCounts() {
+		Map<POINTCUT, Long> retVal = new EnumMap<>(myPointcutType);
+		for (POINTCUT next : myPointcutType.getEnumConstants()) {
+			long count = myHookInvocationCounts.get(next.ordinal());
+			if (count > 0) {
+				retVal.put(next, count);
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Returns the total time (in nanoseconds) spent in hook methods, keyed by the
+	 * interceptor class name.
+	 *
+	 * @see #setCollectHookMetrics(boolean)
+	 * @since 7.8.0
+	 */
+	@Nonnull
+	public Map<String, Long> getInterceptorInvocationNanos() {
+		Map<String, Long> retVal = new HashMap<>();
+		myInterceptorInvocationNanos.forEach((k, v) -> retVal.put(k, v.sum()));
+		return retVal;
+	}
+
+	/**
+	 * Resets all metrics collected by this service
+	 *
+	 * @see #setCollectHookMetrics(boolean)
+	 * @since 7.8.0
+	 */
+	public void clearHookMetrics() {
+		for (int i = 0; i < myHookInvocationCounts.length(); i++) {
+			myHookInvocationCounts.set(i, 0);
+		}
+		myInterceptorInvocationNanos.clear();
+	}
+
+	private void recordHookInvocation(IPointcut thePointcut, IInvoker theInvoker, long theNanos) {
+		if (myPointcutType.isInstance(thePointcut)) {
+			myHookInvocationCounts.incrementAndGet(myPointcutType.cast(thePointcut).ordinal());
+		}
+		myInterceptorInvocationNanos
+				.computeIfAbsent(theInvoker.getInterceptor().getClass().getName(), t -> new LongAdder())
+				.add(theNanos);
+	}
+
 	@VisibleForTesting
 	List<Object> getGlobalInterceptorsForUnitTest() {
 		return myInterceptors;
@@ -126,13 +256,14 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	protected void registerAnonymousInterceptor(POINTCUT thePointcut, Object theInterceptor, BaseInvoker theInvoker) {
 		Validate.notNull(thePointcut, "thePointcut must not be null");
 		Validate.notNull(theInterceptor, "theInterceptor must not be null");
+		theInvoker.myService = this;
 		synchronized (myRegistryMutex) {
 			myAnonymousInvokers.put(thePointcut, theInvoker);
 			if (!isInterceptorAlreadyRegistered(theInterceptor)) {
 				myInterceptors.add(theInterceptor);
 			}
 
-			rebuildRegisteredPointcutSet();
+			rebuildInvokerSnapshot();
 		}
 	}
 
@@ -193,7 +324,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 				}
 			}
 
-			rebuildRegisteredPointcutSet();
+			rebuildInvokerSnapshot();
 		}
 	}
 
@@ -218,17 +349,26 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 			myInterceptors.add(theInterceptor);
 			sortByOrderAnnotation(myInterceptors);
 
-			rebuildRegisteredPointcutSet();
+			rebuildInvokerSnapshot();
 
 			return true;
 		}
 	}
 
-	private void rebuildRegisteredPointcutSet() {
-		EnumSet<POINTCUT> registeredPointcuts = EnumSet.noneOf(myPointcutType);
-		registeredPointcuts.addAll(myAnonymousInvokers.keySet());
-		registeredPointcuts.addAll(myGlobalInvokers.keySet());
-		myRegisteredPointcuts = registeredPointcuts;
+	/**
+	 * Must be called (while holding {@link #myRegistryMutex}) any time the registry is modified
+	 */
+	@SuppressWarnings("unchecked")
+	private void rebuildInvokerSnapshot() {
+		POINTCUT[] pointcuts = myPointcutType.getEnumConstants();
+		List<IInvoker>[] invokersByPointcut = new List[pointcuts.length];
+		for (POINTCUT next : pointcuts) {
+			List<IInvoker> globalInvokers = myGlobalInvokers.get(next);
+			List<IInvoker> anonymousInvokers = myAnonymousInvokers.get(next);
+			List<IInvoker> invokers = union(Arrays.asList(globalInvokers, anonymousInvokers));
+			invokersByPointcut[next.ordinal()] = invokers.isEmpty() ? Collections.emptyList() : List.copyOf(invokers);
+		}
+		myInvokersByPointcut = invokersByPointcut;
 	}
 
 	private boolean isInterceptorAlreadyRegistered(Object theInterceptor) {
@@ -246,7 +386,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 			boolean removed = myInterceptors.removeIf(t -> t == theInterceptor);
 			removed |= myGlobalInvokers.entries().removeIf(t -> t.getValue().getInterceptor() == theInterceptor);
 			removed |= myAnonymousInvokers.entries().removeIf(t -> t.getValue().getInterceptor() == theInterceptor);
-			rebuildRegisteredPointcutSet();
+			rebuildInvokerSnapshot();
 			return removed;
 		}
 	}
@@ -276,7 +416,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 
 	@Override
 	public boolean hasHooks(POINTCUT thePointcut) {
-		return myRegisteredPointcuts.contains(thePointcut);
+		return !myInvokersByPointcut[thePointcut.ordinal()].isEmpty();
 	}
 
 	protected Class<?> getBooleanReturnType() {
@@ -294,7 +434,10 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	}
 
 	private Object doCallHooks(POINTCUT thePointcut, HookParams theParams) {
-		List<IInvoker> invokers = getInvokersForPointcut(thePointcut);
+		List<IInvoker> invokers = myInvokersByPointcut[thePointcut.ordinal()];
+		if (invokers.isEmpty()) {
+			return null;
+		}
 		return callInvokers(thePointcut, theParams, invokers);
 	}
 
@@ -314,15 +457,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	 */
 	@Override
 	public List<IInvoker> getInvokersForPointcut(POINTCUT thePointcut) {
-		List<IInvoker> invokers;
-
-		synchronized (myRegistryMutex) {
-			List<IInvoker> globalInvokers = myGlobalInvokers.get(thePointcut);
-			List<IInvoker> anonymousInvokers = myAnonymousInvokers.get(thePointcut);
-			invokers = union(Arrays.asList(globalInvokers, anonymousInvokers));
-		}
-
-		return invokers;
+		return new ArrayList<>(myInvokersByPointcut[thePointcut.ordinal()]);
 	}
 
 	/**
@@ -411,7 +546,8 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 					methodOrder = methodOrderAnnotation;
 				}
 
-				retVal.add(new HookInvoker(hook.get(), theInterceptor, nextMethod, methodOrder));
+				retVal.add(new HookInvoker(
+						hook.get(), theInterceptor, nextMethod, methodOrder, myUseMethodHandleInvokers));
 			}
 		}
 
@@ -420,6 +556,12 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 
 	protected abstract Optional<HookDescriptor> scanForHook(Method nextMethod);
 
+	/**
+	 * Invokes the given hooks in order. If a hook was registered with a service which has
+	 * {@link #setCollectHookMetrics(boolean) metrics collection} enabled, the invocation is
+	 * recorded against that service, so hooks called through a composite broadcaster are
+	 * counted too.
+	 */
 	public static Object callInvokers(IPointcut thePointcut, HookParams theParams, List<IInvoker> invokers) {
 
 		Object retVal = null;
@@ -428,7 +570,18 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 		 * Call each hook in order
 		 */
 		for (IInvoker nextInvoker : invokers) {
-			Object nextOutcome = nextInvoker.invoke(theParams);
+			Object nextOutcome;
+			BaseInterceptorService<?> metricsService = getMetricsService(nextInvoker);
+			if (metricsService != null) {
+				long start = System.nanoTime();
+				try {
+					nextOutcome = nextInvoker.invoke(theParams);
+				} finally {
+					metricsService.recordHookInvocation(thePointcut, nextInvoker, System.nanoTime() - start);
+				}
+			} else {
+				nextOutcome = nextInvoker.invoke(theParams);
+			}
 			Class<?> pointcutReturnType = thePointcut.getReturnType();
 			if (pointcutReturnType.equals(thePointcut.getBooleanReturnTypeForEnum())) {
 				Boolean nextOutcomeAsBoolean = (Boolean) nextOutcome;
@@ -450,6 +603,17 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 		return retVal;
 	}
 
+	@Nullable
+	private static BaseInterceptorService<?> getMetricsService(IInvoker theInvoker) {
+		if (theInvoker instanceof BaseInvoker) {
+			BaseInterceptorService<?> service = ((BaseInvoker) theInvoker).myService;
+			if (service != null && service.myCollectHookMetrics) {
+				return service;
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * First argument must be the global invoker list!!
 	 */
@@ -527,14 +691,21 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 		private final Method myMethod;
 		private final Class<?>[] myParameterTypes;
 		private final int[] myParameterIndexes;
+		private final boolean[] myParameterIsPointcut;
 		private final POINTCUT myPointcut;
+		private final MethodHandle myMethodHandle;
 
 		/**
 		 * Constructor
 		 */
 		private HookInvoker(
-				HookDescriptor theHook, @Nonnull Object theInterceptor, @Nonnull Method theHookMethod, int theOrder) {
+				HookDescriptor theHook,
+				@Nonnull Object theInterceptor,
+				@Nonnull Method theHookMethod,
+				int theOrder,
+				boolean theUseMethodHandle) {
 			super(theInterceptor, theOrder);
+			myService = BaseInterceptorService.this;
 			myPointcut = theHook.getPointcut();
 			myParameterTypes = theHookMethod.getParameterTypes();
 			myMethod = theHookMethod;
@@ -557,13 +728,43 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 			}
 
 			myParameterIndexes = new int[myParameterTypes.length];
+			myParameterIsPointcut = new boolean[myParameterTypes.length];
 			Map<Class<?>, AtomicInteger> typeToCount = new HashMap<>();
 			for (int i = 0; i < myParameterTypes.length; i++) {
 				AtomicInteger counter = typeToCount.computeIfAbsent(myParameterTypes[i], t -> new AtomicInteger(0));
 				myParameterIndexes[i] = counter.getAndIncrement();
+				myParameterIsPointcut[i] = myParameterTypes[i].equals(Pointcut.class);
 			}
 
 			myMethod.setAccessible(true);
+
+			myMethodHandle = theUseMethodHandle ? createMethodHandle() : null;
+		}
+
+		/**
+		 * Creates a method handle which is bound to the interceptor instance, and which
+		 * accepts and returns {@link Object} values only so that it can be invoked using
+		 * {@link MethodHandle#invokeExact(Object...)} without any boxing or casting at
+		 * the call site. If the handle can't be created, we fall back to reflection.
+		 */
+		@Nullable
+		private MethodHandle createMethodHandle() {
+			try {
+				MethodHandle retVal = MethodHandles.lookup().unreflect(myMethod).bindTo(getInterceptor());
+				int arity = myParameterTypes.length;
+				if (arity <= MAX_DIRECT_METHOD_HANDLE_ARITY) {
+					retVal = retVal.asType(MethodType.genericMethodType(arity));
+				} else {
+					retVal = retVal.asType(MethodType.genericMethodType(arity)).asSpreader(Object[].class, arity);
+				}
+				return retVal;
+			} catch (IllegalAccessException | RuntimeException e) {
+				ourLog.warn(
+						"Unable to create method handle for hook method {}, falling back to reflection: {}",
+						myMethod,
+						e.toString());
+				return null;
+			}
 		}
 
 		@Override
@@ -582,43 +783,102 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 		 */
 		@Override
 		public Object invoke(HookParams theParams) {
+			if (myMethodHandle != null) {
+				try {
+					return invokeMethodHandle(theParams);
+				} catch (Throwable e) {
+					return handleHookException(e);
+				}
+			}
 
 			Object[] args = new Object[myParameterTypes.length];
 			for (int i = 0; i < myParameterTypes.length; i++) {
-				Class<?> nextParamType = myParameterTypes[i];
-				if (nextParamType.equals(Pointcut.class)) {
-					args[i] = myPointcut;
-				} else {
-					int nextParamIndex = myParameterIndexes[i];
-					Object nextParamValue = theParams.get(nextParamType, nextParamIndex);
-					args[i] = nextParamValue;
-				}
+				args[i] = getArgument(theParams, i);
 			}
 
 			// Invoke the method
 			try {
 				return invokeMethod(args);
 			} catch (InvocationTargetException e) {
-				Throwable targetException = e.getTargetException();
-				if (myPointcut.isShouldLogAndSwallowException(targetException)) {
-					ourLog.error("Exception thrown by interceptor: " + targetException.toString(), targetException);
-					return null;
-				}
-
-				if (targetException instanceof RuntimeException) {
-					throw ((RuntimeException) targetException);
-				} else {
-					throw new InternalErrorException(
-							Msg.code(1910) + "Failure invoking interceptor for pointcut(s) " + getPointcut(),
-							targetException);
-				}
+				return handleHookException(e.getTargetException());
 			} catch (Exception e) {
 				throw new InternalErrorException(Msg.code(1911) + e);
 			}
 		}
 
+		private Object getArgument(HookParams theParams, int theIndex) {
+			if (myParameterIsPointcut[theIndex]) {
+				return myPointcut;
+			}
+			return theParams.get(myParameterTypes[theIndex], myParameterIndexes[theIndex]);
+		}
+
+		private Object handleHookException(Throwable theTargetException) {
+			if (myPointcut.isShouldLogAndSwallowException(theTargetException)) {
+				ourLog.error("Exception thrown by interceptor: " + theTargetException.toString(), theTargetException);
+				return null;
+			}
+
+			if (theTargetException instanceof RuntimeException) {
+				throw ((RuntimeException) theTargetException);
+			} else {
+				throw new InternalErrorException(
+						Msg.code(1910) + "Failure invoking interceptor for pointcut(s) " + getPointcut(),
+						theTargetException);
+			}
+		}
+
 		@WithSpan("hapifhir.interceptor")
 		private Object invokeMethod(Object[] args) throws InvocationTargetException, IllegalAccessException {
+			addSpanAttributes();
+			return myMethod.invoke(getInterceptor(), args);
+		}
+
+		@WithSpan("hapifhir.interceptor")
+		private Object invokeMethodHandle(HookParams theParams) throws Throwable {
+			addSpanAttributes();
+
+			switch (myParameterTypes.length) {
+				case 0:
+					return (Object) myMethodHandle.invokeExact();
+				case 1:
+					return (Object) myMethodHandle.invokeExact(getArgument(theParams, 0));
+				case 2:
+					return (Object) myMethodHandle.invokeExact(getArgument(theParams, 0), getArgument(theParams, 1));
+				case 3:
+					return (Object) myMethodHandle.invokeExact(
+							getArgument(theParams, 0), getArgument(theParams, 1), getArgument(theParams, 2));
+				case 4:
+					return (Object) myMethodHandle.invokeExact(
+							getArgument(theParams, 0),
+							getArgument(theParams, 1),
+							getArgument(theParams, 2),
+							getArgument(theParams, 3));
+				case 5:
+					return (Object) myMethodHandle.invokeExact(
+							getArgument(theParams, 0),
+							getArgument(theParams, 1),
+							getArgument(theParams, 2),
+							getArgument(theParams, 3),
+							getArgument(theParams, 4));
+				case 6:
+					return (Object) myMethodHandle.invokeExact(
+							getArgument(theParams, 0),
+							getArgument(theParams, 1),
+							getArgument(theParams, 2),
+							getArgument(theParams, 3),
+							getArgument(theParams, 4),
+							getArgument(theParams, 5));
+				default:
+					Object[] args = new Object[myParameterTypes.length];
+					for (int i = 0; i < myParameterTypes.length; i++) {
+						args[i] = getArgument(theParams, i);
+					}
+					return (Object) myMethodHandle.invokeExact(args);
+			}
+		}
+
+		private void addSpanAttributes() {
 			// Add attributes to the opentelemetry span
 			Span currentSpan = Span.current();
 			currentSpan.setAttribute(OTEL_INTERCEPTOR_POINTCUT_NAME_ATT_KEY, myPointcut.name());
@@ -626,8 +886,6 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 					OTEL_INTERCEPTOR_CLASS_NAME_ATT_KEY,
 					myMethod.getDeclaringClass().getName());
 			currentSpan.setAttribute(OTEL_INTERCEPTOR_METHOD_NAME_ATT_KEY, myMethod.getName());
-
-			return myMethod.invoke(getInterceptor(), args);
 		}
 	}
 
@@ -654,6 +912,10 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 
 		private final int myOrder;
 		private final Object myInterceptor;
+		/**
+		 * The service this invoker is registered with, used for collecting hook metrics
+		 */
+		BaseInterceptorService<?> myService;
 
 		BaseInvoker(Object theInterceptor, int theOrder) {
 			myInterceptor = theInterceptor;
@@ -82,6 +82,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -562,7 +563,7 @@ public abstract class BaseParser implements IParser {
 		return myOmitResourceId;
 	}
 
-	private boolean isOverrideResourceIdWithBundleEntryFullUrl() {
+	protected boolean isOverrideResourceIdWithBundleEntryFullUrl() {
 		Boolean overrideResourceIdWithBundleEntryFullUrl = myOverrideResourceIdWithBundleEntryFullUrl;
 		if (overrideResourceIdWithBundleEntryFullUrl != null) {
 			return overrideResourceIdWithBundleEntryFullUrl;
@@ -653,41 +654,9 @@ public abstract class BaseParser implements IParser {
 			if (isOverrideResourceIdWithBundleEntryFullUrl()) {
 				BundleUtil.processEntries(myContext, (IBaseBundle) retVal, t -> {
 					String fullUrl = t.getFullUrl();
-					if (fullUrl != null) {
-						IBaseResource resource = t.getResource();
-						if (resource != null) {
-							IIdType resourceId = resource.getIdElement();
-							if (isBlank(resourceId.getValue())) {
-								resourceId.setValue(fullUrl);
-							} else {
-								if (fullUrl.startsWith("urn:")
-										&& fullUrl.length()
-												> resourceId.getIdPart().length()
-										&& fullUrl.charAt(fullUrl.length()
-														- resourceId.getIdPart().length()
-														- 1)
-												== ':'
-										&& fullUrl.endsWith(resourceId.getIdPart())) {
-									resourceId.setValue(fullUrl);
-								} else {
-									IIdType fullUrlId = myContext.getVersion().newIdType();
-									fullUrlId.setValue(fullUrl);
-									if (myContext.getVersion().getVersion().isOlderThan(FhirVersionEnum.DSTU3)) {
-										IIdType newId = fullUrlId;
-										if (!newId.hasVersionIdPart() && resourceId.hasVersionIdPart()) {
-											newId = newId.withVersion(resourceId.getVersionIdPart());
-										}
-										resourceId.setValue(newId.getValue());
-									} else if (StringUtils.equals(fullUrlId.getIdPart(), resourceId.getIdPart())) {
-										if (fullUrlId.hasBaseUrl()) {
-											IIdType newResourceId = resourceId.withServerBase(
-													fullUrlId.getBaseUrl(), resourceId.getResourceType());
-											resourceId.setValue(newResourceId.getValue());
-										}
-									}
-								}
-							}
-						}
+					IBaseResource resource = t.getResource();
+					if (fullUrl != null && resource != null) {
+						overrideResourceIdWithBundleEntryFullUrl(resource, fullUrl);
 					}
 				});
 			}
@@ -696,6 +665,60 @@ public abstract class BaseParser implements IParser {
 		return retVal;
 	}
 
+	/**
+	 * Updates the ID of a resource found in a Bundle entry to reflect the entry's <code>fullUrl</code>
+	 *
+	 * @see #isOverrideResourceIdWithBundleEntryFullUrl()
+	 */
+	protected void overrideResourceIdWithBundleEntryFullUrl(IBaseResource theResource, String theFullUrl) {
+		IIdType resourceId = theResource.getIdElement();
+		if (isBlank(resourceId.getValue())) {
+			resourceId.setValue(theFullUrl);
+		} else {
+			if (theFullUrl.startsWith("urn:")
+					&& theFullUrl.length() > resourceId.getIdPart().length()
+					&& theFullUrl.charAt(theFullUrl.length() - resourceId.getIdPart().length() - 1) == ':'
+					&& theFullUrl.endsWith(resourceId.getIdPart())) {
+				resourceId.setValue(theFullUrl);
+			} else {
+				IIdType fullUrlId = myContext.getVersion().newIdType();
+				fullUrlId.setValue(theFullUrl);
+				if (myContext.getVersion().getVersion().isOlderThan(FhirVersionEnum.DSTU3)) {
+					IIdType newId = fullUrlId;
+					if (!newId.hasVersionIdPart() && resourceId.hasVersionIdPart()) {
+						newId = newId.withVersion(resourceId.getVersionIdPart());
+					}
+					resourceId.setValue(newId.getValue());
+				} else if (StringUtils.equals(fullUrlId.getIdPart(), resourceId.getIdPart())) {
+					if (fullUrlId.hasBaseUrl()) {
+						IIdType newResourceId =
+								resourceId.withServerBase(fullUrlId.getBaseUrl(), resourceId.getResourceType());
+						resourceId.setValue(newResourceId.getValue());
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * This implementation parses the complete Bundle and then passes each entry resource to
+	 * the consumer. Subclasses which are able to parse entries incrementally should override it.
+	 */
+	@Override
+	public void parseBundleEntries(Reader theReader, Consumer<IBaseResource> theConsumer)
+			throws DataFormatException {
+		IBaseResource bundle = parseResource(theReader);
+		if (!(bundle instanceof IBaseBundle)) {
+			throw new DataFormatException(
+					Msg.code(2596) + "Expected a Bundle but found resource of type: " + myContext.getResourceType(bundle));
+		}
+		BundleUtil.processEntries(myContext, (IBaseBundle) bundle, t -> {
+			if (t.getResource() != null) {
+				theConsumer.accept(t.getResource());
+			}
+		});
+	}
+
 	@SuppressWarnings("cast")
 	@Override
 	public <T extends IBaseResource> T parseResource(Class<T> theResourceType, String theMessageString) {
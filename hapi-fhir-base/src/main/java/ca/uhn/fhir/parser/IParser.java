@@ -39,6 +39,7 @@ import java.io.Writer;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * A parser, which can be used to convert between HAPI FHIR model/structure objects, and their respective String wire
@@ -296,6 +297,24 @@ public interface IParser {
 	 */
 	IBaseResource parseResource(String theMessageString) throws ConfigurationException, DataFormatException;
 
+	/**
+	 * Parses a Bundle incrementally, passing each resource found in <code>Bundle.entry.resource</code>
+	 * to the given consumer as soon as it has been parsed. Entries are not retained by the parser, so
+	 * this can be used to process very large Bundles with a bounded working set. Other elements of
+	 * the Bundle (including entries with no resource) are ignored.
+	 * <p>
+	 * If {@link #setOverrideResourceIdWithBundleEntryFullUrl(Boolean)} is enabled, the
+	 * ID of each resource will be updated to reflect <code>Bundle.entry.fullUrl</code>
+	 * exactly as it would be by {@link #parseResource(Class, Reader)}.
+	 * </p>
+	 *
+	 * @param theReader   The reader to parse input from. Note that the Reader will not be closed by the parser upon completion.
+	 * @param theConsumer Receives each entry resource in the order it appears in the Bundle
+	 * @throws DataFormatException If the content can not be parsed or is not a Bundle
+	 * @since 7.8.0
+	 */
+	void parseBundleEntries(Reader theReader, Consumer<IBaseResource> theConsumer) throws DataFormatException;
+
 	/**
 	 * If provided, specifies the elements which should NOT be encoded. Valid values for this
 	 * field would include:
@@ -80,6 +80,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import static ca.uhn.fhir.context.BaseRuntimeElementDefinition.ChildTypeEnum.ID_DATATYPE;
 import static ca.uhn.fhir.context.BaseRuntimeElementDefinition.ChildTypeEnum.PRIMITIVE_DATATYPE;
@@ -237,6 +238,10 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 
 	@Override
 	public <T extends IBaseResource> T doParseResource(Class<T> theResourceType, Reader theReader) {
+		if (getContext().getParserOptions().isStreamingJsonParsing()) {
+			return doParseResourceStreaming(theResourceType, theReader);
+		}
+
 		JsonLikeStructure jsonStructure = new JacksonStructure();
 		jsonStructure.load(theReader);
 
@@ -248,25 +253,131 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 	public <T extends IBaseResource> T doParseResource(Class<T> theResourceType, JsonLikeStructure theJsonStructure) {
 		BaseJsonLikeObject object = theJsonStructure.getRootObject();
 
-		BaseJsonLikeValue resourceTypeObj = object.get("resourceType");
+		ParserState<? extends IBaseResource> state = newResourceParserState(theResourceType, getResourceType(object));
+
+		return finishParsingResource(object, state);
+	}
+
+	/**
+	 * Parses a resource without building a tree for the whole document first. Arrays of
+	 * complex elements within the root resource (e.g. <code>Bundle.entry</code>) are fed
+	 * into the parser state one element at a time as they are read, and the remaining
+	 * (generally small) root level elements are parsed at the end.
+	 *
+	 * @see ca.uhn.fhir.context.ParserOptions#setStreamingJsonParsing(boolean)
+	 */
+	private <T extends IBaseResource> T doParseResourceStreaming(Class<T> theResourceType, Reader theReader) {
+		List<ParserState<? extends IBaseResource>> stateHolder = new ArrayList<>(1);
+
+		JacksonStructure jsonStructure = new JacksonStructure();
+		jsonStructure.loadStreaming(theReader, (theRootResourceType, theName, theValue) -> {
+			if (stateHolder.isEmpty()) {
+				stateHolder.add(newResourceParserState(theResourceType, theRootResourceType));
+			}
+			parseChildren(stateHolder.get(0), theName, theValue, null, '_' + theName, true);
+		});
+
+		BaseJsonLikeObject object = jsonStructure.getRootObject();
+		ParserState<? extends IBaseResource> state;
+		if (stateHolder.isEmpty()) {
+			state = newResourceParserState(theResourceType, getResourceType(object));
+		} else {
+			state = stateHolder.get(0);
+		}
+
+		return finishParsingResource(object, state);
+	}
+
+	/**
+	 * Streams the Bundle using {@link JacksonStructure#loadStreaming(Reader, ca.uhn.fhir.parser.json.IJsonLikeStreamHandler)}
+	 * so that each entry is parsed and handed to the consumer as soon as it has been read
+	 */
+	@Override
+	public void parseBundleEntries(Reader theReader, Consumer<IBaseResource> theConsumer) throws DataFormatException {
+		JacksonStructure jsonStructure = new JacksonStructure();
+		jsonStructure.loadStreaming(theReader, (theRootResourceType, theName, theValue) -> {
+			validateIsBundle(theRootResourceType);
+			if ("entry".equals(theName)) {
+				parseBundleEntry(theValue, theConsumer);
+			}
+		});
+
+		// Entries will not have been streamed if they appeared before the resourceType
+		BaseJsonLikeObject object = jsonStructure.getRootObject();
+		validateIsBundle(getResourceType(object));
+		BaseJsonLikeArray entries = grabJsonArray(object, "entry", "entry");
+		if (entries != null) {
+			for (int i = 0; i < entries.size(); i++) {
+				parseBundleEntry(entries.get(i), theConsumer);
+			}
+		}
+	}
+
+	private void validateIsBundle(String theResourceType) {
+		if (!"Bundle".equals(theResourceType)) {
+			throw new DataFormatException(
+					Msg.code(2600) + "Expected a Bundle but found resource of type: " + theResourceType);
+		}
+	}
+
+	private void parseBundleEntry(BaseJsonLikeValue theEntry, Consumer<IBaseResource> theConsumer) {
+		if (!theEntry.isObject()) {
+			getErrorHandler().incorrectJsonType(null, "entry", ValueType.OBJECT, null, theEntry.getJsonType(), null);
+			return;
+		}
+
+		BaseJsonLikeObject entry = theEntry.getAsObject();
+		BaseJsonLikeValue resourceVal = entry.get("resource");
+		if (resourceVal == null || resourceVal.isNull()) {
+			return;
+		}
+		if (!resourceVal.isObject()) {
+			getErrorHandler()
+					.incorrectJsonType(null, "resource", ValueType.OBJECT, null, resourceVal.getJsonType(), null);
+			return;
+		}
+
+		BaseJsonLikeObject resourceObject = resourceVal.getAsObject();
+		ParserState<IBaseResource> state = newResourceParserState(null, getResourceType(resourceObject));
+		IBaseResource resource = finishParsingResource(resourceObject, state);
+
+		BaseJsonLikeValue fullUrl = entry.get("fullUrl");
+		if (fullUrl != null
+				&& fullUrl.isString()
+				&& isNotBlank(fullUrl.getAsString())
+				&& isOverrideResourceIdWithBundleEntryFullUrl()) {
+			overrideResourceIdWithBundleEntryFullUrl(resource, fullUrl.getAsString());
+		}
+
+		theConsumer.accept(resource);
+	}
+
+	private static String getResourceType(BaseJsonLikeObject theObject) {
+		BaseJsonLikeValue resourceTypeObj = theObject.get("resourceType");
 		if (resourceTypeObj == null || !resourceTypeObj.isString() || isBlank(resourceTypeObj.getAsString())) {
 			throw new DataFormatException(
 					Msg.code(1838) + "Invalid JSON content detected, missing required element: 'resourceType'");
 		}
+		return resourceTypeObj.getAsString();
+	}
 
-		String resourceType = resourceTypeObj.getAsString();
-
-		ParserState<? extends IBaseResource> state =
+	private <T extends IBaseResource> ParserState<T> newResourceParserState(
+			Class<T> theResourceType, String theResourceTypeName) {
+		ParserState<T> state =
 				ParserState.getPreResourceInstance(this, theResourceType, getContext(), true, getErrorHandler());
-		state.enteringNewElement(null, resourceType);
+		state.enteringNewElement(null, theResourceTypeName);
+		return state;
+	}
 
-		parseChildren(object, state);
+	private <T extends IBaseResource> T finishParsingResource(
+			BaseJsonLikeObject theObject, ParserState<? extends IBaseResource> theState) {
+		parseChildren(theObject, theState);
 
-		state.endingElement();
-		state.endingElement();
+		theState.endingElement();
+		theState.endingElement();
 
 		@SuppressWarnings("unchecked")
-		T retVal = (T) state.getObject();
+		T retVal = (T) theState.getObject();
 
 		return retVal;
 	}
@@ -45,6 +45,7 @@ import ca.uhn.fhir.util.ElementUtil;
 import ca.uhn.fhir.util.NonPrettyPrintWriterWrapper;
 import ca.uhn.fhir.util.PrettyPrintWriterWrapper;
 import ca.uhn.fhir.util.XmlUtil;
+import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.StringUtils;
 import org.hl7.fhir.instance.model.api.IAnyResource;
 import org.hl7.fhir.instance.model.api.IBase;
@@ -64,9 +65,12 @@ import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.function.Consumer;
 import javax.xml.namespace.QName;
 import javax.xml.stream.FactoryConfigurationError;
+import javax.xml.stream.XMLEventFactory;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
@@ -78,6 +82,7 @@ import javax.xml.stream.events.EntityReference;
 import javax.xml.stream.events.Namespace;
 import javax.xml.stream.events.StartElement;
 import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.util.EventReaderDelegate;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
@@ -171,6 +176,77 @@ public class XmlParser extends BaseParser {
 		return parseResource(theResourceType, streamReader);
 	}
 
+	/**
+	 * Walks the Bundle using the StAX event stream, and parses each <code>Bundle.entry.resource</code>
+	 * into a standalone resource as soon as its content has been read.
+	 */
+	@Override
+	public void parseBundleEntries(Reader theReader, Consumer<IBaseResource> theConsumer) throws DataFormatException {
+		XMLEventReader streamReader = createStreamReader(theReader);
+		try {
+			int depth = 0;
+			boolean inEntry = false;
+			String fullUrl = null;
+			IBaseResource resource = null;
+
+			while (streamReader.hasNext()) {
+				XMLEvent nextEvent = streamReader.nextEvent();
+				if (nextEvent.isStartElement()) {
+					depth++;
+					StartElement elem = nextEvent.asStartElement();
+					String localPart = elem.getName().getLocalPart();
+					if (depth == 1) {
+						if (!"Bundle".equals(localPart)) {
+							throw new DataFormatException(
+									Msg.code(2597) + "Expected a Bundle but found resource of type: " + localPart);
+						}
+					} else if (depth == 2) {
+						inEntry = "entry".equals(localPart);
+						fullUrl = null;
+						resource = null;
+					} else if (depth == 3 && inEntry && "fullUrl".equals(localPart)) {
+						Attribute valueAttr = elem.getAttributeByName(new QName("value"));
+						fullUrl = valueAttr != null ? valueAttr.getValue() : null;
+					} else if (depth == 3 && inEntry && "resource".equals(localPart)) {
+						resource = parseNestedResource(streamReader);
+					}
+				} else if (nextEvent.isEndElement()) {
+					if (depth == 2 && inEntry && resource != null) {
+						if (isNotBlank(fullUrl) && isOverrideResourceIdWithBundleEntryFullUrl()) {
+							overrideResourceIdWithBundleEntryFullUrl(resource, fullUrl);
+						}
+						theConsumer.accept(resource);
+						resource = null;
+					}
+					depth--;
+				}
+			}
+		} catch (XMLStreamException e) {
+			throw new DataFormatException(Msg.code(2598) + e);
+		}
+	}
+
+	/**
+	 * Called with the reader positioned just after the start of a <code>resource</code> element.
+	 * Parses the contained resource and leaves the reader positioned before the end of the
+	 * <code>resource</code> element.
+	 *
+	 * @return Returns the parsed resource, or <code>null</code> if the element was empty
+	 */
+	@Nullable
+	private IBaseResource parseNestedResource(XMLEventReader theStreamReader) throws XMLStreamException {
+		while (theStreamReader.hasNext() && !theStreamReader.peek().isStartElement()) {
+			if (theStreamReader.peek().isEndElement()) {
+				return null;
+			}
+			theStreamReader.nextEvent();
+		}
+		if (!theStreamReader.hasNext()) {
+			return null;
+		}
+		return parseResource(null, new SingleElementEventReader(theStreamReader));
+	}
+
 	private <T> T doXmlLoop(XMLEventReader streamReader, ParserState<T> parserState) {
 		ourLog.trace("Entering XML parsing loop with state: {}", parserState);
 
@@ -993,6 +1069,52 @@ public class XmlParser extends BaseParser {
 		return EncodingEnum.XML;
 	}
 
+	/**
+	 * Exposes a single element (including its children) from an underlying reader, followed by an
+	 * end-of-document event, so that it can be parsed as though it were a complete document.
+	 */
+	private static class SingleElementEventReader extends EventReaderDelegate {
+
+		private static final XMLEvent END_DOCUMENT = XMLEventFactory.newInstance().createEndDocument();
+		private int myDepth;
+		private boolean myElementFinished;
+		private boolean myEndDocumentReturned;
+
+		SingleElementEventReader(XMLEventReader theDelegate) {
+			super(theDelegate);
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (myElementFinished) {
+				return !myEndDocumentReturned;
+			}
+			return super.hasNext();
+		}
+
+		@Override
+		public XMLEvent nextEvent() throws XMLStreamException {
+			if (myElementFinished) {
+				if (myEndDocumentReturned) {
+					throw new NoSuchElementException(Msg.code(2599) + "No more events");
+				}
+				myEndDocumentReturned = true;
+				return END_DOCUMENT;
+			}
+
+			XMLEvent retVal = super.nextEvent();
+			if (retVal.isStartElement()) {
+				myDepth++;
+			} else if (retVal.isEndElement()) {
+				myDepth--;
+				if (myDepth == 0) {
+					myElementFinished = true;
+				}
+			}
+			return retVal;
+		}
+	}
+
 	private <T extends IBaseResource> T parseResource(Class<T> theResourceType, XMLEventReader theStreamReader) {
 		ParserState<T> parserState =
 				ParserState.getPreResourceInstance(this, theResourceType, getContext(), false, getErrorHandler());
@@ -0,0 +1,41 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.parser.json;
+
+/**
+ * Receives the elements of arrays which are found directly within the root
+ * object of a JSON document, as they are read. This allows large arrays
+ * (e.g. <code>Bundle.entry</code>) to be processed one element at a time
+ * instead of holding a tree for the whole document in memory.
+ *
+ * @since 7.8.0
+ */
+@FunctionalInterface
+public interface IJsonLikeStreamHandler {
+
+	/**
+	 * Called once for each element of a streamed array
+	 *
+	 * @param theRootResourceType The value of the root object's <code>resourceType</code> property
+	 * @param theName             The name of the property containing the array
+	 * @param theValue            The array element
+	 */
+	void handleRootArrayElement(String theRootResourceType, String theName, BaseJsonLikeValue theValue);
+}
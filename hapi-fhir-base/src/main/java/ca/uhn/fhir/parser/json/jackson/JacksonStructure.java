@@ -25,15 +25,18 @@ import ca.uhn.fhir.parser.json.BaseJsonLikeArray;
 import ca.uhn.fhir.parser.json.BaseJsonLikeObject;
 import ca.uhn.fhir.parser.json.BaseJsonLikeValue;
 import ca.uhn.fhir.parser.json.BaseJsonLikeWriter;
+import ca.uhn.fhir.parser.json.IJsonLikeStreamHandler;
 import ca.uhn.fhir.parser.json.JsonLikeStructure;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.StreamReadConstraints;
 import com.fasterxml.jackson.core.json.JsonReadFeature;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.DecimalNode;
@@ -54,6 +57,8 @@ import java.util.Map;
 public class JacksonStructure implements JsonLikeStructure {
 
 	private static final ObjectMapper OBJECT_MAPPER = createObjectMapper();
+	private static final ObjectReader TREE_READER =
+			OBJECT_MAPPER.reader().without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
 	private JacksonWriter jacksonWriter;
 	private ROOT_TYPE rootType = null;
 	private JsonNode nativeRoot = null;
@@ -116,39 +121,131 @@ public class JacksonStructure implements JsonLikeStructure {
 				setNativeArray((ArrayNode) OBJECT_MAPPER.readTree(pbr));
 			}
 		} catch (Exception e) {
-			String message;
-			if (e instanceof JsonProcessingException) {
-				/*
-				 * Currently there is no way of preventing Jackson from adding this
-				 * annoying REDACTED message from certain messages we get back from
-				 * the parser, so we just manually strip them. Hopefully Jackson
-				 * will accept this request at some point:
-				 * https://github.com/FasterXML/jackson-core/issues/1158
-				 */
-				JsonProcessingException jpe = (JsonProcessingException) e;
-				StringBuilder messageBuilder = new StringBuilder();
-				String originalMessage = jpe.getOriginalMessage();
-				originalMessage = originalMessage.replace(
-						"Source: REDACTED (`StreamReadFeature.INCLUDE_SOURCE_IN_LOCATION` disabled); ", "");
-				messageBuilder.append(originalMessage);
-				if (jpe.getLocation() != null) {
-					messageBuilder.append("\n at [");
-					jpe.getLocation().appendOffsetDescription(messageBuilder);
-					messageBuilder.append("]");
+			throw toDataFormatException(e);
+		}
+	}
+
+	/**
+	 * Parse the JSON document from a token stream instead of building a tree for the
+	 * whole document. Arrays of objects found directly in the root object (e.g.
+	 * <code>Bundle.entry</code>) are passed to the given handler one element at a time
+	 * as they are read, and are not retained. Everything else is loaded into the root
+	 * object returned by {@link #getRootObject()}.
+	 * <p>
+	 * Elements are only streamed once the root <code>resourceType</code> has been read,
+	 * so arrays appearing before it are kept in the root object.
+	 * </p>
+	 *
+	 * @since 7.8.0
+	 */
+	public void loadStreaming(Reader theReader, IJsonLikeStreamHandler theHandler) throws DataFormatException {
+		try (JsonParser parser = OBJECT_MAPPER.createParser(theReader)) {
+			JsonToken token = parser.nextToken();
+			if (token == null) {
+				throw new DataFormatException(Msg.code(2619) + "Did not find any content to parse");
+			}
+			if (token != JsonToken.START_OBJECT) {
+				throw new DataFormatException(Msg.code(2594)
+						+ "Content does not appear to be FHIR JSON, first token was: " + token + " (must be '{')");
+			}
+
+			ObjectNode root = OBJECT_MAPPER.createObjectNode();
+			String resourceType = null;
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String name = parser.currentName();
+				JsonToken valueToken = parser.nextToken();
+				if (resourceType != null && valueToken == JsonToken.START_ARRAY && isStreamable(name)) {
+					streamArray(parser, root, resourceType, name, theHandler);
+					continue;
 				}
-				message = messageBuilder.toString();
-			} else {
-				message = e.getMessage();
+
+				JsonNode value = TREE_READER.readTree(parser);
+				if ("resourceType".equals(name) && value.isTextual() && !value.asText().isBlank()) {
+					resourceType = value.asText();
+				}
+				root.set(name, value);
 			}
 
-			if (message.startsWith("Unexpected char 39")) {
-				throw new DataFormatException(
-						Msg.code(1860) + "Failed to parse JSON encoded FHIR content: " + message + " - "
-								+ "This may indicate that single quotes are being used as JSON escapes where double quotes are required",
-						e);
+			if (parser.nextToken() != null) {
+				throw new DataFormatException(Msg.code(2595)
+						+ "Failed to parse JSON encoded FHIR content: Unexpected content after the end of the root object");
 			}
-			throw new DataFormatException(Msg.code(1861) + "Failed to parse JSON encoded FHIR content: " + message, e);
+
+			setNativeObject(root);
+		} catch (IOException e) {
+			throw toDataFormatException(e);
+		}
+	}
+
+	/**
+	 * Called with the parser positioned on a {@link JsonToken#START_ARRAY}. Arrays of objects are
+	 * streamed to the handler, and anything else (e.g. arrays of primitives, which may have
+	 * a corresponding <code>_name</code> array) is added to the root object.
+	 */
+	private void streamArray(
+			JsonParser theParser,
+			ObjectNode theRoot,
+			String theResourceType,
+			String theName,
+			IJsonLikeStreamHandler theHandler)
+			throws IOException {
+		JsonToken token = theParser.nextToken();
+		if (token != JsonToken.START_OBJECT) {
+			ArrayNode array = theRoot.putArray(theName);
+			while (token != JsonToken.END_ARRAY) {
+				array.add((JsonNode) TREE_READER.readTree(theParser));
+				token = theParser.nextToken();
+			}
+			return;
+		}
+
+		while (token != JsonToken.END_ARRAY) {
+			JsonNode element = TREE_READER.readTree(theParser);
+			theHandler.handleRootArrayElement(theResourceType, theName, new JacksonJsonValue(element));
+			token = theParser.nextToken();
+		}
+	}
+
+	private static boolean isStreamable(String theName) {
+		return theName.charAt(0) != '_'
+				&& !"extension".equals(theName)
+				&& !"modifierExtension".equals(theName)
+				&& !"fhir_comments".equals(theName);
+	}
+
+	private static DataFormatException toDataFormatException(Exception e) {
+		String message;
+		if (e instanceof JsonProcessingException) {
+			/*
+			 * Currently there is no way of preventing Jackson from adding this
+			 * annoying REDACTED message from certain messages we get back from
+			 * the parser, so we just manually strip them. Hopefully Jackson
+			 * will accept this request at some point:
+			 * https://github.com/FasterXML/jackson-core/issues/1158
+			 */
+			JsonProcessingException jpe = (JsonProcessingException) e;
+			StringBuilder messageBuilder = new StringBuilder();
+			String originalMessage = jpe.getOriginalMessage();
+			originalMessage = originalMessage.replace(
+					"Source: REDACTED (`StreamReadFeature.INCLUDE_SOURCE_IN_LOCATION` disabled); ", "");
+			messageBuilder.append(originalMessage);
+			if (jpe.getLocation() != null) {
+				messageBuilder.append("\n at [");
+				jpe.getLocation().appendOffsetDescription(messageBuilder);
+				messageBuilder.append("]");
+			}
+			message = messageBuilder.toString();
+		} else {
+			message = e.getMessage();
+		}
+
+		if (message.startsWith("Unexpected char 39")) {
+			return new DataFormatException(
+					Msg.code(1860) + "Failed to parse JSON encoded FHIR content: " + message + " - "
+							+ "This may indicate that single quotes are being used as JSON escapes where double quotes are required",
+					e);
 		}
+		return new DataFormatException(Msg.code(1861) + "Failed to parse JSON encoded FHIR content: " + message, e);
 	}
 
 	@Override
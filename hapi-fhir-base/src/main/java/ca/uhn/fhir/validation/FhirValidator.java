@@ -19,7 +19,11 @@
  */
 package ca.uhn.fhir.validation;
 
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.BaseRuntimeElementCompositeDefinition;
+import ca.uhn.fhir.context.BaseRuntimeElementDefinition;
 import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.RuntimeResourceDefinition;
 import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.interceptor.api.HookParams;
 import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
@@ -27,20 +31,28 @@ import ca.uhn.fhir.interceptor.api.Pointcut;
 import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import ca.uhn.fhir.util.BundleUtil;
 import ca.uhn.fhir.util.TerserUtil;
+import ca.uhn.fhir.util.bundle.BundleEntryParts;
 import ca.uhn.fhir.validation.schematron.SchematronProvider;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.instance.model.api.IBaseExtension;
+import org.hl7.fhir.instance.model.api.IBaseReference;
 import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IPrimitiveType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -62,6 +74,11 @@ public class FhirValidator {
 	private static final Logger ourLog = LoggerFactory.getLogger(FhirValidator.class);
 
 	private static final String I18N_KEY_NO_PH_ERROR = FhirValidator.class.getName() + ".noPhError";
+	private static final String I18N_KEY_UNRESOLVED_BUNDLE_REFERENCE =
+			FhirValidator.class.getName() + ".unresolvedBundleReference";
+
+	private static final Pattern BUNDLE_ENTRY_RESOURCE_LOCATION =
+			Pattern.compile("^Bundle\\.entry\\[[0-9]+]\\.resource([^a-zA-Z]|$)");
 
 	private static volatile Boolean ourPhPresentOnClasspath;
 	private final FhirContext myContext;
@@ -69,6 +86,7 @@ public class FhirValidator {
 	private IInterceptorBroadcaster myInterceptorBroadcaster;
 	private boolean myConcurrentBundleValidation;
 	private boolean mySkipContainedReferenceValidation;
+	private boolean myConcurrentBundleStructureValidation;
 
 	private ExecutorService myExecutorService;
 
@@ -303,10 +321,184 @@ public class FhirValidator {
 				})
 				.collect(Collectors.toList());
 
-		List<SingleValidationMessage> validationMessages = buildValidationMessages(validationTasks);
+		List<SingleValidationMessage> validationMessages = new ArrayList<>();
+		if (myConcurrentBundleStructureValidation) {
+			validationMessages.addAll(validateBundleStructure(
+					(IBaseBundle) theValidationContext.getResource(), theValidationContext, theOptions));
+		}
+		validationMessages.addAll(buildValidationMessages(validationTasks));
 		return new ValidationResult(myContext, validationMessages);
 	}
 
+	/**
+	 * Validates the Bundle itself (as opposed to the resources in its entries) on the calling
+	 * thread. This is done by validating a copy of the Bundle in which each entry resource has
+	 * been replaced by a placeholder of the same type, carrying only its ID, version and reference
+	 * elements, so that Bundle-level rules which span entries (e.g. fullUrl uniqueness, or every
+	 * document and message entry being reachable from the Composition or MessageHeader) are still
+	 * checked. Any messages about the content of those placeholder resources are discarded, since
+	 * the real resources are validated individually. Instead, <code>urn:</code> references between
+	 * entries, which can only be resolved within the Bundle, are resolved here.
+	 */
+	private List<SingleValidationMessage> validateBundleStructure(
+			IBaseBundle theBundle,
+			IValidationContext<IBaseResource> theValidationContext,
+			ValidationOptions theOptions) {
+		List<BundleEntryReference> references = new ArrayList<>();
+		IBaseBundle bundleWithoutEntryResources = createBundleWithoutEntryResources(theBundle, references);
+		IValidationContext<IBaseResource> bundleValidationContext = ValidationContext.forResource(
+				theValidationContext.getFhirContext(), bundleWithoutEntryResources, theOptions);
+		ValidationResult result = validateResource(bundleValidationContext);
+
+		List<SingleValidationMessage> retVal = result.getMessages().stream()
+				.filter(t -> !isLocatedInBundleEntryResource(t.getLocationString()))
+				.collect(Collectors.toList());
+		retVal.addAll(validateBundleReferences(theBundle, references));
+		return retVal;
+	}
+
+	/**
+	 * Reports every <code>urn:</code> reference in an entry resource which doesn't match the
+	 * fullUrl of any entry in the Bundle
+	 */
+	private List<SingleValidationMessage> validateBundleReferences(
+			IBaseBundle theBundle, List<BundleEntryReference> theReferences) {
+		Set<String> fullUrls = new HashSet<>();
+		for (BundleEntryParts next : BundleUtil.toListOfEntries(myContext, theBundle)) {
+			if (next.getFullUrl() != null) {
+				fullUrls.add(next.getFullUrl());
+			}
+		}
+
+		List<SingleValidationMessage> retVal = new ArrayList<>();
+		for (BundleEntryReference next : theReferences) {
+			String reference = next.getReference().getReferenceElement().getValue();
+			if (reference != null && reference.startsWith("urn:") && !fullUrls.contains(reference)) {
+				SingleValidationMessage message = new SingleValidationMessage();
+				message.setSeverity(ResultSeverityEnum.ERROR);
+				message.setLocationString(next.getPath());
+				message.setMessage(
+						myContext.getLocalizer().getMessage(I18N_KEY_UNRESOLVED_BUNDLE_REFERENCE, reference));
+				retVal.add(message);
+			}
+		}
+		return retVal;
+	}
+
+	IBaseBundle createBundleWithoutEntryResources(IBaseBundle theBundle) {
+		return createBundleWithoutEntryResources(theBundle, new ArrayList<>());
+	}
+
+	IBaseBundle createBundleWithoutEntryResources(IBaseBundle theBundle, List<BundleEntryReference> theReferences) {
+		RuntimeResourceDefinition bundleDef = myContext.getResourceDefinition(theBundle);
+		BaseRuntimeChildDefinition entryChild = bundleDef.getChildByName("entry");
+		BaseRuntimeElementCompositeDefinition<?> entryDef =
+				(BaseRuntimeElementCompositeDefinition<?>) entryChild.getChildByName("entry");
+		BaseRuntimeChildDefinition entryResourceChild = entryDef.getChildByName("resource");
+
+		IBaseBundle retVal = (IBaseBundle) bundleDef.newInstance();
+		retVal.setId(theBundle.getIdElement());
+		for (BaseRuntimeChildDefinition nextChild : bundleDef.getChildren()) {
+			if (nextChild == entryChild) {
+				continue;
+			}
+			for (IBase nextValue : nextChild.getAccessor().getValues(theBundle)) {
+				nextChild.getMutator().addValue(retVal, nextValue);
+			}
+		}
+
+		List<IBase> entries = entryChild.getAccessor().getValues(theBundle);
+		for (int entryIndex = 0; entryIndex < entries.size(); entryIndex++) {
+			IBase nextEntry = entries.get(entryIndex);
+			IBase newEntry = entryDef.newInstance(entryChild.getInstanceConstructorArguments());
+			for (BaseRuntimeChildDefinition nextChild : entryDef.getChildren()) {
+				for (IBase nextValue : nextChild.getAccessor().getValues(nextEntry)) {
+					if (nextChild == entryResourceChild) {
+						nextValue = createPlaceholderResource((IBaseResource) nextValue, entryIndex, theReferences);
+					}
+					nextChild.getMutator().addValue(newEntry, nextValue);
+				}
+			}
+			entryChild.getMutator().addValue(retVal, newEntry);
+		}
+
+		return retVal;
+	}
+
+	private IBaseResource createPlaceholderResource(
+			IBaseResource theResource, int theEntryIndex, List<BundleEntryReference> theReferences) {
+		RuntimeResourceDefinition resourceDef = myContext.getResourceDefinition(theResource);
+		IBaseResource retVal = resourceDef.newInstance();
+		String path = String.format("Bundle.entry[%d].resource.ofType(%s)", theEntryIndex, resourceDef.getName());
+		copyReferences(theResource, retVal, resourceDef, path, theReferences);
+		retVal.setId(theResource.getIdElement());
+		String versionId = theResource.getMeta().getVersionId();
+		if (versionId != null) {
+			retVal.getMeta().setVersionId(versionId);
+		}
+		return retVal;
+	}
+
+	/**
+	 * Copies the reference elements of the source element into the target element, along with
+	 * the (otherwise empty) elements containing them and the URLs of any extensions among those.
+	 * Contained resources are not copied.
+	 *
+	 * @return Returns <code>true</code> if any references were copied
+	 */
+	private boolean copyReferences(
+			IBase theSource,
+			IBase theTarget,
+			BaseRuntimeElementCompositeDefinition<?> theDefinition,
+			String thePath,
+			List<BundleEntryReference> theReferences) {
+		boolean retVal = false;
+		for (BaseRuntimeChildDefinition nextChild : theDefinition.getChildren()) {
+			List<IBase> values = nextChild.getAccessor().getValues(theSource);
+			for (int i = 0; i < values.size(); i++) {
+				IBase nextValue = values.get(i);
+				if (nextValue instanceof IBaseResource || nextValue instanceof IPrimitiveType) {
+					continue;
+				}
+
+				String path = thePath + "." + nextChild.getChildNameByDatatype(nextValue.getClass());
+				if (nextChild.getMax() != 1) {
+					path += "[" + i + "]";
+				}
+
+				if (nextValue instanceof IBaseReference) {
+					nextChild.getMutator().addValue(theTarget, nextValue);
+					theReferences.add(new BundleEntryReference(path, (IBaseReference) nextValue));
+					retVal = true;
+					continue;
+				}
+
+				BaseRuntimeElementDefinition<?> childDef =
+						nextChild.getChildElementDefinitionByDatatype(nextValue.getClass());
+				if (childDef instanceof BaseRuntimeElementCompositeDefinition) {
+					IBase newValue = childDef.newInstance(nextChild.getInstanceConstructorArguments());
+					if (nextValue instanceof IBaseExtension) {
+						((IBaseExtension<?, ?>) newValue).setUrl(((IBaseExtension<?, ?>) nextValue).getUrl());
+					}
+					if (copyReferences(
+							nextValue,
+							newValue,
+							(BaseRuntimeElementCompositeDefinition<?>) childDef,
+							path,
+							theReferences)) {
+						nextChild.getMutator().addValue(theTarget, newValue);
+						retVal = true;
+					}
+				}
+			}
+		}
+		return retVal;
+	}
+
+	static boolean isLocatedInBundleEntryResource(String theLocationString) {
+		return theLocationString != null && BUNDLE_ENTRY_RESOURCE_LOCATION.matcher(theLocationString).find();
+	}
+
 	IBaseResource withoutContainedResources(IBaseResource theEntry) {
 		if (TerserUtil.hasValues(myContext, theEntry, "contained")) {
 			IBaseResource deepCopy = TerserUtil.clone(myContext, theEntry);
@@ -393,7 +585,7 @@ public class FhirValidator {
 
 	/**
 	 * If this is true, bundles will be validated in parallel threads.  The bundle structure itself will not be validated,
-	 * only the resources in its entries.
+	 * only the resources in its entries, unless {@link #setConcurrentBundleStructureValidation(boolean)} is also enabled.
 	 */
 	public boolean isConcurrentBundleValidation() {
 		return myConcurrentBundleValidation;
@@ -401,13 +593,44 @@ public class FhirValidator {
 
 	/**
 	 * If this is true, bundles will be validated in parallel threads.  The bundle structure itself will not be validated,
-	 * only the resources in its entries.
+	 * only the resources in its entries, unless {@link #setConcurrentBundleStructureValidation(boolean)} is also enabled.
 	 */
 	public FhirValidator setConcurrentBundleValidation(boolean theConcurrentBundleValidation) {
 		myConcurrentBundleValidation = theConcurrentBundleValidation;
 		return this;
 	}
 
+	/**
+	 * If this is true (default is false) and {@link #setConcurrentBundleValidation(boolean) concurrent
+	 * bundle validation} is enabled, the Bundle itself is also validated on the calling thread once
+	 * its entries have been validated in parallel. During this pass each entry resource is replaced
+	 * by a placeholder carrying only its type, ID, version and references, so that rules which span
+	 * entries (such as fullUrl uniqueness, or the structure of a document or message Bundle) are
+	 * checked without validating every resource a second time. <code>urn:</code> references which
+	 * don't resolve to another entry in the Bundle are also reported during this pass.
+	 *
+	 * @since 7.8.0
+	 */
+	public boolean isConcurrentBundleStructureValidation() {
+		return myConcurrentBundleStructureValidation;
+	}
+
+	/**
+	 * If this is true (default is false) and {@link #setConcurrentBundleValidation(boolean) concurrent
+	 * bundle validation} is enabled, the Bundle itself is also validated on the calling thread once
+	 * its entries have been validated in parallel. During this pass each entry resource is replaced
+	 * by a placeholder carrying only its type, ID, version and references, so that rules which span
+	 * entries (such as fullUrl uniqueness, or the structure of a document or message Bundle) are
+	 * checked without validating every resource a second time. <code>urn:</code> references which
+	 * don't resolve to another entry in the Bundle are also reported during this pass.
+	 *
+	 * @since 7.8.0
+	 */
+	public FhirValidator setConcurrentBundleStructureValidation(boolean theConcurrentBundleStructureValidation) {
+		myConcurrentBundleStructureValidation = theConcurrentBundleStructureValidation;
+		return this;
+	}
+
 	/**
 	 * If this is true, any resource that has contained resources will first be deep-copied and then the contained
 	 * resources remove from the copy and this copy without contained resources will be validated.
@@ -425,6 +648,24 @@ public class FhirValidator {
 		return this;
 	}
 
+	static class BundleEntryReference {
+		private final String myPath;
+		private final IBaseReference myReference;
+
+		BundleEntryReference(String thePath, IBaseReference theReference) {
+			myPath = thePath;
+			myReference = theReference;
+		}
+
+		public String getPath() {
+			return myPath;
+		}
+
+		public IBaseReference getReference() {
+			return myReference;
+		}
+	}
+
 	// Simple Tuple to keep track of bundle path and associate aync future task
 	static class ConcurrentValidationTask {
 		private final String myResourcePathPrefix;
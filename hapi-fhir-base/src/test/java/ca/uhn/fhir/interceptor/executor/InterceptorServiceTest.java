@@ -4,6 +4,7 @@ import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.interceptor.api.Hook;
 import ca.uhn.fhir.interceptor.api.HookParams;
 import ca.uhn.fhir.interceptor.api.IAnonymousInterceptor;
+import ca.uhn.fhir.interceptor.api.IBaseInterceptorBroadcaster;
 import ca.uhn.fhir.interceptor.api.IPointcut;
 import ca.uhn.fhir.interceptor.api.Interceptor;
 import ca.uhn.fhir.interceptor.api.Pointcut;
@@ -20,6 +21,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
@@ -264,6 +266,141 @@ public class InterceptorServiceTest {
 		assertThat(interceptor1.myLastString1).isSameAs("B");
 	}
 
+	@Test
+	public void testInvokeGlobalInterceptorMethods_MethodHandleInvokers() {
+		InterceptorService svc = new InterceptorService();
+		svc.setUseMethodHandleInvokers(true);
+
+		MyTestInterceptorTwo interceptor1 = new MyTestInterceptorTwo();
+		MyTestInterceptorOne interceptor0 = new MyTestInterceptorOne();
+		MyTestInterceptorManual interceptorManual = new MyTestInterceptorManual();
+		svc.registerInterceptor(interceptor1);
+		svc.registerInterceptor(interceptor0);
+		svc.registerInterceptor(interceptorManual);
+
+		boolean outcome = svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+		assertTrue(outcome);
+
+		assertThat(myInvocations).containsExactly("MyTestInterceptorOne.testRb", "MyTestInterceptorManual.testRb", "MyTestInterceptorTwo.testRb");
+		assertThat(interceptor0.myLastString0).isSameAs("A");
+		assertThat(interceptor1.myLastString0).isSameAs("A");
+		assertThat(interceptor1.myLastString1).isSameAs("B");
+
+		// Returning false aborts processing
+		myInvocations.clear();
+		interceptor0.myNextReturn = false;
+		outcome = svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+		assertFalse(outcome);
+		assertThat(myInvocations).containsExactly("MyTestInterceptorOne.testRb");
+	}
+
+	@Test
+	public void testInvokeInterceptorMethods_MethodHandleInvokers_ReturnsObject() {
+
+		class InterceptorReturningClass {
+			private BaseServerResponseException myNextResponse;
+			private Pointcut myLastPointcut;
+
+			@Hook(Pointcut.TEST_RO)
+			BaseServerResponseException hook(Pointcut thePointcut, String theString0, String theString1) {
+				myLastPointcut = thePointcut;
+				return myNextResponse;
+			}
+		}
+
+		InterceptorService svc = new InterceptorService();
+		svc.setUseMethodHandleInvokers(true);
+		InterceptorReturningClass interceptor = new InterceptorReturningClass();
+		svc.registerInterceptor(interceptor);
+
+		interceptor.myNextResponse = new InvalidRequestException("0");
+		Object response = svc.callHooksAndReturnObject(Pointcut.TEST_RO, new HookParams("", ""));
+		assertEquals("0", ((InvalidRequestException) response).getMessage());
+		assertEquals(Pointcut.TEST_RO, interceptor.myLastPointcut);
+
+		interceptor.myNextResponse = null;
+		assertNull(svc.callHooksAndReturnObject(Pointcut.TEST_RO, new HookParams("", "")));
+	}
+
+	@Test
+	public void testInvokeInterceptorMethods_MethodHandleInvokers_Exceptions() {
+
+		class InterceptorThrowingException {
+			private RuntimeException myNextException;
+
+			@Hook(Pointcut.TEST_RB)
+			public void test(String theValue) {
+				throw myNextException;
+			}
+		}
+
+		InterceptorService svc = new InterceptorService();
+		svc.setUseMethodHandleInvokers(true);
+		InterceptorThrowingException interceptor = new InterceptorThrowingException();
+		svc.registerInterceptor(interceptor);
+
+		// Exceptions are thrown as-is
+		interceptor.myNextException = new AuthenticationException("A MESSAGE");
+		try {
+			svc.callHooks(Pointcut.TEST_RB, new HookParams("A MESSAGE", "B"));
+			fail();
+		} catch (AuthenticationException e) {
+			assertEquals("A MESSAGE", e.getMessage());
+		}
+
+		// TEST_RB is configured to log and swallow IllegalStateException
+		interceptor.myNextException = new IllegalStateException("SWALLOWED");
+		assertTrue(svc.callHooks(Pointcut.TEST_RB, new HookParams("A MESSAGE", "B")));
+	}
+
+	@Test
+	public void testInvokersForPointcutAreCopies() {
+		InterceptorService svc = new InterceptorService();
+
+		MyTestInterceptorOne interceptor0 = new MyTestInterceptorOne();
+		svc.registerInterceptor(interceptor0);
+		List<IBaseInterceptorBroadcaster.IInvoker> invokers = svc.getInvokersForPointcut(Pointcut.TEST_RB);
+		assertEquals(1, invokers.size());
+
+		// Registering another interceptor doesn't change a previously returned snapshot
+		svc.registerInterceptor(new MyTestInterceptorTwo());
+		assertEquals(1, invokers.size());
+		assertEquals(2, svc.getInvokersForPointcut(Pointcut.TEST_RB).size());
+
+		// The returned list can be modified without affecting the service
+		invokers.clear();
+		assertEquals(2, svc.getInvokersForPointcut(Pointcut.TEST_RB).size());
+		assertTrue(svc.hasHooks(Pointcut.TEST_RB));
+		assertThat(svc.getInvokersForPointcut(Pointcut.TEST_RO)).isEmpty();
+	}
+
+	@Test
+	public void testCollectHookMetrics() {
+		InterceptorService svc = new InterceptorService();
+		svc.setCollectHookMetrics(true);
+
+		MyTestInterceptorTwo interceptor1 = new MyTestInterceptorTwo();
+		MyTestInterceptorOne interceptor0 = new MyTestInterceptorOne();
+		svc.registerInterceptor(interceptor1);
+		svc.registerInterceptor(interceptor0);
+
+		svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+		svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+
+		assertThat(svc.getHookInvocationCounts()).containsExactly(entry(Pointcut.TEST_RB, 4L));
+		assertThat(svc.getInterceptorInvocationNanos())
+				.containsOnlyKeys(MyTestInterceptorOne.class.getName(), MyTestInterceptorTwo.class.getName());
+
+		svc.clearHookMetrics();
+		assertThat(svc.getHookInvocationCounts()).isEmpty();
+		assertThat(svc.getInterceptorInvocationNanos()).isEmpty();
+
+		// Disabled collection doesn't record anything
+		svc.setCollectHookMetrics(false);
+		svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+		assertThat(svc.getHookInvocationCounts()).isEmpty();
+	}
+
 	@Test
 	public void testInvokeAnonymousInterceptorMethods() {
 		InterceptorService svc = new InterceptorService();
@@ -0,0 +1,210 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.batch2;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.binary.api.IBinaryStorageSvc;
+import ca.uhn.fhir.jpa.binary.api.StoredDetails;
+import ca.uhn.fhir.jpa.binary.svc.BaseBinaryStorageSvcImpl;
+import ca.uhn.fhir.model.primitive.IdDt;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.server.SystemRequestDetails;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.util.Logs;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.ReaderInputStream;
+import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.instance.model.api.IIdType;
+import org.slf4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.apache.commons.lang3.StringUtils.startsWith;
+
+/**
+ * Stores large Batch2 work chunk data in an {@link IBinaryStorageSvc} instead of
+ * the work chunk table. Chunks stored this way hold only a reference to the data
+ * in their data column.
+ *
+ * @see JpaStorageSettings#setBatch2ExternalChunkDataThreshold(int)
+ * @since 7.8.0
+ */
+public class Batch2ExternalChunkDataSvc {
+	public static final String REFERENCE_PREFIX = "batch2-chunk-data:";
+	private static final Logger ourLog = Logs.getBatchTroubleshootingLog();
+	private static final String RESOURCE_TYPE = "Batch2JobInstance";
+	private static final String MODE_RAW = "raw";
+	private static final String MODE_DEFLATE = "deflate";
+
+	private final IBinaryStorageSvc myBinaryStorageSvc;
+	private final JpaStorageSettings myStorageSettings;
+
+	/**
+	 * Constructor
+	 */
+	public Batch2ExternalChunkDataSvc(
+			@Nonnull IBinaryStorageSvc theBinaryStorageSvc, @Nonnull JpaStorageSettings theStorageSettings) {
+		Validate.notNull(theBinaryStorageSvc, "theBinaryStorageSvc must not be null");
+		Validate.notNull(theStorageSettings, "theStorageSettings must not be null");
+		myBinaryStorageSvc = theBinaryStorageSvc;
+		myStorageSettings = theStorageSettings;
+	}
+
+	/**
+	 * Stores the given chunk data externally if it is at or above the configured size
+	 * threshold. The data is streamed (and optionally compressed) directly into the
+	 * binary storage service.
+	 *
+	 * @return A reference to the stored data, or the data itself if it was not stored externally
+	 */
+	@Nullable
+	public String storeIfRequired(String theInstanceId, @Nullable String theData) {
+		int threshold = myStorageSettings.getBatch2ExternalChunkDataThreshold();
+		if (theData == null || threshold <= 0 || theData.length() < threshold) {
+			return theData;
+		}
+
+		boolean compress = myStorageSettings.isBatch2ExternalChunkDataCompressed();
+		InputStream inputStream = new ReaderInputStream(new StringReader(theData), StandardCharsets.UTF_8);
+		if (compress) {
+			inputStream = new DeflaterInputStream(inputStream);
+		}
+
+		// Chunk data isn't a FHIR Binary, so don't invoke the binary content ID prefix hooks
+		SystemRequestDetails requestDetails = new SystemRequestDetails();
+		BaseBinaryStorageSvcImpl.setBinaryContentIdPrefixApplied(requestDetails);
+
+		StoredDetails storedDetails;
+		try (InputStream dataStream = inputStream) {
+			storedDetails = myBinaryStorageSvc.storeBinaryContent(
+					toResourceId(theInstanceId),
+					null,
+					Constants.CT_OCTET_STREAM,
+					dataStream,
+					requestDetails);
+		} catch (IOException e) {
+			throw new InternalErrorException(
+					Msg.code(2609) + "Failed to store work chunk data for job instance " + theInstanceId, e);
+		}
+
+		ourLog.debug(
+				"Stored {} chars of work chunk data for instance {} externally as {} bytes",
+				theData.length(),
+				theInstanceId,
+				storedDetails.getBytes());
+		return REFERENCE_PREFIX + (compress ? MODE_DEFLATE : MODE_RAW) + ":" + theInstanceId + ":"
+				+ storedDetails.getBinaryContentId();
+	}
+
+	/**
+	 * Returns <code>true</code> if the given stored chunk data is a reference to externally stored data
+	 */
+	public static boolean isReference(@Nullable String theStoredData) {
+		return startsWith(theStoredData, REFERENCE_PREFIX);
+	}
+
+	/**
+	 * Opens a stream over the UTF-8 encoded chunk data for the given reference, decompressing it if
+	 * needed. The caller is responsible for closing the stream.
+	 */
+	@Nonnull
+	public InputStream openDataStream(@Nonnull String theReference) {
+		Reference reference = Reference.parse(theReference);
+		byte[] bytes;
+		try {
+			bytes = myBinaryStorageSvc.fetchBinaryContent(reference.myResourceId, reference.myBlobId);
+		} catch (IOException e) {
+			throw new InternalErrorException(Msg.code(2610) + "Failed to load work chunk data " + theReference, e);
+		}
+		if (bytes == null) {
+			throw new InternalErrorException(Msg.code(2611) + "Work chunk data not found: " + theReference);
+		}
+
+		InputStream retVal = new ByteArrayInputStream(bytes);
+		if (reference.myCompressed) {
+			retVal = new InflaterInputStream(retVal);
+		}
+		return retVal;
+	}
+
+	/**
+	 * Returns the chunk data for the given stored value, loading it from the binary storage
+	 * service if it is a reference
+	 */
+	@Nullable
+	public String readData(@Nullable String theStoredData) {
+		if (!isReference(theStoredData)) {
+			return theStoredData;
+		}
+		try (InputStream inputStream = openDataStream(theStoredData)) {
+			return IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new InternalErrorException(Msg.code(2612) + "Failed to read work chunk data " + theStoredData, e);
+		}
+	}
+
+	/**
+	 * Deletes the externally stored data for the given reference. Values which are not
+	 * references are ignored.
+	 */
+	public void delete(@Nullable String theStoredData) {
+		if (!isReference(theStoredData)) {
+			return;
+		}
+		Reference reference = Reference.parse(theStoredData);
+		try {
+			myBinaryStorageSvc.expungeBinaryContent(reference.myResourceId, reference.myBlobId);
+		} catch (Exception e) {
+			// Orphaned data isn't fatal to the job, so don't fail the caller
+			ourLog.warn("Failed to delete work chunk data {}: {}", theStoredData, e.toString());
+		}
+	}
+
+	private static IIdType toResourceId(String theInstanceId) {
+		return new IdDt(RESOURCE_TYPE, theInstanceId);
+	}
+
+	private static class Reference {
+		private final boolean myCompressed;
+		private final IIdType myResourceId;
+		private final String myBlobId;
+
+		private Reference(boolean theCompressed, IIdType theResourceId, String theBlobId) {
+			myCompressed = theCompressed;
+			myResourceId = theResourceId;
+			myBlobId = theBlobId;
+		}
+
+		static Reference parse(String theReference) {
+			String[] parts = theReference.substring(REFERENCE_PREFIX.length()).split(":", 3);
+			Validate.isTrue(parts.length == 3, "Invalid work chunk data reference: %s", theReference);
+			return new Reference(MODE_DEFLATE.equals(parts[0]), toResourceId(parts[1]), parts[2]);
+		}
+	}
+}
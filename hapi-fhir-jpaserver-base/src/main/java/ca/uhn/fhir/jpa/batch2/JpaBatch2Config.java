@@ -22,12 +22,15 @@ package ca.uhn.fhir.jpa.batch2;
 import ca.uhn.fhir.batch2.api.IJobPersistence;
 import ca.uhn.fhir.batch2.config.BaseBatch2Config;
 import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.binary.api.IBinaryStorageSvc;
 import ca.uhn.fhir.jpa.bulk.export.job.BulkExportJobConfig;
 import ca.uhn.fhir.jpa.dao.data.IBatch2JobInstanceRepository;
 import ca.uhn.fhir.jpa.dao.data.IBatch2WorkChunkMetadataViewRepository;
 import ca.uhn.fhir.jpa.dao.data.IBatch2WorkChunkRepository;
 import ca.uhn.fhir.jpa.dao.tx.IHapiTransactionService;
 import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -43,13 +46,22 @@ public class JpaBatch2Config extends BaseBatch2Config {
 			IBatch2WorkChunkMetadataViewRepository theWorkChunkMetadataViewRepo,
 			IHapiTransactionService theTransactionService,
 			EntityManager theEntityManager,
-			IInterceptorBroadcaster theInterceptorBroadcaster) {
-		return new JpaJobPersistenceImpl(
+			IInterceptorBroadcaster theInterceptorBroadcaster,
+			JpaStorageSettings theStorageSettings,
+			ObjectProvider<IBinaryStorageSvc> theBinaryStorageSvc) {
+		JpaJobPersistenceImpl retVal = new JpaJobPersistenceImpl(
 				theJobInstanceRepository,
 				theWorkChunkRepository,
 				theWorkChunkMetadataViewRepo,
 				theTransactionService,
 				theEntityManager,
 				theInterceptorBroadcaster);
+
+		IBinaryStorageSvc binaryStorageSvc = theBinaryStorageSvc.getIfAvailable();
+		if (binaryStorageSvc != null) {
+			retVal.setExternalChunkDataSvc(new Batch2ExternalChunkDataSvc(binaryStorageSvc, theStorageSettings));
+		}
+
+		return retVal;
 	}
 }
@@ -57,8 +57,13 @@ import jakarta.annotation.Nullable;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
 import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.Validate;
+import org.hibernate.LockMode;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.slf4j.Logger;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -67,14 +72,20 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -97,6 +108,8 @@ public class JpaJobPersistenceImpl implements IJobPersistence {
 	private final EntityManager myEntityManager;
 	private final IHapiTransactionService myTransactionService;
 	private final IInterceptorBroadcaster myInterceptorBroadcaster;
+	private volatile Boolean mySkipLockedSupported;
+	private Batch2ExternalChunkDataSvc myExternalChunkDataSvc;
 
 	/**
 	 * Constructor
@@ -118,6 +131,16 @@ public class JpaJobPersistenceImpl implements IJobPersistence {
 		myInterceptorBroadcaster = theInterceptorBroadcaster;
 	}
 
+	/**
+	 * Enables storing large work chunk data externally
+	 *
+	 * @see ca.uhn.fhir.jpa.api.config.JpaStorageSettings#setBatch2ExternalChunkDataThreshold(int)
+	 * @since 7.8.0
+	 */
+	public void setExternalChunkDataSvc(@Nullable Batch2ExternalChunkDataSvc theExternalChunkDataSvc) {
+		myExternalChunkDataSvc = theExternalChunkDataSvc;
+	}
+
 	@Override
 	@Transactional(propagation = Propagation.REQUIRED)
 	public String onWorkChunkCreate(WorkChunkCreateEvent theBatchWorkChunk) {
@@ -128,7 +151,7 @@ public class JpaJobPersistenceImpl implements IJobPersistence {
 		entity.setJobDefinitionVersion(theBatchWorkChunk.jobDefinitionVersion);
 		entity.setTargetStepId(theBatchWorkChunk.targetStepId);
 		entity.setInstanceId(theBatchWorkChunk.instanceId);
-		entity.setSerializedData(theBatchWorkChunk.serializedData);
+		entity.setSerializedData(storeChunkData(theBatchWorkChunk.instanceId, theBatchWorkChunk.serializedData));
 		entity.setCreateTime(new Date());
 		entity.setStartTime(new Date());
 		entity.setStatus(getOnCreateStatus(theBatchWorkChunk));
@@ -180,6 +203,108 @@ public class JpaJobPersistenceImpl implements IJobPersistence {
 		}
 	}
 
+	/**
+	 * Claims chunks using <code>SELECT ... FOR UPDATE SKIP LOCKED</code> followed by a single
+	 * status update, so that concurrent workers each lease a disjoint set of chunks without
+	 * blocking on each other. On databases where the dialect does not support
+	 * <code>SKIP LOCKED</code>, and always on H2, the candidate chunks are read without locking
+	 * and each one is claimed with its own conditional update.
+	 */
+	@Override
+	@Transactional(propagation = Propagation.REQUIRED)
+	public List<WorkChunk> onWorkChunksClaim(String theInstanceId, String theStepId, int theMaxCount) {
+		Validate.isTrue(theMaxCount > 0, "theMaxCount must be greater than 0");
+
+		boolean skipLocked = isSkipLockedSupported();
+		TypedQuery<Batch2WorkChunkEntity> query = myEntityManager.createQuery(
+				"SELECT e FROM Batch2WorkChunkEntity e "
+						+ "WHERE e.myInstanceId = :instanceId AND e.myTargetStepId = :stepId AND e.myStatus = :status "
+						+ "ORDER BY e.mySequence ASC, e.myId ASC",
+				Batch2WorkChunkEntity.class);
+		query.setParameter("instanceId", theInstanceId);
+		query.setParameter("stepId", theStepId);
+		query.setParameter("status", WorkChunkStatusEnum.READY);
+		query.setMaxResults(theMaxCount);
+		if (skipLocked) {
+			query.unwrap(org.hibernate.query.Query.class).setHibernateLockMode(LockMode.UPGRADE_SKIPLOCKED);
+		}
+		List<Batch2WorkChunkEntity> candidates = query.getResultList();
+		if (candidates.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		Date startTime = new Date();
+		List<WorkChunkStatusEnum> priorStates = List.of(WorkChunkStatusEnum.READY);
+		List<Batch2WorkChunkEntity> claimed;
+		if (skipLocked) {
+			List<String> ids =
+					candidates.stream().map(Batch2WorkChunkEntity::getId).collect(Collectors.toList());
+			int rowsModified = myWorkChunkRepository.updateAllChunksStatusForStart(
+					ids, startTime, WorkChunkStatusEnum.IN_PROGRESS, priorStates);
+			if (rowsModified == ids.size()) {
+				claimed = candidates;
+			} else {
+				// The rows should be locked by us, but never hand out a chunk this update didn't start
+				Set<String> claimedIds = findChunkIdsStartedAt(ids, startTime);
+				claimed = candidates.stream()
+						.filter(t -> claimedIds.contains(t.getId()))
+						.collect(Collectors.toList());
+			}
+		} else {
+			claimed = new ArrayList<>(candidates.size());
+			for (Batch2WorkChunkEntity next : candidates) {
+				int rowsModified = myWorkChunkRepository.updateChunkStatusForStart(
+						next.getId(), startTime, WorkChunkStatusEnum.IN_PROGRESS, priorStates);
+				if (rowsModified > 0) {
+					claimed.add(next);
+				}
+			}
+		}
+
+		ourLog.debug(
+				"Claimed {}/{} work chunks for instance {} step {}",
+				claimed.size(),
+				candidates.size(),
+				theInstanceId,
+				theStepId);
+
+		List<WorkChunk> retVal = new ArrayList<>(claimed.size());
+		for (Batch2WorkChunkEntity next : claimed) {
+			// the bulk update bypassed the persistence context, so don't trust the managed state
+			myEntityManager.detach(next);
+			WorkChunk chunk = toChunk(next);
+			chunk.setStatus(WorkChunkStatusEnum.IN_PROGRESS);
+			chunk.setStartTime(startTime);
+			retVal.add(chunk);
+		}
+		return retVal;
+	}
+
+	private Set<String> findChunkIdsStartedAt(List<String> theChunkIds, Date theStartTime) {
+		TypedQuery<String> query = myEntityManager.createQuery(
+				"SELECT e.myId FROM Batch2WorkChunkEntity e "
+						+ "WHERE e.myId IN (:ids) AND e.myStatus = :status AND e.myStartTime = :st",
+				String.class);
+		query.setParameter("ids", theChunkIds);
+		query.setParameter("status", WorkChunkStatusEnum.IN_PROGRESS);
+		query.setParameter("st", theStartTime);
+		return new HashSet<>(query.getResultList());
+	}
+
+	private boolean isSkipLockedSupported() {
+		Boolean retVal = mySkipLockedSupported;
+		if (retVal == null) {
+			Dialect dialect = myEntityManager
+					.getEntityManagerFactory()
+					.unwrap(SessionFactoryImplementor.class)
+					.getJdbcServices()
+					.getDialect();
+			retVal = dialect.supportsSkipLocked() && !(dialect instanceof H2Dialect);
+			mySkipLockedSupported = retVal;
+		}
+		return retVal;
+	}
+
 	@Override
 	@Transactional(propagation = Propagation.REQUIRED)
 	public String storeNewInstance(JobInstance theInstance) {
@@ -366,7 +491,71 @@ public class JpaJobPersistenceImpl implements IJobPersistence {
 	}
 
 	private WorkChunk toChunk(Batch2WorkChunkEntity theEntity) {
-		return JobInstanceUtil.fromEntityToWorkChunk(theEntity);
+		WorkChunk retVal = JobInstanceUtil.fromEntityToWorkChunk(theEntity);
+		if (myExternalChunkDataSvc != null && Batch2ExternalChunkDataSvc.isReference(retVal.getData())) {
+			retVal.setData(myExternalChunkDataSvc.readData(retVal.getData()));
+		}
+		return retVal;
+	}
+
+	/**
+	 * Stores the chunk data externally if required. The external write happens immediately and is
+	 * not part of the database transaction, so if the transaction rolls back, the stored data is
+	 * deleted again to avoid leaving it orphaned.
+	 */
+	private String storeChunkData(String theInstanceId, String theSerializedData) {
+		if (myExternalChunkDataSvc == null) {
+			return theSerializedData;
+		}
+		String retVal = myExternalChunkDataSvc.storeIfRequired(theInstanceId, theSerializedData);
+		if (!Objects.equals(retVal, theSerializedData)
+				&& TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int theStatus) {
+					if (theStatus != STATUS_COMMITTED) {
+						myExternalChunkDataSvc.delete(retVal);
+					}
+				}
+			});
+		}
+		return retVal;
+	}
+
+	/**
+	 * Must be called before the data for the given chunks is wiped. Any externally
+	 * stored data for the chunks is deleted once the current transaction commits. This
+	 * happens even if external storage has since been disabled, since chunks stored
+	 * while it was enabled can still hold references.
+	 */
+	private void deleteExternalChunkDataForChunks(Collection<String> theChunkIds) {
+		if (myExternalChunkDataSvc != null && !theChunkIds.isEmpty()) {
+			deleteExternalChunkDataAfterCommit(myWorkChunkRepository.fetchChunkDataForIdsWithPrefix(
+					theChunkIds, Batch2ExternalChunkDataSvc.REFERENCE_PREFIX + "%"));
+		}
+	}
+
+	private void deleteExternalChunkDataForInstance(String theInstanceId) {
+		if (myExternalChunkDataSvc != null) {
+			deleteExternalChunkDataAfterCommit(myWorkChunkRepository.fetchChunkDataForInstanceWithPrefix(
+					theInstanceId, Batch2ExternalChunkDataSvc.REFERENCE_PREFIX + "%"));
+		}
+	}
+
+	private void deleteExternalChunkDataAfterCommit(List<String> theReferences) {
+		if (theReferences.isEmpty()) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					theReferences.forEach(myExternalChunkDataSvc::delete);
+				}
+			});
+		} else {
+			theReferences.forEach(myExternalChunkDataSvc::delete);
+		}
 	}
 
 	private JobInstance toInstance(Batch2JobInstanceEntity theEntity) {
@@ -423,13 +612,57 @@ public class JpaJobPersistenceImpl implements IJobPersistence {
 	public void onWorkChunkCompletion(WorkChunkCompletionEvent theEvent) {
 		myTransactionService
 				.withSystemRequestOnDefaultPartition()
-				.execute(() -> myWorkChunkRepository.updateChunkStatusAndClearDataForEndSuccess(
-						theEvent.getChunkId(),
-						new Date(),
-						theEvent.getRecordsProcessed(),
-						theEvent.getRecoveredErrorCount(),
-						WorkChunkStatusEnum.COMPLETED,
-						theEvent.getRecoveredWarningMessage()));
+				.execute(() -> {
+					deleteExternalChunkDataForChunks(List.of(theEvent.getChunkId()));
+					myWorkChunkRepository.updateChunkStatusAndClearDataForEndSuccess(
+							theEvent.getChunkId(),
+							new Date(),
+							theEvent.getRecordsProcessed(),
+							theEvent.getRecoveredErrorCount(),
+							WorkChunkStatusEnum.COMPLETED,
+							theEvent.getRecoveredWarningMessage());
+				});
+	}
+
+	@Override
+	public void onWorkChunksCompletion(List<WorkChunkCompletionEvent> theEvents) {
+		if (theEvents.isEmpty()) {
+			return;
+		}
+
+		/*
+		 * Chunks which completed with the same counts (which is the common case, since most
+		 * steps produce chunks of a fixed size) can share a single UPDATE ... WHERE id IN (...)
+		 */
+		Map<List<Object>, List<String>> chunkIdsByOutcome = new LinkedHashMap<>();
+		for (WorkChunkCompletionEvent next : theEvents) {
+			List<Object> outcome = Arrays.asList(
+					next.getRecordsProcessed(), next.getRecoveredErrorCount(), next.getRecoveredWarningMessage());
+			chunkIdsByOutcome
+					.computeIfAbsent(outcome, t -> new ArrayList<>())
+					.add(next.getChunkId());
+		}
+
+		Date endTime = new Date();
+		myTransactionService.withSystemRequestOnDefaultPartition().execute(() -> {
+			for (Map.Entry<List<Object>, List<String>> nextOutcome : chunkIdsByOutcome.entrySet()) {
+				int recordsProcessed = (Integer) nextOutcome.getKey().get(0);
+				int recoveredErrorCount = (Integer) nextOutcome.getKey().get(1);
+				String warningMessage = (String) nextOutcome.getKey().get(2);
+				for (List<String> idList : ListUtils.partition(nextOutcome.getValue(), 100)) {
+					deleteExternalChunkDataForChunks(idList);
+					myWorkChunkRepository.updateAllChunksStatusAndClearDataForEndSuccess(
+							idList,
+							endTime,
+							recordsProcessed,
+							recoveredErrorCount,
+							WorkChunkStatusEnum.COMPLETED,
+							warningMessage);
+				}
+			}
+		});
+		ourLog.debug(
+				"Completed {} work chunks using {} distinct outcome(s)", theEvents.size(), chunkIdsByOutcome.size());
 	}
 
 	@Nullable
@@ -453,6 +686,7 @@ public class JpaJobPersistenceImpl implements IJobPersistence {
 		String errorMessage = truncateErrorMessage(theErrorMessage);
 		List<List<String>> listOfListOfIds = ListUtils.partition(theChunkIds, 100);
 		for (List<String> idList : listOfListOfIds) {
+			deleteExternalChunkDataForChunks(idList);
 			myWorkChunkRepository.updateAllChunksForInstanceStatusClearDataAndSetError(
 					idList, new Date(), theStatus, errorMessage);
 		}
@@ -512,7 +746,9 @@ public class JpaJobPersistenceImpl implements IJobPersistence {
 		if (theWorkChunk.getId() == null) {
 			theWorkChunk.setId(UUID.randomUUID().toString());
 		}
-		return toChunk(myWorkChunkRepository.save(Batch2WorkChunkEntity.fromWorkChunk(theWorkChunk)));
+		Batch2WorkChunkEntity entity = Batch2WorkChunkEntity.fromWorkChunk(theWorkChunk);
+		entity.setSerializedData(storeChunkData(entity.getInstanceId(), entity.getSerializedData()));
+		return toChunk(myWorkChunkRepository.save(entity));
 	}
 
 	/**
@@ -566,6 +802,7 @@ public class JpaJobPersistenceImpl implements IJobPersistence {
 	@Transactional(propagation = Propagation.REQUIRES_NEW)
 	public void deleteInstanceAndChunks(String theInstanceId) {
 		ourLog.info("Deleting instance and chunks: {}", theInstanceId);
+		deleteExternalChunkDataForInstance(theInstanceId);
 		myWorkChunkRepository.deleteAllForInstance(theInstanceId);
 		myJobInstanceRepository.deleteById(theInstanceId);
 	}
@@ -575,6 +812,7 @@ public class JpaJobPersistenceImpl implements IJobPersistence {
 	public void deleteChunksAndMarkInstanceAsChunksPurged(String theInstanceId) {
 		ourLog.info("Deleting all chunks for instance ID: {}", theInstanceId);
 		int updateCount = myJobInstanceRepository.updateWorkChunksPurgedTrue(theInstanceId);
+		deleteExternalChunkDataForInstance(theInstanceId);
 		int deleteCount = myWorkChunkRepository.deleteAllForInstance(theInstanceId);
 		ourLog.debug("Purged {} chunks, and updated {} instance.", deleteCount, updateCount);
 	}
@@ -142,6 +142,8 @@ import ca.uhn.fhir.jpa.search.cache.DatabaseSearchCacheSvcImpl;
 import ca.uhn.fhir.jpa.search.cache.DatabaseSearchResultCacheSvcImpl;
 import ca.uhn.fhir.jpa.search.cache.ISearchCacheSvc;
 import ca.uhn.fhir.jpa.search.cache.ISearchResultCacheSvc;
+import ca.uhn.fhir.jpa.search.cache.InMemorySearchCacheSvcImpl;
+import ca.uhn.fhir.jpa.search.cache.InMemorySearchResultCacheSvcImpl;
 import ca.uhn.fhir.jpa.search.elastic.IndexNamePrefixLayoutStrategy;
 import ca.uhn.fhir.jpa.search.reindex.IInstanceReindexService;
 import ca.uhn.fhir.jpa.search.reindex.IResourceReindexingSvc;
@@ -383,12 +385,18 @@ public class JpaConfig {
 	}
 
 	@Bean
-	public ISearchCacheSvc searchCacheSvc() {
+	public ISearchCacheSvc searchCacheSvc(JpaStorageSettings theStorageSettings) {
+		if (theStorageSettings.getSearchCacheMode() == JpaStorageSettings.SearchCacheModeEnum.IN_MEMORY) {
+			return new InMemorySearchCacheSvcImpl(theStorageSettings);
+		}
 		return new DatabaseSearchCacheSvcImpl();
 	}
 
 	@Bean
-	public ISearchResultCacheSvc searchResultCacheSvc() {
+	public ISearchResultCacheSvc searchResultCacheSvc(JpaStorageSettings theStorageSettings) {
+		if (theStorageSettings.getSearchCacheMode() == JpaStorageSettings.SearchCacheModeEnum.IN_MEMORY) {
+			return new InMemorySearchResultCacheSvcImpl(theStorageSettings);
+		}
 		return new DatabaseSearchResultCacheSvcImpl();
 	}
 
@@ -77,6 +77,18 @@ public interface IBatch2WorkChunkRepository
 			@Param("status") WorkChunkStatusEnum theInProgress,
 			@Param("warningMessage") String theWarningMessage);
 
+	@Modifying
+	@Query("UPDATE Batch2WorkChunkEntity e SET e.myStatus = :status, e.myEndTime = :et, "
+			+ "e.myRecordsProcessed = :rp, e.myErrorCount = e.myErrorCount + :errorRetries, e.mySerializedData = null, e.mySerializedDataVc = null, "
+			+ "e.myWarningMessage = :warningMessage WHERE e.myId IN (:ids)")
+	int updateAllChunksStatusAndClearDataForEndSuccess(
+			@Param("ids") List<String> theChunkIds,
+			@Param("et") Date theEndTime,
+			@Param("rp") int theRecordsProcessed,
+			@Param("errorRetries") int theErrorRetries,
+			@Param("status") WorkChunkStatusEnum theCompleted,
+			@Param("warningMessage") String theWarningMessage);
+
 	@Modifying
 	@Query(
 			"UPDATE Batch2WorkChunkEntity e SET e.myStatus = :status, e.myNextPollTime = :nextPollTime, e.myPollAttempts = COALESCE(e.myPollAttempts, 0) + 1 WHERE e.myId = :id AND e.myStatus IN(:states)")
@@ -122,6 +134,15 @@ public interface IBatch2WorkChunkRepository
 			@Param("status") WorkChunkStatusEnum theInProgress,
 			@Param("startStatuses") Collection<WorkChunkStatusEnum> theStartStatuses);
 
+	@Modifying
+	@Query(
+			"UPDATE Batch2WorkChunkEntity e SET e.myStatus = :status, e.myStartTime = :st WHERE e.myId IN (:ids) AND e.myStatus IN :startStatuses")
+	int updateAllChunksStatusForStart(
+			@Param("ids") List<String> theChunkIds,
+			@Param("st") Date theStartedTime,
+			@Param("status") WorkChunkStatusEnum theInProgress,
+			@Param("startStatuses") Collection<WorkChunkStatusEnum> theStartStatuses);
+
 	@Modifying
 	@Query("UPDATE Batch2WorkChunkEntity e SET e.myStatus = :newStatus WHERE e.myId = :id AND e.myStatus = :oldStatus")
 	int updateChunkStatus(
@@ -149,6 +170,16 @@ public interface IBatch2WorkChunkRepository
 			@Param("stepId") String theStepId,
 			@Param("status") WorkChunkStatusEnum theStatus);
 
+	@Query(
+			"SELECT e.mySerializedDataVc FROM Batch2WorkChunkEntity e WHERE e.myId IN (:ids) AND e.mySerializedDataVc LIKE :prefix")
+	List<String> fetchChunkDataForIdsWithPrefix(
+			@Param("ids") Collection<String> theChunkIds, @Param("prefix") String thePrefix);
+
+	@Query(
+			"SELECT e.mySerializedDataVc FROM Batch2WorkChunkEntity e WHERE e.myInstanceId = :instanceId AND e.mySerializedDataVc LIKE :prefix")
+	List<String> fetchChunkDataForInstanceWithPrefix(
+			@Param("instanceId") String theInstanceId, @Param("prefix") String thePrefix);
+
 	@Query(
 			"SELECT new ca.uhn.fhir.batch2.model.BatchWorkChunkStatusDTO(e.myTargetStepId, e.myStatus, min(e.myStartTime), max(e.myEndTime), avg(cast((e.myEndTime - e.myStartTime) as long)), count(*)) FROM Batch2WorkChunkEntity e WHERE e.myInstanceId=:instanceId GROUP BY e.myTargetStepId, e.myStatus")
 	List<BatchWorkChunkStatusDTO> fetchWorkChunkStatusForInstance(@Param("instanceId") String theInstanceId);
@@ -27,6 +27,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -62,6 +63,11 @@ public interface ITermValueSetConceptDao
 	List<TermValueSetConcept> findByValueSetResourcePidAndCode(
 			@Param("resource_pid") Long theValueSetId, @Param("codeval") String theCode);
 
+	@Query(
+			"SELECT vsc FROM TermValueSetConcept vsc WHERE vsc.myValueSet.myResourcePid = :resource_pid AND vsc.myCode IN (:codevals)")
+	List<TermValueSetConcept> findByValueSetResourcePidAndCodes(
+			@Param("resource_pid") Long theValueSetId, @Param("codevals") Collection<String> theCodes);
+
 	@Query(
 			"SELECT vsc FROM TermValueSetConcept vsc WHERE vsc.myValueSet.myResourcePid = :resource_pid AND vsc.mySystem = :system_url AND vsc.myCode = :codeval")
 	Optional<TermValueSetConcept> findByValueSetResourcePidSystemAndCode(
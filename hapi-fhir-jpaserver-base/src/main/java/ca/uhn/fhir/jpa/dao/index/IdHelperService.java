@@ -506,25 +506,23 @@ public class IdHelperService implements IIdHelperService<JpaPid> {
 		List<JpaPid> remainingPids =
 				theResourceIds.stream().filter(t -> !retVal.containsKey(t)).collect(Collectors.toList());
 
+		Map<JpaPid, Optional<String>> loadedForcedIds = new HashMap<>();
 		new QueryChunker<JpaPid>().chunk(remainingPids, t -> {
 			List<ResourceTable> resourceEntities = myResourceTableDao.findAllById(t);
 
 			for (ResourceTable nextResourceEntity : resourceEntities) {
 				JpaPid nextResourcePid = nextResourceEntity.getPersistentId();
 				Optional<String> nextForcedId = Optional.of(nextResourceEntity.asTypedFhirResourceId());
-				retVal.put(nextResourcePid, nextForcedId);
-				myMemoryCacheService.putAfterCommit(
-						MemoryCacheService.CacheEnum.PID_TO_FORCED_ID, nextResourcePid, nextForcedId);
+				loadedForcedIds.put(nextResourcePid, nextForcedId);
 			}
 		});
 
-		remainingPids =
-				theResourceIds.stream().filter(t -> !retVal.containsKey(t)).collect(Collectors.toList());
 		for (JpaPid nextResourcePid : remainingPids) {
-			retVal.put(nextResourcePid, Optional.empty());
-			myMemoryCacheService.putAfterCommit(
-					MemoryCacheService.CacheEnum.PID_TO_FORCED_ID, nextResourcePid, Optional.empty());
+			loadedForcedIds.putIfAbsent(nextResourcePid, Optional.empty());
 		}
+		retVal.putAll(loadedForcedIds);
+		myMemoryCacheService.putAllAfterCommit(MemoryCacheService.CacheEnum.PID_TO_FORCED_ID, loadedForcedIds);
+
 		Map<JpaPid, Optional<String>> convertRetVal = new HashMap<>(retVal);
 
 		return new PersistentIdToForcedIdMap<>(convertRetVal);
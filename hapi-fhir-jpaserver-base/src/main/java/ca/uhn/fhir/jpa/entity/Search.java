@@ -505,6 +505,14 @@ public class Search implements ICachedSearchDetails, Serializable {
 		mySearchQueryStringHash = null;
 	}
 
+	/**
+	 * Returns the hash of the search query string, or <code>null</code> if this search
+	 * {@link #setCannotBeReused() can not be reused}
+	 */
+	public Integer getSearchQueryStringHash() {
+		return mySearchQueryStringHash;
+	}
+
 	public Integer getOffset() {
 		return myOffset;
 	}
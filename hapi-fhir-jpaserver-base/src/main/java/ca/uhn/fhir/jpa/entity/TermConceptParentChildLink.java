@@ -241,6 +241,21 @@ public class TermConceptParentChildLink implements Serializable {
 		return this;
 	}
 
+	/**
+	 * Sets the parent and child concepts by PID, without referencing the concept entities. This is
+	 * used when links are stored in bulk and the concepts are not loaded.
+	 *
+	 * @since 7.8.0
+	 */
+	public TermConceptParentChildLink setParentAndChildPids(
+			Long theParentPid, Long theChildPid, Integer thePartitionId) {
+		myParentPid = theParentPid;
+		myChildPid = theChildPid;
+		myPartitionIdValue = thePartitionId;
+		getPid().myPartitionIdValue = myPartitionIdValue;
+		return this;
+	}
+
 	public TermConceptParentChildLink setRelationshipType(RelationshipTypeEnum theRelationshipType) {
 		myRelationshipType = theRelationshipType;
 		return this;
@@ -83,6 +83,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -115,6 +116,11 @@ public class SearchCoordinatorSvcImpl implements ISearchCoordinatorSvc<JpaPid> {
 	private final Consumer<String> myOnRemoveSearchTask = myIdToSearchTask::remove;
 
 	private final StorageInterceptorHooksFacade myStorageInterceptorHooks;
+	private final SearchTaskMetrics mySearchTaskMetrics = new SearchTaskMetrics();
+	/**
+	 * Will be <code>null</code> if the number of concurrent search tasks isn't limited
+	 */
+	private final Semaphore mySearchTaskPermits;
 	private Integer myLoadingThrottleForUnitTests = null;
 	private long myMaxMillisToWaitForRemoteResults = DateUtils.MILLIS_PER_MINUTE;
 	private boolean myNeverUseLocalSearchForUnitTests;
@@ -155,6 +161,18 @@ public class SearchCoordinatorSvcImpl implements ISearchCoordinatorSvc<JpaPid> {
 		myBeanFactory = theBeanFactory;
 
 		myStorageInterceptorHooks = new StorageInterceptorHooksFacade(myInterceptorBroadcaster);
+
+		Integer maximumConcurrentSearchTasks = myStorageSettings.getMaximumConcurrentSearchTasks();
+		mySearchTaskPermits = maximumConcurrentSearchTasks != null ? new Semaphore(maximumConcurrentSearchTasks) : null;
+	}
+
+	/**
+	 * Returns timing statistics for the search tasks run by this service
+	 *
+	 * @since 7.8.0
+	 */
+	public SearchTaskMetrics getSearchTaskMetrics() {
+		return mySearchTaskMetrics;
 	}
 
 	@VisibleForTesting
@@ -293,30 +311,35 @@ public class SearchCoordinatorSvcImpl implements ISearchCoordinatorSvc<JpaPid> {
 			// start a new pass
 			if (search.getStatus() == SearchStatusEnum.PASSCMPLET) {
 				ourLog.trace("Going to try to start next search");
-				Optional<Search> newSearch =
-						mySearchCacheSvc.tryToMarkSearchAsInProgress(search, theRequestPartitionId);
-				if (newSearch.isPresent()) {
-					ourLog.trace("Launching new search");
-					search = newSearch.get();
-					String resourceType = search.getResourceType();
-					SearchParameterMap params = search.getSearchParameterMap()
-							.orElseThrow(() -> new IllegalStateException("No map in PASSCOMPLET search"));
-					IFhirResourceDao<?> resourceDao = myDaoRegistry.getResourceDao(resourceType);
-
-					SearchTaskParameters parameters = new SearchTaskParameters(
-							search,
-							resourceDao,
-							params,
-							resourceType,
-							theRequestDetails,
-							theRequestPartitionId,
-							myOnRemoveSearchTask,
-							mySyncSize);
-					parameters.setLoadingThrottleForUnitTests(myLoadingThrottleForUnitTests);
-					SearchContinuationTask task =
-							(SearchContinuationTask) myBeanFactory.getBean(SearchConfig.CONTINUE_TASK, parameters);
-					myIdToSearchTask.put(search.getUuid(), task);
-					task.call();
+				acquireSearchTaskPermit();
+				try {
+					Optional<Search> newSearch =
+							mySearchCacheSvc.tryToMarkSearchAsInProgress(search, theRequestPartitionId);
+					if (newSearch.isPresent()) {
+						ourLog.trace("Launching new search");
+						search = newSearch.get();
+						String resourceType = search.getResourceType();
+						SearchParameterMap params = search.getSearchParameterMap()
+								.orElseThrow(() -> new IllegalStateException("No map in PASSCOMPLET search"));
+						IFhirResourceDao<?> resourceDao = myDaoRegistry.getResourceDao(resourceType);
+
+						SearchTaskParameters parameters = new SearchTaskParameters(
+								search,
+								resourceDao,
+								params,
+								resourceType,
+								theRequestDetails,
+								theRequestPartitionId,
+								myOnRemoveSearchTask,
+								mySyncSize);
+						parameters.setLoadingThrottleForUnitTests(myLoadingThrottleForUnitTests);
+						SearchContinuationTask task = (SearchContinuationTask)
+								myBeanFactory.getBean(SearchConfig.CONTINUE_TASK, parameters);
+						myIdToSearchTask.put(search.getUuid(), task);
+						task.call();
+					}
+				} finally {
+					releaseSearchTaskPermit();
 				}
 			}
 
@@ -611,16 +634,51 @@ public class SearchCoordinatorSvcImpl implements ISearchCoordinatorSvc<JpaPid> {
 				mySyncSize);
 		stp.setLoadingThrottleForUnitTests(myLoadingThrottleForUnitTests);
 		SearchTask task = (SearchTask) myBeanFactory.getBean(SearchConfig.SEARCH_TASK, stp);
-		myIdToSearchTask.put(theSearch.getUuid(), task);
-		task.call();
+
+		acquireSearchTaskPermit();
+		try {
+			myIdToSearchTask.put(theSearch.getUuid(), task);
+			task.call();
+		} finally {
+			releaseSearchTaskPermit();
+		}
 
 		PersistedJpaSearchFirstPageBundleProvider retVal = myPersistedJpaBundleProviderFactory.newInstanceFirstPage(
 				theRequestDetails, task, theSb, theRequestPartitionId);
 
+		mySearchTaskMetrics.recordFirstPage(TimeUnit.MILLISECONDS.toNanos(w.getMillis()));
 		ourLog.debug("Search initial phase completed in {}ms", w.getMillis());
 		return retVal;
 	}
 
+	/**
+	 * If the number of concurrent search tasks is limited, waits for a permit
+	 * before a search task is registered and run on the calling thread.
+	 */
+	private void acquireSearchTaskPermit() {
+		long start = System.nanoTime();
+		if (mySearchTaskPermits != null) {
+			boolean acquired;
+			try {
+				acquired = mySearchTaskPermits.tryAcquire(myMaxMillisToWaitForRemoteResults, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InternalErrorException(Msg.code(2602) + "Interrupted while waiting to start search", e);
+			}
+			if (!acquired) {
+				throw new InternalErrorException(Msg.code(2603) + "Timed out after "
+						+ myMaxMillisToWaitForRemoteResults + "ms waiting to start search");
+			}
+		}
+		mySearchTaskMetrics.recordPermitWait(System.nanoTime() - start);
+	}
+
+	private void releaseSearchTaskPermit() {
+		if (mySearchTaskPermits != null) {
+			mySearchTaskPermits.release();
+		}
+	}
+
 	@Nullable
 	private PersistedJpaBundleProvider findCachedQuery(
 			SearchParameterMap theParams,
@@ -0,0 +1,115 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.search;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timing statistics for the search tasks run by {@link SearchCoordinatorSvcImpl}
+ *
+ * @see SearchCoordinatorSvcImpl#getSearchTaskMetrics()
+ * @since 7.8.0
+ */
+public class SearchTaskMetrics {
+
+	private final LongAdder myTaskCount = new LongAdder();
+	private final LongAdder myTotalPermitWaitNanos = new LongAdder();
+	private final LongAccumulator myMaxPermitWaitNanos = new LongAccumulator(Math::max, 0);
+	private final LongAdder myFirstPageCount = new LongAdder();
+	private final LongAdder myTotalFirstPageNanos = new LongAdder();
+	private final LongAccumulator myMaxFirstPageNanos = new LongAccumulator(Math::max, 0);
+
+	void recordPermitWait(long theNanos) {
+		myTaskCount.increment();
+		myTotalPermitWaitNanos.add(theNanos);
+		myMaxPermitWaitNanos.accumulate(theNanos);
+	}
+
+	void recordFirstPage(long theNanos) {
+		myFirstPageCount.increment();
+		myTotalFirstPageNanos.add(theNanos);
+		myMaxFirstPageNanos.accumulate(theNanos);
+	}
+
+	/**
+	 * Returns the number of search tasks (initial and continuation) which have been started
+	 */
+	public long getTaskCount() {
+		return myTaskCount.sum();
+	}
+
+	/**
+	 * Returns the total time search tasks have spent waiting for permission to run
+	 * because {@link ca.uhn.fhir.jpa.api.config.JpaStorageSettings#setMaximumConcurrentSearchTasks(Integer) the
+	 * maximum number of concurrent search tasks} was reached
+	 */
+	public long getTotalPermitWaitMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(myTotalPermitWaitNanos.sum());
+	}
+
+	public long getMaxPermitWaitMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(myMaxPermitWaitNanos.get());
+	}
+
+	/**
+	 * Returns the number of new searches for which the first page has been returned
+	 */
+	public long getFirstPageCount() {
+		return myFirstPageCount.sum();
+	}
+
+	/**
+	 * Returns the total time between new searches being submitted and their first page
+	 * of results being available, including any time spent waiting for permission to run
+	 */
+	public long getTotalFirstPageMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(myTotalFirstPageNanos.sum());
+	}
+
+	public long getMaxFirstPageMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(myMaxFirstPageNanos.get());
+	}
+
+	public void clear() {
+		myTaskCount.reset();
+		myTotalPermitWaitNanos.reset();
+		myMaxPermitWaitNanos.reset();
+		myFirstPageCount.reset();
+		myTotalFirstPageNanos.reset();
+		myMaxFirstPageNanos.reset();
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+				.append("taskCount", getTaskCount())
+				.append("totalPermitWaitMillis", getTotalPermitWaitMillis())
+				.append("maxPermitWaitMillis", getMaxPermitWaitMillis())
+				.append("firstPageCount", getFirstPageCount())
+				.append("totalFirstPageMillis", getTotalFirstPageMillis())
+				.append("maxFirstPageMillis", getMaxFirstPageMillis())
+				.toString();
+	}
+}
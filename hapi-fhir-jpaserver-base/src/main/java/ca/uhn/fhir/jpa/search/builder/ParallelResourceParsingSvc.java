@@ -0,0 +1,145 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.search.builder;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.util.ThreadPoolUtil;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Converts a list of loaded database rows into parsed resources, splitting large lists
+ * into chunks which are parsed in parallel when
+ * {@link JpaStorageSettings#setSearchResourceParsingThreadCount(int) enabled}. The calling
+ * thread always parses the first chunk itself, and results are returned in the same order
+ * as the input.
+ * <p>
+ * The parse function must not use the calling thread's persistence context, since
+ * chunks other than the first are parsed on pool threads.
+ * </p>
+ *
+ * @since 7.8.0
+ */
+public class ParallelResourceParsingSvc {
+
+	/**
+	 * Lists are never split into chunks smaller than this, since the overhead of handing
+	 * a chunk to another thread outweighs the benefit for small pages
+	 */
+	static final int MINIMUM_CHUNK_SIZE = 25;
+
+	private final JpaStorageSettings myStorageSettings;
+	private ThreadPoolTaskExecutor myExecutor;
+
+	/**
+	 * Constructor
+	 */
+	public ParallelResourceParsingSvc(JpaStorageSettings theStorageSettings) {
+		myStorageSettings = theStorageSettings;
+	}
+
+	/**
+	 * Applies the given parse function to every input, returning the results in the
+	 * same order as the inputs. Exceptions thrown by the parse function are rethrown
+	 * on the calling thread.
+	 */
+	public <T, R> List<R> parse(List<T> theInputs, Function<T, R> theParseFunction) {
+		int size = theInputs.size();
+		int threadCount = myStorageSettings.getSearchResourceParsingThreadCount();
+		if (threadCount <= 1 || size < MINIMUM_CHUNK_SIZE * 2) {
+			List<R> retVal = new ArrayList<>(size);
+			for (T next : theInputs) {
+				retVal.add(theParseFunction.apply(next));
+			}
+			return retVal;
+		}
+
+		int chunkSize = Math.max(MINIMUM_CHUNK_SIZE, (size + threadCount - 1) / threadCount);
+		Object[] results = new Object[size];
+
+		ThreadPoolTaskExecutor executor = getExecutor();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int from = chunkSize; from < size; from += chunkSize) {
+			int chunkFrom = from;
+			int chunkTo = Math.min(size, from + chunkSize);
+			futures.add(executor.submit(() -> parseChunk(theInputs, theParseFunction, results, chunkFrom, chunkTo)));
+		}
+
+		parseChunk(theInputs, theParseFunction, results, 0, chunkSize);
+
+		for (Future<?> next : futures) {
+			awaitChunk(next);
+		}
+
+		@SuppressWarnings("unchecked")
+		List<R> retVal = (List<R>) Arrays.asList(results);
+		return retVal;
+	}
+
+	private static <T, R> void parseChunk(
+			List<T> theInputs, Function<T, R> theParseFunction, Object[] theResults, int theFrom, int theTo) {
+		for (int i = theFrom; i < theTo; i++) {
+			theResults[i] = theParseFunction.apply(theInputs.get(i));
+		}
+	}
+
+	private static void awaitChunk(Future<?> theFuture) {
+		try {
+			theFuture.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InternalErrorException(Msg.code(2604) + "Interrupted while parsing resources", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new InternalErrorException(Msg.code(2605) + "Failed to parse resources: " + cause, cause);
+		}
+	}
+
+	private synchronized ThreadPoolTaskExecutor getExecutor() {
+		if (myExecutor == null) {
+			int threadCount = myStorageSettings.getSearchResourceParsingThreadCount();
+			myExecutor = ThreadPoolUtil.newThreadPool(threadCount, threadCount, "search-parse-", Integer.MAX_VALUE);
+		}
+		return myExecutor;
+	}
+
+	@PreDestroy
+	public synchronized void shutdown() {
+		if (myExecutor != null) {
+			myExecutor.shutdown();
+			myExecutor = null;
+		}
+	}
+}
@@ -146,6 +146,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static ca.uhn.fhir.jpa.model.util.JpaConstants.UNDESIRED_RESOURCE_LINKAGES_FOR_EVERYTHING_ON_PATIENT_INSTANCE;
@@ -239,6 +240,9 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 	@Autowired
 	private IRequestPartitionHelperSvc myPartitionHelperSvc;
 
+	@Autowired(required = false)
+	private ParallelResourceParsingSvc myParallelResourceParsingSvc;
+
 	/**
 	 * Constructor
 	 */
@@ -1246,14 +1250,31 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 		// -- preload all tags with tag definition if any
 		Map<JpaPid, Collection<BaseTag>> tagMap = getResourceTagMap(resourceSearchViewList);
 
+		List<ResourceHistoryTable> resourcesToParse = new ArrayList<>(resourceSearchViewList.size());
 		for (ResourceHistoryTable next : resourceSearchViewList) {
-			if (next.getDeleted() != null) {
-				continue;
+			if (next != null && next.getDeleted() == null) {
+				resourcesToParse.add(next);
 			}
+		}
 
-			Class<? extends IBaseResource> resourceType =
-					myContext.getResourceDefinition(next.getResourceType()).getImplementingClass();
+		/*
+		 * Parsing can be split across threads, but only when it is guaranteed not to touch the
+		 * persistence context: replacement history versions may have lazy associations, and the
+		 * provenance table is queried per resource.
+		 */
+		List<IBaseResource> parsedResources;
+		Function<ResourceHistoryTable, IBaseResource> parseFunction =
+				t -> toResource(t, tagMap, theForHistoryOperation);
+		if (myParallelResourceParsingSvc != null
+				&& resourcePidToVersion == null
+				&& !myStorageSettings.isAccessMetaSourceInformationFromProvenanceTable()) {
+			parsedResources = myParallelResourceParsingSvc.parse(resourcesToParse, parseFunction);
+		} else {
+			parsedResources = resourcesToParse.stream().map(parseFunction).collect(Collectors.toList());
+		}
 
+		for (int i = 0; i < resourcesToParse.size(); i++) {
+			ResourceHistoryTable next = resourcesToParse.get(i);
 			JpaPid resourceId = next.getPersistentId();
 
 			if (resourcePidToVersion != null) {
@@ -1261,21 +1282,13 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 				resourceId.setVersion(version);
 			}
 
-			IBaseResource resource = null;
-			if (next != null) {
-				resource = myJpaStorageResourceParser.toResource(
-						resourceType, next, tagMap.get(next.getResourceId()), theForHistoryOperation);
-			}
+			IBaseResource resource = parsedResources.get(i);
 			if (resource == null) {
-				if (next != null) {
-					ourLog.warn(
-							"Unable to find resource {}/{}/_history/{} in database",
-							next.getResourceType(),
-							next.getIdDt().getIdPart(),
-							next.getVersion());
-				} else {
-					ourLog.warn("Unable to find resource in database.");
-				}
+				ourLog.warn(
+						"Unable to find resource {}/{}/_history/{} in database",
+						next.getResourceType(),
+						next.getIdDt().getIdPart(),
+						next.getVersion());
 				continue;
 			}
 
@@ -1295,6 +1308,16 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 		}
 	}
 
+	private IBaseResource toResource(
+			ResourceHistoryTable theHistoryTable,
+			Map<JpaPid, Collection<BaseTag>> theTagMap,
+			boolean theForHistoryOperation) {
+		Class<? extends IBaseResource> resourceType =
+				myContext.getResourceDefinition(theHistoryTable.getResourceType()).getImplementingClass();
+		return myJpaStorageResourceParser.toResource(
+				resourceType, theHistoryTable, theTagMap.get(theHistoryTable.getResourceId()), theForHistoryOperation);
+	}
+
 	private Map<JpaPid, Collection<BaseTag>> getResourceTagMap(Collection<ResourceHistoryTable> theHistoryTables) {
 
 		switch (myStorageSettings.getTagStorageMode()) {
@@ -0,0 +1,150 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.search.cache;
+
+import ca.uhn.fhir.jpa.model.dao.JpaPid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An append-only list of {@link JpaPid resource PIDs} which is stored in a compact
+ * form. Each resource ID is written as a variable length delta from the previous one,
+ * followed by the (usually one byte) partition ID, so a typical search result costs a
+ * few bytes per entry instead of a boxed object graph or a database row.
+ * <p>
+ * A checkpoint is recorded every {@link #CHECKPOINT_INTERVAL} entries so that a page
+ * can be decoded without decoding everything before it.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+public class CompressedPidList {
+
+	static final int CHECKPOINT_INTERVAL = 64;
+
+	private byte[] myBytes = new byte[64];
+	private int myByteCount;
+	private int mySize;
+	private long myLastId;
+	private int[] myCheckpointOffsets = new int[8];
+	private long[] myCheckpointLastIds = new long[8];
+
+	public synchronized void add(JpaPid thePid) {
+		if (mySize % CHECKPOINT_INTERVAL == 0) {
+			int checkpoint = mySize / CHECKPOINT_INTERVAL;
+			if (checkpoint == myCheckpointOffsets.length) {
+				myCheckpointOffsets = Arrays.copyOf(myCheckpointOffsets, checkpoint * 2);
+				myCheckpointLastIds = Arrays.copyOf(myCheckpointLastIds, checkpoint * 2);
+			}
+			myCheckpointOffsets[checkpoint] = myByteCount;
+			myCheckpointLastIds[checkpoint] = myLastId;
+		}
+
+		long id = thePid.getId();
+		writeVarLong(zigZag(id - myLastId));
+		Integer partitionId = thePid.getPartitionId();
+		writeVarLong(partitionId == null ? 0 : zigZag(partitionId) + 1);
+		myLastId = id;
+		mySize++;
+	}
+
+	public void addAll(List<JpaPid> thePids) {
+		for (JpaPid next : thePids) {
+			add(next);
+		}
+	}
+
+	public synchronized int size() {
+		return mySize;
+	}
+
+	/**
+	 * Returns the number of bytes used to store the PIDs
+	 */
+	public synchronized int getEncodedSize() {
+		return myByteCount;
+	}
+
+	/**
+	 * @param theFrom The starting index (inclusive)
+	 * @param theTo   The ending index (exclusive). May be larger than {@link #size()}.
+	 */
+	public synchronized List<JpaPid> get(int theFrom, int theTo) {
+		int to = Math.min(theTo, mySize);
+		if (theFrom >= to) {
+			return new ArrayList<>();
+		}
+
+		int checkpoint = theFrom / CHECKPOINT_INTERVAL;
+		int[] offset = {myCheckpointOffsets[checkpoint]};
+		long lastId = myCheckpointLastIds[checkpoint];
+
+		List<JpaPid> retVal = new ArrayList<>(to - theFrom);
+		for (int i = checkpoint * CHECKPOINT_INTERVAL; i < to; i++) {
+			long id = lastId + unZigZag(readVarLong(offset));
+			long partition = readVarLong(offset);
+			lastId = id;
+			if (i >= theFrom) {
+				Integer partitionId = partition == 0 ? null : (int) unZigZag(partition - 1);
+				retVal.add(JpaPid.fromId(id, partitionId));
+			}
+		}
+		return retVal;
+	}
+
+	public List<JpaPid> toList() {
+		return get(0, Integer.MAX_VALUE);
+	}
+
+	private void writeVarLong(long theValue) {
+		if (myByteCount + 10 > myBytes.length) {
+			myBytes = Arrays.copyOf(myBytes, myBytes.length * 2);
+		}
+		long value = theValue;
+		while ((value & ~0x7FL) != 0) {
+			myBytes[myByteCount++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		myBytes[myByteCount++] = (byte) value;
+	}
+
+	private long readVarLong(int[] theOffset) {
+		long retVal = 0;
+		int shift = 0;
+		byte next;
+		do {
+			next = myBytes[theOffset[0]++];
+			retVal |= (long) (next & 0x7F) << shift;
+			shift += 7;
+		} while ((next & 0x80) != 0);
+		return retVal;
+	}
+
+	private static long zigZag(long theValue) {
+		return (theValue << 1) ^ (theValue >> 63);
+	}
+
+	private static long unZigZag(long theValue) {
+		return (theValue >>> 1) ^ -(theValue & 1);
+	}
+}
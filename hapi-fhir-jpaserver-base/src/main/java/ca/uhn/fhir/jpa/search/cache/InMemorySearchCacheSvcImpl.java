@@ -0,0 +1,173 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.search.cache;
+
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.entity.Search;
+import ca.uhn.fhir.jpa.model.search.SearchStatusEnum;
+import ca.uhn.fhir.sl.cache.Cache;
+import ca.uhn.fhir.sl.cache.CacheFactory;
+import org.apache.commons.lang3.SerializationUtils;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static ca.uhn.fhir.jpa.search.cache.DatabaseSearchCacheSvcImpl.SEARCH_CLEANUP_JOB_INTERVAL_MILLIS;
+
+/**
+ * Search cache which keeps {@link Search} entities in memory instead of in the
+ * {@literal HFJ_SEARCH} table. Searches are copied when they are saved and fetched, so
+ * callers never share an instance, the same as they would with detached entities
+ * loaded from the database.
+ * <p>
+ * Searches expire after the same period that {@link DatabaseSearchCacheSvcImpl} would
+ * delete them after, and searches are discarded once the number of cached searches reaches
+ * {@link JpaStorageSettings#getInMemorySearchCacheMaximumSearches()}.
+ * </p>
+ *
+ * @see JpaStorageSettings.SearchCacheModeEnum#IN_MEMORY
+ * @since 7.8.0
+ */
+public class InMemorySearchCacheSvcImpl implements ISearchCacheSvc {
+	private static final Logger ourLog = LoggerFactory.getLogger(InMemorySearchCacheSvcImpl.class);
+
+	private final Cache<String, Search> mySearches;
+	private final Cache<String, String> myQueryStringToUuid;
+
+	public InMemorySearchCacheSvcImpl(JpaStorageSettings theStorageSettings) {
+		long expiryMillis = getExpiryMillis(theStorageSettings);
+		int maximumSearches = theStorageSettings.getInMemorySearchCacheMaximumSearches();
+		mySearches = CacheFactory.build(expiryMillis, maximumSearches);
+		myQueryStringToUuid = CacheFactory.build(expiryMillis, maximumSearches);
+	}
+
+	@Override
+	public Search save(Search theSearch, RequestPartitionId theRequestPartitionId) {
+		Validate.notBlank(theSearch.getUuid(), "Search must have a UUID");
+		mySearches.put(theSearch.getUuid(), copy(theSearch));
+		// Searches with no hash have been marked as not reusable (e.g. by the consent interceptor)
+		if (theSearch.getSearchQueryString() != null && theSearch.getSearchQueryStringHash() != null) {
+			myQueryStringToUuid.put(toQueryStringKey(theSearch), theSearch.getUuid());
+		}
+		return theSearch;
+	}
+
+	@Override
+	public Optional<Search> fetchByUuid(String theUuid, RequestPartitionId theRequestPartitionId) {
+		Validate.notBlank(theUuid);
+		return Optional.ofNullable(mySearches.getIfPresent(theUuid)).map(InMemorySearchCacheSvcImpl::copy);
+	}
+
+	@Override
+	public Optional<Search> tryToMarkSearchAsInProgress(Search theSearch, RequestPartitionId theRequestPartitionId) {
+		ourLog.trace(
+				"Going to try to change search status from {} to {}", theSearch.getStatus(), SearchStatusEnum.LOADING);
+		synchronized (this) {
+			Search search = mySearches.getIfPresent(theSearch.getUuid());
+			if (search == null) {
+				search = copy(theSearch);
+			}
+
+			if (search.getStatus() != SearchStatusEnum.PASSCMPLET) {
+				ourLog.warn(
+						"Failed to activate search: Can't change to LOADING because state is {}", search.getStatus());
+				return Optional.empty();
+			}
+			search.setStatus(SearchStatusEnum.LOADING);
+			mySearches.put(search.getUuid(), search);
+			return Optional.of(copy(search));
+		}
+	}
+
+	@Override
+	public Optional<Search> findCandidatesForReuse(
+			String theResourceType,
+			String theQueryString,
+			Instant theCreatedAfter,
+			RequestPartitionId theRequestPartitionId) {
+		String queryString = Search.createSearchQueryStringForStorage(theQueryString, theRequestPartitionId);
+		String uuid = myQueryStringToUuid.getIfPresent(toQueryStringKey(theResourceType, queryString));
+		if (uuid == null) {
+			return Optional.empty();
+		}
+
+		Search candidate = mySearches.getIfPresent(uuid);
+		if (candidate != null
+				&& isReusable(candidate, queryString)
+				&& candidate.getCreated().toInstant().isAfter(theCreatedAfter)) {
+			return Optional.of(copy(candidate));
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Applies the same criteria that {@link DatabaseSearchCacheSvcImpl} uses when looking for a
+	 * reusable search: the search must have a hash, must not be deleted, and must not have failed
+	 */
+	private static boolean isReusable(Search theCandidate, String theQueryString) {
+		return theCandidate.getSearchQueryStringHash() != null
+				&& theCandidate.getSearchQueryStringHash() == theQueryString.hashCode()
+				&& theQueryString.equals(theCandidate.getSearchQueryString())
+				&& !Boolean.TRUE.equals(theCandidate.getDeleted())
+				&& theCandidate.getStatus() != SearchStatusEnum.FAILED;
+	}
+
+	/**
+	 * Searches are expired by the underlying cache, so this method just performs any
+	 * pending cache maintenance
+	 */
+	@Override
+	public void pollForStaleSearchesAndDeleteThem(RequestPartitionId theRequestPartitionId, Instant theDeadline) {
+		mySearches.cleanUp();
+		myQueryStringToUuid.cleanUp();
+	}
+
+	private static Search copy(Search theSearch) {
+		return SerializationUtils.clone(theSearch);
+	}
+
+	private static String toQueryStringKey(Search theSearch) {
+		return toQueryStringKey(theSearch.getResourceType(), theSearch.getSearchQueryString());
+	}
+
+	private static String toQueryStringKey(String theResourceType, String theQueryString) {
+		return theResourceType + " " + theQueryString;
+	}
+
+	/**
+	 * Returns the time after which an in-memory search (and its results) should expire. This
+	 * is the same cutoff that {@link DatabaseSearchCacheSvcImpl} uses when deleting stale searches.
+	 */
+	static long getExpiryMillis(JpaStorageSettings theStorageSettings) {
+		if (!theStorageSettings.isExpireSearchResults()) {
+			return TimeUnit.DAYS.toMillis(365);
+		}
+		long retVal = theStorageSettings.getExpireSearchResultsAfterMillis();
+		if (theStorageSettings.getReuseCachedSearchResultsForMillis() != null) {
+			retVal += theStorageSettings.getReuseCachedSearchResultsForMillis();
+		}
+		return retVal + SEARCH_CLEANUP_JOB_INTERVAL_MILLIS;
+	}
+}
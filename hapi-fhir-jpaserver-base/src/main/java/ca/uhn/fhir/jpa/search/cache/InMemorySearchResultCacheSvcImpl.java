@@ -0,0 +1,108 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.search.cache;
+
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.entity.Search;
+import ca.uhn.fhir.jpa.model.dao.JpaPid;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.sl.cache.Cache;
+import ca.uhn.fhir.sl.cache.CacheFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Search result cache which keeps the result PIDs for each search in memory using a
+ * {@link CompressedPidList} instead of writing them to the {@literal HFJ_SEARCH_RESULT} table.
+ *
+ * @see JpaStorageSettings.SearchCacheModeEnum#IN_MEMORY
+ * @since 7.8.0
+ */
+public class InMemorySearchResultCacheSvcImpl implements ISearchResultCacheSvc {
+	private static final Logger ourLog = LoggerFactory.getLogger(InMemorySearchResultCacheSvcImpl.class);
+
+	private final Cache<String, CompressedPidList> myResults;
+
+	public InMemorySearchResultCacheSvcImpl(JpaStorageSettings theStorageSettings) {
+		myResults = CacheFactory.build(
+				InMemorySearchCacheSvcImpl.getExpiryMillis(theStorageSettings),
+				theStorageSettings.getInMemorySearchCacheMaximumSearches());
+	}
+
+	@Override
+	public void storeResults(
+			Search theSearch,
+			List<JpaPid> thePreviouslyStoredResourcePids,
+			List<JpaPid> theNewResourcePids,
+			RequestDetails theRequestDetails,
+			RequestPartitionId theRequestPartitionId) {
+		CompressedPidList results;
+		if (thePreviouslyStoredResourcePids.isEmpty()) {
+			results = myResults.get(theSearch.getUuid(), t -> new CompressedPidList());
+		} else {
+			// If the earlier results have been evicted, don't store a partial list
+			results = myResults.getIfPresent(theSearch.getUuid());
+			if (results == null) {
+				ourLog.warn(
+						"Results for search {} have been evicted from the cache, not storing {} new results",
+						theSearch.getUuid(),
+						theNewResourcePids.size());
+				return;
+			}
+		}
+
+		ourLog.debug(
+				"Storing {} results with {} previous for search",
+				theNewResourcePids.size(),
+				thePreviouslyStoredResourcePids.size());
+		results.addAll(theNewResourcePids);
+	}
+
+	@Override
+	public List<JpaPid> fetchResultPids(
+			Search theSearch,
+			int theFrom,
+			int theTo,
+			RequestDetails theRequestDetails,
+			RequestPartitionId theRequestPartitionId) {
+		CompressedPidList results = myResults.getIfPresent(theSearch.getUuid());
+		if (results == null) {
+			return null;
+		}
+		List<JpaPid> retVal = results.get(theFrom, theTo);
+		ourLog.debug("fetchResultPids for range {}-{} returned {} pids", theFrom, theTo, retVal.size());
+		return retVal;
+	}
+
+	@Override
+	public List<JpaPid> fetchAllResultPids(
+			Search theSearch, RequestDetails theRequestDetails, RequestPartitionId theRequestPartitionId) {
+		CompressedPidList results = myResults.getIfPresent(theSearch.getUuid());
+		if (results == null) {
+			return null;
+		}
+		List<JpaPid> retVal = results.toList();
+		ourLog.trace("fetchAllResultPids returned {} pids", retVal.size());
+		return retVal;
+	}
+}
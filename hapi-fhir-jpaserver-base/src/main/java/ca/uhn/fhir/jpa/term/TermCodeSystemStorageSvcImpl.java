@@ -41,6 +41,7 @@ import ca.uhn.fhir.jpa.entity.TermConceptParentChildLink;
 import ca.uhn.fhir.jpa.entity.TermConceptProperty;
 import ca.uhn.fhir.jpa.model.dao.JpaPid;
 import ca.uhn.fhir.jpa.model.entity.EntityIndexStatusEnum;
+import ca.uhn.fhir.jpa.model.entity.IdAndPartitionId;
 import ca.uhn.fhir.jpa.model.entity.ResourceTable;
 import ca.uhn.fhir.jpa.term.api.ITermCodeSystemStorageSvc;
 import ca.uhn.fhir.jpa.term.api.ITermDeferredStorageSvc;
@@ -49,6 +50,7 @@ import ca.uhn.fhir.jpa.term.api.ITermVersionAdapterSvc;
 import ca.uhn.fhir.jpa.term.custom.CustomTerminologySet;
 import ca.uhn.fhir.rest.api.Constants;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
 import ca.uhn.fhir.rest.server.exceptions.PreconditionFailedException;
 import ca.uhn.fhir.rest.server.exceptions.UnprocessableEntityException;
@@ -60,6 +62,8 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.PersistenceContextType;
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.commons.lang3.tuple.Pair;
 import org.hl7.fhir.instance.model.api.IIdType;
 import org.hl7.fhir.r4.model.CodeSystem;
 import org.hl7.fhir.r4.model.ConceptMap;
@@ -67,15 +71,19 @@ import org.hl7.fhir.r4.model.ValueSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
@@ -85,6 +93,10 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -141,6 +153,9 @@ public class TermCodeSystemStorageSvcImpl implements ITermCodeSystemStorageSvc {
 	@Autowired
 	private TermConceptDaoSvc myTermConceptDaoSvc;
 
+	@Autowired
+	private PlatformTransactionManager myTransactionManager;
+
 	@Transactional
 	@Override
 	public UploadStatistics applyDeltaCodeSystemsAdd(String theSystem, CustomTerminologySet theAdditions) {
@@ -375,15 +390,7 @@ public class TermCodeSystemStorageSvcImpl implements ITermCodeSystemStorageSvc {
 
 		// Note that this creates the TermCodeSystem and TermCodeSystemVersion entities if needed
 		IIdType csId = myTerminologyVersionAdapterSvc.createOrUpdateCodeSystem(theCodeSystemResource, theRequest);
-
-		JpaPid codeSystemResourcePid = myIdHelperService.resolveResourceIdentityPid(
-				RequestPartitionId.allPartitions(),
-				csId.getResourceType(),
-				csId.getIdPart(),
-				ResolveIdentityMode.includeDeleted().cacheOk());
-		ResourceTable resource = myResourceTableDao.getOne(codeSystemResourcePid);
-
-		ourLog.info("CodeSystem resource has ID: {}", csId.getValue());
+		ResourceTable resource = getCodeSystemResourceTable(csId);
 
 		populateCodeSystemVersionProperties(theCodeSystemVersion, theCodeSystemResource, resource);
 
@@ -401,6 +408,203 @@ public class TermCodeSystemStorageSvcImpl implements ITermCodeSystemStorageSvc {
 		return csId;
 	}
 
+	@Override
+	public IIdType storeNewCodeSystemVersion(
+			CodeSystem theCodeSystemResource,
+			TermConceptGraph theConceptGraph,
+			RequestDetails theRequest,
+			int theBatchSize,
+			int theThreadCount) {
+		Validate.isTrue(
+				!TransactionSynchronizationManager.isActualTransactionActive(),
+				"Concept graphs must not be stored within an existing transaction");
+		Validate.notBlank(theCodeSystemResource.getUrl(), "theCodeSystemResource must have a URL");
+		Validate.isTrue(theBatchSize > 0, "theBatchSize must be greater than 0");
+		Validate.isTrue(theThreadCount > 0, "theThreadCount must be greater than 0");
+
+		TermConceptGraph.Hierarchy hierarchy = theConceptGraph.buildHierarchy();
+		ourLog.info(
+				"Storing {} concepts in {} hierarchy levels with {} links ({} circular links dropped)",
+				theConceptGraph.size(),
+				hierarchy.getLevelCount(),
+				hierarchy.getLinkCount(),
+				hierarchy.getDroppedLinkCount());
+
+		// Create the CodeSystem resource and an empty TermCodeSystemVersion
+		TransactionTemplate txTemplate = new TransactionTemplate(myTransactionManager);
+		Pair<IIdType, IdAndPartitionId> codeSystemIds = txTemplate.execute(t -> {
+			IIdType csId = myTerminologyVersionAdapterSvc.createOrUpdateCodeSystem(theCodeSystemResource, theRequest);
+			ResourceTable resource = getCodeSystemResourceTable(csId);
+
+			TermCodeSystemVersion codeSystemVersion = new TermCodeSystemVersion();
+			populateCodeSystemVersionProperties(codeSystemVersion, theCodeSystemResource, resource);
+			codeSystemVersion = doStoreNewCodeSystemVersion(
+					theCodeSystemResource.getUrl(),
+					theCodeSystemResource.getName(),
+					theCodeSystemResource.getVersion(),
+					codeSystemVersion,
+					resource,
+					theRequest);
+			return Pair.of(csId, codeSystemVersion.getId());
+		});
+		assert codeSystemIds != null;
+		IdAndPartitionId codeSystemVersionId = codeSystemIds.getRight();
+
+		/*
+		 * Every parent of a concept is in an earlier hierarchy level, so by the time a level is
+		 * stored the PIDs of all of its ancestors are known. Only the PID of each concept is kept
+		 * in memory between batches.
+		 */
+		long[] conceptPids = new long[theConceptGraph.size()];
+		ExecutorService executor = Executors.newFixedThreadPool(
+				theThreadCount,
+				new BasicThreadFactory.Builder()
+						.namingPattern("TermConceptStorage-%d")
+						.daemon(true)
+						.build());
+		try {
+			for (int level = 0; level < hierarchy.getLevelCount(); level++) {
+				List<Future<?>> futures = new ArrayList<>();
+				int levelEnd = hierarchy.getLevelEnd(level);
+				for (int from = hierarchy.getLevelStart(level); from < levelEnd; from += theBatchSize) {
+					int batchFrom = from;
+					int batchTo = Math.min(from + theBatchSize, levelEnd);
+					futures.add(executor.submit(() -> txTemplate.executeWithoutResult(t -> storeConceptBatch(
+							theConceptGraph, hierarchy, batchFrom, batchTo, codeSystemVersionId, conceptPids))));
+				}
+				awaitBatches(futures);
+				ourLog.info(
+						"Stored hierarchy level {}/{} - Have stored {}/{} concepts",
+						level + 1,
+						hierarchy.getLevelCount(),
+						levelEnd,
+						theConceptGraph.size());
+			}
+
+			List<Future<?>> futures = new ArrayList<>();
+			int batchFrom = 0;
+			int batchLinkCount = 0;
+			for (int concept = 0; concept < theConceptGraph.size(); concept++) {
+				batchLinkCount += hierarchy.getParentCount(concept);
+				if (batchLinkCount >= theBatchSize || concept == theConceptGraph.size() - 1) {
+					int from = batchFrom;
+					int to = concept + 1;
+					futures.add(executor.submit(() -> txTemplate.executeWithoutResult(
+							t -> storeLinkBatch(hierarchy, from, to, codeSystemVersionId, conceptPids))));
+					batchFrom = to;
+					batchLinkCount = 0;
+				}
+			}
+			awaitBatches(futures);
+			ourLog.info("Stored {} links", hierarchy.getLinkCount());
+
+		} finally {
+			executor.shutdownNow();
+		}
+
+		return codeSystemIds.getLeft();
+	}
+
+	private void storeConceptBatch(
+			TermConceptGraph theConceptGraph,
+			TermConceptGraph.Hierarchy theHierarchy,
+			int theFrom,
+			int theTo,
+			IdAndPartitionId theCodeSystemVersionId,
+			long[] theConceptPids) {
+		TermCodeSystemVersion codeSystemVersion =
+				myCodeSystemVersionDao.findById(theCodeSystemVersionId).orElseThrow();
+
+		for (int i = theFrom; i < theTo; i++) {
+			int conceptIndex = theHierarchy.getConceptAt(i);
+			TermConcept concept = new TermConcept();
+			concept.setCodeSystemVersion(codeSystemVersion);
+			concept.setCode(theConceptGraph.getCode(conceptIndex));
+			concept.setDisplay(theConceptGraph.getDisplay(conceptIndex));
+			concept.setParentPids(createAncestorPidsString(theHierarchy, conceptIndex, theConceptPids));
+			myTermConceptDaoSvc.saveConcept(concept);
+			theConceptPids[conceptIndex] = concept.getId();
+		}
+	}
+
+	private void storeLinkBatch(
+			TermConceptGraph.Hierarchy theHierarchy,
+			int theFrom,
+			int theTo,
+			IdAndPartitionId theCodeSystemVersionId,
+			long[] theConceptPids) {
+		TermCodeSystemVersion codeSystemVersion =
+				myCodeSystemVersionDao.findById(theCodeSystemVersionId).orElseThrow();
+		Integer partitionId = codeSystemVersion.getPartitionId().getPartitionId();
+
+		for (int concept = theFrom; concept < theTo; concept++) {
+			for (int i = 0; i < theHierarchy.getParentCount(concept); i++) {
+				TermConceptParentChildLink link = new TermConceptParentChildLink();
+				link.setCodeSystem(codeSystemVersion);
+				link.setParentAndChildPids(
+						theConceptPids[theHierarchy.getParent(concept, i)], theConceptPids[concept], partitionId);
+				link.setRelationshipType(TermConceptParentChildLink.RelationshipTypeEnum.ISA);
+				myEntityManager.persist(link);
+			}
+		}
+	}
+
+	/**
+	 * Creates the value for {@link TermConcept#setParentPids(String)}, which contains the PIDs of all
+	 * ancestors of the concept (not just its direct parents)
+	 */
+	private static String createAncestorPidsString(
+			TermConceptGraph.Hierarchy theHierarchy, int theConcept, long[] theConceptPids) {
+		StringBuilder retVal = new StringBuilder();
+		Set<Integer> visited = new HashSet<>();
+		Deque<Integer> toVisit = new ArrayDeque<>();
+		toVisit.push(theConcept);
+		while (!toVisit.isEmpty()) {
+			int next = toVisit.pop();
+			for (int i = 0; i < theHierarchy.getParentCount(next); i++) {
+				int parent = theHierarchy.getParent(next, i);
+				if (visited.add(parent)) {
+					if (retVal.length() > 0) {
+						retVal.append(' ');
+					}
+					retVal.append(theConceptPids[parent]);
+					toVisit.push(parent);
+				}
+			}
+		}
+
+		if (retVal.length() == 0) {
+			retVal.append("NONE");
+		}
+		return retVal.toString();
+	}
+
+	private static void awaitBatches(List<Future<?>> theFutures) {
+		try {
+			for (Future<?> next : theFutures) {
+				next.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InternalErrorException(Msg.code(2617) + "Interrupted while storing concepts", e);
+		} catch (ExecutionException e) {
+			throw new InternalErrorException(
+					Msg.code(2618) + "Failed to store concepts: " + e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	private ResourceTable getCodeSystemResourceTable(IIdType theCodeSystemId) {
+		JpaPid codeSystemResourcePid = myIdHelperService.resolveResourceIdentityPid(
+				RequestPartitionId.allPartitions(),
+				theCodeSystemId.getResourceType(),
+				theCodeSystemId.getIdPart(),
+				ResolveIdentityMode.includeDeleted().cacheOk());
+		ResourceTable retVal = myResourceTableDao.getOne(codeSystemResourcePid);
+
+		ourLog.info("CodeSystem resource has ID: {}", theCodeSystemId.getValue());
+		return retVal;
+	}
+
 	@Override
 	@Transactional
 	public void storeNewCodeSystemVersion(
@@ -410,6 +614,26 @@ public class TermCodeSystemStorageSvcImpl implements ITermCodeSystemStorageSvc {
 			TermCodeSystemVersion theCodeSystemVersion,
 			ResourceTable theCodeSystemResourceTable,
 			RequestDetails theRequestDetails) {
+		doStoreNewCodeSystemVersion(
+				theSystemUri,
+				theSystemName,
+				theCodeSystemVersionId,
+				theCodeSystemVersion,
+				theCodeSystemResourceTable,
+				theRequestDetails);
+	}
+
+	/**
+	 * @return The TermCodeSystemVersion which was stored. This is not always the one which was passed in,
+	 * 		since an existing version with no concepts may be reused.
+	 */
+	private TermCodeSystemVersion doStoreNewCodeSystemVersion(
+			String theSystemUri,
+			String theSystemName,
+			String theCodeSystemVersionId,
+			TermCodeSystemVersion theCodeSystemVersion,
+			ResourceTable theCodeSystemResourceTable,
+			RequestDetails theRequestDetails) {
 		assert TransactionSynchronizationManager.isActualTransactionActive();
 
 		ourLog.debug("Storing code system");
@@ -527,6 +751,8 @@ public class TermCodeSystemStorageSvcImpl implements ITermCodeSystemStorageSvc {
 		if (!myDeferredStorageSvc.isStorageQueueEmpty(true)) {
 			ourLog.info("Note that some concept saving has been deferred");
 		}
+
+		return codeSystemToStore;
 	}
 
 	private TermCodeSystemVersion getExistingTermCodeSystemVersion(
@@ -0,0 +1,511 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.term;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+
+/**
+ * A compact, in-memory representation of the concepts and IS-A hierarchy of a CodeSystem. This is
+ * used when loading very large CodeSystems (e.g. SNOMED CT) instead of building a graph of
+ * {@link ca.uhn.fhir.jpa.entity.TermConcept} and {@link ca.uhn.fhir.jpa.entity.TermConceptParentChildLink}
+ * entities, which needs many gigabytes of heap for a full release.
+ * <p>
+ * Concepts are numbered in the order they are added, and codes are indexed in an open-addressed
+ * hash table of concept numbers. Links are held as packed <code>long</code> values in a second
+ * open-addressed table, so adding or removing a link never allocates.
+ * </p>
+ * <p>
+ * This class is not thread safe while it is being populated. The {@link Hierarchy} returned by
+ * {@link #buildHierarchy()} is immutable.
+ * </p>
+ *
+ * @since 7.8.0
+ */
+public final class TermConceptGraph {
+
+	private static final Logger ourLog = LoggerFactory.getLogger(TermConceptGraph.class);
+	private static final int INITIAL_CAPACITY = 1024;
+	private static final int EMPTY_CODE_SLOT = -1;
+	private static final long EMPTY_LINK_SLOT = -1L;
+
+	private String[] myCodes = new String[INITIAL_CAPACITY];
+	private String[] myDisplays = new String[INITIAL_CAPACITY];
+	private int mySize;
+	private int[] myCodeTable = newCodeTable(INITIAL_CAPACITY * 2);
+	private long[] myLinkTable = newLinkTable(INITIAL_CAPACITY * 2);
+	private int myLinkCount;
+
+	/**
+	 * Adds a concept, or replaces the display of the concept with the given code if one
+	 * has already been added
+	 *
+	 * @return The number of the concept
+	 */
+	public int addConcept(@Nonnull String theCode, @Nullable String theDisplay) {
+		Validate.notNull(theCode, "theCode must not be null");
+
+		int retVal = indexOf(theCode);
+		if (retVal >= 0) {
+			myDisplays[retVal] = theDisplay;
+			return retVal;
+		}
+
+		if (mySize == myCodes.length) {
+			myCodes = Arrays.copyOf(myCodes, mySize * 2);
+			myDisplays = Arrays.copyOf(myDisplays, mySize * 2);
+		}
+		retVal = mySize++;
+		myCodes[retVal] = theCode;
+		myDisplays[retVal] = theDisplay;
+
+		if (mySize * 2 > myCodeTable.length) {
+			myCodeTable = newCodeTable(myCodeTable.length * 2);
+			for (int i = 0; i < mySize; i++) {
+				insertCode(i);
+			}
+		} else {
+			insertCode(retVal);
+		}
+
+		return retVal;
+	}
+
+	/**
+	 * @return The number of the concept with the given code, or <code>-1</code> if there is none
+	 */
+	public int indexOf(@Nonnull String theCode) {
+		int mask = myCodeTable.length - 1;
+		int slot = hash(theCode.hashCode()) & mask;
+		while (myCodeTable[slot] != EMPTY_CODE_SLOT) {
+			if (myCodes[myCodeTable[slot]].equals(theCode)) {
+				return myCodeTable[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	@Nonnull
+	public String getCode(int theConcept) {
+		Validate.isTrue(theConcept >= 0 && theConcept < mySize, "Unknown concept: %d", theConcept);
+		return myCodes[theConcept];
+	}
+
+	@Nullable
+	public String getDisplay(int theConcept) {
+		Validate.isTrue(theConcept >= 0 && theConcept < mySize, "Unknown concept: %d", theConcept);
+		return myDisplays[theConcept];
+	}
+
+	/**
+	 * @return The number of concepts
+	 */
+	public int size() {
+		return mySize;
+	}
+
+	/**
+	 * Adds an IS-A link between two concepts. Links from a concept to itself are ignored.
+	 *
+	 * @return <code>true</code> if the link was added, or <code>false</code> if it already existed
+	 */
+	public boolean addLink(int theParent, int theChild) {
+		validateConcepts(theParent, theChild);
+		if (theParent == theChild) {
+			return false;
+		}
+
+		if ((myLinkCount + 1) * 2 > myLinkTable.length) {
+			long[] oldTable = myLinkTable;
+			myLinkTable = newLinkTable(oldTable.length * 2);
+			myLinkCount = 0;
+			for (long next : oldTable) {
+				if (next != EMPTY_LINK_SLOT) {
+					insertLink(next);
+				}
+			}
+		}
+		return insertLink(toLink(theParent, theChild));
+	}
+
+	/**
+	 * @return <code>true</code> if there is an IS-A link between the two concepts
+	 */
+	public boolean hasLink(int theParent, int theChild) {
+		validateConcepts(theParent, theChild);
+		return findLinkSlot(toLink(theParent, theChild)) >= 0;
+	}
+
+	/**
+	 * Removes the IS-A link between two concepts, if there is one
+	 *
+	 * @return <code>true</code> if the link was removed
+	 */
+	public boolean removeLink(int theParent, int theChild) {
+		validateConcepts(theParent, theChild);
+
+		int slot = findLinkSlot(toLink(theParent, theChild));
+		if (slot < 0) {
+			return false;
+		}
+
+		// Remove the link and re-insert the rest of its probe cluster so that no lookups are broken
+		int mask = myLinkTable.length - 1;
+		myLinkTable[slot] = EMPTY_LINK_SLOT;
+		myLinkCount--;
+		slot = (slot + 1) & mask;
+		while (myLinkTable[slot] != EMPTY_LINK_SLOT) {
+			long next = myLinkTable[slot];
+			myLinkTable[slot] = EMPTY_LINK_SLOT;
+			myLinkCount--;
+			insertLink(next);
+			slot = (slot + 1) & mask;
+		}
+		return true;
+	}
+
+	/**
+	 * @return The number of IS-A links
+	 */
+	public int getLinkCount() {
+		return myLinkCount;
+	}
+
+	/**
+	 * Arranges the concepts into levels, such that all parents of every concept are found in
+	 * earlier levels. This means that the concepts in each level can be stored once all previous
+	 * levels have been stored, in any order. If the links contain any cycles, the links which
+	 * close each cycle are dropped (and logged), since a hierarchy can not be stored with cycles.
+	 */
+	@Nonnull
+	public Hierarchy buildHierarchy() {
+		// Sorting the packed links groups them by child, which gives us the parents of each concept
+		long[] links = new long[myLinkCount];
+		int linkIndex = 0;
+		for (long next : myLinkTable) {
+			if (next != EMPTY_LINK_SLOT) {
+				links[linkIndex++] = next;
+			}
+		}
+		Arrays.sort(links);
+
+		int[] parentOffsets = new int[mySize + 1];
+		int[] parents = new int[links.length];
+		int[] childOffsets = new int[mySize + 1];
+		for (int i = 0; i < links.length; i++) {
+			parents[i] = toParent(links[i]);
+			parentOffsets[toChild(links[i]) + 1]++;
+			childOffsets[parents[i] + 1]++;
+		}
+		for (int i = 0; i < mySize; i++) {
+			parentOffsets[i + 1] += parentOffsets[i];
+			childOffsets[i + 1] += childOffsets[i];
+		}
+		// The child index holds link indexes (which are also parent index positions) so that
+		// dropped links can be recognized from either side
+		int[] childLinks = new int[links.length];
+		int[] childInsertPositions = Arrays.copyOf(childOffsets, mySize);
+		for (int i = 0; i < links.length; i++) {
+			childLinks[childInsertPositions[toParent(links[i])]++] = i;
+		}
+
+		// Assign levels using Kahn's algorithm, one wave at a time
+		int[] remainingParents = new int[mySize];
+		int[] levels = new int[mySize];
+		int[] order = new int[mySize];
+		int[] levelStarts = new int[16];
+		boolean[] droppedLinks = new boolean[links.length];
+		int droppedLinkCount = 0;
+		int waveStart = 0;
+		int waveEnd = 0;
+		for (int i = 0; i < mySize; i++) {
+			remainingParents[i] = parentOffsets[i + 1] - parentOffsets[i];
+			levels[i] = -1;
+			if (remainingParents[i] == 0) {
+				levels[i] = 0;
+				order[waveEnd++] = i;
+			}
+		}
+
+		int levelCount = 0;
+		int nextCycleCandidate = 0;
+		int[] walkMarks = null;
+		int[] walkLinks = null;
+		int walkMark = 0;
+		while (waveStart < mySize) {
+			/*
+			 * Every remaining concept has an unplaced parent, so there is at least one cycle. The
+			 * first unplaced concept may only hang off a cycle rather than be part of it, so we walk
+			 * up through unplaced parents until we reach a concept we've already visited. That concept
+			 * is on a cycle, and we drop only the parent link we followed out of it. This repeats until
+			 * a concept can be placed.
+			 */
+			while (waveStart == waveEnd) {
+				if (walkMarks == null) {
+					walkMarks = new int[mySize];
+					walkLinks = new int[mySize];
+				}
+				walkMark++;
+				while (levels[nextCycleCandidate] >= 0) {
+					nextCycleCandidate++;
+				}
+				int concept = nextCycleCandidate;
+				while (walkMarks[concept] != walkMark) {
+					walkMarks[concept] = walkMark;
+					walkLinks[concept] = findUnplacedParentLink(concept, parentOffsets, parents, levels, droppedLinks);
+					concept = parents[walkLinks[concept]];
+				}
+				int closingLink = walkLinks[concept];
+				int parent = parents[closingLink];
+				ourLog.info(
+						"Removing circular reference code {} from parent {}", myCodes[concept], myCodes[parent]);
+				droppedLinks[closingLink] = true;
+				droppedLinkCount++;
+				if (--remainingParents[concept] == 0) {
+					levels[concept] = levelCount;
+					order[waveEnd++] = concept;
+				}
+			}
+
+			if (levelCount == levelStarts.length) {
+				levelStarts = Arrays.copyOf(levelStarts, levelCount * 2);
+			}
+			levelStarts[levelCount++] = waveStart;
+
+			int end = waveEnd;
+			for (int i = waveStart; i < end; i++) {
+				int concept = order[i];
+				for (int j = childOffsets[concept]; j < childOffsets[concept + 1]; j++) {
+					int childLink = childLinks[j];
+					if (droppedLinks[childLink]) {
+						continue;
+					}
+					int child = toChild(links[childLink]);
+					if (levels[child] < 0 && --remainingParents[child] == 0) {
+						levels[child] = levelCount;
+						order[waveEnd++] = child;
+					}
+				}
+			}
+			waveStart = end;
+		}
+
+		levelStarts = Arrays.copyOf(levelStarts, levelCount + 1);
+		levelStarts[levelCount] = mySize;
+
+		if (droppedLinkCount > 0) {
+			int[] keptParentOffsets = new int[mySize + 1];
+			int[] keptParents = new int[links.length - droppedLinkCount];
+			int keptIndex = 0;
+			for (int concept = 0; concept < mySize; concept++) {
+				for (int i = parentOffsets[concept]; i < parentOffsets[concept + 1]; i++) {
+					if (!droppedLinks[i]) {
+						keptParents[keptIndex++] = parents[i];
+					}
+				}
+				keptParentOffsets[concept + 1] = keptIndex;
+			}
+			parentOffsets = keptParentOffsets;
+			parents = keptParents;
+		}
+
+		return new Hierarchy(order, levelStarts, parentOffsets, parents, droppedLinkCount);
+	}
+
+	/**
+	 * Returns the index of a link (which has not been dropped) from the given concept to a parent
+	 * which has not yet been placed in the hierarchy. The caller must know that one exists.
+	 */
+	private static int findUnplacedParentLink(
+			int theConcept, int[] theParentOffsets, int[] theParents, int[] theLevels, boolean[] theDroppedLinks) {
+		for (int i = theParentOffsets[theConcept]; i < theParentOffsets[theConcept + 1]; i++) {
+			if (!theDroppedLinks[i] && theLevels[theParents[i]] < 0) {
+				return i;
+			}
+		}
+		throw new IllegalStateException("Concept " + theConcept + " has no unplaced parent");
+	}
+
+	private void insertCode(int theConcept) {
+		int mask = myCodeTable.length - 1;
+		int slot = hash(myCodes[theConcept].hashCode()) & mask;
+		while (myCodeTable[slot] != EMPTY_CODE_SLOT) {
+			slot = (slot + 1) & mask;
+		}
+		myCodeTable[slot] = theConcept;
+	}
+
+	private int findLinkSlot(long theLink) {
+		int mask = myLinkTable.length - 1;
+		int slot = hash(theLink) & mask;
+		while (myLinkTable[slot] != theLink) {
+			if (myLinkTable[slot] == EMPTY_LINK_SLOT) {
+				return -1;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private boolean insertLink(long theLink) {
+		int mask = myLinkTable.length - 1;
+		int slot = hash(theLink) & mask;
+		while (myLinkTable[slot] != EMPTY_LINK_SLOT) {
+			if (myLinkTable[slot] == theLink) {
+				return false;
+			}
+			slot = (slot + 1) & mask;
+		}
+		myLinkTable[slot] = theLink;
+		myLinkCount++;
+		return true;
+	}
+
+	private void validateConcepts(int theParent, int theChild) {
+		Validate.isTrue(theParent >= 0 && theParent < mySize, "Unknown concept: %d", theParent);
+		Validate.isTrue(theChild >= 0 && theChild < mySize, "Unknown concept: %d", theChild);
+	}
+
+	private static long toLink(int theParent, int theChild) {
+		return ((long) theChild << 32) | theParent;
+	}
+
+	private static int toChild(long theLink) {
+		return (int) (theLink >>> 32);
+	}
+
+	private static int toParent(long theLink) {
+		return (int) theLink;
+	}
+
+	/**
+	 * Spreads the bits of a hash code so that similar codes don't produce long probe sequences
+	 */
+	private static int hash(int theHashCode) {
+		int retVal = theHashCode * 0x9E3779B9;
+		return retVal ^ (retVal >>> 16);
+	}
+
+	private static int hash(long theLink) {
+		long retVal = theLink * 0x9E3779B97F4A7C15L;
+		return (int) (retVal ^ (retVal >>> 32));
+	}
+
+	private static int[] newCodeTable(int theCapacity) {
+		int[] retVal = new int[theCapacity];
+		Arrays.fill(retVal, EMPTY_CODE_SLOT);
+		return retVal;
+	}
+
+	private static long[] newLinkTable(int theCapacity) {
+		long[] retVal = new long[theCapacity];
+		Arrays.fill(retVal, EMPTY_LINK_SLOT);
+		return retVal;
+	}
+
+	/**
+	 * The concepts of a {@link TermConceptGraph} arranged into levels, along with the (acyclic)
+	 * parents of each concept
+	 */
+	public static final class Hierarchy {
+
+		private final int[] myOrder;
+		private final int[] myLevelStarts;
+		private final int[] myParentOffsets;
+		private final int[] myParents;
+		private final int myDroppedLinkCount;
+
+		private Hierarchy(
+				int[] theOrder,
+				int[] theLevelStarts,
+				int[] theParentOffsets,
+				int[] theParents,
+				int theDroppedLinkCount) {
+			myOrder = theOrder;
+			myLevelStarts = theLevelStarts;
+			myParentOffsets = theParentOffsets;
+			myParents = theParents;
+			myDroppedLinkCount = theDroppedLinkCount;
+		}
+
+		/**
+		 * @return The number of levels. Concepts in level 0 have no parents.
+		 */
+		public int getLevelCount() {
+			return myLevelStarts.length - 1;
+		}
+
+		/**
+		 * @return The position of the first concept in the given level
+		 * @see #getConceptAt(int)
+		 */
+		public int getLevelStart(int theLevel) {
+			return myLevelStarts[theLevel];
+		}
+
+		/**
+		 * @return The position following the last concept in the given level
+		 * @see #getConceptAt(int)
+		 */
+		public int getLevelEnd(int theLevel) {
+			return myLevelStarts[theLevel + 1];
+		}
+
+		/**
+		 * @return The number of the concept at the given position in level order
+		 */
+		public int getConceptAt(int thePosition) {
+			return myOrder[thePosition];
+		}
+
+		public int getParentCount(int theConcept) {
+			return myParentOffsets[theConcept + 1] - myParentOffsets[theConcept];
+		}
+
+		/**
+		 * @return The number of a parent of the given concept, where <code>theParentIndex</code> is
+		 * 		between <code>0</code> and {@link #getParentCount(int)} - 1
+		 */
+		public int getParent(int theConcept, int theParentIndex) {
+			Validate.isTrue(theParentIndex >= 0 && theParentIndex < getParentCount(theConcept));
+			return myParents[myParentOffsets[theConcept] + theParentIndex];
+		}
+
+		/**
+		 * @return The number of links in the hierarchy, not including any which were dropped
+		 */
+		public int getLinkCount() {
+			return myParents.length;
+		}
+
+		/**
+		 * @return The number of links which were dropped because they created a cycle
+		 */
+		public int getDroppedLinkCount() {
+			return myDroppedLinkCount;
+		}
+	}
+}
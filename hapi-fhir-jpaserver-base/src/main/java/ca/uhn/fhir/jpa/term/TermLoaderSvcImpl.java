@@ -55,6 +55,8 @@ import ca.uhn.fhir.jpa.term.loinc.LoincTop2000LabResultsUsHandler;
 import ca.uhn.fhir.jpa.term.loinc.LoincUniversalOrderSetHandler;
 import ca.uhn.fhir.jpa.term.loinc.LoincXmlFileZipContentsHandler;
 import ca.uhn.fhir.jpa.term.loinc.PartTypeAndPartName;
+import ca.uhn.fhir.jpa.term.snomedct.SctGraphHandlerDescription;
+import ca.uhn.fhir.jpa.term.snomedct.SctGraphHandlerRelationship;
 import ca.uhn.fhir.jpa.term.snomedct.SctHandlerConcept;
 import ca.uhn.fhir.jpa.term.snomedct.SctHandlerDescription;
 import ca.uhn.fhir.jpa.term.snomedct.SctHandlerRelationship;
@@ -164,6 +166,8 @@ public class TermLoaderSvcImpl implements ITermLoaderSvc {
 	public static final String CUSTOM_CONCEPTS_FILE = "concepts.csv";
 	public static final String CUSTOM_HIERARCHY_FILE = "hierarchy.csv";
 	public static final String CUSTOM_PROPERTIES_FILE = "properties.csv";
+	public static final int DEFAULT_STREAMING_LOAD_BATCH_SIZE = 1000;
+	public static final int DEFAULT_STREAMING_LOAD_THREAD_COUNT = 4;
 	static final String IMGTHLA_HLA_NOM_TXT = "hla_nom.txt";
 	static final String IMGTHLA_HLA_XML = "hla.xml";
 	static final String CUSTOM_CODESYSTEM_JSON = "codesystem.json";
@@ -178,6 +182,9 @@ public class TermLoaderSvcImpl implements ITermLoaderSvc {
 	private final FhirContext myCtx = FhirContext.forR4Cached();
 	private final ITermDeferredStorageSvc myDeferredStorageSvc;
 	private final ITermCodeSystemStorageSvc myCodeSystemStorageSvc;
+	private boolean mySnomedCtStreamingLoadEnabled;
+	private int myStreamingLoadBatchSize = DEFAULT_STREAMING_LOAD_BATCH_SIZE;
+	private int myStreamingLoadThreadCount = DEFAULT_STREAMING_LOAD_THREAD_COUNT;
 
 	@Autowired
 	public TermLoaderSvcImpl(
@@ -214,6 +221,76 @@ public class TermLoaderSvcImpl implements ITermLoaderSvc {
 		return new TermLoaderSvcImpl(theTermDeferredStorageSvc, theTermCodeSystemStorageSvc, false);
 	}
 
+	/**
+	 * If enabled (default is <code>false</code>), SNOMED CT uploads are read into a compact
+	 * {@link TermConceptGraph} instead of a graph of concept entities, and are then stored in
+	 * batches by several threads. This greatly reduces the memory and time needed to load a
+	 * full SNOMED CT release.
+	 *
+	 * @since 7.8.0
+	 */
+	public boolean isSnomedCtStreamingLoadEnabled() {
+		return mySnomedCtStreamingLoadEnabled;
+	}
+
+	/**
+	 * If enabled (default is <code>false</code>), SNOMED CT uploads are read into a compact
+	 * {@link TermConceptGraph} instead of a graph of concept entities, and are then stored in
+	 * batches by several threads. This greatly reduces the memory and time needed to load a
+	 * full SNOMED CT release.
+	 *
+	 * @since 7.8.0
+	 */
+	public void setSnomedCtStreamingLoadEnabled(boolean theSnomedCtStreamingLoadEnabled) {
+		mySnomedCtStreamingLoadEnabled = theSnomedCtStreamingLoadEnabled;
+	}
+
+	/**
+	 * The maximum number of concepts or links stored in each transaction when
+	 * {@link #setSnomedCtStreamingLoadEnabled(boolean) streaming loads} are enabled.
+	 * Default is {@link #DEFAULT_STREAMING_LOAD_BATCH_SIZE}.
+	 *
+	 * @since 7.8.0
+	 */
+	public int getStreamingLoadBatchSize() {
+		return myStreamingLoadBatchSize;
+	}
+
+	/**
+	 * The maximum number of concepts or links stored in each transaction when
+	 * {@link #setSnomedCtStreamingLoadEnabled(boolean) streaming loads} are enabled.
+	 * Default is {@link #DEFAULT_STREAMING_LOAD_BATCH_SIZE}.
+	 *
+	 * @since 7.8.0
+	 */
+	public void setStreamingLoadBatchSize(int theStreamingLoadBatchSize) {
+		Validate.isTrue(theStreamingLoadBatchSize > 0, "theStreamingLoadBatchSize must be greater than 0");
+		myStreamingLoadBatchSize = theStreamingLoadBatchSize;
+	}
+
+	/**
+	 * The number of threads used to store concepts and links when
+	 * {@link #setSnomedCtStreamingLoadEnabled(boolean) streaming loads} are enabled.
+	 * Default is {@link #DEFAULT_STREAMING_LOAD_THREAD_COUNT}.
+	 *
+	 * @since 7.8.0
+	 */
+	public int getStreamingLoadThreadCount() {
+		return myStreamingLoadThreadCount;
+	}
+
+	/**
+	 * The number of threads used to store concepts and links when
+	 * {@link #setSnomedCtStreamingLoadEnabled(boolean) streaming loads} are enabled.
+	 * Default is {@link #DEFAULT_STREAMING_LOAD_THREAD_COUNT}.
+	 *
+	 * @since 7.8.0
+	 */
+	public void setStreamingLoadThreadCount(int theStreamingLoadThreadCount) {
+		Validate.isTrue(theStreamingLoadThreadCount > 0, "theStreamingLoadThreadCount must be greater than 0");
+		myStreamingLoadThreadCount = theStreamingLoadThreadCount;
+	}
+
 	@Override
 	public UploadStatistics loadImgthla(List<FileDescriptor> theFiles, RequestDetails theRequestDetails) {
 		try (LoadedFileDescriptors descriptors = getLoadedFileDescriptors(theFiles)) {
@@ -335,6 +412,9 @@ public class TermLoaderSvcImpl implements ITermLoaderSvc {
 
 			ourLog.info("Beginning SNOMED CT processing");
 
+			if (mySnomedCtStreamingLoadEnabled) {
+				return processSnomedCtFilesStreaming(descriptors, theRequestDetails);
+			}
 			return processSnomedCtFiles(descriptors, theRequestDetails);
 		}
 	}
@@ -1086,16 +1166,60 @@ public class TermLoaderSvcImpl implements ITermLoaderSvc {
 
 		codeSystemVersion.getConcepts().addAll(rootConcepts.values());
 
-		CodeSystem cs = new org.hl7.fhir.r4.model.CodeSystem();
-		cs.setUrl(SCT_URI);
-		cs.setName("SNOMED CT");
-		cs.setContent(CodeSystem.CodeSystemContentMode.NOTPRESENT);
-		cs.setStatus(Enumerations.PublicationStatus.ACTIVE);
+		CodeSystem cs = createSnomedCtCodeSystem();
 		IIdType target = storeCodeSystem(theRequestDetails, codeSystemVersion, cs, null, null);
 
 		return new UploadStatistics(code2concept.size(), target);
 	}
 
+	private UploadStatistics processSnomedCtFilesStreaming(
+			LoadedFileDescriptors theDescriptors, RequestDetails theRequestDetails) {
+		final Set<String> validConceptIds = new HashSet<>();
+		final TermConceptGraph conceptGraph = new TermConceptGraph();
+
+		IZipContentsHandlerCsv handler = new SctHandlerConcept(validConceptIds);
+		iterateOverZipFileCsv(theDescriptors, SCT_FILE_CONCEPT, handler, '\t', null, true);
+
+		ourLog.info("Have {} valid concept IDs", validConceptIds.size());
+
+		handler = new SctGraphHandlerDescription(validConceptIds, conceptGraph);
+		iterateOverZipFileCsv(theDescriptors, SCT_FILE_DESCRIPTION, handler, '\t', null, true);
+		validConceptIds.clear();
+
+		ourLog.info("Got {} concepts", conceptGraph.size());
+
+		handler = new SctGraphHandlerRelationship(conceptGraph);
+		iterateOverZipFileCsv(theDescriptors, SCT_FILE_RELATIONSHIP, handler, '\t', null, true);
+
+		IOUtils.closeQuietly(theDescriptors);
+
+		ourLog.info(
+				"Done loading SNOMED CT files - {} total codes, {} links",
+				conceptGraph.size(),
+				conceptGraph.getLinkCount());
+
+		CodeSystem cs = createSnomedCtCodeSystem();
+		IIdType target;
+		myDeferredStorageSvc.setProcessDeferred(false);
+		try {
+			target = myCodeSystemStorageSvc.storeNewCodeSystemVersion(
+					cs, conceptGraph, theRequestDetails, myStreamingLoadBatchSize, myStreamingLoadThreadCount);
+		} finally {
+			myDeferredStorageSvc.setProcessDeferred(true);
+		}
+
+		return new UploadStatistics(conceptGraph.size(), target);
+	}
+
+	private static CodeSystem createSnomedCtCodeSystem() {
+		CodeSystem retVal = new org.hl7.fhir.r4.model.CodeSystem();
+		retVal.setUrl(SCT_URI);
+		retVal.setName("SNOMED CT");
+		retVal.setContent(CodeSystem.CodeSystemContentMode.NOTPRESENT);
+		retVal.setStatus(Enumerations.PublicationStatus.ACTIVE);
+		return retVal;
+	}
+
 	private IIdType storeCodeSystem(
 			RequestDetails theRequestDetails,
 			final TermCodeSystemVersion theCodeSystemVersion,
@@ -21,6 +21,7 @@ package ca.uhn.fhir.jpa.term;
 
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.context.support.CodeValidationRequest;
 import ca.uhn.fhir.context.support.ConceptValidationOptions;
 import ca.uhn.fhir.context.support.IValidationSupport;
 import ca.uhn.fhir.context.support.LookupCodeRequest;
@@ -2145,6 +2146,79 @@ public class TermReadSvcImpl implements ITermReadSvc, IHasScheduledJobs {
 			return null;
 		}
 
+		return createPreExpandedValueSetValidationResult(
+				theValidationOptions, theValueSet, theSystem, theCode, theDisplay, concepts);
+	}
+
+	/**
+	 * Validates a group of codes against a pre-expanded ValueSet, loading the candidate
+	 * concepts for all of the codes with one query (per {@link SearchBuilder#getMaximumPageSize()} codes)
+	 * instead of one query per code. Results are written into <code>theResults</code> at the
+	 * index of the corresponding request, and are left <code>null</code> for requests without a code.
+	 */
+	private void validateCodesInPreExpandedValueSet(
+			List<CodeValidationRequest> theRequests,
+			List<ConceptValidationOptions> theValidationOptions,
+			ValueSet theValueSet,
+			CodeValidationResult[] theResults) {
+		assert TransactionSynchronizationManager.isSynchronizationActive();
+
+		ValidateUtil.isNotNullOrThrowUnprocessableEntity(theValueSet.hasId(), "ValueSet.id is required");
+		JpaPid valueSetResourcePid = getValueSetResourcePersistentId(theValueSet);
+
+		Set<String> codes = new HashSet<>();
+		for (CodeValidationRequest next : theRequests) {
+			if (isNotBlank(next.getCode())) {
+				codes.add(next.getCode());
+			}
+		}
+
+		ArrayListMultimap<String, TermValueSetConcept> codeToConcepts = ArrayListMultimap.create();
+		for (List<String> nextCodes : ListUtils.partition(new ArrayList<>(codes), SearchBuilder.getMaximumPageSize())) {
+			for (TermValueSetConcept next :
+					myValueSetConceptDao.findByValueSetResourcePidAndCodes(valueSetResourcePid.getId(), nextCodes)) {
+				codeToConcepts.put(next.getCode(), next);
+			}
+		}
+
+		for (int i = 0; i < theRequests.size(); i++) {
+			CodeValidationRequest request = theRequests.get(i);
+			if (isBlank(request.getCode())) {
+				continue;
+			}
+
+			ConceptValidationOptions options = theValidationOptions.get(i);
+			List<TermValueSetConcept> concepts = new ArrayList<>();
+			for (TermValueSetConcept next : codeToConcepts.get(request.getCode())) {
+				if (options.isInferSystem() || isConceptInSystem(next, request.getSystem())) {
+					concepts.add(next);
+				}
+			}
+
+			theResults[i] = createPreExpandedValueSetValidationResult(
+					options, theValueSet, request.getSystem(), request.getCode(), request.getDisplay(), concepts);
+		}
+	}
+
+	private static boolean isConceptInSystem(TermValueSetConcept theConcept, String theSystemUrlAndVersion) {
+		if (isBlank(theSystemUrlAndVersion)) {
+			return false;
+		}
+		int versionIndex = theSystemUrlAndVersion.indexOf(OUR_PIPE_CHARACTER);
+		if (versionIndex >= 0) {
+			return theSystemUrlAndVersion.substring(0, versionIndex).equals(theConcept.getSystem())
+					&& theSystemUrlAndVersion.substring(versionIndex + 1).equals(theConcept.getSystemVersion());
+		}
+		return theSystemUrlAndVersion.equals(theConcept.getSystem());
+	}
+
+	private CodeValidationResult createPreExpandedValueSetValidationResult(
+			ConceptValidationOptions theValidationOptions,
+			ValueSet theValueSet,
+			String theSystem,
+			String theCode,
+			String theDisplay,
+			List<TermValueSetConcept> concepts) {
 		TermValueSet valueSetEntity = fetchValueSetEntity(theValueSet).orElseThrow(IllegalStateException::new);
 		String timingDescription = toHumanReadableExpansionTimestamp(valueSetEntity);
 		String preExpansionMessage = myContext
@@ -2835,6 +2909,92 @@ public class TermReadSvcImpl implements ITermReadSvc, IHasScheduledJobs {
 			@Nonnull IBaseResource theValueSet) {
 		invokeRunnableForUnitTest();
 
+		String url = getValueSetUrl(theValueSet);
+		if (isNotBlank(url)) {
+			return validateCode(theValidationSupportContext, theOptions, theCodeSystem, theCode, theDisplay, url);
+		}
+		return null;
+	}
+
+	@Nonnull
+	@Override
+	public List<CodeValidationResult> validateCodesInValueSet(
+			ValidationSupportContext theValidationSupportContext,
+			ConceptValidationOptions theOptions,
+			@Nonnull List<CodeValidationRequest> theRequests,
+			@Nonnull IBaseResource theValueSet) {
+		invokeRunnableForUnitTest();
+
+		CodeValidationResult[] results = new CodeValidationResult[theRequests.size()];
+		String url = getValueSetUrl(theValueSet);
+		if (isBlank(url) || theRequests.isEmpty()) {
+			return Arrays.asList(results);
+		}
+
+		// Display validation is enabled per code, as it is in validateCode(..)
+		List<ConceptValidationOptions> options = new ArrayList<>(theRequests.size());
+		for (CodeValidationRequest next : theRequests) {
+			options.add(new ConceptValidationOptions()
+					.setInferSystem(theOptions.isInferSystem())
+					.setValidateDisplay(isNotBlank(next.getDisplay())));
+		}
+
+		IBaseResource valueSet = theValidationSupportContext.getRootValidationSupport().fetchValueSet(url);
+
+		// If we don't have a PID, this came from some source other than the JPA
+		// database, so we don't need to check if it's pre-expanded or not
+		if (valueSet instanceof IAnyResource && IDao.RESOURCE_PID.get(valueSet) != null) {
+			TransactionTemplate txTemplate = new TransactionTemplate(myTxManager);
+			txTemplate.executeWithoutResult(tx -> {
+				if (isValueSetPreExpandedForCodeValidation(valueSet)) {
+					validateCodesInPreExpandedValueSet(
+							theRequests, options, myVersionCanonicalizer.valueSetToCanonical(valueSet), results);
+				}
+			});
+		}
+
+		List<Integer> remainingIndexes = new ArrayList<>();
+		List<CodeValidationRequest> remainingRequests = new ArrayList<>();
+		for (int i = 0; i < results.length; i++) {
+			if (results[i] == null) {
+				remainingIndexes.add(i);
+				remainingRequests.add(theRequests.get(i));
+			}
+		}
+
+		if (!remainingRequests.isEmpty()) {
+			if (valueSet != null) {
+				// In-memory validation only checks the display when one is supplied, so enabling
+				// display validation for the whole group is equivalent to enabling it per code
+				ConceptValidationOptions inMemoryOptions = new ConceptValidationOptions()
+						.setInferSystem(theOptions.isInferSystem())
+						.setValidateDisplay(true);
+				List<CodeValidationResult> inMemoryResults =
+						myInMemoryTerminologyServerValidationSupport.validateCodesInValueSet(
+								theValidationSupportContext, inMemoryOptions, remainingRequests, valueSet);
+				for (int i = 0; i < remainingIndexes.size(); i++) {
+					results[remainingIndexes.get(i)] = inMemoryResults.get(i);
+				}
+			} else {
+				String append = " - Unable to locate ValueSet[" + url + "]";
+				for (int i = 0; i < remainingIndexes.size(); i++) {
+					CodeValidationRequest request = remainingRequests.get(i);
+					results[remainingIndexes.get(i)] =
+							createFailureCodeValidationResult(request.getSystem(), request.getCode(), null, append);
+				}
+			}
+		}
+
+		for (int i = 0; i < results.length; i++) {
+			CodeValidationRequest request = theRequests.get(i);
+			checkForValueSetUrlUsedAsCodeSystemUrl(
+					theValidationSupportContext, results[i], request.getSystem(), request.getCode());
+		}
+
+		return Arrays.asList(results);
+	}
+
+	private String getValueSetUrl(IBaseResource theValueSet) {
 		IPrimitiveType<?> urlPrimitive;
 		if (theValueSet instanceof org.hl7.fhir.dstu2.model.ValueSet) {
 			urlPrimitive = FhirContext.forDstu2Hl7OrgCached()
@@ -2843,11 +3003,7 @@ public class TermReadSvcImpl implements ITermReadSvc, IHasScheduledJobs {
 		} else {
 			urlPrimitive = myContext.newTerser().getSingleValueOrNull(theValueSet, "url", IPrimitiveType.class);
 		}
-		String url = urlPrimitive.getValueAsString();
-		if (isNotBlank(url)) {
-			return validateCode(theValidationSupportContext, theOptions, theCodeSystem, theCode, theDisplay, url);
-		}
-		return null;
+		return urlPrimitive.getValueAsString();
 	}
 
 	@CoverageIgnore
@@ -2953,9 +3109,21 @@ public class TermReadSvcImpl implements ITermReadSvc, IHasScheduledJobs {
 			}
 		}
 
-		// Check if someone is accidentally using a VS url where it should be a CS URL
-		if (retVal != null
-				&& retVal.getCode() == null
+		checkForValueSetUrlUsedAsCodeSystemUrl(theValidationSupportContext, retVal, theCodeSystem, theCode);
+
+		return retVal;
+	}
+
+	/**
+	 * Check if someone is accidentally using a VS url where it should be a CS URL
+	 */
+	private void checkForValueSetUrlUsedAsCodeSystemUrl(
+			ValidationSupportContext theValidationSupportContext,
+			CodeValidationResult theResult,
+			String theCodeSystem,
+			String theCode) {
+		if (theResult != null
+				&& theResult.getCode() == null
 				&& theCodeSystem != null
 				&& myContext.getVersion().getVersion().isNewerThan(FhirVersionEnum.DSTU2)) {
 			if (isValueSetSupported(theValidationSupportContext, theCodeSystem)) {
@@ -2963,12 +3131,10 @@ public class TermReadSvcImpl implements ITermReadSvc, IHasScheduledJobs {
 					String newMessage = "Unable to validate code " + theCodeSystem + "#" + theCode
 							+ " - Supplied system URL is a ValueSet URL and not a CodeSystem URL, check if it is correct: "
 							+ theCodeSystem;
-					retVal.setMessage(newMessage);
+					theResult.setMessage(newMessage);
 				}
 			}
 		}
-
-		return retVal;
 	}
 
 	@Override
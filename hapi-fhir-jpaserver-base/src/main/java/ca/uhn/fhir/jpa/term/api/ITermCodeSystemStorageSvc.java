@@ -22,6 +22,7 @@ package ca.uhn.fhir.jpa.term.api;
 import ca.uhn.fhir.jpa.entity.TermCodeSystemVersion;
 import ca.uhn.fhir.jpa.entity.TermConcept;
 import ca.uhn.fhir.jpa.model.entity.ResourceTable;
+import ca.uhn.fhir.jpa.term.TermConceptGraph;
 import ca.uhn.fhir.jpa.term.UploadStatistics;
 import ca.uhn.fhir.jpa.term.custom.CustomTerminologySet;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
@@ -85,6 +86,26 @@ public interface ITermCodeSystemStorageSvc {
 			List<ValueSet> theValueSets,
 			List<org.hl7.fhir.r4.model.ConceptMap> theConceptMaps);
 
+	/**
+	 * Stores a new CodeSystem version whose concepts and IS-A hierarchy are supplied as a compact
+	 * {@link TermConceptGraph} rather than as a graph of {@link TermConcept} entities. This is intended
+	 * for very large CodeSystems such as SNOMED CT. Concepts are written one hierarchy level at a time,
+	 * followed by the links between them, in batches which are each stored in a separate transaction
+	 * by a pool of worker threads. This method must not be called within an existing transaction, and
+	 * if it fails part way through, the CodeSystem version is left incomplete and should be uploaded again.
+	 *
+	 * @param theBatchSize   The maximum number of concepts or links to store in each transaction
+	 * @param theThreadCount The number of worker threads to store batches with
+	 * @return Returns the ID of the created/updated code system
+	 * @since 7.8.0
+	 */
+	IIdType storeNewCodeSystemVersion(
+			CodeSystem theCodeSystemResource,
+			TermConceptGraph theConceptGraph,
+			RequestDetails theRequestDetails,
+			int theBatchSize,
+			int theThreadCount);
+
 	void storeNewCodeSystemVersionIfNeeded(
 			CodeSystem theCodeSystem, ResourceTable theResourceEntity, RequestDetails theRequestDetails);
 
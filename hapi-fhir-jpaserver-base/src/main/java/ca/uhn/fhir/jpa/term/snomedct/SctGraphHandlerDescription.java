@@ -0,0 +1,55 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.term.snomedct;
+
+import ca.uhn.fhir.jpa.term.IZipContentsHandlerCsv;
+import ca.uhn.fhir.jpa.term.TermConceptGraph;
+import org.apache.commons.csv.CSVRecord;
+
+import java.util.Set;
+
+/**
+ * Equivalent of {@link SctHandlerDescription} which adds concepts to a compact {@link TermConceptGraph}
+ * instead of creating concept entities. The last active description of each valid concept becomes
+ * its display.
+ */
+public final class SctGraphHandlerDescription implements IZipContentsHandlerCsv {
+	private final Set<String> myValidConceptIds;
+	private final TermConceptGraph myGraph;
+
+	public SctGraphHandlerDescription(Set<String> theValidConceptIds, TermConceptGraph theGraph) {
+		myValidConceptIds = theValidConceptIds;
+		myGraph = theGraph;
+	}
+
+	@Override
+	public void accept(CSVRecord theRecord) {
+		boolean active = "1".equals(theRecord.get("active"));
+		if (!active) {
+			return;
+		}
+		String conceptId = theRecord.get("conceptId");
+		if (!myValidConceptIds.contains(conceptId)) {
+			return;
+		}
+
+		myGraph.addConcept(conceptId, theRecord.get("term"));
+	}
+}
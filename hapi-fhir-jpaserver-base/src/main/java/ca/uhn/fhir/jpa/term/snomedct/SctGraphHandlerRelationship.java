@@ -0,0 +1,59 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.term.snomedct;
+
+import ca.uhn.fhir.jpa.term.IZipContentsHandlerCsv;
+import ca.uhn.fhir.jpa.term.TermConceptGraph;
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * Equivalent of {@link SctHandlerRelationship} which adds IS-A links to a compact {@link TermConceptGraph}
+ * instead of linking concept entities. Active relationships add a link, and inactive ones remove any
+ * link previously added between the same concepts.
+ */
+public final class SctGraphHandlerRelationship implements IZipContentsHandlerCsv {
+	private final TermConceptGraph myGraph;
+
+	public SctGraphHandlerRelationship(TermConceptGraph theGraph) {
+		myGraph = theGraph;
+	}
+
+	@Override
+	public void accept(CSVRecord theRecord) {
+		int typeConcept = myGraph.indexOf(theRecord.get("typeId"));
+		if (typeConcept < 0 || !"Is a (attribute)".equals(myGraph.getDisplay(typeConcept))) {
+			return;
+		}
+
+		int sourceConcept = myGraph.indexOf(theRecord.get("sourceId"));
+		int targetConcept = myGraph.indexOf(theRecord.get("destinationId"));
+		if (sourceConcept < 0 || targetConcept < 0 || sourceConcept == targetConcept) {
+			return;
+		}
+
+		boolean active = "1".equals(theRecord.get("active"));
+		if (active) {
+			myGraph.addLink(targetConcept, sourceConcept);
+		} else {
+			// not active, so we're removing any existing link
+			myGraph.removeLink(targetConcept, sourceConcept);
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package ca.uhn.fhir.jpa.batch2;
+
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.binstore.MemoryBinaryStorageSvcImpl;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Batch2ExternalChunkDataSvcTest {
+
+	private static final String INSTANCE_ID = "c3a1b2d4-0000-4000-8000-000000000001";
+
+	private final JpaStorageSettings myStorageSettings = new JpaStorageSettings();
+	private final MemoryBinaryStorageSvcImpl myBinaryStorageSvc = new MemoryBinaryStorageSvcImpl();
+	private Batch2ExternalChunkDataSvc mySvc;
+
+	@BeforeEach
+	void before() {
+		mySvc = new Batch2ExternalChunkDataSvc(myBinaryStorageSvc, myStorageSettings);
+	}
+
+	@Test
+	void testDisabledByDefault() {
+		String data = newData(1000);
+
+		assertThat(mySvc.storeIfRequired(INSTANCE_ID, data)).isSameAs(data);
+	}
+
+	@Test
+	void testSmallDataStoredInline() {
+		myStorageSettings.setBatch2ExternalChunkDataThreshold(100);
+		String data = newData(10);
+
+		assertThat(mySvc.storeIfRequired(INSTANCE_ID, data)).isSameAs(data);
+		assertThat(mySvc.readData(data)).isSameAs(data);
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = {true, false})
+	void testLargeDataStoredExternally(boolean theCompressed) throws Exception {
+		myStorageSettings.setBatch2ExternalChunkDataThreshold(100);
+		myStorageSettings.setBatch2ExternalChunkDataCompressed(theCompressed);
+		String data = newData(5000);
+
+		String reference = mySvc.storeIfRequired(INSTANCE_ID, data);
+
+		assertThat(Batch2ExternalChunkDataSvc.isReference(reference)).isTrue();
+		assertThat(reference).contains(INSTANCE_ID);
+		assertThat(mySvc.readData(reference)).isEqualTo(data);
+		try (InputStream inputStream = mySvc.openDataStream(reference)) {
+			assertThat(IOUtils.toString(inputStream, StandardCharsets.UTF_8)).isEqualTo(data);
+		}
+
+		mySvc.delete(reference);
+		assertThatThrownBy(() -> mySvc.readData(reference)).hasMessageContaining("Work chunk data not found");
+	}
+
+	private static String newData(int theEntries) {
+		StringBuilder b = new StringBuilder("{\"entries\":[");
+		for (int i = 0; i < theEntries; i++) {
+			if (i > 0) {
+				b.append(',');
+			}
+			b.append("\"Patient/").append(i).append(" é\"");
+		}
+		return b.append("]}").toString();
+	}
+}
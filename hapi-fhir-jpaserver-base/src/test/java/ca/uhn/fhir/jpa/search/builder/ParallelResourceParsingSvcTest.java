@@ -0,0 +1,109 @@
+package ca.uhn.fhir.jpa.search.builder;
+
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.parser.DataFormatException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelResourceParsingSvcTest {
+
+	private final JpaStorageSettings myStorageSettings = new JpaStorageSettings();
+	private ParallelResourceParsingSvc mySvc;
+
+	@BeforeEach
+	void before() {
+		mySvc = new ParallelResourceParsingSvc(myStorageSettings);
+	}
+
+	@AfterEach
+	void after() {
+		mySvc.shutdown();
+	}
+
+	@Test
+	void testParseSequentialByDefault() {
+		List<Integer> inputs = IntStream.range(0, 500).boxed().collect(Collectors.toList());
+		Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
+		List<String> outputs = mySvc.parse(inputs, t -> {
+			threadNames.add(Thread.currentThread().getName());
+			return "R" + t;
+		});
+
+		assertThat(outputs).hasSize(500);
+		assertThat(outputs.get(0)).isEqualTo("R0");
+		assertThat(outputs.get(499)).isEqualTo("R499");
+		assertThat(threadNames).containsExactly(Thread.currentThread().getName());
+	}
+
+	@Test
+	void testParseInParallelPreservesOrder() {
+		myStorageSettings.setSearchResourceParsingThreadCount(4);
+		List<Integer> inputs = IntStream.range(0, 500).boxed().collect(Collectors.toList());
+		Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
+		List<String> outputs = mySvc.parse(inputs, t -> {
+			threadNames.add(Thread.currentThread().getName());
+			return "R" + t;
+		});
+
+		List<String> expected = inputs.stream().map(t -> "R" + t).collect(Collectors.toList());
+		assertThat(outputs).containsExactlyElementsOf(expected);
+		assertThat(threadNames).contains(Thread.currentThread().getName());
+		assertThat(threadNames).anyMatch(t -> t.startsWith("search-parse-"));
+	}
+
+	@Test
+	void testParseInParallelSmallListStaysOnCallingThread() {
+		myStorageSettings.setSearchResourceParsingThreadCount(4);
+		List<Integer> inputs = IntStream.range(0, ParallelResourceParsingSvc.MINIMUM_CHUNK_SIZE)
+				.boxed()
+				.collect(Collectors.toList());
+		Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
+		List<Integer> outputs = mySvc.parse(inputs, t -> {
+			threadNames.add(Thread.currentThread().getName());
+			return t;
+		});
+
+		assertThat(outputs).containsExactlyElementsOf(inputs);
+		assertThat(threadNames).containsExactly(Thread.currentThread().getName());
+	}
+
+	@Test
+	void testParseInParallelAllowsNullResults() {
+		myStorageSettings.setSearchResourceParsingThreadCount(2);
+		List<Integer> inputs = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+
+		List<Integer> outputs = mySvc.parse(inputs, t -> t % 2 == 0 ? null : t);
+
+		assertThat(outputs).hasSize(100);
+		assertThat(outputs.get(98)).isNull();
+		assertThat(outputs.get(99)).isEqualTo(99);
+	}
+
+	@Test
+	void testParseInParallelPropagatesFailure() {
+		myStorageSettings.setSearchResourceParsingThreadCount(4);
+		List<Integer> inputs = IntStream.range(0, 500).boxed().collect(Collectors.toList());
+
+		assertThatThrownBy(() -> mySvc.parse(inputs, t -> {
+					if (t == 450) {
+						throw new DataFormatException("Bad resource " + t);
+					}
+					return t;
+				}))
+				.isInstanceOf(DataFormatException.class)
+				.hasMessage("Bad resource 450");
+	}
+}
@@ -0,0 +1,137 @@
+package ca.uhn.fhir.jpa.term;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TermConceptGraphTest {
+
+	@Test
+	public void testAddConcepts() {
+		TermConceptGraph graph = new TermConceptGraph();
+		for (int i = 0; i < 5000; i++) {
+			assertEquals(i, graph.addConcept("code" + i, "Display " + i));
+		}
+
+		assertEquals(5000, graph.size());
+		assertEquals(1234, graph.indexOf("code1234"));
+		assertEquals("code1234", graph.getCode(1234));
+		assertEquals("Display 1234", graph.getDisplay(1234));
+		assertEquals(-1, graph.indexOf("code5000"));
+
+		// Adding an existing code replaces the display
+		assertEquals(1234, graph.addConcept("code1234", "New Display"));
+		assertEquals(5000, graph.size());
+		assertEquals("New Display", graph.getDisplay(1234));
+	}
+
+	@Test
+	public void testAddAndRemoveLinks() {
+		TermConceptGraph graph = new TermConceptGraph();
+		for (int i = 0; i < 3000; i++) {
+			graph.addConcept("code" + i, null);
+		}
+		for (int i = 1; i < 3000; i++) {
+			assertTrue(graph.addLink(i - 1, i));
+		}
+		assertFalse(graph.addLink(0, 1));
+		assertFalse(graph.addLink(5, 5));
+		assertEquals(2999, graph.getLinkCount());
+
+		for (int i = 1; i < 3000; i += 2) {
+			assertTrue(graph.removeLink(i - 1, i));
+		}
+		assertFalse(graph.removeLink(0, 1));
+		assertEquals(1499, graph.getLinkCount());
+
+		for (int i = 1; i < 3000; i++) {
+			assertEquals(i % 2 == 0, graph.hasLink(i - 1, i), "Link to " + i);
+		}
+	}
+
+	@Test
+	public void testBuildHierarchy() {
+		TermConceptGraph graph = new TermConceptGraph();
+		int grandchild = graph.addConcept("grandchild", null);
+		int child1 = graph.addConcept("child1", null);
+		int child2 = graph.addConcept("child2", null);
+		int root = graph.addConcept("root", null);
+		graph.addLink(root, child1);
+		graph.addLink(root, child2);
+		graph.addLink(child1, grandchild);
+		graph.addLink(child2, grandchild);
+		graph.addLink(root, grandchild);
+
+		TermConceptGraph.Hierarchy hierarchy = graph.buildHierarchy();
+
+		assertEquals(3, hierarchy.getLevelCount());
+		assertThat(getLevel(hierarchy, 0)).containsExactly(root);
+		assertThat(getLevel(hierarchy, 1)).containsExactlyInAnyOrder(child1, child2);
+		assertThat(getLevel(hierarchy, 2)).containsExactly(grandchild);
+		assertEquals(5, hierarchy.getLinkCount());
+		assertEquals(0, hierarchy.getDroppedLinkCount());
+		assertEquals(0, hierarchy.getParentCount(root));
+		assertEquals(3, hierarchy.getParentCount(grandchild));
+	}
+
+	@Test
+	public void testBuildHierarchyDropsCircularLinks() {
+		TermConceptGraph graph = new TermConceptGraph();
+		int root = graph.addConcept("root", null);
+		int a = graph.addConcept("a", null);
+		int b = graph.addConcept("b", null);
+		graph.addLink(root, a);
+		graph.addLink(a, b);
+		graph.addLink(b, a);
+
+		TermConceptGraph.Hierarchy hierarchy = graph.buildHierarchy();
+
+		assertEquals(3, hierarchy.getLevelCount());
+		assertThat(getLevel(hierarchy, 0)).containsExactly(root);
+		assertThat(getLevel(hierarchy, 1)).containsExactly(a);
+		assertThat(getLevel(hierarchy, 2)).containsExactly(b);
+		assertEquals(2, hierarchy.getLinkCount());
+		assertEquals(1, hierarchy.getDroppedLinkCount());
+		assertEquals(1, hierarchy.getParentCount(a));
+		assertEquals(root, hierarchy.getParent(a, 0));
+		assertEquals(a, hierarchy.getParent(b, 0));
+	}
+
+	@Test
+	public void testBuildHierarchyKeepsLinksHangingOffCycle() {
+		TermConceptGraph graph = new TermConceptGraph();
+		// The child is added first so that it is the first concept examined when the cycle is found
+		int c = graph.addConcept("c", null);
+		int a = graph.addConcept("a", null);
+		int b = graph.addConcept("b", null);
+		graph.addLink(a, c);
+		graph.addLink(a, b);
+		graph.addLink(b, a);
+
+		TermConceptGraph.Hierarchy hierarchy = graph.buildHierarchy();
+
+		assertEquals(2, hierarchy.getLevelCount());
+		assertThat(getLevel(hierarchy, 0)).containsExactly(a);
+		assertThat(getLevel(hierarchy, 1)).containsExactlyInAnyOrder(b, c);
+		assertEquals(2, hierarchy.getLinkCount());
+		assertEquals(1, hierarchy.getDroppedLinkCount());
+		assertEquals(0, hierarchy.getParentCount(a));
+		assertEquals(1, hierarchy.getParentCount(c));
+		assertEquals(a, hierarchy.getParent(c, 0));
+		assertEquals(a, hierarchy.getParent(b, 0));
+	}
+
+	private static List<Integer> getLevel(TermConceptGraph.Hierarchy theHierarchy, int theLevel) {
+		List<Integer> retVal = new ArrayList<>();
+		for (int i = theHierarchy.getLevelStart(theLevel); i < theHierarchy.getLevelEnd(theLevel); i++) {
+			retVal.add(theHierarchy.getConceptAt(i));
+		}
+		return retVal;
+	}
+}
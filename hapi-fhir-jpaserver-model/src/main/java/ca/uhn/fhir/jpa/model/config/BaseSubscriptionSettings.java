@@ -21,6 +21,7 @@ package ca.uhn.fhir.jpa.model.config;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.Validate;
 import org.hl7.fhir.dstu2.model.Subscription;
 
 import java.util.Collections;
@@ -35,6 +36,7 @@ public abstract class BaseSubscriptionSettings {
 	public static final String DEFAULT_RESTHOOK_ENDPOINTURL_VALIDATION_REGEX =
 			"((((http?|https?)://))([-%()_.!~*';/?:@&=+$,A-Za-z0-9])+)";
 	public static final long DEFAULT_SUBMISSION_INTERVAL_IN_MS = 5000;
+	public static final long DEFAULT_RESTHOOK_CIRCUIT_BREAKER_OPEN_MILLIS = 30000;
 
 	private final Set<Subscription.SubscriptionChannelType> mySupportedSubscriptionTypes = new HashSet<>();
 	private String myEmailFromAddress = DEFAULT_EMAIL_FROM_ADDRESS;
@@ -66,6 +68,21 @@ public abstract class BaseSubscriptionSettings {
 	 */
 	private String myRestHookEndpointUrlValidationRegex = DEFAULT_RESTHOOK_ENDPOINTURL_VALIDATION_REGEX;
 
+	/**
+	 * @since 7.8.0
+	 */
+	private int myRestHookMaxConcurrentDeliveriesPerEndpoint = 0;
+
+	/**
+	 * @since 7.8.0
+	 */
+	private int myRestHookCircuitBreakerFailureThreshold = 0;
+
+	/**
+	 * @since 7.8.0
+	 */
+	private long myRestHookCircuitBreakerOpenMillis = DEFAULT_RESTHOOK_CIRCUIT_BREAKER_OPEN_MILLIS;
+
 	/**
 	 * This setting indicates which subscription channel types are supported by the server.  Any subscriptions submitted
 	 * to the server matching these types will be activated.
@@ -322,4 +339,86 @@ public abstract class BaseSubscriptionSettings {
 	public void setSubscriptionIntervalInMs(long theSubscriptionIntervalInMs) {
 		mySubmissionIntervalInMs = theSubscriptionIntervalInMs;
 	}
+
+	/**
+	 * The maximum number of rest-hook deliveries which may be in progress at the same time
+	 * for a single endpoint URL, across all subscriptions delivering to it. Once the limit
+	 * is reached, delivery threads wait for an in-progress delivery to finish, which applies
+	 * backpressure to the delivery channel instead of flooding a slow endpoint. The limit is
+	 * read when an endpoint is first delivered to. Defaults to {@literal 0}, meaning no limit.
+	 *
+	 * @since 7.8.0
+	 */
+	public int getRestHookMaxConcurrentDeliveriesPerEndpoint() {
+		return myRestHookMaxConcurrentDeliveriesPerEndpoint;
+	}
+
+	/**
+	 * The maximum number of rest-hook deliveries which may be in progress at the same time
+	 * for a single endpoint URL, across all subscriptions delivering to it. Once the limit
+	 * is reached, delivery threads wait for an in-progress delivery to finish, which applies
+	 * backpressure to the delivery channel instead of flooding a slow endpoint. The limit is
+	 * read when an endpoint is first delivered to. Defaults to {@literal 0}, meaning no limit.
+	 *
+	 * @since 7.8.0
+	 */
+	public void setRestHookMaxConcurrentDeliveriesPerEndpoint(int theRestHookMaxConcurrentDeliveriesPerEndpoint) {
+		Validate.isTrue(
+				theRestHookMaxConcurrentDeliveriesPerEndpoint >= 0,
+				"theRestHookMaxConcurrentDeliveriesPerEndpoint must not be negative");
+		myRestHookMaxConcurrentDeliveriesPerEndpoint = theRestHookMaxConcurrentDeliveriesPerEndpoint;
+	}
+
+	/**
+	 * The number of consecutive failed rest-hook deliveries to an endpoint URL after which
+	 * the circuit breaker for that endpoint opens. While it is open, deliveries to the endpoint
+	 * fail immediately without being attempted, leaving the delivery channel to retry them
+	 * later. Defaults to {@literal 0}, meaning the circuit breaker is disabled.
+	 *
+	 * @see #setRestHookCircuitBreakerOpenMillis(long)
+	 * @since 7.8.0
+	 */
+	public int getRestHookCircuitBreakerFailureThreshold() {
+		return myRestHookCircuitBreakerFailureThreshold;
+	}
+
+	/**
+	 * The number of consecutive failed rest-hook deliveries to an endpoint URL after which
+	 * the circuit breaker for that endpoint opens. While it is open, deliveries to the endpoint
+	 * fail immediately without being attempted, leaving the delivery channel to retry them
+	 * later. Defaults to {@literal 0}, meaning the circuit breaker is disabled.
+	 *
+	 * @see #setRestHookCircuitBreakerOpenMillis(long)
+	 * @since 7.8.0
+	 */
+	public void setRestHookCircuitBreakerFailureThreshold(int theRestHookCircuitBreakerFailureThreshold) {
+		Validate.isTrue(
+				theRestHookCircuitBreakerFailureThreshold >= 0,
+				"theRestHookCircuitBreakerFailureThreshold must not be negative");
+		myRestHookCircuitBreakerFailureThreshold = theRestHookCircuitBreakerFailureThreshold;
+	}
+
+	/**
+	 * How long the circuit breaker for a rest-hook endpoint stays open before deliveries to
+	 * the endpoint are attempted again. Defaults to {@link #DEFAULT_RESTHOOK_CIRCUIT_BREAKER_OPEN_MILLIS}.
+	 *
+	 * @see #setRestHookCircuitBreakerFailureThreshold(int)
+	 * @since 7.8.0
+	 */
+	public long getRestHookCircuitBreakerOpenMillis() {
+		return myRestHookCircuitBreakerOpenMillis;
+	}
+
+	/**
+	 * How long the circuit breaker for a rest-hook endpoint stays open before deliveries to
+	 * the endpoint are attempted again. Defaults to {@link #DEFAULT_RESTHOOK_CIRCUIT_BREAKER_OPEN_MILLIS}.
+	 *
+	 * @see #setRestHookCircuitBreakerFailureThreshold(int)
+	 * @since 7.8.0
+	 */
+	public void setRestHookCircuitBreakerOpenMillis(long theRestHookCircuitBreakerOpenMillis) {
+		Validate.isTrue(
+				theRestHookCircuitBreakerOpenMillis > 0, "theRestHookCircuitBreakerOpenMillis must be positive");
+		myRestHookCircuitBreakerOpenMillis = theRestHookCircuitBreakerOpenMillis;
+	}
 }
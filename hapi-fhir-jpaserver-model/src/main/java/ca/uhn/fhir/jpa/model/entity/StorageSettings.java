@@ -52,6 +52,12 @@ public class StorageSettings {
 	public static final int DEFAULT_BUNDLE_BATCH_POOL_SIZE = 20; // 1 for single thread
 
 	public static final int DEFAULT_BUNDLE_BATCH_MAX_POOL_SIZE = 100; // 1 for single thread
+
+	/**
+	 * @since 7.8.0
+	 */
+	public static final int DEFAULT_BUNDLE_BATCH_CHUNK_SIZE = 1;
+
 	/**
 	 * Default {@link #getTreatReferencesAsLogical() logical URL bases}. Includes the following
 	 * values:
@@ -95,6 +101,7 @@ public class StorageSettings {
 	private boolean myAutoCreatePlaceholderReferenceTargets;
 	private Integer myBundleBatchPoolSize = DEFAULT_BUNDLE_BATCH_POOL_SIZE;
 	private Integer myBundleBatchMaxPoolSize = DEFAULT_BUNDLE_BATCH_MAX_POOL_SIZE;
+	private int myBundleBatchChunkSize = DEFAULT_BUNDLE_BATCH_CHUNK_SIZE;
 	private boolean myMassIngestionMode;
 	private Integer myMaximumTransactionBundleSize = DEFAULT_MAXIMUM_TRANSACTION_BUNDLE_SIZE;
 	private boolean myNormalizeTerminologyForBulkExportJobs = false;
@@ -239,6 +246,61 @@ public class StorageSettings {
 		this.myBundleBatchMaxPoolSize = theBundleBatchMaxPoolSize;
 	}
 
+	/**
+	 * When processing a FHIR <code>batch</code> Bundle, this is the maximum number of consecutive
+	 * non-GET entries which will be grouped together and processed in a single database transaction.
+	 * Grouped entries share the transaction pre-fetch of resource IDs, conditional URLs and tags, and
+	 * the chunks are processed in parallel on the batch thread pool (see {@link #getBundleBatchPoolSize()}),
+	 * so the pool should be sized against the database connection pool. If any entry in a chunk
+	 * fails, the chunk is rolled back and its entries are retried one at a time so that each entry
+	 * still succeeds or fails independently. An entry whose <code>fullUrl</code> or resource ID is
+	 * referenced by an entry in the Bundle is never grouped, since the transaction would rewrite
+	 * those references, and entries sharing a <code>fullUrl</code>, resource ID or conditional URL
+	 * are never placed in the same chunk.
+	 * <p>
+	 * Note that when chunking is enabled, entries in different chunks are no longer guaranteed to be
+	 * processed in Bundle order, although the response Bundle is always returned in request order.
+	 * All chunks are complete before any GET entries are processed.
+	 * </p>
+	 * <p>
+	 * The default is {@link #DEFAULT_BUNDLE_BATCH_CHUNK_SIZE}, meaning that each entry is processed
+	 * in its own transaction and non-GET entries are processed sequentially.
+	 * </p>
+	 *
+	 * @since 7.8.0
+	 */
+	public int getBundleBatchChunkSize() {
+		return myBundleBatchChunkSize;
+	}
+
+	/**
+	 * When processing a FHIR <code>batch</code> Bundle, this is the maximum number of consecutive
+	 * non-GET entries which will be grouped together and processed in a single database transaction.
+	 * Grouped entries share the transaction pre-fetch of resource IDs, conditional URLs and tags, and
+	 * the chunks are processed in parallel on the batch thread pool (see {@link #getBundleBatchPoolSize()}),
+	 * so the pool should be sized against the database connection pool. If any entry in a chunk
+	 * fails, the chunk is rolled back and its entries are retried one at a time so that each entry
+	 * still succeeds or fails independently. An entry whose <code>fullUrl</code> or resource ID is
+	 * referenced by an entry in the Bundle is never grouped, since the transaction would rewrite
+	 * those references, and entries sharing a <code>fullUrl</code>, resource ID or conditional URL
+	 * are never placed in the same chunk.
+	 * <p>
+	 * Note that when chunking is enabled, entries in different chunks are no longer guaranteed to be
+	 * processed in Bundle order, although the response Bundle is always returned in request order.
+	 * All chunks are complete before any GET entries are processed.
+	 * </p>
+	 * <p>
+	 * The default is {@link #DEFAULT_BUNDLE_BATCH_CHUNK_SIZE}, meaning that each entry is processed
+	 * in its own transaction and non-GET entries are processed sequentially.
+	 * </p>
+	 *
+	 * @since 7.8.0
+	 */
+	public void setBundleBatchChunkSize(int theBundleBatchChunkSize) {
+		Validate.isTrue(theBundleBatchChunkSize >= 1, "theBundleBatchChunkSize must be at least 1");
+		myBundleBatchChunkSize = theBundleBatchChunkSize;
+	}
+
 	/**
 	 * If set to {@link IndexEnabledEnum#DISABLED} (default is {@link IndexEnabledEnum#DISABLED})
 	 * the server will not create search indexes for search parameters with no values in resources.
@@ -0,0 +1,116 @@
+/*-
+ * #%L
+ * HAPI FHIR JPA - Search Parameters
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.searchparam.matcher;
+
+import ca.uhn.fhir.jpa.searchparam.SearchParameterMap;
+import ca.uhn.fhir.jpa.searchparam.extractor.ResourceIndexedSearchParams;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds state that can be shared when a single resource is matched in-memory against
+ * several criteria strings, such as when one modified resource is checked against every
+ * active subscription. The parsed criteria and the search parameters extracted from the
+ * resource are cached here so that each additional match only costs a predicate evaluation.
+ * <p>
+ * Instances are tied to a single resource, and are not thread safe.
+ * </p>
+ *
+ * @see InMemoryResourceMatcher#match(String, InMemoryMatchingContext)
+ * @since 7.8.0
+ */
+public class InMemoryMatchingContext {
+
+	private final IBaseResource myResource;
+	private final RequestDetails myRequestDetails;
+	private final Map<String, SearchParameterMap> myCriteriaToSearchParameterMap = new HashMap<>();
+	private ResourceIndexedSearchParams myIndexedSearchParams;
+	private int myMatchCount;
+
+	/**
+	 * Constructor
+	 *
+	 * @param theResource The resource being matched
+	 */
+	public InMemoryMatchingContext(@Nonnull IBaseResource theResource) {
+		this(theResource, null);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theResource       The resource being matched
+	 * @param theRequestDetails The request details to use when extracting search parameters, if any
+	 */
+	public InMemoryMatchingContext(@Nonnull IBaseResource theResource, @Nullable RequestDetails theRequestDetails) {
+		Validate.notNull(theResource, "theResource must not be null");
+		myResource = theResource;
+		myRequestDetails = theRequestDetails;
+	}
+
+	@Nonnull
+	public IBaseResource getResource() {
+		return myResource;
+	}
+
+	@Nullable
+	public RequestDetails getRequestDetails() {
+		return myRequestDetails;
+	}
+
+	/**
+	 * Returns the search parameters extracted from the resource, or {@literal null} if
+	 * a full extraction hasn't been performed yet
+	 */
+	@Nullable
+	public ResourceIndexedSearchParams getIndexedSearchParams() {
+		return myIndexedSearchParams;
+	}
+
+	void setIndexedSearchParams(@Nonnull ResourceIndexedSearchParams theIndexedSearchParams) {
+		myIndexedSearchParams = theIndexedSearchParams;
+	}
+
+	@Nullable
+	SearchParameterMap getSearchParameterMap(String theCriteria) {
+		return myCriteriaToSearchParameterMap.get(theCriteria);
+	}
+
+	void putSearchParameterMap(String theCriteria, SearchParameterMap theSearchParameterMap) {
+		myCriteriaToSearchParameterMap.put(theCriteria, theSearchParameterMap);
+	}
+
+	/**
+	 * Returns the number of criteria which have been matched using this context
+	 */
+	public int getMatchCount() {
+		return myMatchCount;
+	}
+
+	void incrementMatchCount() {
+		myMatchCount++;
+	}
+}
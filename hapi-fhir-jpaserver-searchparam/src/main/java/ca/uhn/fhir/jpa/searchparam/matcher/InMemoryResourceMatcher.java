@@ -194,6 +194,54 @@ public class InMemoryResourceMatcher {
 		return match(searchParameterMap, theResource, resourceDefinition, relevantSearchParams);
 	}
 
+	/**
+	 * Tries to perform the match in-memory against the resource held by the given context, returning
+	 * UNSUPPORTED if it's not possible. This behaves like {@link #match(String, IBaseResource, ResourceIndexedSearchParams, RequestDetails)}
+	 * but reuses the parsed criteria and the extracted search parameters cached in the context, so it
+	 * should be preferred when the same resource is matched against several criteria.
+	 * <p>
+	 * The first match against a context only extracts the parameters needed by its criteria. If the
+	 * context is used again, every search parameter is extracted once and shared by all later matches.
+	 * </p>
+	 *
+	 * @since 7.8.0
+	 */
+	public InMemoryMatchResult match(String theCriteria, InMemoryMatchingContext theContext) {
+		IBaseResource resource = theContext.getResource();
+		RuntimeResourceDefinition resourceDefinition = myFhirContext.getResourceDefinition(resource);
+
+		SearchParameterMap searchParameterMap = theContext.getSearchParameterMap(theCriteria);
+		if (searchParameterMap == null) {
+			try {
+				searchParameterMap = myMatchUrlService.translateMatchUrl(theCriteria, resourceDefinition);
+			} catch (UnsupportedOperationException e) {
+				return InMemoryMatchResult.unsupportedFromReason(InMemoryMatchResult.PARSE_FAIL);
+			}
+			searchParameterMap.clean();
+			theContext.putSearchParameterMap(theCriteria, searchParameterMap);
+		}
+
+		ResourceIndexedSearchParams indexedSearchParams = theContext.getIndexedSearchParams();
+		if (indexedSearchParams == null) {
+			if (theContext.getMatchCount() == 0) {
+				// Only one match may be needed, so don't index anything the criteria doesn't use
+				SearchParameterMap finalSearchParameterMap = searchParameterMap;
+				ISearchParamExtractor.ISearchParamFilter filter = theSearchParams -> theSearchParams.stream()
+						.filter(t -> finalSearchParameterMap.containsKey(t.getName()))
+						.collect(Collectors.toList());
+				indexedSearchParams = myIndexedSearchParamExtractor.extractIndexedSearchParams(
+						resource, theContext.getRequestDetails(), filter);
+			} else {
+				indexedSearchParams = myIndexedSearchParamExtractor.extractIndexedSearchParams(
+						resource, theContext.getRequestDetails());
+				theContext.setIndexedSearchParams(indexedSearchParams);
+			}
+		}
+		theContext.incrementMatchCount();
+
+		return match(searchParameterMap, resource, resourceDefinition, indexedSearchParams);
+	}
+
 	/**
 	 * @param theCriteria
 	 * @return result.supported() will be true if theCriteria can be evaluated in-memory
@@ -46,6 +46,16 @@ public class SearchParamMatcher {
 		return myInMemoryResourceMatcher.match(theCriteria, theResource, null, theRequest);
 	}
 
+	/**
+	 * Matches the resource held by the given context, reusing any parsed criteria and
+	 * extracted search parameters cached in it.
+	 *
+	 * @since 7.8.0
+	 */
+	public InMemoryMatchResult match(String theCriteria, InMemoryMatchingContext theContext) {
+		return myInMemoryResourceMatcher.match(theCriteria, theContext);
+	}
+
 	public InMemoryMatchResult match(SearchParameterMap theSearchParameterMap, IBaseResource theResource) {
 		if (theSearchParameterMap.isEmpty()) {
 			return InMemoryMatchResult.successfulMatch();
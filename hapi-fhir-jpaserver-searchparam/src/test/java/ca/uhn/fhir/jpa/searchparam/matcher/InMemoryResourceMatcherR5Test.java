@@ -44,10 +44,13 @@ import java.util.Date;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -409,6 +412,44 @@ public class InMemoryResourceMatcherR5Test {
 		assertFalse(resultOutsidePeriod.matched());
 	}
 
+	@Test
+	public void testMatchWithContext_SearchParamsExtractedOnceForManyCriteria() {
+		when(myIndexedSearchParamExtractor.extractIndexedSearchParams(any(), any(), any())).thenReturn(mySearchParams);
+		when(myIndexedSearchParamExtractor.extractIndexedSearchParams(any(), any())).thenReturn(mySearchParams);
+		InMemoryMatchingContext context = new InMemoryMatchingContext(myObservation, newRequest());
+
+		// The first match only extracts the params needed by its criteria
+		InMemoryMatchResult result = myInMemoryResourceMatcher.match("code=" + OBSERVATION_CODE, context);
+		assertTrue(result.matched());
+		assertNull(context.getIndexedSearchParams());
+
+		// Subsequent matches share a single full extraction
+		result = myInMemoryResourceMatcher.match("code=a_different_code", context);
+		assertTrue(result.supported());
+		assertFalse(result.matched());
+		result = myInMemoryResourceMatcher.match("date=gt" + EARLY_DATE, context);
+		assertTrue(result.matched());
+		result = myInMemoryResourceMatcher.match("date=gt" + LATE_DATE, context);
+		assertFalse(result.matched());
+		result = myInMemoryResourceMatcher.match("code=" + OBSERVATION_CODE, context);
+		assertTrue(result.matched());
+
+		assertSame(mySearchParams, context.getIndexedSearchParams());
+		assertEquals(5, context.getMatchCount());
+		verify(myIndexedSearchParamExtractor, times(1)).extractIndexedSearchParams(eq(myObservation), any(), any());
+		verify(myIndexedSearchParamExtractor, times(1)).extractIndexedSearchParams(eq(myObservation), any());
+	}
+
+	@Test
+	public void testMatchWithContext_UnsupportedCriteria() {
+		when(myIndexedSearchParamExtractor.extractIndexedSearchParams(any(), any(), any())).thenReturn(mySearchParams);
+		InMemoryMatchingContext context = new InMemoryMatchingContext(myObservation);
+
+		InMemoryMatchResult result = myInMemoryResourceMatcher.match("encounter.class=FOO", context);
+		assertFalse(result.supported());
+		assertEquals("Parameter: <encounter.class> Reason: Chained parameters are not supported", result.getUnsupportedReason());
+	}
+
 
 	private ResourceIndexedSearchParams extractSearchParams(Observation theObservation) {
 		ResourceIndexedSearchParams retval = ResourceIndexedSearchParams.withSets();
@@ -21,6 +21,7 @@ package ca.uhn.fhir.jpa.subscription.match.config;
 
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
+import ca.uhn.fhir.jpa.model.config.SubscriptionSettings;
 import ca.uhn.fhir.jpa.searchparam.matcher.SearchParamMatcher;
 import ca.uhn.fhir.jpa.subscription.channel.api.IChannelFactory;
 import ca.uhn.fhir.jpa.subscription.channel.subscription.SubscriptionChannelRegistry;
@@ -29,6 +30,7 @@ import ca.uhn.fhir.jpa.subscription.channel.subscription.SubscriptionDeliveryHan
 import ca.uhn.fhir.jpa.subscription.match.deliver.email.IEmailSender;
 import ca.uhn.fhir.jpa.subscription.match.deliver.email.SubscriptionDeliveringEmailSubscriber;
 import ca.uhn.fhir.jpa.subscription.match.deliver.message.SubscriptionDeliveringMessageSubscriber;
+import ca.uhn.fhir.jpa.subscription.match.deliver.resthook.RestHookEndpointSvc;
 import ca.uhn.fhir.jpa.subscription.match.deliver.resthook.SubscriptionDeliveringRestHookSubscriber;
 import ca.uhn.fhir.jpa.subscription.match.matcher.matching.CompositeInMemoryDaoSubscriptionMatcher;
 import ca.uhn.fhir.jpa.subscription.match.matcher.matching.DaoSubscriptionMatcher;
@@ -114,6 +116,11 @@ public class SubscriptionProcessorConfig {
 				theFhirContext, theInterceptorBroadcaster, theSubscriptionChannelRegistry);
 	}
 
+	@Bean
+	public RestHookEndpointSvc restHookEndpointSvc(SubscriptionSettings theSubscriptionSettings) {
+		return new RestHookEndpointSvc(theSubscriptionSettings);
+	}
+
 	@Bean
 	@Scope("prototype")
 	public SubscriptionDeliveringRestHookSubscriber subscriptionDeliveringRestHookSubscriber() {
@@ -0,0 +1,130 @@
+/*-
+ * #%L
+ * HAPI FHIR Subscription Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.subscription.match.deliver.resthook;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivery statistics for the rest-hook deliveries made for a single subscription
+ *
+ * @see RestHookEndpointSvc#getMetrics(String)
+ * @since 7.8.0
+ */
+public class RestHookDeliveryMetrics {
+
+	private final long myCreatedNanos = System.nanoTime();
+	private final LongAdder myDeliveredCount = new LongAdder();
+	private final LongAdder myFailedCount = new LongAdder();
+	private final LongAdder myRejectedCount = new LongAdder();
+	private final LongAdder myTotalDeliveryNanos = new LongAdder();
+	private final LongAccumulator myMaxDeliveryNanos = new LongAccumulator(Math::max, 0);
+	private final LongAdder myTotalPermitWaitNanos = new LongAdder();
+
+	void recordPermitWait(long theNanos) {
+		myTotalPermitWaitNanos.add(theNanos);
+	}
+
+	void recordDelivered(long theNanos) {
+		myDeliveredCount.increment();
+		recordDeliveryTime(theNanos);
+	}
+
+	void recordFailed(long theNanos) {
+		myFailedCount.increment();
+		recordDeliveryTime(theNanos);
+	}
+
+	void recordRejected() {
+		myRejectedCount.increment();
+	}
+
+	private void recordDeliveryTime(long theNanos) {
+		myTotalDeliveryNanos.add(theNanos);
+		myMaxDeliveryNanos.accumulate(theNanos);
+	}
+
+	/**
+	 * Returns the number of deliveries which completed successfully
+	 */
+	public long getDeliveredCount() {
+		return myDeliveredCount.sum();
+	}
+
+	/**
+	 * Returns the number of deliveries which were attempted but failed
+	 */
+	public long getFailedCount() {
+		return myFailedCount.sum();
+	}
+
+	/**
+	 * Returns the number of deliveries which were not attempted because the circuit
+	 * breaker for the endpoint was open
+	 */
+	public long getRejectedCount() {
+		return myRejectedCount.sum();
+	}
+
+	/**
+	 * Returns the total time spent in attempted deliveries, successful or not
+	 */
+	public long getTotalDeliveryMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(myTotalDeliveryNanos.sum());
+	}
+
+	public long getMaxDeliveryMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(myMaxDeliveryNanos.get());
+	}
+
+	/**
+	 * Returns the total time deliveries have spent waiting because the
+	 * {@link ca.uhn.fhir.jpa.model.config.SubscriptionSettings#setRestHookMaxConcurrentDeliveriesPerEndpoint(int) maximum
+	 * number of concurrent deliveries} to the endpoint was reached
+	 */
+	public long getTotalPermitWaitMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(myTotalPermitWaitNanos.sum());
+	}
+
+	/**
+	 * Returns the average number of successful deliveries per second since these metrics
+	 * were created
+	 */
+	public double getDeliveriesPerSecond() {
+		long elapsedNanos = Math.max(System.nanoTime() - myCreatedNanos, 1);
+		return getDeliveredCount() / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+				.append("deliveredCount", getDeliveredCount())
+				.append("failedCount", getFailedCount())
+				.append("rejectedCount", getRejectedCount())
+				.append("totalDeliveryMillis", getTotalDeliveryMillis())
+				.append("maxDeliveryMillis", getMaxDeliveryMillis())
+				.append("totalPermitWaitMillis", getTotalPermitWaitMillis())
+				.toString();
+	}
+}
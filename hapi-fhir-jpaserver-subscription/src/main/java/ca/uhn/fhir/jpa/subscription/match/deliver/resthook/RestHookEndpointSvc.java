@@ -0,0 +1,212 @@
+/*-
+ * #%L
+ * HAPI FHIR Subscription Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.subscription.match.deliver.resthook;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.jpa.model.config.SubscriptionSettings;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import com.google.common.annotations.VisibleForTesting;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.LongSupplier;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Guards the rest-hook deliveries made to each endpoint URL. This service limits the number of
+ * deliveries in progress for an endpoint, short-circuits deliveries to an endpoint which keeps
+ * failing, and keeps delivery metrics for each subscription. It is shared by every
+ * {@link SubscriptionDeliveringRestHookSubscriber}, since several subscriptions may deliver to
+ * the same endpoint.
+ *
+ * @see SubscriptionSettings#setRestHookMaxConcurrentDeliveriesPerEndpoint(int)
+ * @see SubscriptionSettings#setRestHookCircuitBreakerFailureThreshold(int)
+ * @since 7.8.0
+ */
+public class RestHookEndpointSvc {
+	private static final Logger ourLog = LoggerFactory.getLogger(RestHookEndpointSvc.class);
+
+	private final SubscriptionSettings mySubscriptionSettings;
+	private final ConcurrentHashMap<String, EndpointState> myEndpointStates = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, RestHookDeliveryMetrics> mySubscriptionMetrics =
+			new ConcurrentHashMap<>();
+	private LongSupplier myClock = System::currentTimeMillis;
+
+	/**
+	 * Constructor
+	 */
+	public RestHookEndpointSvc(SubscriptionSettings theSubscriptionSettings) {
+		mySubscriptionSettings = theSubscriptionSettings;
+	}
+
+	/**
+	 * Performs a delivery for the given subscription, waiting first if the endpoint already has
+	 * the maximum number of deliveries in progress.
+	 *
+	 * @throws InternalErrorException If the circuit breaker for the endpoint is open, in which case the delivery is not attempted
+	 */
+	public void deliver(String theSubscriptionId, @Nullable String theEndpointUrl, Runnable theDelivery) {
+		RestHookDeliveryMetrics metrics = mySubscriptionMetrics.computeIfAbsent(
+				theSubscriptionId, t -> new RestHookDeliveryMetrics());
+		if (isBlank(theEndpointUrl)) {
+			doDeliver(metrics, null, null, theDelivery);
+			return;
+		}
+
+		EndpointState endpointState = myEndpointStates.computeIfAbsent(
+				theEndpointUrl,
+				t -> new EndpointState(mySubscriptionSettings.getRestHookMaxConcurrentDeliveriesPerEndpoint()));
+
+		long openUntil = endpointState.getOpenUntil();
+		if (openUntil > myClock.getAsLong()) {
+			metrics.recordRejected();
+			throw new InternalErrorException(
+					Msg.code(2606) + "Not delivering to rest-hook endpoint " + theEndpointUrl
+							+ " for subscription " + theSubscriptionId
+							+ " because the endpoint is failing. Delivery will be attempted again after "
+							+ Instant.ofEpochMilli(openUntil));
+		}
+
+		Semaphore semaphore = endpointState.getSemaphore();
+		if (semaphore != null) {
+			long start = System.nanoTime();
+			try {
+				semaphore.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InternalErrorException(
+						Msg.code(2607) + "Interrupted while waiting to deliver to rest-hook endpoint "
+								+ theEndpointUrl,
+						e);
+			}
+			metrics.recordPermitWait(System.nanoTime() - start);
+		}
+
+		try {
+			doDeliver(metrics, theEndpointUrl, endpointState, theDelivery);
+		} finally {
+			if (semaphore != null) {
+				semaphore.release();
+			}
+		}
+	}
+
+	private void doDeliver(
+			RestHookDeliveryMetrics theMetrics,
+			@Nullable String theEndpointUrl,
+			@Nullable EndpointState theEndpointState,
+			Runnable theDelivery) {
+		long start = System.nanoTime();
+		try {
+			theDelivery.run();
+		} catch (RuntimeException e) {
+			theMetrics.recordFailed(System.nanoTime() - start);
+			if (theEndpointState != null) {
+				recordFailure(theEndpointUrl, theEndpointState);
+			}
+			throw e;
+		}
+		theMetrics.recordDelivered(System.nanoTime() - start);
+		if (theEndpointState != null) {
+			theEndpointState.recordSuccess();
+		}
+	}
+
+	private void recordFailure(String theEndpointUrl, EndpointState theEndpointState) {
+		int threshold = mySubscriptionSettings.getRestHookCircuitBreakerFailureThreshold();
+		int failures = theEndpointState.recordFailure();
+		if (threshold > 0 && failures >= threshold) {
+			long openMillis = mySubscriptionSettings.getRestHookCircuitBreakerOpenMillis();
+			theEndpointState.open(myClock.getAsLong() + openMillis);
+			ourLog.warn(
+					"Rest-hook endpoint {} has failed {} consecutive deliveries, suspending deliveries to it for {}ms",
+					theEndpointUrl,
+					failures,
+					openMillis);
+		}
+	}
+
+	/**
+	 * Returns the delivery metrics for the given subscription, or {@literal null} if no
+	 * delivery has been made for it yet
+	 */
+	@Nullable
+	public RestHookDeliveryMetrics getMetrics(@Nonnull String theSubscriptionId) {
+		return mySubscriptionMetrics.get(theSubscriptionId);
+	}
+
+	/**
+	 * Returns {@literal true} if deliveries to the given endpoint are currently being
+	 * rejected by the circuit breaker
+	 */
+	public boolean isCircuitOpen(@Nonnull String theEndpointUrl) {
+		EndpointState endpointState = myEndpointStates.get(theEndpointUrl);
+		return endpointState != null && endpointState.getOpenUntil() > myClock.getAsLong();
+	}
+
+	public void clear() {
+		myEndpointStates.clear();
+		mySubscriptionMetrics.clear();
+	}
+
+	@VisibleForTesting
+	void setClockForUnitTest(LongSupplier theClock) {
+		myClock = theClock;
+	}
+
+	private static class EndpointState {
+
+		private final Semaphore mySemaphore;
+		private int myConsecutiveFailures;
+		private volatile long myOpenUntil;
+
+		private EndpointState(int theMaxConcurrentDeliveries) {
+			mySemaphore = theMaxConcurrentDeliveries > 0 ? new Semaphore(theMaxConcurrentDeliveries, true) : null;
+		}
+
+		@Nullable
+		Semaphore getSemaphore() {
+			return mySemaphore;
+		}
+
+		long getOpenUntil() {
+			return myOpenUntil;
+		}
+
+		synchronized void recordSuccess() {
+			myConsecutiveFailures = 0;
+			myOpenUntil = 0;
+		}
+
+		synchronized int recordFailure() {
+			return ++myConsecutiveFailures;
+		}
+
+		void open(long theOpenUntil) {
+			myOpenUntil = theOpenUntil;
+		}
+	}
+}
@@ -46,6 +46,7 @@ import ca.uhn.fhir.rest.server.messaging.BaseResourceModifiedMessage;
 import ca.uhn.fhir.util.BundleUtil;
 import ca.uhn.fhir.util.Logs;
 import ca.uhn.fhir.util.StopWatch;
+import com.google.common.annotations.VisibleForTesting;
 import jakarta.annotation.Nullable;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseResource;
@@ -62,6 +63,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
@@ -72,6 +74,16 @@ public class SubscriptionDeliveringRestHookSubscriber extends BaseSubscriptionDe
 	@Autowired
 	private DaoRegistry myDaoRegistry;
 
+	@Autowired(required = false)
+	private RestHookEndpointSvc myRestHookEndpointSvc;
+
+	/**
+	 * The client for the most recently used endpoint and headers. Clients are reused so that
+	 * deliveries don't pay for building a new client (and its interceptors) every time; the
+	 * underlying HTTP connections are pooled by the restful client factory.
+	 */
+	private final AtomicReference<CachedClient> myCachedClient = new AtomicReference<>();
+
 	/**
 	 * Constructor
 	 */
@@ -105,7 +117,7 @@ public class SubscriptionDeliveringRestHookSubscriber extends BaseSubscriptionDe
 		} else if (thePayloadType != null) {
 			operation = createDeliveryRequestNormal(theMsg, theClient, thePayloadResource);
 		} else {
-			sendNotification(theMsg);
+			executeDelivery(theMsg, () -> sendNotification(theMsg));
 			operation = null;
 		}
 
@@ -119,7 +131,7 @@ public class SubscriptionDeliveringRestHookSubscriber extends BaseSubscriptionDe
 			StopWatch sw = new StopWatch();
 
 			try {
-				operation.execute();
+				executeDelivery(theMsg, operation::execute);
 			} catch (ResourceNotFoundException e) {
 				ourLog.error("Cannot reach {} ", theMsg.getSubscription().getEndpointUrl());
 				ourLog.error("Exception: ", e);
@@ -139,6 +151,20 @@ public class SubscriptionDeliveringRestHookSubscriber extends BaseSubscriptionDe
 		}
 	}
 
+	/**
+	 * Performs the request which delivers to the endpoint, applying the per-endpoint concurrency
+	 * limit and circuit breaker if they are enabled
+	 */
+	private void executeDelivery(ResourceDeliveryMessage theMsg, Runnable theRequest) {
+		if (myRestHookEndpointSvc == null) {
+			theRequest.run();
+			return;
+		}
+		String subscriptionId = theMsg.getSubscriptionId(myFhirContext);
+		String endpointUrl = theMsg.getSubscription().getEndpointUrl();
+		myRestHookEndpointSvc.deliver(subscriptionId, endpointUrl, theRequest);
+	}
+
 	@Nullable
 	private IClientExecutable<?, ?> createDeliveryRequestNormal(
 			ResourceDeliveryMessage theMsg, IGenericClient theClient, IBaseResource thePayloadResource) {
@@ -271,15 +297,7 @@ public class SubscriptionDeliveringRestHookSubscriber extends BaseSubscriptionDe
 		myFhirContext.getRestfulClientFactory().setServerValidationMode(ServerValidationModeEnum.NEVER);
 		IGenericClient client = null;
 		if (isNotBlank(endpointUrl)) {
-			client = myFhirContext.newRestfulGenericClient(endpointUrl);
-
-			// Additional headers specified in the subscription
-			List<String> headers = subscription.getHeaders();
-			for (String next : headers) {
-				if (isNotBlank(next)) {
-					client.registerInterceptor(new SimpleRequestHeaderInterceptor(next));
-				}
-			}
+			client = getOrCreateClient(endpointUrl, subscription.getHeaders());
 		}
 
 		deliverPayload(theMessage, subscription, payloadType, client);
@@ -294,6 +312,30 @@ public class SubscriptionDeliveringRestHookSubscriber extends BaseSubscriptionDe
 		}
 	}
 
+	private IGenericClient getOrCreateClient(String theEndpointUrl, List<String> theHeaders) {
+		CachedClient cachedClient = myCachedClient.get();
+		if (cachedClient != null && cachedClient.matches(theEndpointUrl, theHeaders)) {
+			return cachedClient.getClient();
+		}
+
+		IGenericClient client = myFhirContext.newRestfulGenericClient(theEndpointUrl);
+
+		// Additional headers specified in the subscription
+		for (String next : theHeaders) {
+			if (isNotBlank(next)) {
+				client.registerInterceptor(new SimpleRequestHeaderInterceptor(next));
+			}
+		}
+
+		myCachedClient.set(new CachedClient(theEndpointUrl, theHeaders, client));
+		return client;
+	}
+
+	@VisibleForTesting
+	public void setRestHookEndpointSvcForUnitTest(RestHookEndpointSvc theRestHookEndpointSvc) {
+		myRestHookEndpointSvc = theRestHookEndpointSvc;
+	}
+
 	/**
 	 * Sends a POST notification without a payload
 	 */
@@ -343,4 +385,25 @@ public class SubscriptionDeliveringRestHookSubscriber extends BaseSubscriptionDe
 		}
 		return headers;
 	}
+
+	private static class CachedClient {
+
+		private final String myEndpointUrl;
+		private final List<String> myHeaders;
+		private final IGenericClient myClient;
+
+		private CachedClient(String theEndpointUrl, List<String> theHeaders, IGenericClient theClient) {
+			myEndpointUrl = theEndpointUrl;
+			myHeaders = new ArrayList<>(theHeaders);
+			myClient = theClient;
+		}
+
+		boolean matches(String theEndpointUrl, List<String> theHeaders) {
+			return myEndpointUrl.equals(theEndpointUrl) && myHeaders.equals(theHeaders);
+		}
+
+		IGenericClient getClient() {
+			return myClient;
+		}
+	}
 }
@@ -21,6 +21,7 @@ package ca.uhn.fhir.jpa.subscription.match.matcher.matching;
 
 import ca.uhn.fhir.jpa.model.config.SubscriptionSettings;
 import ca.uhn.fhir.jpa.searchparam.matcher.InMemoryMatchResult;
+import ca.uhn.fhir.jpa.searchparam.matcher.InMemoryMatchingContext;
 import ca.uhn.fhir.jpa.subscription.model.CanonicalSubscription;
 import ca.uhn.fhir.jpa.subscription.model.ResourceModifiedMessage;
 import org.slf4j.Logger;
@@ -45,9 +46,17 @@ public class CompositeInMemoryDaoSubscriptionMatcher implements ISubscriptionMat
 
 	@Override
 	public InMemoryMatchResult match(CanonicalSubscription theSubscription, ResourceModifiedMessage theMsg) {
+		return match(theSubscription, theMsg, null);
+	}
+
+	@Override
+	public InMemoryMatchResult match(
+			CanonicalSubscription theSubscription,
+			ResourceModifiedMessage theMsg,
+			InMemoryMatchingContext theContext) {
 		InMemoryMatchResult result;
 		if (mySubscriptionSettings.isEnableInMemorySubscriptionMatching()) {
-			result = myInMemorySubscriptionMatcher.match(theSubscription, theMsg);
+			result = myInMemorySubscriptionMatcher.match(theSubscription, theMsg, theContext);
 			if (result.supported()) {
 				result.setInMemory(true);
 			} else {
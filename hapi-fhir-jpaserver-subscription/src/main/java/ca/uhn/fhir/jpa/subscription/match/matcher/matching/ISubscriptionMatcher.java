@@ -20,9 +20,22 @@
 package ca.uhn.fhir.jpa.subscription.match.matcher.matching;
 
 import ca.uhn.fhir.jpa.searchparam.matcher.InMemoryMatchResult;
+import ca.uhn.fhir.jpa.searchparam.matcher.InMemoryMatchingContext;
 import ca.uhn.fhir.jpa.subscription.model.CanonicalSubscription;
 import ca.uhn.fhir.jpa.subscription.model.ResourceModifiedMessage;
 
 public interface ISubscriptionMatcher {
 	InMemoryMatchResult match(CanonicalSubscription subscription, ResourceModifiedMessage msg);
+
+	/**
+	 * Matches the subscription against the message, reusing any parsed criteria and extracted
+	 * search parameters held in the given context. The context must have been created for the
+	 * payload of the message. Implementations which can't make use of the context may ignore it.
+	 *
+	 * @since 7.8.0
+	 */
+	default InMemoryMatchResult match(
+			CanonicalSubscription subscription, ResourceModifiedMessage msg, InMemoryMatchingContext context) {
+		return match(subscription, msg);
+	}
 }
@@ -22,6 +22,7 @@ package ca.uhn.fhir.jpa.subscription.match.matcher.matching;
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.jpa.searchparam.matcher.InMemoryMatchResult;
+import ca.uhn.fhir.jpa.searchparam.matcher.InMemoryMatchingContext;
 import ca.uhn.fhir.jpa.searchparam.matcher.SearchParamMatcher;
 import ca.uhn.fhir.jpa.subscription.model.CanonicalSubscription;
 import ca.uhn.fhir.jpa.subscription.model.ResourceModifiedMessage;
@@ -45,11 +46,32 @@ public class InMemorySubscriptionMatcher implements ISubscriptionMatcher {
 			return mySearchParamMatcher.match(
 					theSubscription.getCriteriaString(), theMsg.getNewPayload(myContext), null);
 		} catch (Exception e) {
-			ourLog.error("Failure in in-memory matcher", e);
-			throw new InternalErrorException(
-					Msg.code(1) + "Failure performing memory-match for resource ID[" + theMsg.getPayloadId(myContext)
-							+ "] for subscription ID[" + theSubscription.getIdElementString() + "]: " + e.getMessage(),
-					e);
+			throw toInternalErrorException(theSubscription, theMsg, e);
 		}
 	}
+
+	@Override
+	public InMemoryMatchResult match(
+			CanonicalSubscription theSubscription,
+			ResourceModifiedMessage theMsg,
+			InMemoryMatchingContext theContext) {
+		if (theContext == null) {
+			return match(theSubscription, theMsg);
+		}
+		try {
+			return mySearchParamMatcher.match(theSubscription.getCriteriaString(), theContext);
+		} catch (Exception e) {
+			throw toInternalErrorException(theSubscription, theMsg, e);
+		}
+	}
+
+	private InternalErrorException toInternalErrorException(
+			CanonicalSubscription theSubscription, ResourceModifiedMessage theMsg, Exception theException) {
+		ourLog.error("Failure in in-memory matcher", theException);
+		return new InternalErrorException(
+				Msg.code(1) + "Failure performing memory-match for resource ID[" + theMsg.getPayloadId(myContext)
+						+ "] for subscription ID[" + theSubscription.getIdElementString() + "]: "
+						+ theException.getMessage(),
+				theException);
+	}
 }
@@ -20,18 +20,27 @@
 package ca.uhn.fhir.jpa.subscription.match.matcher.subscriber;
 
 import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.RuntimeSearchParam;
 import ca.uhn.fhir.interceptor.api.HookParams;
 import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
 import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.jpa.model.entity.BaseResourceIndexedSearchParam;
+import ca.uhn.fhir.jpa.model.entity.ResourceIndexedSearchParamToken;
+import ca.uhn.fhir.jpa.searchparam.extractor.ISearchParamExtractor;
+import ca.uhn.fhir.jpa.searchparam.extractor.PathAndRef;
 import ca.uhn.fhir.jpa.searchparam.matcher.InMemoryMatchResult;
+import ca.uhn.fhir.jpa.searchparam.matcher.InMemoryMatchingContext;
 import ca.uhn.fhir.jpa.subscription.match.matcher.matching.ISubscriptionMatcher;
 import ca.uhn.fhir.jpa.subscription.match.registry.ActiveSubscription;
+import ca.uhn.fhir.jpa.subscription.match.registry.SubscriptionCriteriaIndex;
 import ca.uhn.fhir.jpa.subscription.match.registry.SubscriptionRegistry;
 import ca.uhn.fhir.jpa.subscription.model.CanonicalSubscription;
 import ca.uhn.fhir.jpa.subscription.model.ResourceModifiedJsonMessage;
 import ca.uhn.fhir.jpa.subscription.model.ResourceModifiedMessage;
+import ca.uhn.fhir.rest.server.util.ISearchParamRegistry;
 import ca.uhn.fhir.subscription.api.IResourceModifiedMessagePersistenceSvc;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.instance.model.api.IIdType;
 import org.slf4j.Logger;
@@ -42,9 +51,16 @@ import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.MessagingException;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static ca.uhn.fhir.rest.server.messaging.BaseResourceMessage.OperationTypeEnum.DELETE;
+import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 public class SubscriptionMatchingSubscriber implements MessageHandler {
@@ -69,6 +85,12 @@ public class SubscriptionMatchingSubscriber implements MessageHandler {
 	@Autowired
 	private IResourceModifiedMessagePersistenceSvc myResourceModifiedMessagePersistenceSvc;
 
+	@Autowired(required = false)
+	private ISearchParamRegistry mySearchParamRegistry;
+
+	@Autowired(required = false)
+	private ISearchParamExtractor mySearchParamExtractor;
+
 	/**
 	 * Constructor
 	 */
@@ -129,13 +151,18 @@ public class SubscriptionMatchingSubscriber implements MessageHandler {
 	private void doMatchActiveSubscriptionsAndDeliver(ResourceModifiedMessage theMsg) {
 		IIdType resourceId = theMsg.getPayloadId(myFhirContext);
 
-		Collection<ActiveSubscription> subscriptions = mySubscriptionRegistry.getAllNonTopicSubscriptions();
+		Collection<ActiveSubscription> subscriptions = getCandidateSubscriptions(theMsg, resourceId);
 
 		ourLog.trace("Testing {} subscriptions for applicability", subscriptions.size());
 		boolean anySubscriptionsMatchedResource = false;
 
+		// Shared by every subscription so the payload's search params are only extracted once
+		IBaseResource payload = theMsg.getNewPayload(myFhirContext);
+		InMemoryMatchingContext matchingContext = payload != null ? new InMemoryMatchingContext(payload) : null;
+
 		for (ActiveSubscription nextActiveSubscription : subscriptions) {
-			anySubscriptionsMatchedResource |= processSubscription(theMsg, resourceId, nextActiveSubscription);
+			anySubscriptionsMatchedResource |=
+					processSubscription(theMsg, resourceId, nextActiveSubscription, matchingContext);
 		}
 
 		if (!anySubscriptionsMatchedResource) {
@@ -145,12 +172,113 @@ public class SubscriptionMatchingSubscriber implements MessageHandler {
 		}
 	}
 
+	/**
+	 * Returns the subscriptions which might match the modified resource, using the
+	 * subscription criteria index to avoid returning every active subscription where possible
+	 */
+	private Collection<ActiveSubscription> getCandidateSubscriptions(
+			ResourceModifiedMessage theMsg, IIdType theResourceId) {
+		if (isNotBlank(theMsg.getSubscriptionId())) {
+			ActiveSubscription activeSubscription = mySubscriptionRegistry.get(theMsg.getSubscriptionId());
+			if (activeSubscription == null || activeSubscription.getSubscription().isTopicSubscription()) {
+				return Collections.emptyList();
+			}
+			return Collections.singletonList(activeSubscription);
+		}
+
+		String resourceType = theResourceId.getResourceType();
+		IBaseResource payload = theMsg.getNewPayload(myFhirContext);
+		if (mySearchParamRegistry == null
+				|| mySearchParamExtractor == null
+				|| isBlank(resourceType)
+				|| payload == null) {
+			return mySubscriptionRegistry.getAllNonTopicSubscriptions();
+		}
+
+		Set<String> paramNames = mySubscriptionRegistry.getIndexedCriteriaParamNames(resourceType);
+		Map<String, Set<String>> paramValues = extractIndexedCriteriaValues(payload, resourceType, paramNames);
+		return mySubscriptionRegistry.getNonTopicSubscriptionCandidates(resourceType, paramValues);
+	}
+
+	/**
+	 * Extracts the values the resource has for the given token and reference parameters, in
+	 * the form used by the subscription criteria index. Parameters whose values can't be
+	 * reliably extracted are left out of the returned map, so that every subscription indexed
+	 * by them is treated as a candidate.
+	 */
+	private Map<String, Set<String>> extractIndexedCriteriaValues(
+			IBaseResource thePayload, String theResourceType, Set<String> theParamNames) {
+		Map<String, Set<String>> retVal = new HashMap<>();
+		Set<String> tokenParamNames = new HashSet<>();
+		Set<String> referenceParamNames = new HashSet<>();
+		for (String nextParamName : theParamNames) {
+			RuntimeSearchParam searchParam = mySearchParamRegistry.getActiveSearchParam(
+					theResourceType, nextParamName, ISearchParamRegistry.SearchParamLookupContextEnum.SEARCH);
+			if (searchParam == null) {
+				continue;
+			}
+			switch (searchParam.getParamType()) {
+				case TOKEN:
+					tokenParamNames.add(nextParamName);
+					retVal.put(nextParamName, new HashSet<>());
+					break;
+				case REFERENCE:
+					referenceParamNames.add(nextParamName);
+					retVal.put(nextParamName, new HashSet<>());
+					break;
+				default:
+					break;
+			}
+		}
+
+		if (!tokenParamNames.isEmpty()) {
+			ISearchParamExtractor.ISearchParamFilter filter = theSearchParams -> theSearchParams.stream()
+					.filter(t -> tokenParamNames.contains(t.getName()))
+					.collect(Collectors.toList());
+			for (BaseResourceIndexedSearchParam next :
+					mySearchParamExtractor.extractSearchParamTokens(thePayload, filter)) {
+				if (next instanceof ResourceIndexedSearchParamToken) {
+					String value = ((ResourceIndexedSearchParamToken) next).getValue();
+					Set<String> values = retVal.get(next.getParamName());
+					if (value != null && values != null) {
+						values.add(SubscriptionCriteriaIndex.normalizeValue(value));
+					}
+				}
+			}
+		}
+
+		if (!referenceParamNames.isEmpty()) {
+			Set<String> unresolvableParamNames = new HashSet<>();
+			for (PathAndRef next : mySearchParamExtractor.extractResourceLinks(thePayload, true)) {
+				String paramName = next.getSearchParamName();
+				if (!referenceParamNames.contains(paramName)) {
+					continue;
+				}
+				if (next.isCanonical() || next.getResource() != null || next.getRef() == null) {
+					// These may be resolved to a target when matching, so we can't filter on them
+					unresolvableParamNames.add(paramName);
+					continue;
+				}
+				String idPart = next.getRef().getReferenceElement().getIdPart();
+				if (isNotBlank(idPart)) {
+					retVal.get(paramName).add(SubscriptionCriteriaIndex.normalizeValue(idPart));
+				}
+			}
+			unresolvableParamNames.forEach(retVal::remove);
+		}
+
+		return retVal;
+	}
+
 	/**
 	 * Returns true if subscription matched, and processing completed successfully, and the message was sent to the delivery channel. False otherwise.
 	 *
 	 */
 	private boolean processSubscription(
-			ResourceModifiedMessage theMsg, IIdType theResourceId, ActiveSubscription theActiveSubscription) {
+			ResourceModifiedMessage theMsg,
+			IIdType theResourceId,
+			ActiveSubscription theActiveSubscription,
+			@Nullable InMemoryMatchingContext theMatchingContext) {
 
 		CanonicalSubscription subscription = theActiveSubscription.getSubscription();
 
@@ -188,7 +316,8 @@ public class SubscriptionMatchingSubscriber implements MessageHandler {
 
 		InMemoryMatchResult matchResult;
 		if (theActiveSubscription.getCriteria().getType() == SubscriptionCriteriaParser.TypeEnum.SEARCH_EXPRESSION) {
-			matchResult = mySubscriptionMatcher.match(theActiveSubscription.getSubscription(), theMsg);
+			matchResult =
+					mySubscriptionMatcher.match(theActiveSubscription.getSubscription(), theMsg, theMatchingContext);
 			if (!matchResult.matched()) {
 				ourLog.trace(
 						"Subscription {} was not matched by resource {} {}",
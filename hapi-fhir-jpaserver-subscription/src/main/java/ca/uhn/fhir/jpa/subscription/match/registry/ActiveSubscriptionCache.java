@@ -19,6 +19,7 @@
  */
 package ca.uhn.fhir.jpa.subscription.match.registry;
 
+import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,6 +29,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -37,6 +39,7 @@ class ActiveSubscriptionCache {
 	private static final Logger ourLog = LoggerFactory.getLogger(ActiveSubscriptionCache.class);
 
 	private final Map<String, ActiveSubscription> myCache = new ConcurrentHashMap<>();
+	private final SubscriptionCriteriaIndex myCriteriaIndex = new SubscriptionCriteriaIndex();
 
 	public ActiveSubscription get(String theIdPart) {
 		return myCache.get(theIdPart);
@@ -51,7 +54,19 @@ class ActiveSubscriptionCache {
 	}
 
 	public void put(String theSubscriptionId, ActiveSubscription theActiveSubscription) {
+		put(theSubscriptionId, theActiveSubscription, null);
+	}
+
+	/**
+	 * @param theIndexKey The key to index this subscription's criteria under, or <code>null</code>
+	 *                    if the subscription must be checked against every modified resource
+	 */
+	public synchronized void put(
+			String theSubscriptionId,
+			ActiveSubscription theActiveSubscription,
+			@Nullable SubscriptionCriteriaIndex.IndexKey theIndexKey) {
 		myCache.put(theSubscriptionId, theActiveSubscription);
+		myCriteriaIndex.put(theSubscriptionId, theActiveSubscription, theIndexKey);
 	}
 
 	public synchronized ActiveSubscription remove(String theSubscriptionId) {
@@ -63,6 +78,7 @@ class ActiveSubscriptionCache {
 		}
 
 		myCache.remove(theSubscriptionId);
+		myCriteriaIndex.remove(theSubscriptionId);
 		return activeSubscription;
 	}
 
@@ -98,6 +114,21 @@ class ActiveSubscriptionCache {
 				.collect(Collectors.toList());
 	}
 
+	/**
+	 * @see SubscriptionCriteriaIndex#getIndexedParamNames(String)
+	 */
+	public synchronized Set<String> getIndexedCriteriaParamNames(String theResourceType) {
+		return myCriteriaIndex.getIndexedParamNames(theResourceType);
+	}
+
+	/**
+	 * @see SubscriptionCriteriaIndex#getCandidates(String, Map)
+	 */
+	public synchronized List<ActiveSubscription> getNonTopicSubscriptionCandidates(
+			String theResourceType, Map<String, Set<String>> theParamValues) {
+		return myCriteriaIndex.getCandidates(theResourceType, theParamValues);
+	}
+
 	public List<ActiveSubscription> getAllNonTopicSubscriptions() {
 		return getAll().stream()
 				.filter(as -> !as.getSubscription().isTopicSubscription())
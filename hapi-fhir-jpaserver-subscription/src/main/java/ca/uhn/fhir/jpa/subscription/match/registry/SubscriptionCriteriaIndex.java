@@ -0,0 +1,291 @@
+/*-
+ * #%L
+ * HAPI FHIR Subscription Server
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.subscription.match.registry;
+
+import ca.uhn.fhir.context.RuntimeSearchParam;
+import ca.uhn.fhir.jpa.subscription.match.matcher.subscriber.SubscriptionCriteriaParser;
+import ca.uhn.fhir.rest.server.util.ISearchParamRegistry;
+import ca.uhn.fhir.util.UrlUtil;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Index over the active non-topic subscriptions, used to avoid running the full criteria
+ * matcher against every subscription for every modified resource.
+ * <p>
+ * A search expression subscription such as <code>Observation?code=1234-5&amp;status=final</code>
+ * is indexed by its resource type, and by the values of one of its plain token or reference
+ * parameters (here <code>code=1234-5</code>). A modified resource then only needs to be fully
+ * matched against the subscriptions whose indexed value it actually contains, plus any
+ * subscriptions which could not be indexed. The index only ever narrows the list of
+ * candidates: any subscription which could match a resource is always returned as a candidate.
+ * </p>
+ * <p>
+ * Values are compared ignoring case, since the in-memory matcher does the same.
+ * </p>
+ *
+ * @since 7.8.0
+ */
+public class SubscriptionCriteriaIndex {
+
+	/**
+	 * Reference values are only indexed if they are a plain ID or <code>[type]/[id]</code>
+	 */
+	private static final Pattern PLAIN_REFERENCE_PATTERN = Pattern.compile("^([A-Za-z]+/)?[A-Za-z0-9\\-.]{1,64}$");
+
+	/**
+	 * Subscriptions which could not be indexed, keyed by subscription ID
+	 */
+	private final Map<String, ActiveSubscription> myUnindexedSubscriptions = new LinkedHashMap<>();
+
+	/**
+	 * Resource type -> parameter name -> normalized value -> subscription ID -> subscription
+	 */
+	private final Map<String, Map<String, Map<String, Map<String, ActiveSubscription>>>> myIndex = new HashMap<>();
+
+	private final Map<String, IndexKey> mySubscriptionIdToKey = new HashMap<>();
+
+	/**
+	 * Adds a subscription to the index, replacing any previous entry with the same ID
+	 *
+	 * @param theKey The key to index the subscription under, or <code>null</code> if it can't be indexed
+	 */
+	void put(String theSubscriptionId, ActiveSubscription theActiveSubscription, @Nullable IndexKey theKey) {
+		remove(theSubscriptionId);
+
+		if (theKey == null) {
+			myUnindexedSubscriptions.put(theSubscriptionId, theActiveSubscription);
+			return;
+		}
+
+		mySubscriptionIdToKey.put(theSubscriptionId, theKey);
+		Map<String, Map<String, ActiveSubscription>> valueToSubscriptions = myIndex.computeIfAbsent(
+						theKey.getResourceType(), t -> new HashMap<>())
+				.computeIfAbsent(theKey.getParamName(), t -> new HashMap<>());
+		for (String nextValue : theKey.getValues()) {
+			valueToSubscriptions
+					.computeIfAbsent(nextValue, t -> new LinkedHashMap<>())
+					.put(theSubscriptionId, theActiveSubscription);
+		}
+	}
+
+	void remove(String theSubscriptionId) {
+		myUnindexedSubscriptions.remove(theSubscriptionId);
+
+		IndexKey key = mySubscriptionIdToKey.remove(theSubscriptionId);
+		if (key == null) {
+			return;
+		}
+
+		Map<String, Map<String, Map<String, ActiveSubscription>>> paramToValues = myIndex.get(key.getResourceType());
+		Map<String, Map<String, ActiveSubscription>> valueToSubscriptions = paramToValues.get(key.getParamName());
+		for (String nextValue : key.getValues()) {
+			Map<String, ActiveSubscription> subscriptions = valueToSubscriptions.get(nextValue);
+			subscriptions.remove(theSubscriptionId);
+			if (subscriptions.isEmpty()) {
+				valueToSubscriptions.remove(nextValue);
+			}
+		}
+		if (valueToSubscriptions.isEmpty()) {
+			paramToValues.remove(key.getParamName());
+		}
+		if (paramToValues.isEmpty()) {
+			myIndex.remove(key.getResourceType());
+		}
+	}
+
+	/**
+	 * Returns the names of the parameters which subscriptions for the given resource type are indexed by
+	 */
+	Set<String> getIndexedParamNames(String theResourceType) {
+		Map<String, Map<String, Map<String, ActiveSubscription>>> paramToValues = myIndex.get(theResourceType);
+		if (paramToValues == null) {
+			return Collections.emptySet();
+		}
+		return new HashSet<>(paramToValues.keySet());
+	}
+
+	/**
+	 * Returns every subscription which might match a resource of the given type
+	 *
+	 * @param theParamValues The {@link #normalizeValue(String) normalized} values the resource has for the
+	 *                       parameters returned by {@link #getIndexedParamNames(String)}. If a parameter is
+	 *                       missing from this map, every subscription indexed by that parameter is returned.
+	 */
+	List<ActiveSubscription> getCandidates(String theResourceType, Map<String, Set<String>> theParamValues) {
+		Map<String, ActiveSubscription> retVal = new LinkedHashMap<>(myUnindexedSubscriptions);
+
+		Map<String, Map<String, Map<String, ActiveSubscription>>> paramToValues = myIndex.get(theResourceType);
+		if (paramToValues != null) {
+			for (Map.Entry<String, Map<String, Map<String, ActiveSubscription>>> nextParam :
+					paramToValues.entrySet()) {
+				Set<String> resourceValues = theParamValues.get(nextParam.getKey());
+				if (resourceValues == null) {
+					nextParam.getValue().values().forEach(retVal::putAll);
+					continue;
+				}
+				for (String nextValue : resourceValues) {
+					Map<String, ActiveSubscription> subscriptions = nextParam.getValue().get(nextValue);
+					if (subscriptions != null) {
+						retVal.putAll(subscriptions);
+					}
+				}
+			}
+		}
+
+		List<ActiveSubscription> candidates = new ArrayList<>(retVal.size());
+		for (ActiveSubscription next : retVal.values()) {
+			if (!next.getSubscription().isTopicSubscription()) {
+				candidates.add(next);
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * Determines how a subscription should be indexed
+	 *
+	 * @return The key, or <code>null</code> if the subscription can not be indexed and must be
+	 * 	checked against every modified resource
+	 */
+	@Nullable
+	static IndexKey createKey(
+			ActiveSubscription theActiveSubscription, @Nullable ISearchParamRegistry theSearchParamRegistry) {
+		SubscriptionCriteriaParser.SubscriptionCriteria criteria = theActiveSubscription.getCriteria();
+		if (theSearchParamRegistry == null
+				|| criteria == null
+				|| criteria.getType() != SubscriptionCriteriaParser.TypeEnum.SEARCH_EXPRESSION
+				|| theActiveSubscription.getSubscription().isTopicSubscription()) {
+			return null;
+		}
+
+		String criteriaString = criteria.getCriteria();
+		int questionMarkIdx = criteriaString.indexOf('?');
+		if (questionMarkIdx <= 0) {
+			return null;
+		}
+		String resourceType = criteriaString.substring(0, questionMarkIdx);
+
+		Map<String, String[]> params = UrlUtil.parseQueryString(criteriaString.substring(questionMarkIdx + 1));
+		for (Map.Entry<String, String[]> nextParam : params.entrySet()) {
+			String paramName = nextParam.getKey();
+			if (paramName.startsWith("_") || paramName.contains(":") || paramName.contains(".")) {
+				continue;
+			}
+
+			RuntimeSearchParam searchParam = theSearchParamRegistry.getActiveSearchParam(
+					resourceType, paramName, ISearchParamRegistry.SearchParamLookupContextEnum.SEARCH);
+			if (searchParam == null) {
+				continue;
+			}
+
+			// Repetitions of a parameter are ANDed together, so indexing by the first one is enough
+			Set<String> values = parseIndexableValues(searchParam, nextParam.getValue()[0]);
+			if (values != null) {
+				return new IndexKey(resourceType, paramName, values);
+			}
+		}
+
+		return null;
+	}
+
+	@Nullable
+	private static Set<String> parseIndexableValues(RuntimeSearchParam theSearchParam, String theValue) {
+		if (isBlank(theValue) || theValue.contains("\\")) {
+			return null;
+		}
+
+		Set<String> retVal = new HashSet<>();
+		for (String nextValue : theValue.split(",")) {
+			String value;
+			switch (theSearchParam.getParamType()) {
+				case TOKEN:
+					int pipeIdx = nextValue.indexOf('|');
+					value = pipeIdx != -1 ? nextValue.substring(pipeIdx + 1) : nextValue;
+					break;
+				case REFERENCE:
+					if (!PLAIN_REFERENCE_PATTERN.matcher(nextValue).matches()) {
+						return null;
+					}
+					value = nextValue.substring(nextValue.indexOf('/') + 1);
+					break;
+				default:
+					return null;
+			}
+			if (isBlank(value)) {
+				return null;
+			}
+			retVal.add(normalizeValue(value));
+		}
+		return retVal;
+	}
+
+	/**
+	 * Normalizes a token code or reference ID so that any two values which are equal
+	 * ignoring case (as defined by {@link String#equalsIgnoreCase(String)}) normalize
+	 * to the same string
+	 */
+	@Nonnull
+	public static String normalizeValue(@Nonnull String theValue) {
+		StringBuilder b = new StringBuilder(theValue.length());
+		for (int i = 0; i < theValue.length(); i++) {
+			b.append(Character.toLowerCase(Character.toUpperCase(theValue.charAt(i))));
+		}
+		return b.toString();
+	}
+
+	static class IndexKey {
+
+		private final String myResourceType;
+		private final String myParamName;
+		private final Collection<String> myValues;
+
+		IndexKey(String theResourceType, String theParamName, Collection<String> theValues) {
+			myResourceType = theResourceType;
+			myParamName = theParamName;
+			myValues = theValues;
+		}
+
+		String getResourceType() {
+			return myResourceType;
+		}
+
+		String getParamName() {
+			return myParamName;
+		}
+
+		Collection<String> getValues() {
+			return myValues;
+		}
+	}
+}
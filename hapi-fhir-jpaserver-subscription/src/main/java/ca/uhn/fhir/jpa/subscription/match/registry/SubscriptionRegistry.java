@@ -26,6 +26,7 @@ import ca.uhn.fhir.jpa.subscription.channel.subscription.ISubscriptionDeliveryCh
 import ca.uhn.fhir.jpa.subscription.channel.subscription.SubscriptionChannelRegistry;
 import ca.uhn.fhir.jpa.subscription.model.CanonicalSubscription;
 import ca.uhn.fhir.jpa.subscription.model.ChannelRetryConfiguration;
+import ca.uhn.fhir.rest.server.util.ISearchParamRegistry;
 import ca.uhn.fhir.util.HapiExtensions;
 import jakarta.annotation.PreDestroy;
 import org.apache.commons.lang3.Validate;
@@ -39,7 +40,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Cache of active subscriptions.  When a new subscription is added to the cache, a new Spring Channel is created
@@ -62,6 +65,9 @@ public class SubscriptionRegistry {
 	@Autowired
 	private IInterceptorBroadcaster myInterceptorBroadcaster;
 
+	@Autowired(required = false)
+	private ISearchParamRegistry mySearchParamRegistry;
+
 	/**
 	 * Constructor
 	 */
@@ -131,7 +137,10 @@ public class SubscriptionRegistry {
 
 		// add to our registries
 		mySubscriptionChannelRegistry.add(activeSubscription);
-		myActiveSubscriptionCache.put(subscriptionId, activeSubscription);
+		myActiveSubscriptionCache.put(
+				subscriptionId,
+				activeSubscription,
+				SubscriptionCriteriaIndex.createKey(activeSubscription, mySearchParamRegistry));
 
 		ourLog.info(
 				"Registered active subscription Subscription/{} - Have {} registered",
@@ -214,6 +223,11 @@ public class SubscriptionRegistry {
 		Validate.notNull(activeSubscription);
 		CanonicalSubscription canonicalized = mySubscriptionCanonicalizer.canonicalize(theSubscription);
 		activeSubscription.setSubscription(canonicalized);
+		// The criteria may have changed, so re-index the subscription
+		myActiveSubscriptionCache.put(
+				theId.getIdPart(),
+				activeSubscription,
+				SubscriptionCriteriaIndex.createKey(activeSubscription, mySearchParamRegistry));
 
 		// Interceptor call: SUBSCRIPTION_AFTER_ACTIVE_SUBSCRIPTION_REGISTERED
 		HookParams params = new HookParams().add(CanonicalSubscription.class, canonicalized);
@@ -232,4 +246,30 @@ public class SubscriptionRegistry {
 	public synchronized List<ActiveSubscription> getAllNonTopicSubscriptions() {
 		return myActiveSubscriptionCache.getAllNonTopicSubscriptions();
 	}
+
+	/**
+	 * Returns the names of the search parameters which active subscriptions for the given
+	 * resource type are indexed by. Callers should extract the values of these parameters
+	 * from a modified resource and pass them to {@link #getNonTopicSubscriptionCandidates(String, Map)}.
+	 *
+	 * @since 7.8.0
+	 */
+	public synchronized Set<String> getIndexedCriteriaParamNames(String theResourceType) {
+		return myActiveSubscriptionCache.getIndexedCriteriaParamNames(theResourceType);
+	}
+
+	/**
+	 * Returns the non-topic subscriptions which might match a modified resource of the given type. This
+	 * is a subset of {@link #getAllNonTopicSubscriptions()}, but candidates still need to be matched fully.
+	 *
+	 * @param theParamValues The values the modified resource has for each of the parameters returned by
+	 *                       {@link #getIndexedCriteriaParamNames(String)}, normalized using
+	 *                       {@link SubscriptionCriteriaIndex#normalizeValue(String)}. Parameters which have
+	 *                       not been extracted should be left out of the map.
+	 * @since 7.8.0
+	 */
+	public synchronized List<ActiveSubscription> getNonTopicSubscriptionCandidates(
+			String theResourceType, Map<String, Set<String>> theParamValues) {
+		return myActiveSubscriptionCache.getNonTopicSubscriptionCandidates(theResourceType, theParamValues);
+	}
 }
@@ -164,6 +164,24 @@ public class BaseSubscriptionDeliverySubscriberTest {
 		verify(myGenericClient, times(1)).update();
 	}
 
+	@Test
+	public void testRestHookDelivery_ClientReusedForSameEndpoint() {
+		when(myInterceptorBroadcaster.callHooks(any(), any())).thenReturn(true);
+
+		CanonicalSubscription subscription = generateSubscription();
+
+		for (int i = 0; i < 3; i++) {
+			ResourceDeliveryMessage payload = new ResourceDeliveryMessage();
+			payload.setSubscription(subscription);
+			payload.setPayload(myCtx, generatePatient(), EncodingEnum.JSON);
+			payload.setOperationType(ResourceModifiedMessage.OperationTypeEnum.CREATE);
+			mySubscriber.handleMessage(new ResourceDeliveryJsonMessage(payload));
+		}
+
+		verify(myRestfulClientFactory, times(1)).newGenericClient(any());
+		verify(myGenericClient, times(3)).update();
+	}
+
 	@Test
 	public void testRestHookDeliveryFails_ShouldRollBack() {
 		when(myInterceptorBroadcaster.callHooks(any(), any())).thenReturn(true);
@@ -0,0 +1,141 @@
+package ca.uhn.fhir.jpa.subscription.match.deliver.resthook;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.jpa.model.config.SubscriptionSettings;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+public class RestHookEndpointSvcTest {
+
+	private static final String ENDPOINT = "http://localhost:8888/fhir";
+	private static final String SUBSCRIPTION_ID = "Subscription/123";
+
+	private final SubscriptionSettings mySubscriptionSettings = new SubscriptionSettings();
+	private final AtomicLong myNow = new AtomicLong(1000);
+	private RestHookEndpointSvc mySvc;
+	private ExecutorService myExecutor;
+
+	@BeforeEach
+	public void before() {
+		mySvc = new RestHookEndpointSvc(mySubscriptionSettings);
+		mySvc.setClockForUnitTest(myNow::get);
+	}
+
+	@AfterEach
+	public void after() {
+		if (myExecutor != null) {
+			myExecutor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testDeliver_RecordsMetrics() {
+		mySvc.deliver(SUBSCRIPTION_ID, ENDPOINT, () -> {});
+		mySvc.deliver(SUBSCRIPTION_ID, ENDPOINT, () -> {});
+		assertThatThrownBy(() -> mySvc.deliver(SUBSCRIPTION_ID, ENDPOINT, () -> {
+					throw new InternalErrorException("FOO");
+				}))
+				.hasMessage("FOO");
+
+		RestHookDeliveryMetrics metrics = mySvc.getMetrics(SUBSCRIPTION_ID);
+		assertThat(metrics).isNotNull();
+		assertThat(metrics.getDeliveredCount()).isEqualTo(2);
+		assertThat(metrics.getFailedCount()).isEqualTo(1);
+		assertThat(metrics.getRejectedCount()).isZero();
+		assertThat(metrics.getDeliveriesPerSecond()).isPositive();
+		assertThat(mySvc.getMetrics("Subscription/456")).isNull();
+	}
+
+	@Test
+	public void testDeliver_CircuitBreakerDisabledByDefault() {
+		for (int i = 0; i < 10; i++) {
+			assertThatThrownBy(() -> mySvc.deliver(SUBSCRIPTION_ID, ENDPOINT, () -> {
+						throw new InternalErrorException("FOO");
+					}))
+					.hasMessage("FOO");
+		}
+		assertThat(mySvc.isCircuitOpen(ENDPOINT)).isFalse();
+	}
+
+	@Test
+	public void testDeliver_CircuitBreakerOpensAndCloses() {
+		mySubscriptionSettings.setRestHookCircuitBreakerFailureThreshold(3);
+		mySubscriptionSettings.setRestHookCircuitBreakerOpenMillis(5000);
+		AtomicInteger attempts = new AtomicInteger();
+		Runnable failingDelivery = () -> {
+			attempts.incrementAndGet();
+			throw new InternalErrorException("FOO");
+		};
+
+		for (int i = 0; i < 3; i++) {
+			assertThatThrownBy(() -> mySvc.deliver(SUBSCRIPTION_ID, ENDPOINT, failingDelivery))
+					.hasMessage("FOO");
+		}
+		assertThat(mySvc.isCircuitOpen(ENDPOINT)).isTrue();
+
+		// Deliveries are rejected without being attempted while the circuit is open
+		assertThatThrownBy(() -> mySvc.deliver("Subscription/456", ENDPOINT, failingDelivery))
+				.isInstanceOf(InternalErrorException.class)
+				.hasMessageStartingWith(Msg.code(2606));
+		assertThat(attempts.get()).isEqualTo(3);
+		assertThat(mySvc.getMetrics("Subscription/456").getRejectedCount()).isEqualTo(1);
+
+		// Other endpoints are unaffected
+		mySvc.deliver(SUBSCRIPTION_ID, "http://localhost:9999/fhir", () -> {});
+
+		// Once the circuit has been open long enough, a successful delivery closes it
+		myNow.addAndGet(5001);
+		assertThat(mySvc.isCircuitOpen(ENDPOINT)).isFalse();
+		mySvc.deliver(SUBSCRIPTION_ID, ENDPOINT, () -> {});
+		assertThatThrownBy(() -> mySvc.deliver(SUBSCRIPTION_ID, ENDPOINT, failingDelivery))
+				.hasMessage("FOO");
+		assertThat(mySvc.isCircuitOpen(ENDPOINT)).isFalse();
+	}
+
+	@Test
+	public void testDeliver_ConcurrentDeliveriesPerEndpointLimited() throws Exception {
+		mySubscriptionSettings.setRestHookMaxConcurrentDeliveriesPerEndpoint(2);
+		myExecutor = Executors.newFixedThreadPool(6);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger inProgress = new AtomicInteger();
+		AtomicInteger maxInProgress = new AtomicInteger();
+
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			futures.add(myExecutor.submit(() -> mySvc.deliver(SUBSCRIPTION_ID, ENDPOINT, () -> {
+				maxInProgress.accumulateAndGet(inProgress.incrementAndGet(), Math::max);
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				inProgress.decrementAndGet();
+			})));
+		}
+
+		await().until(inProgress::get, t -> t == 2);
+		release.countDown();
+		for (Future<?> next : futures) {
+			next.get(10, TimeUnit.SECONDS);
+		}
+
+		assertThat(maxInProgress.get()).isEqualTo(2);
+		assertThat(mySvc.getMetrics(SUBSCRIPTION_ID).getDeliveredCount()).isEqualTo(6);
+	}
+}
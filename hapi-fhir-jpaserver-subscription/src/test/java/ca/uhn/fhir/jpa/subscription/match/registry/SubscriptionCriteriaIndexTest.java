@@ -0,0 +1,141 @@
+package ca.uhn.fhir.jpa.subscription.match.registry;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.jpa.subscription.model.CanonicalSubscription;
+import ca.uhn.fhir.model.primitive.IdDt;
+import ca.uhn.fhir.rest.server.util.FhirContextSearchParamRegistry;
+import ca.uhn.fhir.rest.server.util.ISearchParamRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SubscriptionCriteriaIndexTest {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+	private final ISearchParamRegistry mySearchParamRegistry = new FhirContextSearchParamRegistry(ourCtx);
+	private final SubscriptionCriteriaIndex myIndex = new SubscriptionCriteriaIndex();
+
+	@Test
+	public void testCreateKey_Token() {
+		SubscriptionCriteriaIndex.IndexKey key = createKey("Observation?code=http://loinc.org|1234-5,ABC&value-string=foo");
+
+		assertThat(key).isNotNull();
+		assertThat(key.getResourceType()).isEqualTo("Observation");
+		assertThat(key.getParamName()).isEqualTo("code");
+		assertThat(key.getValues()).containsExactlyInAnyOrder("1234-5", "abc");
+	}
+
+	@Test
+	public void testCreateKey_Reference() {
+		SubscriptionCriteriaIndex.IndexKey key = createKey("Observation?subject=Patient/ABC");
+
+		assertThat(key).isNotNull();
+		assertThat(key.getParamName()).isEqualTo("subject");
+		assertThat(key.getValues()).containsExactly("abc");
+	}
+
+	@Test
+	public void testCreateKey_SkipsUnindexableParams() {
+		SubscriptionCriteriaIndex.IndexKey key = createKey("Observation?code:not=123&value-string=foo&subject=Patient/1");
+
+		assertThat(key).isNotNull();
+		assertThat(key.getParamName()).isEqualTo("subject");
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"Observation",
+		"Observation?",
+		"Observation?code:not=123",
+		"Observation?code=http://loinc.org|",
+		"Observation?code=a\\,b",
+		"Observation?subject.name=smith",
+		"Observation?subject=http://example.com/fhir/Patient/1",
+		"Observation?_id=123",
+		"Observation?value-string=foo",
+		"[Observation,Patient]",
+		"[*]"
+	})
+	public void testCreateKey_NotIndexable(String theCriteria) {
+		assertThat(createKey(theCriteria)).isNull();
+	}
+
+	@Test
+	public void testGetCandidates() {
+		ActiveSubscription codeSubscription = put("code", "Observation?code=1234-5");
+		ActiveSubscription subjectSubscription = put("subject", "Observation?subject=Patient/1");
+		ActiveSubscription unindexedSubscription = put("unindexed", "Observation?value-string=foo");
+		put("patient", "Patient?gender=male");
+
+		assertThat(myIndex.getIndexedParamNames("Observation")).containsExactlyInAnyOrder("code", "subject");
+		assertThat(myIndex.getIndexedParamNames("Patient")).containsExactly("gender");
+		assertThat(myIndex.getIndexedParamNames("Encounter")).isEmpty();
+
+		// Resource has a matching code but a different subject
+		assertThat(myIndex.getCandidates("Observation", Map.of("code", Set.of("1234-5"), "subject", Set.of("2"))))
+			.containsExactlyInAnyOrder(codeSubscription, unindexedSubscription);
+
+		// Resource has neither
+		assertThat(myIndex.getCandidates("Observation", Map.of("code", Set.of("9999"), "subject", Set.of())))
+			.containsExactlyInAnyOrder(unindexedSubscription);
+
+		// Subject values weren't extracted, so every subscription indexed by subject is a candidate
+		assertThat(myIndex.getCandidates("Observation", Map.of("code", Set.of())))
+			.containsExactlyInAnyOrder(subjectSubscription, unindexedSubscription);
+	}
+
+	@Test
+	public void testRemoveAndReplace() {
+		ActiveSubscription subscription = put("sub", "Observation?code=1234-5");
+		assertThat(myIndex.getCandidates("Observation", Map.of("code", Set.of("1234-5")))).containsExactly(subscription);
+
+		// Changing the criteria replaces the old index entry
+		subscription.getSubscription().setCriteriaString("Observation?code=5678-9");
+		subscription.setSubscription(subscription.getSubscription());
+		myIndex.put("sub", subscription, SubscriptionCriteriaIndex.createKey(subscription, mySearchParamRegistry));
+		assertThat(myIndex.getCandidates("Observation", Map.of("code", Set.of("1234-5")))).isEmpty();
+		assertThat(myIndex.getCandidates("Observation", Map.of("code", Set.of("5678-9")))).containsExactly(subscription);
+
+		myIndex.remove("sub");
+		assertThat(myIndex.getCandidates("Observation", Map.of("code", Set.of("5678-9")))).isEmpty();
+		assertThat(myIndex.getIndexedParamNames("Observation")).isEmpty();
+	}
+
+	@Test
+	public void testGetCandidatesExcludesTopicSubscriptions() {
+		ActiveSubscription topicSubscription = buildActiveSubscription("topic", null);
+		topicSubscription.getSubscription().setTopicSubscription(true);
+		myIndex.put("topic", topicSubscription, null);
+
+		assertThat(myIndex.getCandidates("Observation", Map.of())).isEmpty();
+	}
+
+	@Test
+	public void testNormalizeValue() {
+		assertThat(SubscriptionCriteriaIndex.normalizeValue("AbC-1")).isEqualTo("abc-1");
+		assertThat(SubscriptionCriteriaIndex.normalizeValue("İ"))
+			.isEqualTo(SubscriptionCriteriaIndex.normalizeValue("i"));
+	}
+
+	private ActiveSubscription put(String theId, String theCriteria) {
+		ActiveSubscription retVal = buildActiveSubscription(theId, theCriteria);
+		myIndex.put(theId, retVal, SubscriptionCriteriaIndex.createKey(retVal, mySearchParamRegistry));
+		return retVal;
+	}
+
+	private SubscriptionCriteriaIndex.IndexKey createKey(String theCriteria) {
+		return SubscriptionCriteriaIndex.createKey(buildActiveSubscription("id", theCriteria), mySearchParamRegistry);
+	}
+
+	private static ActiveSubscription buildActiveSubscription(String theId, String theCriteria) {
+		CanonicalSubscription canonicalSubscription = new CanonicalSubscription();
+		canonicalSubscription.setIdElement(new IdDt(theId));
+		canonicalSubscription.setCriteriaString(theCriteria);
+		return new ActiveSubscription(canonicalSubscription, null);
+	}
+}
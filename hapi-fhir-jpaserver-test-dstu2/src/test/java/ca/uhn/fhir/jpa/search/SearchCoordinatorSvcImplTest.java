@@ -428,6 +428,37 @@ public class SearchCoordinatorSvcImplTest extends BaseSearchSvc {
 
 	}
 
+	@Test
+	public void testAsyncSearchWithMaximumConcurrentSearchTasks() {
+		myStorageSettings.setMaximumConcurrentSearchTasks(1);
+		before();
+		initSearches();
+		initAsyncSearches();
+
+		SearchParameterMap params = new SearchParameterMap();
+		params.add("name", new StringParam("ANAME"));
+
+		List<JpaPid> pids = createPidSequence(100);
+		SlowIterator iter = new SlowIterator(pids.iterator(), 2);
+		when(mySearchBuilder.createQuery(same(params), any(), any(), nullable(RequestPartitionId.class))).thenReturn(iter);
+		mockSearchTask();
+
+		doAnswer(loadPids()).when(mySearchBuilder).loadResourcesByPid(any(Collection.class), any(Collection.class), any(List.class), anyBoolean(), any());
+
+		IBundleProvider result = mySvc.registerSearch(myCallingDao, params, "Patient", new CacheControlDirective(), null, RequestPartitionId.allPartitions());
+		assertNotNull(result.getUuid());
+		assertEquals(90, Objects.requireNonNull(result.size()).intValue());
+
+		SearchTaskMetrics metrics = mySvc.getSearchTaskMetrics();
+		ourLog.info("Search task metrics: {}", metrics);
+		assertEquals(1, metrics.getTaskCount());
+		assertEquals(1, metrics.getFirstPageCount());
+
+		metrics.clear();
+		assertEquals(0, metrics.getTaskCount());
+		assertEquals(0, metrics.getFirstPageCount());
+	}
+
 	@Test
 	public void testGetPage() {
 		Pageable page = SearchCoordinatorSvcImpl.toPage(50, 73);
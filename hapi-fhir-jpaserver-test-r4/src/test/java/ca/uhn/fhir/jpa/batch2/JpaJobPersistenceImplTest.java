@@ -853,6 +853,56 @@ public class JpaJobPersistenceImplTest extends BaseJpaR4Test {
 		}
 	}
 
+	@Test
+	public void testClaimAndCompleteWorkChunksInBulk() {
+		myMaintenanceService.enableMaintenancePass(false);
+		JobInstance instance = createInstance();
+		String instanceId = mySvc.storeNewInstance(instance);
+		List<String> chunkIds = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			chunkIds.add(storeWorkChunk(JOB_DEFINITION_ID, FIRST_STEP_ID, instanceId, i, CHUNK_DATA, false));
+		}
+		// Chunks which have already been sent to the work channel are never claimed
+		String queuedChunkId = storeWorkChunk(JOB_DEFINITION_ID, FIRST_STEP_ID, instanceId, 5, CHUNK_DATA, false);
+		runInTransaction(() -> mySvc.enqueueWorkChunkForProcessing(queuedChunkId, updated -> assertEquals(1, updated)));
+
+		// Claim in two groups
+		List<WorkChunk> firstClaim = runInTransaction(() -> mySvc.onWorkChunksClaim(instanceId, FIRST_STEP_ID, 3));
+		List<WorkChunk> secondClaim = runInTransaction(() -> mySvc.onWorkChunksClaim(instanceId, FIRST_STEP_ID, 3));
+		List<WorkChunk> thirdClaim = runInTransaction(() -> mySvc.onWorkChunksClaim(instanceId, FIRST_STEP_ID, 3));
+
+		assertThat(firstClaim.stream().map(WorkChunk::getId).collect(Collectors.toList())).containsExactlyElementsOf(chunkIds.subList(0, 3));
+		assertThat(secondClaim.stream().map(WorkChunk::getId).collect(Collectors.toList())).containsExactlyElementsOf(chunkIds.subList(3, 5));
+		assertThat(thirdClaim).isEmpty();
+		for (WorkChunk next : firstClaim) {
+			assertEquals(WorkChunkStatusEnum.IN_PROGRESS, next.getStatus());
+			assertEquals(CHUNK_DATA, next.getData());
+			assertNotNull(next.getStartTime());
+		}
+		runInTransaction(() -> chunkIds.forEach(id -> assertEquals(WorkChunkStatusEnum.IN_PROGRESS, findChunkByIdOrThrow(id).getStatus())));
+		runInTransaction(() -> assertEquals(WorkChunkStatusEnum.QUEUED, findChunkByIdOrThrow(queuedChunkId).getStatus()));
+
+		// Claimed chunks are no longer READY, so the maintenance pass won't send them to the work channel
+		runInTransaction(() -> mySvc.enqueueWorkChunkForProcessing(chunkIds.get(0), updated -> assertEquals(0, updated)));
+
+		// Complete them all with two distinct outcomes
+		List<WorkChunkCompletionEvent> completions = new ArrayList<>();
+		for (int i = 0; i < chunkIds.size(); i++) {
+			completions.add(new WorkChunkCompletionEvent(chunkIds.get(i), i < 4 ? 50 : 7, 0));
+		}
+		mySvc.onWorkChunksCompletion(completions);
+
+		runInTransaction(() -> {
+			for (int i = 0; i < chunkIds.size(); i++) {
+				Batch2WorkChunkEntity entity = findChunkByIdOrThrow(chunkIds.get(i));
+				assertEquals(WorkChunkStatusEnum.COMPLETED, entity.getStatus());
+				assertEquals(i < 4 ? 50 : 7, entity.getRecordsProcessed());
+				assertNotNull(entity.getEndTime());
+				assertNull(entity.getSerializedData());
+			}
+		});
+	}
+
 	@Test
 	public void testPrestorageInterceptor_whenModifyingJobInstance_modifiedJobInstanceIsPersisted(){
 		String expectedTriggeringUserName = "bobTheUncle";
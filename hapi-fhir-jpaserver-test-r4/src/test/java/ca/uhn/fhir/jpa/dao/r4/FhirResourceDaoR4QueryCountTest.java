@@ -2135,6 +2135,40 @@ public class FhirResourceDaoR4QueryCountTest extends BaseResourceProviderR4Test
 
 	}
 
+	/**
+	 * Updating resources with URI indexes in a transaction should pre-fetch the existing
+	 * URI index rows in bulk, so the number of SELECTs doesn't grow with the number of resources
+	 */
+	@Test
+	public void testTransactionWithMultipleUpdates_UriIndexesPreFetched() {
+		int fewUpdatesSelectCount = countSelectQueriesForRepeatedQuestionnaireUpdates("FEW", 2);
+		int manyUpdatesSelectCount = countSelectQueriesForRepeatedQuestionnaireUpdates("MANY", 10);
+		assertEquals(fewUpdatesSelectCount, manyUpdatesSelectCount);
+	}
+
+	private int countSelectQueriesForRepeatedQuestionnaireUpdates(String theIdPrefix, int theCount) {
+		AtomicInteger counter = new AtomicInteger(0);
+		Supplier<Bundle> input = () -> {
+			BundleBuilder bb = new BundleBuilder(myFhirContext);
+			int pass = counter.incrementAndGet();
+			for (int i = 0; i < theCount; i++) {
+				Questionnaire questionnaire = new Questionnaire();
+				questionnaire.setId("Questionnaire/" + theIdPrefix + i);
+				questionnaire.setUrl("http://foo/Questionnaire/" + theIdPrefix + i);
+				questionnaire.setTitle("Title " + pass); // changes every time
+				bb.addTransactionUpdateEntry(questionnaire);
+			}
+			return (Bundle) bb.getBundle();
+		};
+
+		mySystemDao.transaction(mySrd, input.get());
+
+		myCaptureQueriesListener.clear();
+		mySystemDao.transaction(mySrd, input.get());
+		myCaptureQueriesListener.logSelectQueries();
+		return myCaptureQueriesListener.countSelectQueries();
+	}
+
 	/**
 	 * See the class javadoc before changing the counts in this test!
 	 */
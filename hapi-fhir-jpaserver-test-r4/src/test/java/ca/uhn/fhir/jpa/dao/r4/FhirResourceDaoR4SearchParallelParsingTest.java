@@ -0,0 +1,97 @@
+package ca.uhn.fhir.jpa.dao.r4;
+
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.searchparam.SearchParameterMap;
+import ca.uhn.fhir.jpa.test.BaseJpaR4Test;
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.util.StopWatch;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Enumerations;
+import org.hl7.fhir.r4.model.Organization;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares page assembly with sequential and parallel resource parsing. The timings
+ * are logged so that the two modes can be compared when running locally.
+ */
+public class FhirResourceDaoR4SearchParallelParsingTest extends BaseJpaR4Test {
+	private static final Logger ourLog = LoggerFactory.getLogger(FhirResourceDaoR4SearchParallelParsingTest.class);
+	private static final int PATIENT_COUNT = 250;
+	private static final int ITERATIONS = 5;
+
+	@AfterEach
+	public void after() {
+		myStorageSettings.setSearchResourceParsingThreadCount(new JpaStorageSettings().getSearchResourceParsingThreadCount());
+	}
+
+	@Test
+	public void testSearchWithIncludesParsedInParallel() {
+		createPatientsWithOrganizations();
+
+		myStorageSettings.setSearchResourceParsingThreadCount(1);
+		List<String> sequentialIds = toIds(searchPatientsWithOrganizations());
+		long sequentialMillis = timeSearches();
+
+		myStorageSettings.setSearchResourceParsingThreadCount(4);
+		List<String> parallelIds = toIds(searchPatientsWithOrganizations());
+		long parallelMillis = timeSearches();
+
+		ourLog.info(
+				"Assembled {} pages of {} resources: sequential {}ms/page, parallel {}ms/page",
+				ITERATIONS,
+				sequentialIds.size(),
+				sequentialMillis / ITERATIONS,
+				parallelMillis / ITERATIONS);
+
+		assertThat(sequentialIds).hasSize(PATIENT_COUNT * 2);
+		assertThat(parallelIds).containsExactlyInAnyOrderElementsOf(sequentialIds);
+	}
+
+	private long timeSearches() {
+		StopWatch sw = new StopWatch();
+		for (int i = 0; i < ITERATIONS; i++) {
+			searchPatientsWithOrganizations();
+		}
+		return sw.getMillis();
+	}
+
+	private List<IBaseResource> searchPatientsWithOrganizations() {
+		SearchParameterMap map = SearchParameterMap.newSynchronous();
+		map.setCount(PATIENT_COUNT * 2);
+		map.addInclude(Patient.INCLUDE_ORGANIZATION);
+		IBundleProvider outcome = myPatientDao.search(map, mySrd);
+		return outcome.getResources(0, PATIENT_COUNT * 2);
+	}
+
+	private void createPatientsWithOrganizations() {
+		for (int i = 0; i < PATIENT_COUNT; i++) {
+			Organization org = new Organization();
+			org.setId("O" + i);
+			org.setName("Organization " + i);
+			myOrganizationDao.update(org, mySrd);
+
+			Patient patient = new Patient();
+			patient.setId("P" + i);
+			patient.setActive(true);
+			patient.addName().setFamily("Family " + i).addGiven("Given " + i);
+			patient.setGender(Enumerations.AdministrativeGender.FEMALE);
+			patient.getManagingOrganization().setReference("Organization/O" + i);
+			myPatientDao.update(patient, mySrd);
+		}
+	}
+
+	private static List<String> toIds(List<IBaseResource> theResources) {
+		return theResources.stream()
+				.map(t -> t.getIdElement().toUnqualifiedVersionless().getValue())
+				.collect(Collectors.toList());
+	}
+}
@@ -1,5 +1,7 @@
 package ca.uhn.fhir.jpa.provider.r4;
 
+import ca.uhn.fhir.interceptor.api.IAnonymousInterceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
 import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
 import ca.uhn.fhir.jpa.model.util.JpaConstants;
 import ca.uhn.fhir.jpa.provider.BaseResourceProviderR4Test;
@@ -7,6 +9,7 @@ import ca.uhn.fhir.jpa.test.config.TestR4Config;
 import ca.uhn.fhir.rest.server.exceptions.NotImplementedOperationException;
 import com.google.common.base.Charsets;
 import org.apache.commons.io.IOUtils;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.instance.model.api.IIdType;
 import org.hl7.fhir.r4.model.Bundle;
@@ -25,6 +28,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutorCompletionService;
@@ -66,6 +70,7 @@ public class ResourceProviderR4BundleTest extends BaseResourceProviderR4Test {
 		super.after();
 		myStorageSettings.setBundleBatchPoolSize(JpaStorageSettings.DEFAULT_BUNDLE_BATCH_POOL_SIZE);
 		myStorageSettings.setBundleBatchMaxPoolSize(JpaStorageSettings.DEFAULT_BUNDLE_BATCH_MAX_POOL_SIZE);
+		myStorageSettings.setBundleBatchChunkSize(JpaStorageSettings.DEFAULT_BUNDLE_BATCH_CHUNK_SIZE);
 	}
 
 	/**
@@ -243,6 +248,142 @@ public class ResourceProviderR4BundleTest extends BaseResourceProviderR4Test {
 
 	}
 
+	@Test
+	public void testBundleBatchWithChunks() {
+		myStorageSettings.setBundleBatchChunkSize(3);
+
+		Bundle input = new Bundle();
+		input.setType(BundleType.BATCH);
+		for (int i = 0; i < 8; i++) {
+			Patient patient = new Patient();
+			patient.addName().setFamily("FAM" + i);
+			if (i == 4) {
+				// Invalid reference, so the chunk containing this entry falls back to individual processing
+				patient.getManagingOrganization().setReference("Organization/DOES-NOT-EXIST");
+			}
+			input.addEntry().setResource(patient).getRequest().setMethod(HTTPVerb.POST).setUrl("Patient");
+		}
+
+		Bundle output = myClient.transaction().withBundle(input).execute();
+
+		assertThat(output.getEntry()).hasSize(8);
+		for (int i = 0; i < 8; i++) {
+			BundleEntryComponent nextEntry = output.getEntry().get(i);
+			if (i == 4) {
+				assertThat(nextEntry.getResponse().getStatus()).startsWith("400");
+				assertThat(((OperationOutcome) nextEntry.getResponse().getOutcome()).getIssueFirstRep().getDiagnostics()).contains("Organization/DOES-NOT-EXIST");
+			} else {
+				assertThat(nextEntry.getResponse().getStatus()).startsWith("201");
+				Patient stored = myClient.read().resource(Patient.class).withUrl(nextEntry.getResponse().getLocation()).execute();
+				assertEquals("FAM" + i, stored.getNameFirstRep().getFamily());
+			}
+		}
+	}
+
+	@Test
+	public void testBundleBatchWithChunks_ChunkResponseDoesNotMatchRequest() {
+		myStorageSettings.setBundleBatchChunkSize(3);
+
+		// Drop an entry from the chunk after it has been submitted, so that the chunk's
+		// response has fewer entries than the request
+		IAnonymousInterceptor interceptor = (thePointcut, theArgs) -> {
+			Bundle subRequest = (Bundle) theArgs.get(IBaseBundle.class);
+			if (subRequest.getType() == BundleType.TRANSACTION && subRequest.getEntry().size() > 1) {
+				subRequest.getEntry().remove(subRequest.getEntry().size() - 1);
+			}
+		};
+
+		Bundle input = new Bundle();
+		input.setType(BundleType.BATCH);
+		for (int i = 0; i < 3; i++) {
+			Patient patient = new Patient();
+			patient.addName().setFamily("FAM" + i);
+			input.addEntry().setResource(patient).getRequest().setMethod(HTTPVerb.POST).setUrl("Patient");
+		}
+
+		Bundle output;
+		long start = System.currentTimeMillis();
+		myInterceptorRegistry.registerAnonymousInterceptor(Pointcut.STORAGE_TRANSACTION_PROCESSING, interceptor);
+		try {
+			output = myClient.transaction().withBundle(input).execute();
+		} finally {
+			myInterceptorRegistry.unregisterInterceptor(interceptor);
+		}
+
+		// Every entry gets a failure response, and we don't wait for the batch timeout
+		assertThat(System.currentTimeMillis() - start).isLessThan(60000);
+		assertThat(output.getEntry()).hasSize(3);
+		for (BundleEntryComponent nextEntry : output.getEntry()) {
+			assertThat(nextEntry.getResponse().getStatus()).startsWith("500");
+			assertThat(((OperationOutcome) nextEntry.getResponse().getOutcome()).getIssueFirstRep().getDiagnostics()).contains("HAPI-2608");
+		}
+	}
+
+	@Test
+	public void testBundleBatchWithChunks_FullUrlsOnlyIsolatedWhenReferenced() {
+		myStorageSettings.setBundleBatchChunkSize(3);
+
+		// Record the fullUrls of the entries in each transaction the batch is split into
+		List<List<String>> subRequestFullUrls = Collections.synchronizedList(new ArrayList<>());
+		IAnonymousInterceptor interceptor = (thePointcut, theArgs) -> {
+			Bundle subRequest = (Bundle) theArgs.get(IBaseBundle.class);
+			if (subRequest.getType() == BundleType.TRANSACTION) {
+				subRequestFullUrls.add(subRequest.getEntry().stream().map(BundleEntryComponent::getFullUrl).toList());
+			}
+		};
+
+		Bundle input = new Bundle();
+		input.setType(BundleType.BATCH);
+		for (int i = 0; i < 6; i++) {
+			Patient patient = new Patient();
+			patient.addName().setFamily("FAM" + i);
+			if (i == 5) {
+				// References between batch entries are never resolved, so this entry fails
+				patient.addLink().getOther().setReference("urn:uuid:patient-0");
+			}
+			input.addEntry().setFullUrl("urn:uuid:patient-" + i).setResource(patient).getRequest().setMethod(HTTPVerb.POST).setUrl("Patient");
+		}
+
+		Bundle output;
+		myInterceptorRegistry.registerAnonymousInterceptor(Pointcut.STORAGE_TRANSACTION_PROCESSING, interceptor);
+		try {
+			output = myClient.transaction().withBundle(input).execute();
+		} finally {
+			myInterceptorRegistry.unregisterInterceptor(interceptor);
+		}
+
+		assertThat(output.getEntry()).hasSize(6);
+		for (int i = 0; i < 6; i++) {
+			String status = output.getEntry().get(i).getResponse().getStatus();
+			assertThat(status).startsWith(i == 5 ? "400" : "201");
+		}
+
+		// Unreferenced entries with a fullUrl are still chunked, but the referenced entry never shares a chunk
+		assertThat(subRequestFullUrls).contains(List.of("urn:uuid:patient-1", "urn:uuid:patient-2", "urn:uuid:patient-3"));
+		assertThat(subRequestFullUrls).contains(List.of("urn:uuid:patient-0"));
+		assertThat(subRequestFullUrls).noneMatch(t -> t.size() > 1 && t.contains("urn:uuid:patient-0"));
+	}
+
+	@Test
+	public void testBundleBatchWithChunks_GetsSeeWritesFromSameBundle() {
+		myStorageSettings.setBundleBatchChunkSize(3);
+
+		Bundle input = new Bundle();
+		input.setType(BundleType.BATCH);
+		for (int i = 0; i < 9; i++) {
+			Patient patient = new Patient();
+			patient.addIdentifier().setSystem("http://foo").setValue("chunked-batch");
+			input.addEntry().setResource(patient).getRequest().setMethod(HTTPVerb.POST).setUrl("Patient");
+		}
+		input.addEntry().getRequest().setMethod(HTTPVerb.GET).setUrl("Patient?identifier=http://foo|chunked-batch");
+
+		Bundle output = myClient.transaction().withBundle(input).execute();
+
+		assertThat(output.getEntry()).hasSize(10);
+		Bundle searchResult = (Bundle) output.getEntry().get(9).getResource();
+		assertThat(searchResult.getEntry()).hasSize(9);
+	}
+
 	@Test
 	public void testBundleBatchWithCreate() {
 
@@ -3,6 +3,7 @@ package ca.uhn.fhir.jpa.term;
 import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.jpa.entity.TermCodeSystem;
 import ca.uhn.fhir.jpa.entity.TermCodeSystemVersion;
+import ca.uhn.fhir.jpa.entity.TermConcept;
 import ca.uhn.fhir.jpa.model.dao.JpaPid;
 import ca.uhn.fhir.jpa.model.entity.ResourceTable;
 import ca.uhn.fhir.jpa.test.BaseJpaR4Test;
@@ -88,6 +89,44 @@ public class TermCodeSystemStorageSvcTest extends BaseJpaR4Test {
 
 	}
 
+	@Test
+	public void testStoreNewCodeSystemVersionFromConceptGraph() {
+		TermConceptGraph graph = new TermConceptGraph();
+		int root = graph.addConcept("root", "Root");
+		int child = graph.addConcept("child", "Child");
+		int grandchild = graph.addConcept("grandchild", "Grandchild");
+		graph.addLink(root, child);
+		graph.addLink(child, grandchild);
+		for (int i = 0; i < 10; i++) {
+			graph.addLink(grandchild, graph.addConcept("leaf" + i, "Leaf " + i));
+		}
+
+		CodeSystem codeSystem = new CodeSystem();
+		codeSystem.setUrl(URL_MY_CODE_SYSTEM);
+		codeSystem.setContent(CodeSystem.CodeSystemContentMode.NOTPRESENT);
+
+		// Use a small batch size so that levels are split into several batches
+		myTermCodeSystemStorageSvc.storeNewCodeSystemVersion(codeSystem, graph, mySrd, 3, 2);
+
+		runInTransaction(() -> {
+			assertEquals(13, myTermConceptDao.count());
+			assertEquals(12, myTermConceptParentChildLinkDao.count());
+
+			TermCodeSystemVersion csv = myTermCodeSystemDao.findByCodeSystemUri(URL_MY_CODE_SYSTEM).getCurrentVersion();
+			TermConcept rootConcept = myTermConceptDao.findByCodeSystemAndCode(csv.getPid(), "root").orElseThrow();
+			TermConcept childConcept = myTermConceptDao.findByCodeSystemAndCode(csv.getPid(), "child").orElseThrow();
+			TermConcept grandchildConcept = myTermConceptDao.findByCodeSystemAndCode(csv.getPid(), "grandchild").orElseThrow();
+			TermConcept leafConcept = myTermConceptDao.findByCodeSystemAndCode(csv.getPid(), "leaf5").orElseThrow();
+
+			assertEquals("Leaf 5", leafConcept.getDisplay());
+			assertEquals("NONE", rootConcept.getParentPidsAsString());
+			assertThat(leafConcept.getParentPidsAsString().split(" ")).containsExactlyInAnyOrder(
+				rootConcept.getId().toString(), childConcept.getId().toString(), grandchildConcept.getId().toString());
+			assertThat(myTermConceptParentChildLinkDao.findAllWithChild(leafConcept.getId())).containsExactly(grandchildConcept.getId());
+			assertThat(myTermConceptParentChildLinkDao.findAllWithChild(childConcept.getId())).containsExactly(rootConcept.getId());
+		});
+	}
+
 	private CodeSystem createCodeSystemWithMoreThan100Concepts() {
 		CodeSystem codeSystem = new CodeSystem();
 		codeSystem.setUrl(URL_MY_CODE_SYSTEM);
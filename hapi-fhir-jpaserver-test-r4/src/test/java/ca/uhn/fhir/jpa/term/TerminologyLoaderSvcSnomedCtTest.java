@@ -26,9 +26,14 @@ import java.util.TreeSet;
 import java.util.zip.ZipOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 public class TerminologyLoaderSvcSnomedCtTest extends BaseLoaderTest {
@@ -39,6 +44,8 @@ public class TerminologyLoaderSvcSnomedCtTest extends BaseLoaderTest {
 	private ITermCodeSystemStorageSvc myTermCodeSystemStorageSvc;
 	@Captor
 	private ArgumentCaptor<TermCodeSystemVersion> myCsvCaptor;
+	@Captor
+	private ArgumentCaptor<TermConceptGraph> myConceptGraphCaptor;
 	private ZipCollectionBuilder myFiles;
 	@Mock
 	private ITermDeferredStorageSvc myTermDeferredStorageSvc;
@@ -93,6 +100,35 @@ public class TerminologyLoaderSvcSnomedCtTest extends BaseLoaderTest {
 		assertThat(allCodes).contains("126816002");
 	}
 
+	@Test
+	public void testLoadSnomedCtStreaming() throws Exception {
+		myFiles.addFileZip("/sct/", "sct2_Concept_Full_INT_20160131.txt");
+		myFiles.addFileZip("/sct/", "sct2_Concept_Full-en_INT_20160131.txt");
+		myFiles.addFileZip("/sct/", "sct2_Description_Full-en_INT_20160131.txt");
+		myFiles.addFileZip("/sct/", "sct2_Identifier_Full_INT_20160131.txt");
+		myFiles.addFileZip("/sct/", "sct2_Relationship_Full_INT_20160131.txt");
+		myFiles.addFileZip("/sct/", "sct2_StatedRelationship_Full_INT_20160131.txt");
+		myFiles.addFileZip("/sct/", "sct2_TextDefinition_Full-en_INT_20160131.txt");
+
+		mySvc.setSnomedCtStreamingLoadEnabled(true);
+		mySvc.setStreamingLoadBatchSize(50);
+		mySvc.setStreamingLoadThreadCount(2);
+		mySvc.loadSnomedCt(myFiles.getFiles(), mySrd);
+
+		verify(myTermCodeSystemStorageSvc).storeNewCodeSystemVersion(any(CodeSystem.class), myConceptGraphCaptor.capture(), any(RequestDetails.class), eq(50), eq(2));
+		verify(myTermCodeSystemStorageSvc, never()).storeNewCodeSystemVersion(any(CodeSystem.class), any(TermCodeSystemVersion.class), any(RequestDetails.class), anyList(), anyList());
+
+		TermConceptGraph graph = myConceptGraphCaptor.getValue();
+		assertThat(graph.indexOf("116680003")).isGreaterThanOrEqualTo(0);
+		assertThat(graph.indexOf("126816002")).isGreaterThanOrEqualTo(0);
+		assertEquals(-1, graph.indexOf("207527008"));
+
+		// Active IS-A relationship
+		assertTrue(graph.hasLink(graph.indexOf("126813005"), graph.indexOf("126815003")));
+		// Relationship which was later inactivated
+		assertFalse(graph.hasLink(graph.indexOf("126813005"), graph.indexOf("126816002")));
+	}
+
 	@Test
 	public void testLoadSnowmedCtWithCanadianEditionFileNamingConvention() throws Exception {
 		myFiles.addFileZip("/sct/", "sct2_Concept_Full_INT_20160131.txt");
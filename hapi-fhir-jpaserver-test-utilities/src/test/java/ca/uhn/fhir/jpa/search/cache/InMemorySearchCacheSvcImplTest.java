@@ -0,0 +1,171 @@
+package ca.uhn.fhir.jpa.search.cache;
+
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.entity.Search;
+import ca.uhn.fhir.jpa.model.dao.JpaPid;
+import ca.uhn.fhir.jpa.model.search.SearchStatusEnum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class InMemorySearchCacheSvcImplTest {
+
+	private final RequestPartitionId myPartitionId = RequestPartitionId.allPartitions();
+	private InMemorySearchCacheSvcImpl mySearchCacheSvc;
+	private InMemorySearchResultCacheSvcImpl mySearchResultCacheSvc;
+
+	@BeforeEach
+	public void before() {
+		JpaStorageSettings storageSettings = new JpaStorageSettings();
+		storageSettings.setSearchCacheMode(JpaStorageSettings.SearchCacheModeEnum.IN_MEMORY);
+		mySearchCacheSvc = new InMemorySearchCacheSvcImpl(storageSettings);
+		mySearchResultCacheSvc = new InMemorySearchResultCacheSvcImpl(storageSettings);
+	}
+
+	@Test
+	public void testSaveAndFetch() {
+		Search search = newSearch("?name=smith");
+		mySearchCacheSvc.save(search, myPartitionId);
+
+		Search fetched = mySearchCacheSvc.fetchByUuid(search.getUuid(), myPartitionId).orElseThrow();
+		assertNotSame(search, fetched);
+		assertEquals(search.getUuid(), fetched.getUuid());
+		assertEquals(SearchStatusEnum.PASSCMPLET, fetched.getStatus());
+
+		// Changes aren't visible until saved
+		fetched.setStatus(SearchStatusEnum.FINISHED);
+		assertEquals(SearchStatusEnum.PASSCMPLET, mySearchCacheSvc.fetchByUuid(search.getUuid(), myPartitionId).orElseThrow().getStatus());
+		mySearchCacheSvc.save(fetched, myPartitionId);
+		assertEquals(SearchStatusEnum.FINISHED, mySearchCacheSvc.fetchByUuid(search.getUuid(), myPartitionId).orElseThrow().getStatus());
+
+		assertThat(mySearchCacheSvc.fetchByUuid(UUID.randomUUID().toString(), myPartitionId)).isEmpty();
+	}
+
+	@Test
+	public void testTryToMarkSearchAsInProgress() {
+		Search search = newSearch("?name=smith");
+		mySearchCacheSvc.save(search, myPartitionId);
+
+		Optional<Search> outcome = mySearchCacheSvc.tryToMarkSearchAsInProgress(search, myPartitionId);
+		assertThat(outcome).isPresent();
+		assertEquals(SearchStatusEnum.LOADING, outcome.get().getStatus());
+
+		// Only one caller may mark the search
+		assertThat(mySearchCacheSvc.tryToMarkSearchAsInProgress(search, myPartitionId)).isEmpty();
+	}
+
+	@Test
+	public void testFindCandidatesForReuse() {
+		Search search = newSearch("?name=smith");
+		mySearchCacheSvc.save(search, myPartitionId);
+
+		Instant cutoff = Instant.now().minus(1, ChronoUnit.MINUTES);
+		Optional<Search> candidate = mySearchCacheSvc.findCandidatesForReuse("Patient", "?name=smith", cutoff, myPartitionId);
+		assertEquals(search.getUuid(), candidate.orElseThrow().getUuid());
+
+		assertThat(mySearchCacheSvc.findCandidatesForReuse("Patient", "?name=jones", cutoff, myPartitionId)).isEmpty();
+		assertThat(mySearchCacheSvc.findCandidatesForReuse("Observation", "?name=smith", cutoff, myPartitionId)).isEmpty();
+		assertThat(mySearchCacheSvc.findCandidatesForReuse("Patient", "?name=smith", Instant.now().plus(1, ChronoUnit.MINUTES), myPartitionId)).isEmpty();
+	}
+
+	@Test
+	public void testFindCandidatesForReuse_SearchMarkedAsNotReusable() {
+		// The consent interceptor marks searches that must never be reused
+		Search search = newSearch("?name=smith");
+		search.setCannotBeReused();
+		mySearchCacheSvc.save(search, myPartitionId);
+
+		Instant cutoff = Instant.now().minus(1, ChronoUnit.MINUTES);
+		assertThat(mySearchCacheSvc.findCandidatesForReuse("Patient", "?name=smith", cutoff, myPartitionId)).isEmpty();
+
+		// Marking an already indexed search also prevents it from being reused
+		Search search2 = newSearch("?name=jones");
+		mySearchCacheSvc.save(search2, myPartitionId);
+		assertThat(mySearchCacheSvc.findCandidatesForReuse("Patient", "?name=jones", cutoff, myPartitionId)).isPresent();
+		search2.setCannotBeReused();
+		mySearchCacheSvc.save(search2, myPartitionId);
+		assertThat(mySearchCacheSvc.findCandidatesForReuse("Patient", "?name=jones", cutoff, myPartitionId)).isEmpty();
+	}
+
+	@Test
+	public void testFindCandidatesForReuse_DeletedOrFailedSearch() {
+		Instant cutoff = Instant.now().minus(1, ChronoUnit.MINUTES);
+
+		Search deleted = newSearch("?name=smith");
+		deleted.setDeleted(true);
+		mySearchCacheSvc.save(deleted, myPartitionId);
+		assertThat(mySearchCacheSvc.findCandidatesForReuse("Patient", "?name=smith", cutoff, myPartitionId)).isEmpty();
+
+		Search failed = newSearch("?name=jones");
+		failed.setStatus(SearchStatusEnum.FAILED);
+		mySearchCacheSvc.save(failed, myPartitionId);
+		assertThat(mySearchCacheSvc.findCandidatesForReuse("Patient", "?name=jones", cutoff, myPartitionId)).isEmpty();
+	}
+
+	@Test
+	public void testStoreAndFetchResults() {
+		Search search = newSearch("?name=smith");
+
+		List<JpaPid> firstPass = new ArrayList<>();
+		for (long i = 0; i < 150; i++) {
+			firstPass.add(JpaPid.fromId(1000 + i * 3, i % 2 == 0 ? null : 2));
+		}
+		List<JpaPid> secondPass = List.of(JpaPid.fromId(5L), JpaPid.fromId(Long.MAX_VALUE, 1));
+
+		assertNull(mySearchResultCacheSvc.fetchResultPids(search, 0, 10, null, myPartitionId));
+		mySearchResultCacheSvc.storeResults(search, List.of(), firstPass, null, myPartitionId);
+		mySearchResultCacheSvc.storeResults(search, firstPass, secondPass, null, myPartitionId);
+
+		List<JpaPid> expected = new ArrayList<>(firstPass);
+		expected.addAll(secondPass);
+		assertEquals(expected, mySearchResultCacheSvc.fetchAllResultPids(search, null, myPartitionId));
+		assertEquals(expected.subList(0, 10), mySearchResultCacheSvc.fetchResultPids(search, 0, 10, null, myPartitionId));
+		assertEquals(expected.subList(60, 70), mySearchResultCacheSvc.fetchResultPids(search, 60, 70, null, myPartitionId));
+		assertEquals(expected.subList(140, 152), mySearchResultCacheSvc.fetchResultPids(search, 140, 200, null, myPartitionId));
+		assertThat(mySearchResultCacheSvc.fetchResultPids(search, 200, 210, null, myPartitionId)).isEmpty();
+	}
+
+	@Test
+	public void testStoreResults_EarlierResultsEvicted() {
+		Search search = newSearch("?name=smith");
+
+		mySearchResultCacheSvc.storeResults(search, List.of(JpaPid.fromId(1L)), List.of(JpaPid.fromId(2L)), null, myPartitionId);
+
+		assertNull(mySearchResultCacheSvc.fetchAllResultPids(search, null, myPartitionId));
+	}
+
+	@Test
+	public void testCompressedPidListEncodedSize() {
+		CompressedPidList list = new CompressedPidList();
+		for (long i = 0; i < 1000; i++) {
+			list.add(JpaPid.fromId(1_000_000 + i));
+		}
+
+		assertEquals(1000, list.size());
+		assertThat(list.getEncodedSize()).isLessThan(2100);
+		assertEquals(JpaPid.fromId(1_000_500L), list.get(500, 501).get(0));
+	}
+
+	private static Search newSearch(String theQueryString) {
+		Search search = new Search();
+		search.setUuid(UUID.randomUUID().toString());
+		search.setResourceType("Patient");
+		search.setSearchQueryString(theQueryString, RequestPartitionId.allPartitions());
+		search.setStatus(SearchStatusEnum.PASSCMPLET);
+		search.setCreated(new Date());
+		return search;
+	}
+}
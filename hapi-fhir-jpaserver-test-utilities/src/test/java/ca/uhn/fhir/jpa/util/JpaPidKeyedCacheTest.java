@@ -0,0 +1,103 @@
+package ca.uhn.fhir.jpa.util;
+
+import ca.uhn.fhir.jpa.model.dao.JpaPid;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class JpaPidKeyedCacheTest {
+
+	@Test
+	public void testPutAndGet() {
+		JpaPidKeyedCache<String> cache = new JpaPidKeyedCache<>(TimeUnit.MINUTES.toMillis(1), 1000);
+
+		cache.put(JpaPid.fromId(1L), "A");
+		cache.put(JpaPid.fromId(1L, 2), "B");
+		cache.put(JpaPid.fromId(2L), "C");
+
+		assertEquals("A", cache.getIfPresent(JpaPid.fromId(1L)));
+		assertEquals("B", cache.getIfPresent(JpaPid.fromId(1L, 2)));
+		assertEquals("C", cache.getIfPresent(JpaPid.fromId(2L)));
+		assertNull(cache.getIfPresent(JpaPid.fromId(1L, 3)));
+		assertEquals(3, cache.estimatedSize());
+
+		cache.put(JpaPid.fromId(1L), "D");
+		assertEquals("D", cache.getIfPresent(JpaPid.fromId(1L)));
+		assertEquals(3, cache.estimatedSize());
+
+		assertEquals("E", cache.get(JpaPid.fromId(3L), t -> "E"));
+		assertEquals("E", cache.get(JpaPid.fromId(3L), t -> "F"));
+
+		Map<JpaPid, String> present =
+				cache.getAllPresent(List.of(JpaPid.fromId(2L), JpaPid.fromId(3L), JpaPid.fromId(4L)));
+		assertEquals(Map.of(JpaPid.fromId(2L), "C", JpaPid.fromId(3L), "E"), present);
+
+		cache.invalidate(JpaPid.fromId(2L));
+		assertNull(cache.getIfPresent(JpaPid.fromId(2L)));
+		cache.invalidateAll();
+		assertEquals(0, cache.estimatedSize());
+		assertNull(cache.getIfPresent(JpaPid.fromId(1L)));
+	}
+
+	@Test
+	public void testMaximumSize() {
+		JpaPidKeyedCache<String> cache = new JpaPidKeyedCache<>(TimeUnit.MINUTES.toMillis(1), 100);
+
+		for (long i = 0; i < 10000; i++) {
+			cache.put(JpaPid.fromId(i), Long.toString(i));
+		}
+
+		assertThat(cache.estimatedSize()).isLessThanOrEqualTo(112L);
+		assertEquals("9999", cache.getIfPresent(JpaPid.fromId(9999L)));
+	}
+
+	@Test
+	public void testExpiry() throws InterruptedException {
+		JpaPidKeyedCache<String> cache = new JpaPidKeyedCache<>(1, 100);
+		cache.put(JpaPid.fromId(1L), "A");
+		cache.put(JpaPid.fromId(2L), "B");
+
+		Thread.sleep(10);
+
+		assertNull(cache.getIfPresent(JpaPid.fromId(1L)));
+		cache.cleanUp();
+		assertEquals(0, cache.estimatedSize());
+	}
+
+	/**
+	 * Compare against a HashMap with lots of removals, in order to exercise the
+	 * backward shift deletion on colliding probe sequences
+	 */
+	@Test
+	public void testRandomOperationsMatchHashMap() {
+		JpaPidKeyedCache<Long> cache = new JpaPidKeyedCache<>(TimeUnit.MINUTES.toMillis(1), 100000);
+		Map<JpaPid, Long> expected = new HashMap<>();
+		Random random = new Random(123);
+
+		for (int i = 0; i < 200000; i++) {
+			Integer partition = random.nextInt(4) == 0 ? null : random.nextInt(3);
+			JpaPid pid = JpaPid.fromId((long) random.nextInt(5000), partition);
+			int operation = random.nextInt(3);
+			if (operation == 0) {
+				cache.put(pid, (long) i);
+				expected.put(pid, (long) i);
+			} else if (operation == 1) {
+				cache.invalidate(pid);
+				expected.remove(pid);
+			} else {
+				assertEquals(expected.get(pid), cache.getIfPresent(pid));
+			}
+		}
+
+		assertEquals(expected.size(), cache.estimatedSize());
+		expected.forEach((k, v) -> assertEquals(v, cache.getIfPresent(k)));
+	}
+}
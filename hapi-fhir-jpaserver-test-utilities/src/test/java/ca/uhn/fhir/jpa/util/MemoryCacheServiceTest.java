@@ -2,6 +2,7 @@ package ca.uhn.fhir.jpa.util;
 
 import ca.uhn.fhir.interceptor.model.RequestPartitionId;
 import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.model.dao.JpaPid;
 import ca.uhn.fhir.jpa.model.entity.TagDefinition;
 import ca.uhn.fhir.jpa.model.entity.TagTypeEnum;
 import ca.uhn.fhir.sl.cache.Cache;
@@ -15,7 +16,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -65,6 +69,75 @@ class MemoryCacheServiceTest {
 		assertEquals(tagDef, retVal);
 	}
 
+	@Test
+	public void testStatistics() {
+		MemoryCacheService.CacheEnum cache = MemoryCacheService.CacheEnum.MATCH_URL;
+		assertNull(mySvc.getIfPresent(cache, "Patient?identifier=a"));
+		mySvc.put(cache, "Patient?identifier=a", "1");
+		assertEquals("1", mySvc.getIfPresent(cache, "Patient?identifier=a"));
+		assertEquals("2", mySvc.get(cache, "Patient?identifier=b", k -> "2"));
+		assertEquals("2", mySvc.get(cache, "Patient?identifier=b", k -> "3"));
+
+		MemoryCacheService.CacheStatistics statistics = mySvc.getStatistics(cache);
+		assertEquals(2, statistics.getHitCount());
+		assertEquals(2, statistics.getMissCount());
+		assertEquals(0.5, statistics.getHitRatio());
+		assertEquals(0, mySvc.getStatistics(MemoryCacheService.CacheEnum.TAG_DEFINITION).getHitCount());
+
+		mySvc.resetStatistics();
+		assertEquals(0, mySvc.getStatistics(cache).getHitCount());
+		assertEquals(0, mySvc.getStatistics(cache).getMissCount());
+	}
+
+	@Test
+	public void testGetAll() {
+		MemoryCacheService.CacheEnum cache = MemoryCacheService.CacheEnum.MATCH_URL;
+		mySvc.putAll(cache, Map.of("A", "1", "B", "2"));
+
+		List<Collection<String>> loaderCalls = new ArrayList<>();
+		Map<String, String> actual = mySvc.getAll(cache, List.of("A", "B", "C", "D"), keys -> {
+			loaderCalls.add(keys);
+			return Map.of("C", "3");
+		});
+
+		assertEquals(Map.of("A", "1", "B", "2", "C", "3"), actual);
+		assertThat(loaderCalls).hasSize(1);
+		assertThat(loaderCalls.get(0)).containsExactlyInAnyOrder("C", "D");
+		assertEquals("3", mySvc.getIfPresent(cache, "C"));
+		assertNull(mySvc.getIfPresent(cache, "D"));
+	}
+
+	@Test
+	public void testPerCacheMaximumSize() {
+		JpaStorageSettings storageSettings = new JpaStorageSettings();
+		storageSettings.setMemoryCacheMaximumSize(MemoryCacheService.CacheEnum.MATCH_URL, 10L);
+		mySvc = new MemoryCacheService(storageSettings);
+
+		for (int i = 0; i < 100; i++) {
+			mySvc.put(MemoryCacheService.CacheEnum.MATCH_URL, "Patient?identifier=" + i, "1");
+			mySvc.put(MemoryCacheService.CacheEnum.FHIRPATH_EXPRESSION, "Patient.name[" + i + "]", "1");
+		}
+		mySvc.cleanUpForUnitTest();
+
+		assertThat(mySvc.getEstimatedSize(MemoryCacheService.CacheEnum.MATCH_URL)).isLessThanOrEqualTo(10L);
+		assertEquals(100, mySvc.getEstimatedSize(MemoryCacheService.CacheEnum.FHIRPATH_EXPRESSION));
+	}
+
+	@Test
+	public void testCompactPidKeys() {
+		JpaStorageSettings storageSettings = new JpaStorageSettings();
+		storageSettings.setMemoryCacheCompactPidKeys(true);
+		mySvc = new MemoryCacheService(storageSettings);
+
+		mySvc.put(MemoryCacheService.CacheEnum.PID_TO_FORCED_ID, JpaPid.fromId(1L), Optional.of("Patient/A"));
+		mySvc.put(MemoryCacheService.CacheEnum.PID_TO_FORCED_ID, JpaPid.fromId(2L), Optional.empty());
+
+		assertEquals(Optional.of("Patient/A"), mySvc.getIfPresent(MemoryCacheService.CacheEnum.PID_TO_FORCED_ID, JpaPid.fromId(1L)));
+		assertEquals(Optional.empty(), mySvc.getIfPresent(MemoryCacheService.CacheEnum.PID_TO_FORCED_ID, JpaPid.fromId(2L)));
+		assertNull(mySvc.getIfPresent(MemoryCacheService.CacheEnum.PID_TO_FORCED_ID, JpaPid.fromId(1L, 1)));
+		assertEquals(2, mySvc.getEstimatedSize(MemoryCacheService.CacheEnum.PID_TO_FORCED_ID));
+	}
+
 	@Nested
 	public static class CaffeineAbuseTest {
 
@@ -99,6 +99,21 @@ public interface IRestfulServerDefaults {
 	 */
 	boolean isDefaultPrettyPrint();
 
+	/**
+	 * Should Bundle responses be written to the client one entry at a time, flushing the
+	 * response writer after each entry, instead of being encoded in a single pass. If an
+	 * entry fails to encode after the response has started, the response is abandoned
+	 * rather than replaced with an error response.
+	 * <p>
+	 * The default is <code>false</code>
+	 * </p>
+	 *
+	 * @since 7.8.0
+	 */
+	default boolean isStreamingBundleResponses() {
+		return false;
+	}
+
 	/**
 	 * Returns the interceptor service for this server
 	 */
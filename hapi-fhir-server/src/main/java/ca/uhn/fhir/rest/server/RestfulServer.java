@@ -146,6 +146,7 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 	private IInterceptorService myInterceptorService;
 	private BundleInclusionRule myBundleInclusionRule = BundleInclusionRule.BASED_ON_INCLUDES;
 	private boolean myDefaultPrettyPrint = false;
+	private boolean myStreamingBundleResponses = false;
 	private EncodingEnum myDefaultResponseEncoding = EncodingEnum.JSON;
 	private ETagSupportEnum myETagSupport = DEFAULT_ETAG_SUPPORT;
 	private FhirContext myFhirContext;
@@ -1584,6 +1585,27 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 		myDefaultPrettyPrint = theDefaultPrettyPrint;
 	}
 
+	@Override
+	public boolean isStreamingBundleResponses() {
+		return myStreamingBundleResponses;
+	}
+
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), non pretty-printed JSON Bundle
+	 * responses (e.g. search results) are written one entry at a time, and the response
+	 * writer is flushed after each entry. This lowers the time to first byte for large pages
+	 * and avoids buffering the complete encoded Bundle in memory. Responses which can not be
+	 * streamed this way (e.g. XML or RDF, pretty printed responses, or <code>_summary=count</code>)
+	 * are encoded normally. Because the response has already started, a failure while encoding
+	 * an entry after the first one can't be returned as an error response, and the client will
+	 * instead see a truncated response.
+	 *
+	 * @since 7.8.0
+	 */
+	public void setStreamingBundleResponses(boolean theStreamingBundleResponses) {
+		myStreamingBundleResponses = theStreamingBundleResponses;
+	}
+
 	/**
 	 * If set to <code>true</code> (the default is <code>true</code>) this server will not
 	 * use the parsed request parameters (URL parameters and HTTP POST form contents) but
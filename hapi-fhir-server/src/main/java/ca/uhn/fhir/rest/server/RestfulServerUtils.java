@@ -19,8 +19,10 @@
  */
 package ca.uhn.fhir.rest.server;
 
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.context.RuntimeResourceDefinition;
 import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.interceptor.api.HookParams;
 import ca.uhn.fhir.interceptor.api.Pointcut;
@@ -58,7 +60,9 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.hl7.fhir.instance.model.api.IAnyResource;
+import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseBinary;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseReference;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.instance.model.api.IDomainResource;
@@ -1052,12 +1056,136 @@ public class RestfulServerUtils {
 		} else {
 			FhirVersionEnum forVersion = theResource.getStructureFhirVersionEnum();
 			IParser parser = getNewParser(theServer.getFhirContext(), forVersion, theRequestDetails);
-			parser.encodeResourceToWriter(theResource, writer);
+			boolean streamed = false;
+			if (theServer.isStreamingBundleResponses()
+					&& theResource instanceof IBaseBundle
+					&& parser.getEncoding() == EncodingEnum.JSON
+					&& !theSummaryMode.contains(SummaryEnum.COUNT)
+					&& !prettyPrintResponse(theServer, theRequestDetails)) {
+				FhirContext context = getContextForVersion(theServer.getFhirContext(), forVersion);
+				streamed = streamJsonBundleEntries(context, parser, (IBaseBundle) theResource, writer);
+			}
+			if (!streamed) {
+				parser.encodeResourceToWriter(theResource, writer);
+			}
 		}
 
 		return response.commitResponse(writer);
 	}
 
+	/**
+	 * Writes a JSON Bundle to the given writer as the Bundle envelope followed by each entry
+	 * encoded individually, flushing the writer after each entry, so that the complete Bundle
+	 * is never encoded as a single string.
+	 * <p>
+	 * The envelope and the first entry are encoded before anything is written, so if the
+	 * Bundle can't be streamed nothing has been written and the caller can encode it normally.
+	 * Once writing has started, a failure encoding any later entry can't be turned into a
+	 * normal error response, so it is thrown and the partially written response is abandoned.
+	 * </p>
+	 *
+	 * @return Returns <code>false</code> (without having written anything) if the Bundle can't be
+	 * streamed, in which case the caller should encode it normally
+	 */
+	private static boolean streamJsonBundleEntries(
+			FhirContext theContext, IParser theParser, IBaseBundle theBundle, Writer theWriter) throws IOException {
+		RuntimeResourceDefinition bundleDef = theContext.getResourceDefinition(theBundle);
+		BaseRuntimeChildDefinition entryChild = bundleDef.getChildByName("entry");
+		if (entryChild == null) {
+			return false;
+		}
+
+		/*
+		 * Entries are spliced in just before the closing brace of the Bundle, so this only
+		 * works if nothing that would be encoded after Bundle.entry (e.g. Bundle.signature)
+		 * is populated.
+		 */
+		List<BaseRuntimeChildDefinition> children = bundleDef.getChildren();
+		for (int i = children.indexOf(entryChild) + 1; i < children.size(); i++) {
+			if (!children.get(i).getAccessor().getValues(theBundle).isEmpty()) {
+				return false;
+			}
+		}
+
+		List<IBase> entries = entryChild.getAccessor().getValues(theBundle);
+		if (entries.isEmpty()) {
+			return false;
+		}
+
+		String shell = theParser.encodeResourceToString(copyBundleWithoutEntries(bundleDef, entryChild, theBundle));
+		if (!shell.endsWith("}")) {
+			return false;
+		}
+
+		// A single wrapper Bundle is reused to encode each entry on its own
+		IBaseResource wrapper = bundleDef.newInstance();
+		String entryPrefix = "{\"resourceType\":\"" + bundleDef.getName() + "\",\"entry\":[";
+		String firstEntry = encodeJsonBundleEntry(entryChild, theParser, wrapper, entries.get(0), entryPrefix);
+		if (firstEntry == null) {
+			return false;
+		}
+
+		theWriter.append(shell, 0, shell.length() - 1);
+		if (shell.length() > 2) {
+			theWriter.append(',');
+		}
+		theWriter.append("\"entry\":[");
+		theWriter.append(firstEntry);
+		theWriter.flush();
+		for (int i = 1; i < entries.size(); i++) {
+			String nextEntry = encodeJsonBundleEntry(entryChild, theParser, wrapper, entries.get(i), entryPrefix);
+			if (nextEntry == null) {
+				throw new InternalErrorException(
+						Msg.code(2620) + "Unable to stream Bundle entry " + i + " - Unexpected encoding");
+			}
+			theWriter.append(',');
+			theWriter.append(nextEntry);
+			theWriter.flush();
+		}
+		theWriter.append("]}");
+		return true;
+	}
+
+	/**
+	 * Creates a shallow copy of the given Bundle, containing everything except its entries
+	 */
+	private static IBaseResource copyBundleWithoutEntries(
+			RuntimeResourceDefinition theBundleDef, BaseRuntimeChildDefinition theEntryChild, IBaseBundle theBundle) {
+		IBaseResource retVal = theBundleDef.newInstance();
+		for (BaseRuntimeChildDefinition nextChild : theBundleDef.getChildren()) {
+			if (nextChild != theEntryChild) {
+				for (IBase nextValue : nextChild.getAccessor().getValues(theBundle)) {
+					nextChild.getMutator().addValue(retVal, nextValue);
+				}
+			}
+		}
+		retVal.setId(theBundle.getIdElement());
+		if (theBundle instanceof IResource) {
+			((IResource) retVal).setResourceMetadata(((IResource) theBundle).getResourceMetadata());
+		}
+		return retVal;
+	}
+
+	/**
+	 * Encodes a single Bundle entry by placing it as the only entry of the given (otherwise
+	 * empty) wrapper Bundle, and returns the JSON for the entry object alone (or
+	 * <code>null</code> if the encoded Bundle didn't have the expected shape)
+	 */
+	@Nullable
+	private static String encodeJsonBundleEntry(
+			BaseRuntimeChildDefinition theEntryChild,
+			IParser theParser,
+			IBaseResource theWrapper,
+			IBase theEntry,
+			String theEntryPrefix) {
+		theEntryChild.getMutator().setValue(theWrapper, theEntry);
+		String encoded = theParser.encodeResourceToString(theWrapper);
+		if (!encoded.startsWith(theEntryPrefix) || !encoded.endsWith("]}")) {
+			return null;
+		}
+		return encoded.substring(theEntryPrefix.length(), encoded.length() - 2);
+	}
+
 	private static String getBinaryContentTypeOrDefault(IBaseBinary theBinary) {
 		String contentType;
 		if (isNotBlank(theBinary.getContentType())) {
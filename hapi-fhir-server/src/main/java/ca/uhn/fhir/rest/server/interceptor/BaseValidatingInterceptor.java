@@ -43,6 +43,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
@@ -76,6 +77,7 @@ public abstract class BaseValidatingInterceptor<T> extends ValidationResultEnric
 
 	private List<IValidatorModule> myValidatorModules;
 	private FhirValidator myValidator;
+	private ExecutorService myConcurrentBundleValidationExecutorService;
 
 	private void addResponseIssueHeader(RequestDetails theRequestDetails, SingleValidationMessage theNext) {
 		// Perform any string substitutions from the message format
@@ -197,6 +199,50 @@ public abstract class BaseValidatingInterceptor<T> extends ValidationResultEnric
 		myValidatorModules = theValidatorModules;
 	}
 
+	/**
+	 * If set (default is <code>null</code>), Bundles are validated by validating the resource in
+	 * each entry independently using the given executor, and then validating the structure of the
+	 * Bundle itself on the request thread. The results are merged into a single result, with each
+	 * message located at its <code>Bundle.entry[n]</code>. Supplying a bounded executor limits the
+	 * number of threads a single large Bundle can occupy.
+	 * <p>
+	 * Note that because entries are validated independently, rules which depend on the content of
+	 * other entries are not checked. References between entries are still checked by the Bundle
+	 * structure pass (see {@link FhirValidator#setConcurrentBundleStructureValidation(boolean)}).
+	 * This setting applies when validator modules are supplied to this interceptor. If a
+	 * {@link #setValidator(FhirValidator) validator} is supplied instead, configure it using
+	 * {@link FhirValidator#setConcurrentBundleValidation(boolean)} and
+	 * {@link FhirValidator#setConcurrentBundleStructureValidation(boolean)}.
+	 * </p>
+	 *
+	 * @since 7.8.0
+	 */
+	public ExecutorService getConcurrentBundleValidationExecutorService() {
+		return myConcurrentBundleValidationExecutorService;
+	}
+
+	/**
+	 * If set (default is <code>null</code>), Bundles are validated by validating the resource in
+	 * each entry independently using the given executor, and then validating the structure of the
+	 * Bundle itself on the request thread. The results are merged into a single result, with each
+	 * message located at its <code>Bundle.entry[n]</code>. Supplying a bounded executor limits the
+	 * number of threads a single large Bundle can occupy.
+	 * <p>
+	 * Note that because entries are validated independently, rules which depend on the content of
+	 * other entries are not checked. References between entries are still checked by the Bundle
+	 * structure pass (see {@link FhirValidator#setConcurrentBundleStructureValidation(boolean)}).
+	 * This setting applies when validator modules are supplied to this interceptor. If a
+	 * {@link #setValidator(FhirValidator) validator} is supplied instead, configure it using
+	 * {@link FhirValidator#setConcurrentBundleValidation(boolean)} and
+	 * {@link FhirValidator#setConcurrentBundleStructureValidation(boolean)}.
+	 * </p>
+	 *
+	 * @since 7.8.0
+	 */
+	public void setConcurrentBundleValidationExecutorService(ExecutorService theExecutorService) {
+		myConcurrentBundleValidationExecutorService = theExecutorService;
+	}
+
 	/**
 	 * If set to <code>true</code> (default is <code>false</code>) this interceptor
 	 * will exit immediately and allow processing to continue if the validator throws
@@ -341,6 +387,11 @@ public abstract class BaseValidatingInterceptor<T> extends ValidationResultEnric
 					validator.registerValidatorModule(next);
 				}
 			}
+			if (myConcurrentBundleValidationExecutorService != null) {
+				validator.setExecutorService(myConcurrentBundleValidationExecutorService);
+				validator.setConcurrentBundleValidation(true);
+				validator.setConcurrentBundleStructureValidation(true);
+			}
 		}
 
 		ValidationResult validationResult;
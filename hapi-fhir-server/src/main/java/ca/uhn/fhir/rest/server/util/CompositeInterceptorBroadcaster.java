@@ -77,15 +77,34 @@ public class CompositeInterceptorBroadcaster implements IInterceptorBroadcaster
 	@Override
 	@Nonnull
 	public List<IInvoker> getInvokersForPointcut(Pointcut thePointcut) {
-		List<IInvoker> invokers = new ArrayList<>();
+		List<IInvoker> invokers = null;
+		boolean haveMultiple = false;
 		for (IInterceptorBroadcaster services : myServices) {
 			if (services.hasHooks(thePointcut)) {
 				List<IInvoker> serviceInvokers = services.getInvokersForPointcut(thePointcut);
 				assert serviceInvokers != null;
-				invokers.addAll(serviceInvokers);
+				if (invokers == null) {
+					invokers = serviceInvokers;
+				} else {
+					if (!haveMultiple) {
+						invokers = new ArrayList<>(invokers);
+						haveMultiple = true;
+					}
+					invokers.addAll(serviceInvokers);
+				}
 			}
 		}
-		invokers.sort(Comparator.naturalOrder());
+
+		if (invokers == null) {
+			return new ArrayList<>();
+		}
+
+		// If only one broadcaster has hooks (which is the common case when there are
+		// no request-scoped interceptors), its list is already a sorted copy so we
+		// don't need to copy or re-sort it
+		if (haveMultiple) {
+			invokers.sort(Comparator.naturalOrder());
+		}
 		return invokers;
 	}
 
@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -259,6 +260,26 @@ class CompositeInterceptorBroadcasterTest {
 		);
 	}
 
+	@Test
+	public void testCompositeBroadcasterCollectsHookMetrics() {
+		InterceptorService svc0 = new InterceptorService();
+		svc0.setCollectHookMetrics(true);
+		svc0.registerInterceptor(new Interceptor0());
+		InterceptorService svc1 = new InterceptorService();
+		svc1.registerInterceptor(new Interceptor1());
+		IInterceptorBroadcaster compositeBroadcaster = CompositeInterceptorBroadcaster.newCompositeBroadcaster(svc0, svc1);
+
+		HookParams hookParams = new HookParams()
+			.add(String.class, "PARAM_A")
+			.add(String.class, "PARAM_B");
+		compositeBroadcaster.callHooksAndReturnObject(Pointcut.TEST_RO, hookParams);
+
+		// Only the hooks registered with the service collecting metrics are counted
+		assertThat(svc0.getHookInvocationCounts()).containsExactly(entry(Pointcut.TEST_RO, 2L));
+		assertThat(svc0.getInterceptorInvocationNanos()).containsOnlyKeys(Interceptor0.class.getName());
+		assertThat(svc1.getHookInvocationCounts()).isEmpty();
+	}
+
 
 	@Interceptor
 	private class Interceptor0 {
@@ -75,6 +75,30 @@ public interface IWorkChunkPersistence {
 	@Transactional(propagation = Propagation.MANDATORY)
 	Optional<WorkChunk> onWorkChunkDequeue(String theChunkId);
 
+	/**
+	 * Claims a group of work chunks at once, so that a worker can process them directly
+	 * instead of waiting for each one to be sent through the work channel.
+	 * Transitions up to {@literal theMaxCount} chunks for the given instance and step from
+	 * {@link WorkChunkStatusEnum#READY} to {@link WorkChunkStatusEnum#IN_PROGRESS}. Only READY
+	 * chunks are claimed, since they have not yet been sent to the work channel, and a claimed
+	 * chunk is no longer READY so it won't be sent afterwards. Chunks which are concurrently
+	 * being claimed by another worker are skipped rather than waited for.
+	 * <p>
+	 * The default implementation claims nothing, so callers fall back to processing chunks
+	 * as they arrive through the work channel.
+	 * </p>
+	 *
+	 * @param theInstanceId The job instance ID
+	 * @param theStepId     The step ID of the chunks to claim
+	 * @param theMaxCount   The maximum number of chunks to claim
+	 * @return The claimed chunks (with data), in sequence order. May be empty.
+	 * @since 7.8.0
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	default List<WorkChunk> onWorkChunksClaim(String theInstanceId, String theStepId, int theMaxCount) {
+		return List.of();
+	}
+
 	/**
 	 * A retryable error.
 	 * Transition to {@link WorkChunkStatusEnum#ERRORED} unless max-retries passed, then
@@ -115,6 +139,19 @@ public interface IWorkChunkPersistence {
 	@Transactional(propagation = Propagation.REQUIRED)
 	void onWorkChunkCompletion(WorkChunkCompletionEvent theEvent);
 
+	/**
+	 * Report success and complete a group of chunks.
+	 * Transition each to {@link WorkChunkStatusEnum#COMPLETED}. Implementations should
+	 * apply these in as few statements as possible.
+	 *
+	 * @param theEvents with record and error count for each chunk
+	 * @since 7.8.0
+	 */
+	@Transactional(propagation = Propagation.REQUIRED)
+	default void onWorkChunksCompletion(List<WorkChunkCompletionEvent> theEvents) {
+		theEvents.forEach(this::onWorkChunkCompletion);
+	}
+
 	/**
 	 * Marks all work chunks with the provided status and erases the data
 	 *
@@ -82,7 +82,8 @@ public abstract class BaseBatch2Config {
 			BatchJobSender theBatchJobSender,
 			WorkChunkProcessor theExecutor,
 			IJobMaintenanceService theJobMaintenanceService,
-			IHapiTransactionService theTransactionService) {
+			IHapiTransactionService theTransactionService,
+			JpaStorageSettings theStorageSettings) {
 		return new JobCoordinatorImpl(
 				theBatchJobSender,
 				batch2ProcessingChannelReceiver(myChannelFactory),
@@ -90,7 +91,8 @@ public abstract class BaseBatch2Config {
 				theJobDefinitionRegistry,
 				theExecutor,
 				theJobMaintenanceService,
-				theTransactionService);
+				theTransactionService,
+				theStorageSettings);
 	}
 
 	@Bean
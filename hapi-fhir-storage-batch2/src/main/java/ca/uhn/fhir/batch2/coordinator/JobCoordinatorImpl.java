@@ -33,6 +33,7 @@ import ca.uhn.fhir.batch2.model.JobInstanceStartRequest;
 import ca.uhn.fhir.batch2.model.StatusEnum;
 import ca.uhn.fhir.batch2.models.JobInstanceFetchRequest;
 import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
 import ca.uhn.fhir.jpa.batch.models.Batch2JobStartResponse;
 import ca.uhn.fhir.jpa.dao.tx.IHapiTransactionService;
 import ca.uhn.fhir.jpa.subscription.channel.api.IChannelReceiver;
@@ -80,6 +81,33 @@ public class JobCoordinatorImpl implements IJobCoordinator {
 			@Nonnull WorkChunkProcessor theExecutorSvc,
 			@Nonnull IJobMaintenanceService theJobMaintenanceService,
 			@Nonnull IHapiTransactionService theTransactionService) {
+		this(
+				theBatchJobSender,
+				theWorkChannelReceiver,
+				theJobPersistence,
+				theJobDefinitionRegistry,
+				theExecutorSvc,
+				theJobMaintenanceService,
+				theTransactionService,
+				null);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theStorageSettings Used to read {@link JpaStorageSettings#getBatch2WorkChunkClaimSize()}. May
+	 *                           be <code>null</code>, in which case work chunks are never claimed in bulk.
+	 * @since 7.8.0
+	 */
+	public JobCoordinatorImpl(
+			@Nonnull BatchJobSender theBatchJobSender,
+			@Nonnull IChannelReceiver theWorkChannelReceiver,
+			@Nonnull IJobPersistence theJobPersistence,
+			@Nonnull JobDefinitionRegistry theJobDefinitionRegistry,
+			@Nonnull WorkChunkProcessor theExecutorSvc,
+			@Nonnull IJobMaintenanceService theJobMaintenanceService,
+			@Nonnull IHapiTransactionService theTransactionService,
+			@Nullable JpaStorageSettings theStorageSettings) {
 		Validate.notNull(theJobPersistence);
 
 		myJobPersistence = theJobPersistence;
@@ -93,7 +121,8 @@ public class JobCoordinatorImpl implements IJobCoordinator {
 				theBatchJobSender,
 				theExecutorSvc,
 				theJobMaintenanceService,
-				theTransactionService);
+				theTransactionService,
+				theStorageSettings);
 		myJobQuerySvc = new JobQuerySvc(theJobPersistence, theJobDefinitionRegistry);
 		myJobParameterJsonValidator = new JobParameterJsonValidator();
 		myTransactionService = theTransactionService;
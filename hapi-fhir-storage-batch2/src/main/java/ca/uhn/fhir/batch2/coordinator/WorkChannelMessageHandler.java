@@ -27,16 +27,20 @@ import ca.uhn.fhir.batch2.model.JobInstance;
 import ca.uhn.fhir.batch2.model.JobWorkCursor;
 import ca.uhn.fhir.batch2.model.JobWorkNotification;
 import ca.uhn.fhir.batch2.model.JobWorkNotificationJsonMessage;
+import ca.uhn.fhir.batch2.model.StatusEnum;
 import ca.uhn.fhir.batch2.model.WorkChunk;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
 import ca.uhn.fhir.jpa.dao.tx.IHapiTransactionService;
 import ca.uhn.fhir.util.Logs;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.MDC;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.MessagingException;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Supplier;
 
@@ -49,6 +53,8 @@ class WorkChannelMessageHandler implements MessageHandler {
 	private final JobDefinitionRegistry myJobDefinitionRegistry;
 	private final JobStepExecutorFactory myJobStepExecutorFactory;
 	private final IHapiTransactionService myHapiTransactionService;
+	private final BatchJobSender myBatchJobSender;
+	private final JpaStorageSettings myStorageSettings;
 
 	WorkChannelMessageHandler(
 			@Nonnull IJobPersistence theJobPersistence,
@@ -57,9 +63,29 @@ class WorkChannelMessageHandler implements MessageHandler {
 			@Nonnull WorkChunkProcessor theExecutorSvc,
 			@Nonnull IJobMaintenanceService theJobMaintenanceService,
 			IHapiTransactionService theHapiTransactionService) {
+		this(
+				theJobPersistence,
+				theJobDefinitionRegistry,
+				theBatchJobSender,
+				theExecutorSvc,
+				theJobMaintenanceService,
+				theHapiTransactionService,
+				null);
+	}
+
+	WorkChannelMessageHandler(
+			@Nonnull IJobPersistence theJobPersistence,
+			@Nonnull JobDefinitionRegistry theJobDefinitionRegistry,
+			@Nonnull BatchJobSender theBatchJobSender,
+			@Nonnull WorkChunkProcessor theExecutorSvc,
+			@Nonnull IJobMaintenanceService theJobMaintenanceService,
+			IHapiTransactionService theHapiTransactionService,
+			@Nullable JpaStorageSettings theStorageSettings) {
 		myJobPersistence = theJobPersistence;
 		myJobDefinitionRegistry = theJobDefinitionRegistry;
 		myHapiTransactionService = theHapiTransactionService;
+		myBatchJobSender = theBatchJobSender;
+		myStorageSettings = theStorageSettings;
 		myJobStepExecutorFactory = new JobStepExecutorFactory(
 				theJobPersistence,
 				theBatchJobSender,
@@ -254,7 +280,10 @@ class WorkChannelMessageHandler implements MessageHandler {
 
 			processingPreparation.ifPresentOrElse(
 					// all the setup is happy and committed.  Do the work.
-					process -> process.myStepExector.executeStep(),
+					process -> {
+						process.myStepExector.executeStep();
+						claimAndExecuteReadyChunks(process);
+					},
 					() -> {
 						// discard the chunk
 						ourLog.debug("Discarding chunk notification {}", workNotification);
@@ -264,6 +293,52 @@ class WorkChannelMessageHandler implements MessageHandler {
 		}
 	}
 
+	/**
+	 * If {@link JpaStorageSettings#getBatch2WorkChunkClaimSize() work chunk claiming} is enabled,
+	 * claims READY chunks for the same instance and step as the chunk which was just processed
+	 * and processes them on this thread. READY chunks haven't been sent to the work channel yet,
+	 * and once claimed they won't be, so a chunk is never processed both ways.
+	 */
+	private void claimAndExecuteReadyChunks(MessageProcess theProcess) {
+		int claimSize = myStorageSettings != null ? myStorageSettings.getBatch2WorkChunkClaimSize() : 0;
+		if (claimSize <= 0 || theProcess.myCursor.isReductionStep()) {
+			return;
+		}
+
+		String instanceId = theProcess.myJobInstance.getInstanceId();
+		String stepId = theProcess.myCursor.getCurrentStepId();
+		List<WorkChunk> claimedChunks = myHapiTransactionService
+				.withSystemRequestOnDefaultPartition()
+				.execute(() -> {
+					Optional<JobInstance> instance = myJobPersistence.fetchInstance(instanceId);
+					if (instance.isEmpty() || !isClaimingAllowed(instance.get().getStatus())) {
+						return List.of();
+					}
+					return myJobPersistence.onWorkChunksClaim(instanceId, stepId, claimSize);
+				});
+
+		for (WorkChunk next : claimedChunks) {
+			BatchJobTracingContext.setBatchJobIds(instanceId, next.getId());
+			try {
+				myJobStepExecutorFactory
+						.newJobStepExecutor(theProcess.myJobInstance, next, theProcess.myCursor)
+						.executeStep();
+			} catch (Exception e) {
+				// Claimed chunks didn't arrive through the work channel, so send them there to be retried
+				ourLog.warn(
+						"Failed to process claimed chunk {}, sending it to the work channel for retry",
+						next.getId(),
+						e);
+				myBatchJobSender.sendWorkChannelMessage(
+						new JobWorkNotification(theProcess.myJobInstance, stepId, next.getId()));
+			}
+		}
+	}
+
+	private static boolean isClaimingAllowed(StatusEnum theStatus) {
+		return theStatus == StatusEnum.IN_PROGRESS || theStatus == StatusEnum.ERRORED;
+	}
+
 	/**
 	 * Run theCallback in TX, rolling back if the supplied Optional is empty.
 	 */
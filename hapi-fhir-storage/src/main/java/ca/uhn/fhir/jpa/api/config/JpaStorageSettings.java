@@ -24,6 +24,7 @@ import ca.uhn.fhir.jpa.api.model.HistoryCountModeEnum;
 import ca.uhn.fhir.jpa.api.model.WarmCacheEntry;
 import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
 import ca.uhn.fhir.jpa.model.entity.StorageSettings;
+import ca.uhn.fhir.jpa.util.MemoryCacheService;
 import ca.uhn.fhir.rest.api.SearchTotalModeEnum;
 import ca.uhn.fhir.system.HapiSystemProperties;
 import ca.uhn.fhir.util.HapiExtensions;
@@ -43,7 +44,9 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -392,6 +395,58 @@ public class JpaStorageSettings extends StorageSettings {
 	@Beta
 	private boolean myIncludeHashIdentityForTokenSearches = false;
 
+	/**
+	 * @since 7.8.0
+	 */
+	private final Map<MemoryCacheService.CacheEnum, Long> myMemoryCacheTimeoutMillis =
+			new EnumMap<>(MemoryCacheService.CacheEnum.class);
+
+	/**
+	 * @since 7.8.0
+	 */
+	private final Map<MemoryCacheService.CacheEnum, Long> myMemoryCacheMaximumSizes =
+			new EnumMap<>(MemoryCacheService.CacheEnum.class);
+
+	/**
+	 * @since 7.8.0
+	 */
+	private boolean myMemoryCacheCompactPidKeys = false;
+
+	/**
+	 * @since 7.8.0
+	 */
+	private SearchCacheModeEnum mySearchCacheMode = SearchCacheModeEnum.DATABASE;
+
+	/**
+	 * @since 7.8.0
+	 */
+	private int myInMemorySearchCacheMaximumSearches = 1000;
+
+	/**
+	 * @since 7.8.0
+	 */
+	private Integer myMaximumConcurrentSearchTasks = null;
+
+	/**
+	 * @since 7.8.0
+	 */
+	private int mySearchResourceParsingThreadCount = 1;
+
+	/**
+	 * @since 7.8.0
+	 */
+	private int myBatch2ExternalChunkDataThreshold = 0;
+
+	/**
+	 * @since 7.8.0
+	 */
+	private boolean myBatch2ExternalChunkDataCompressed = true;
+
+	/**
+	 * @since 7.8.0
+	 */
+	private int myBatch2WorkChunkClaimSize = 0;
+
 	/**
 	 * Constructor
 	 */
@@ -2650,6 +2705,362 @@ public class JpaStorageSettings extends StorageSettings {
 		myRestDeleteByUrlResourceIdThreshold = theRestDeleteByUrlResourceIdThreshold;
 	}
 
+	/**
+	 * Returns the time after which entries written to the given {@link MemoryCacheService} cache
+	 * expire, or <code>null</code> if the default for that cache should be used.
+	 *
+	 * @see #setMemoryCacheTimeoutMillis(MemoryCacheService.CacheEnum, Long)
+	 * @since 7.8.0
+	 */
+	@Nullable
+	public Long getMemoryCacheTimeoutMillis(@Nonnull MemoryCacheService.CacheEnum theCache) {
+		return myMemoryCacheTimeoutMillis.get(theCache);
+	}
+
+	/**
+	 * Sets the time after which entries written to the given {@link MemoryCacheService} cache
+	 * expire. If set to <code>null</code> (which is the default), the cache uses a timeout of
+	 * 1 minute, or 50 minutes if {@link #isMassIngestionMode() mass ingestion mode} is enabled.
+	 * <p>
+	 * This setting is read when the {@link MemoryCacheService} is created, or when
+	 * {@link MemoryCacheService#refreshCaches()} is called.
+	 * </p>
+	 *
+	 * @since 7.8.0
+	 */
+	public void setMemoryCacheTimeoutMillis(
+			@Nonnull MemoryCacheService.CacheEnum theCache, @Nullable Long theTimeoutMillis) {
+		Validate.isTrue(theTimeoutMillis == null || theTimeoutMillis > 0, "Timeout must be a positive number");
+		if (theTimeoutMillis == null) {
+			myMemoryCacheTimeoutMillis.remove(theCache);
+		} else {
+			myMemoryCacheTimeoutMillis.put(theCache, theTimeoutMillis);
+		}
+	}
+
+	/**
+	 * Returns the maximum number of entries held by the given {@link MemoryCacheService} cache,
+	 * or <code>null</code> if the default for that cache should be used.
+	 *
+	 * @see #setMemoryCacheMaximumSize(MemoryCacheService.CacheEnum, Long)
+	 * @since 7.8.0
+	 */
+	@Nullable
+	public Long getMemoryCacheMaximumSize(@Nonnull MemoryCacheService.CacheEnum theCache) {
+		return myMemoryCacheMaximumSizes.get(theCache);
+	}
+
+	/**
+	 * Sets the maximum number of entries held by the given {@link MemoryCacheService} cache.
+	 * If set to <code>null</code> (which is the default), the cache holds up to 10000
+	 * entries, or 100000 entries if {@link #isMassIngestionMode() mass ingestion mode} is enabled.
+	 * <p>
+	 * Note that when {@link #isMemoryCacheCompactPidKeys() compact PID keys} are enabled, the
+	 * {@link MemoryCacheService.CacheEnum#PID_TO_FORCED_ID} cache pre-allocates its hash table
+	 * for this size, so very large values should be avoided for that cache. The other caches
+	 * do not pre-allocate.
+	 * </p>
+	 * <p>
+	 * This setting is read when the {@link MemoryCacheService} is created, or when
+	 * {@link MemoryCacheService#refreshCaches()} is called.
+	 * </p>
+	 *
+	 * @since 7.8.0
+	 */
+	public void setMemoryCacheMaximumSize(
+			@Nonnull MemoryCacheService.CacheEnum theCache, @Nullable Long theMaximumSize) {
+		Validate.isTrue(theMaximumSize == null || theMaximumSize > 0, "Maximum size must be a positive number");
+		if (theMaximumSize == null) {
+			myMemoryCacheMaximumSizes.remove(theCache);
+		} else {
+			myMemoryCacheMaximumSizes.put(theCache, theMaximumSize);
+		}
+	}
+
+	/**
+	 * If enabled (default is <code>false</code>), the
+	 * {@link MemoryCacheService.CacheEnum#PID_TO_FORCED_ID} cache stores its keys as primitives
+	 * in an open-addressing hash table instead of using a general purpose cache. This
+	 * substantially reduces the heap used per cached entry, which is useful on servers that
+	 * configure a very large maximum size for this cache.
+	 * <p>
+	 * This setting is read when the {@link MemoryCacheService} is created, or when
+	 * {@link MemoryCacheService#refreshCaches()} is called.
+	 * </p>
+	 *
+	 * @see ca.uhn.fhir.jpa.util.JpaPidKeyedCache
+	 * @since 7.8.0
+	 */
+	public boolean isMemoryCacheCompactPidKeys() {
+		return myMemoryCacheCompactPidKeys;
+	}
+
+	/**
+	 * If enabled (default is <code>false</code>), the
+	 * {@link MemoryCacheService.CacheEnum#PID_TO_FORCED_ID} cache stores its keys as primitives
+	 * in an open-addressing hash table instead of using a general purpose cache. This
+	 * substantially reduces the heap used per cached entry, which is useful on servers that
+	 * configure a very large maximum size for this cache.
+	 * <p>
+	 * This setting is read when the {@link MemoryCacheService} is created, or when
+	 * {@link MemoryCacheService#refreshCaches()} is called.
+	 * </p>
+	 *
+	 * @see ca.uhn.fhir.jpa.util.JpaPidKeyedCache
+	 * @since 7.8.0
+	 */
+	public void setMemoryCacheCompactPidKeys(boolean theMemoryCacheCompactPidKeys) {
+		myMemoryCacheCompactPidKeys = theMemoryCacheCompactPidKeys;
+	}
+
+	/**
+	 * Where searches and their result PID lists are kept while clients page through
+	 * them. Default is {@link SearchCacheModeEnum#DATABASE}.
+	 * <p>
+	 * This setting is read when the JPA server application context starts, so changing it
+	 * afterward has no effect.
+	 * </p>
+	 *
+	 * @since 7.8.0
+	 */
+	@Nonnull
+	public SearchCacheModeEnum getSearchCacheMode() {
+		return mySearchCacheMode;
+	}
+
+	/**
+	 * Where searches and their result PID lists are kept while clients page through
+	 * them. Default is {@link SearchCacheModeEnum#DATABASE}.
+	 * <p>
+	 * This setting is read when the JPA server application context starts, so changing it
+	 * afterward has no effect.
+	 * </p>
+	 *
+	 * @since 7.8.0
+	 */
+	public void setSearchCacheMode(@Nonnull SearchCacheModeEnum theSearchCacheMode) {
+		Validate.notNull(theSearchCacheMode, "theSearchCacheMode must not be null");
+		mySearchCacheMode = theSearchCacheMode;
+	}
+
+	/**
+	 * When the {@link #setSearchCacheMode(SearchCacheModeEnum) search cache mode} is
+	 * {@link SearchCacheModeEnum#IN_MEMORY}, this is the maximum number of searches (and
+	 * their result lists) which will be held in memory. Once this limit is reached, older
+	 * searches are discarded and paging requests for them will fail as though they had expired.
+	 * Default is 1000.
+	 *
+	 * @since 7.8.0
+	 */
+	public int getInMemorySearchCacheMaximumSearches() {
+		return myInMemorySearchCacheMaximumSearches;
+	}
+
+	/**
+	 * When the {@link #setSearchCacheMode(SearchCacheModeEnum) search cache mode} is
+	 * {@link SearchCacheModeEnum#IN_MEMORY}, this is the maximum number of searches (and
+	 * their result lists) which will be held in memory. Once this limit is reached, older
+	 * searches are discarded and paging requests for them will fail as though they had expired.
+	 * Default is 1000.
+	 *
+	 * @since 7.8.0
+	 */
+	public void setInMemorySearchCacheMaximumSearches(int theInMemorySearchCacheMaximumSearches) {
+		Validate.isTrue(theInMemorySearchCacheMaximumSearches > 0, "Maximum searches must be a positive number");
+		myInMemorySearchCacheMaximumSearches = theInMemorySearchCacheMaximumSearches;
+	}
+
+	/**
+	 * If set to a non-null value (default is <code>null</code>), this is the maximum number of
+	 * search tasks (the initial pass of a search, and any subsequent passes loading more
+	 * results) which may execute concurrently on this server. Requests which would exceed this
+	 * limit wait for a running search task to finish.
+	 * <p>
+	 * Each search task holds a database connection while it runs, so this should be set to
+	 * a value somewhat lower than the size of the database connection pool, leaving
+	 * connections available for writes and for paging requests. Under bursty search load this
+	 * avoids exhausting the connection pool, which would otherwise stall every request type.
+	 * </p>
+	 * <p>
+	 * This setting is read when the search coordinator is created, so changing it
+	 * afterward has no effect.
+	 * </p>
+	 *
+	 * @since 7.8.0
+	 */
+	@Nullable
+	public Integer getMaximumConcurrentSearchTasks() {
+		return myMaximumConcurrentSearchTasks;
+	}
+
+	/**
+	 * If set to a non-null value (default is <code>null</code>), this is the maximum number of
+	 * search tasks (the initial pass of a search, and any subsequent passes loading more
+	 * results) which may execute concurrently on this server. Requests which would exceed this
+	 * limit wait for a running search task to finish.
+	 * <p>
+	 * Each search task holds a database connection while it runs, so this should be set to
+	 * a value somewhat lower than the size of the database connection pool, leaving
+	 * connections available for writes and for paging requests. Under bursty search load this
+	 * avoids exhausting the connection pool, which would otherwise stall every request type.
+	 * </p>
+	 * <p>
+	 * This setting is read when the search coordinator is created, so changing it
+	 * afterward has no effect.
+	 * </p>
+	 *
+	 * @since 7.8.0
+	 */
+	public void setMaximumConcurrentSearchTasks(@Nullable Integer theMaximumConcurrentSearchTasks) {
+		Validate.isTrue(
+				theMaximumConcurrentSearchTasks == null || theMaximumConcurrentSearchTasks > 0,
+				"Maximum concurrent search tasks must be a positive number");
+		myMaximumConcurrentSearchTasks = theMaximumConcurrentSearchTasks;
+	}
+
+	/**
+	 * This setting controls how many threads are used to parse the resource bodies loaded
+	 * for a page of search results (including any <code>_include</code> and
+	 * <code>_revinclude</code> targets). The default is <code>1</code>, meaning that
+	 * resources are parsed sequentially on the thread handling the request.
+	 * <p>
+	 * If set to a value greater than 1, large pages are split into chunks after the
+	 * resource bodies have been fetched, and the chunks are parsed in parallel. The results
+	 * are returned in the original order. Database access still happens on the calling
+	 * thread, so no additional database connections are used.
+	 * </p>
+	 * <p>
+	 * The parsing thread pool is sized using this setting when it is first needed, so
+	 * increasing it afterward has no effect.
+	 * </p>
+	 *
+	 * @since 7.8.0
+	 */
+	public int getSearchResourceParsingThreadCount() {
+		return mySearchResourceParsingThreadCount;
+	}
+
+	/**
+	 * This setting controls how many threads are used to parse the resource bodies loaded
+	 * for a page of search results (including any <code>_include</code> and
+	 * <code>_revinclude</code> targets). The default is <code>1</code>, meaning that
+	 * resources are parsed sequentially on the thread handling the request.
+	 * <p>
+	 * If set to a value greater than 1, large pages are split into chunks after the
+	 * resource bodies have been fetched, and the chunks are parsed in parallel. The results
+	 * are returned in the original order. Database access still happens on the calling
+	 * thread, so no additional database connections are used.
+	 * </p>
+	 * <p>
+	 * The parsing thread pool is sized using this setting when it is first needed, so
+	 * increasing it afterward has no effect.
+	 * </p>
+	 *
+	 * @since 7.8.0
+	 */
+	public void setSearchResourceParsingThreadCount(int theSearchResourceParsingThreadCount) {
+		Validate.isTrue(theSearchResourceParsingThreadCount > 0, "Thread count must be a positive number");
+		mySearchResourceParsingThreadCount = theSearchResourceParsingThreadCount;
+	}
+
+	/**
+	 * If set to a value greater than 0, Batch2 work chunks whose serialized data is at
+	 * least this many characters long are not stored in the work chunk table. Instead,
+	 * the data is streamed to the configured {@link ca.uhn.fhir.jpa.binary.api.IBinaryStorageSvc
+	 * binary storage service} and the chunk row stores only a reference to it. This
+	 * keeps very large chunks (e.g. bulk export chunks containing thousands of encoded
+	 * resources) out of the database. The externally stored data is removed when the
+	 * chunk completes or the job instance is deleted.
+	 * <p>
+	 * This setting has no effect if no binary storage service is configured. The default
+	 * is <code>0</code> (disabled).
+	 * </p>
+	 *
+	 * @since 7.8.0
+	 */
+	public int getBatch2ExternalChunkDataThreshold() {
+		return myBatch2ExternalChunkDataThreshold;
+	}
+
+	/**
+	 * If set to a value greater than 0, Batch2 work chunks whose serialized data is at
+	 * least this many characters long are not stored in the work chunk table. Instead,
+	 * the data is streamed to the configured {@link ca.uhn.fhir.jpa.binary.api.IBinaryStorageSvc
+	 * binary storage service} and the chunk row stores only a reference to it. This
+	 * keeps very large chunks (e.g. bulk export chunks containing thousands of encoded
+	 * resources) out of the database. The externally stored data is removed when the
+	 * chunk completes or the job instance is deleted.
+	 * <p>
+	 * This setting has no effect if no binary storage service is configured. The default
+	 * is <code>0</code> (disabled).
+	 * </p>
+	 *
+	 * @since 7.8.0
+	 */
+	public void setBatch2ExternalChunkDataThreshold(int theBatch2ExternalChunkDataThreshold) {
+		Validate.isTrue(theBatch2ExternalChunkDataThreshold >= 0, "Threshold must not be negative");
+		myBatch2ExternalChunkDataThreshold = theBatch2ExternalChunkDataThreshold;
+	}
+
+	/**
+	 * If {@link #getBatch2ExternalChunkDataThreshold() external chunk data storage} is enabled,
+	 * should the externally stored data be compressed? Data is compressed using DEFLATE in the ZLib
+	 * format (not GZip). The default is <code>true</code>.
+	 *
+	 * @since 7.8.0
+	 */
+	public boolean isBatch2ExternalChunkDataCompressed() {
+		return myBatch2ExternalChunkDataCompressed;
+	}
+
+	/**
+	 * If {@link #getBatch2ExternalChunkDataThreshold() external chunk data storage} is enabled,
+	 * should the externally stored data be compressed? Data is compressed using DEFLATE in the ZLib
+	 * format (not GZip). The default is <code>true</code>.
+	 *
+	 * @since 7.8.0
+	 */
+	public void setBatch2ExternalChunkDataCompressed(boolean theBatch2ExternalChunkDataCompressed) {
+		myBatch2ExternalChunkDataCompressed = theBatch2ExternalChunkDataCompressed;
+	}
+
+	/**
+	 * If set to a value greater than 0, a Batch2 worker which has finished processing a work
+	 * chunk received from the work channel will claim up to this many further chunks for the
+	 * same job instance and step, and process them directly on the same thread. Only chunks
+	 * which have not yet been sent to the work channel are claimed, and they are claimed in
+	 * bulk (using <code>SELECT ... FOR UPDATE SKIP LOCKED</code> where the database supports
+	 * it), which avoids a maintenance pass and a channel round trip for each chunk.
+	 * <p>
+	 * Note that chunks claimed by a server which stops before processing them are not
+	 * redelivered by the work channel. The default is <code>0</code> (disabled).
+	 * </p>
+	 *
+	 * @since 7.8.0
+	 */
+	public int getBatch2WorkChunkClaimSize() {
+		return myBatch2WorkChunkClaimSize;
+	}
+
+	/**
+	 * If set to a value greater than 0, a Batch2 worker which has finished processing a work
+	 * chunk received from the work channel will claim up to this many further chunks for the
+	 * same job instance and step, and process them directly on the same thread. Only chunks
+	 * which have not yet been sent to the work channel are claimed, and they are claimed in
+	 * bulk (using <code>SELECT ... FOR UPDATE SKIP LOCKED</code> where the database supports
+	 * it), which avoids a maintenance pass and a channel round trip for each chunk.
+	 * <p>
+	 * Note that chunks claimed by a server which stops before processing them are not
+	 * redelivered by the work channel. The default is <code>0</code> (disabled).
+	 * </p>
+	 *
+	 * @since 7.8.0
+	 */
+	public void setBatch2WorkChunkClaimSize(int theBatch2WorkChunkClaimSize) {
+		Validate.isTrue(theBatch2WorkChunkClaimSize >= 0, "Claim size must not be negative");
+		myBatch2WorkChunkClaimSize = theBatch2WorkChunkClaimSize;
+	}
+
 	public enum StoreMetaSourceInformationEnum {
 		NONE(false, false),
 		SOURCE_URI(true, false),
@@ -2721,6 +3132,24 @@ public class JpaStorageSettings extends StorageSettings {
 		ANY
 	}
 
+	public enum SearchCacheModeEnum {
+
+		/**
+		 * Searches are stored in the {@literal HFJ_SEARCH} table and their result PIDs are
+		 * stored in the {@literal HFJ_SEARCH_RESULT} table
+		 */
+		DATABASE,
+
+		/**
+		 * Searches and their result PIDs (in a compressed form) are held in memory in the
+		 * server process. This avoids the heavy write load that storing search results places
+		 * on the database, but is only suitable for servers running on a single node (or
+		 * with sticky sessions), since paging requests must be served by the node which
+		 * performed the search. Cached searches are lost when the server restarts.
+		 */
+		IN_MEMORY
+	}
+
 	public enum TagStorageModeEnum {
 
 		/**
@@ -415,8 +415,29 @@ public abstract class BaseTransactionProcessor {
 				nonGetCalls.add(retriableBundleTask);
 			}
 		}
-		// Execute all non-gets on calling thread.
-		nonGetCalls.forEach(RetriableBundleTask::run);
+		if (myStorageSettings.getBundleBatchChunkSize() > 1) {
+			// Group consecutive non-gets into chunks, each processed in a single transaction (potentially in a pool)
+			List<BatchChunkTask> chunks = toBatchChunks(nonGetCalls);
+			if (myStorageSettings.getBundleBatchPoolSize() == 1) {
+				chunks.forEach(BatchChunkTask::run);
+			} else {
+				// All writes must complete before any get starts, just like when they run on the calling thread
+				CountDownLatch chunkCompletionLatch = new CountDownLatch(chunks.size());
+				for (BatchChunkTask nextChunk : chunks) {
+					getTaskExecutor().execute(() -> {
+						try {
+							nextChunk.run();
+						} finally {
+							chunkCompletionLatch.countDown();
+						}
+					});
+				}
+				AsyncUtil.awaitLatchAndIgnoreInterrupt(chunkCompletionLatch, 300L, TimeUnit.SECONDS);
+			}
+		} else {
+			// Execute all non-gets on calling thread.
+			nonGetCalls.forEach(RetriableBundleTask::run);
+		}
 		// Execute all gets (potentially in a pool)
 		if (myStorageSettings.getBundleBatchPoolSize() == 1) {
 			getCalls.forEach(RetriableBundleTask::run);
@@ -451,6 +472,144 @@ public abstract class BaseTransactionProcessor {
 		return response;
 	}
 
+	/**
+	 * Splits the non-GET entries of a batch into chunks of up to
+	 * {@link StorageSettings#getBundleBatchChunkSize()} entries. An entry whose fullUrl or
+	 * resource ID is referenced by an entry in the batch is always placed in a chunk of its own,
+	 * since the transaction would record an ID substitution for it and rewrite those references,
+	 * which is not permitted in a batch. Entries sharing a fullUrl, a resource ID or a conditional
+	 * URL are never placed in the same chunk, since the transaction would reject or consolidate them.
+	 */
+	private List<BatchChunkTask> toBatchChunks(List<RetriableBundleTask> theTasks) {
+		int chunkSize = myStorageSettings.getBundleBatchChunkSize();
+		Set<String> referencedIds = getBatchChunkReferencedIds(theTasks);
+		List<BatchChunkTask> retVal = new ArrayList<>();
+		List<RetriableBundleTask> currentChunk = new ArrayList<>();
+		Set<String> currentChunkKeys = new HashSet<>();
+		for (RetriableBundleTask next : theTasks) {
+			Set<String> entryIds = getBatchChunkEntryIds(next.myNextReqEntry);
+			if (!Collections.disjoint(entryIds, referencedIds)) {
+				retVal.add(new BatchChunkTask(List.of(next)));
+				continue;
+			}
+
+			Set<String> entryKeys = new HashSet<>(entryIds);
+			String conditionalKey = toBatchChunkConditionalKey(next.myNextReqEntry);
+			if (conditionalKey != null) {
+				entryKeys.add(conditionalKey);
+			}
+			if (!Collections.disjoint(entryKeys, currentChunkKeys)) {
+				retVal.add(new BatchChunkTask(currentChunk));
+				currentChunk = new ArrayList<>();
+				currentChunkKeys.clear();
+			}
+
+			currentChunk.add(next);
+			currentChunkKeys.addAll(entryKeys);
+			if (currentChunk.size() >= chunkSize) {
+				retVal.add(new BatchChunkTask(currentChunk));
+				currentChunk = new ArrayList<>();
+				currentChunkKeys.clear();
+			}
+		}
+		if (!currentChunk.isEmpty()) {
+			retVal.add(new BatchChunkTask(currentChunk));
+		}
+		return retVal;
+	}
+
+	/**
+	 * Returns the IDs a transaction could record an ID substitution for when processing the
+	 * given entry, i.e. its fullUrl and its own resource ID, in the forms a reference to them
+	 * could take
+	 */
+	private Set<String> getBatchChunkEntryIds(IBase theEntry) {
+		Set<String> retVal = new HashSet<>();
+		IBaseResource resource = myVersionAdapter.getResource(theEntry);
+		String resourceType = resource != null ? myContext.getResourceType(resource) : null;
+		String fullUrl = myVersionAdapter.getFullUrl(theEntry);
+		if (isNotBlank(fullUrl)) {
+			addBatchChunkEntryIds(retVal, newIdType(fullUrl), resourceType);
+		}
+		if (resource != null && !resource.getIdElement().isEmpty()) {
+			addBatchChunkEntryIds(retVal, resource.getIdElement(), resourceType);
+		}
+		return retVal;
+	}
+
+	private void addBatchChunkEntryIds(Set<String> theIds, IIdType theId, @Nullable String theResourceType) {
+		theIds.add(theId.getValue());
+		if (theId.hasIdPart()) {
+			theIds.add(theId.toUnqualifiedVersionless().getValue());
+			if (theResourceType != null) {
+				theIds.add(theResourceType + "/" + theId.getIdPart());
+			}
+		}
+	}
+
+	/**
+	 * Returns every reference, URI and match URL parameter value in the given entries which the
+	 * transaction would try to resolve against the IDs of the other entries
+	 */
+	private Set<String> getBatchChunkReferencedIds(List<RetriableBundleTask> theTasks) {
+		FhirTerser terser = myContext.newTerser();
+		@SuppressWarnings("unchecked")
+		Class<? extends IPrimitiveType<?>> uriType = (Class<? extends IPrimitiveType<?>>)
+				myContext.getElementDefinition("uri").getImplementingClass();
+		Set<String> retVal = new HashSet<>();
+		for (RetriableBundleTask next : theTasks) {
+			IBaseResource resource = myVersionAdapter.getResource(next.myNextReqEntry);
+			if (resource != null) {
+				List<IBaseReference> allRefs = terser.getAllPopulatedChildElementsOfType(resource, IBaseReference.class);
+				for (IBaseReference nextRef : allRefs) {
+					IIdType referenceId = nextRef.getReferenceElement();
+					if (!referenceId.hasIdPart() && nextRef.getResource() != null) {
+						referenceId = nextRef.getResource().getIdElement();
+					}
+					if (!referenceId.isEmpty()) {
+						retVal.add(referenceId.getValue());
+						retVal.add(referenceId.toUnqualifiedVersionless().getValue());
+					}
+				}
+				for (IPrimitiveType<?> nextUri : terser.getAllPopulatedChildElementsOfType(resource, uriType)) {
+					if (!(nextUri instanceof IIdType) && isNotBlank(nextUri.getValueAsString())) {
+						retVal.add(nextUri.getValueAsString());
+					}
+				}
+			}
+			addBatchChunkMatchUrlValues(retVal, myVersionAdapter.getEntryRequestUrl(next.myNextReqEntry));
+			addBatchChunkMatchUrlValues(retVal, myVersionAdapter.getEntryRequestIfNoneExist(next.myNextReqEntry));
+		}
+		return retVal;
+	}
+
+	private static void addBatchChunkMatchUrlValues(Set<String> theValues, @Nullable String theMatchUrl) {
+		if (isBlank(theMatchUrl)) {
+			return;
+		}
+		String query = theMatchUrl.substring(theMatchUrl.indexOf('?') + 1);
+		for (String nextParam : query.split("&")) {
+			int equalsIdx = nextParam.indexOf('=');
+			if (equalsIdx != -1) {
+				theValues.add(UrlUtil.unescape(nextParam.substring(equalsIdx + 1)));
+			}
+		}
+	}
+
+	@Nullable
+	private String toBatchChunkConditionalKey(IBase theEntry) {
+		String verb = myVersionAdapter.getEntryRequestVerb(myContext, theEntry);
+		String ifNoneExist = myVersionAdapter.getEntryRequestIfNoneExist(theEntry);
+		if (isNotBlank(ifNoneExist)) {
+			return verb + "|" + ifNoneExist;
+		}
+		String requestUrl = myVersionAdapter.getEntryRequestUrl(theEntry);
+		if (isNotBlank(requestUrl) && requestUrl.contains("?")) {
+			return verb + "|" + requestUrl;
+		}
+		return null;
+	}
+
 	@VisibleForTesting
 	public void setHapiTransactionService(HapiTransactionService theHapiTransactionService) {
 		myHapiTransactionService = theHapiTransactionService;
@@ -2375,6 +2534,17 @@ public abstract class BaseTransactionProcessor {
 
 		@Override
 		public void run() {
+			try {
+				process();
+			} finally {
+				myCompletedLatch.countDown();
+			}
+		}
+
+		/**
+		 * Processes the entry and records its response, without counting down the completion latch
+		 */
+		private void process() {
 			boolean success = processBatchEntryWithRetry();
 			if (!success) {
 				populateResponseMapWithLastSeenException();
@@ -2382,7 +2552,6 @@ public abstract class BaseTransactionProcessor {
 
 			// checking for the parallelism
 			ourLog.debug("processing batch for {} is completed", myVersionAdapter.getEntryRequestUrl(myNextReqEntry));
-			myCompletedLatch.countDown();
 		}
 
 		private void populateResponseMapWithLastSeenException() {
@@ -2392,6 +2561,89 @@ public abstract class BaseTransactionProcessor {
 		}
 	}
 
+	/**
+	 * Processes a group of batch entries as a single transaction so that they share
+	 * pre-fetching and a single commit. If the transaction fails for any reason, each
+	 * entry is reprocessed individually so that batch semantics (each entry succeeds
+	 * or fails independently) are preserved.
+	 */
+	private class BatchChunkTask implements Runnable {
+
+		private final List<RetriableBundleTask> myEntryTasks;
+
+		private BatchChunkTask(List<RetriableBundleTask> theEntryTasks) {
+			myEntryTasks = theEntryTasks;
+		}
+
+		@Override
+		public void run() {
+			try {
+				if (myEntryTasks.size() > 1 && processChunkAndHandleFailure()) {
+					return;
+				}
+				myEntryTasks.forEach(RetriableBundleTask::process);
+			} finally {
+				for (RetriableBundleTask next : myEntryTasks) {
+					next.myCompletedLatch.countDown();
+				}
+			}
+		}
+
+		/**
+		 * @return Returns <code>true</code> if a response (or failure) was recorded for every entry in
+		 * the chunk, or <code>false</code> if the entries should be processed individually
+		 */
+		private boolean processChunkAndHandleFailure() {
+			try {
+				return processChunk();
+			} catch (Exception e) {
+				// The chunk may already have been committed, so it isn't safe to reprocess its entries
+				ourLog.error("Failure during BATCH chunk processing", e);
+				BaseServerResponseException exception = e instanceof BaseServerResponseException
+						? (BaseServerResponseException) e
+						: new InternalErrorException(e);
+				for (RetriableBundleTask next : myEntryTasks) {
+					next.myLastSeenException = exception;
+					next.populateResponseMapWithLastSeenException();
+				}
+				return true;
+			}
+		}
+
+		private boolean processChunk() {
+			RetriableBundleTask firstTask = myEntryTasks.get(0);
+			IBaseBundle subRequestBundle =
+					myVersionAdapter.createBundle(org.hl7.fhir.r4.model.Bundle.BundleType.TRANSACTION.toCode());
+			for (RetriableBundleTask next : myEntryTasks) {
+				myVersionAdapter.addEntry(subRequestBundle, next.myNextReqEntry);
+			}
+
+			IBaseBundle nextResponseBundle;
+			try {
+				nextResponseBundle = processTransactionAsSubRequest(
+						firstTask.myRequestDetails, subRequestBundle, "Batch chunk", firstTask.myNestedMode);
+			} catch (Exception e) {
+				ourLog.debug(
+						"Batch chunk of {} entries failed, falling back to individual processing: {}",
+						myEntryTasks.size(),
+						e.toString());
+				return false;
+			}
+
+			List<IBase> responseEntries = myVersionAdapter.getEntries(nextResponseBundle);
+			if (responseEntries.size() != myEntryTasks.size()) {
+				// This should not happen since the chunk was committed, but never lose entries
+				throw new InternalErrorException(Msg.code(2608) + "Batch chunk returned " + responseEntries.size()
+						+ " response entries for " + myEntryTasks.size() + " request entries");
+			}
+			for (int i = 0; i < myEntryTasks.size(); i++) {
+				RetriableBundleTask next = myEntryTasks.get(i);
+				next.myResponseMap.put(next.myResponseOrder, responseEntries.get(i));
+			}
+			return true;
+		}
+	}
+
 	private static class ServerResponseExceptionHolder {
 		private BaseServerResponseException myException;
 
@@ -29,6 +29,8 @@ public abstract class BaseChannelSettings implements IChannelSettings {
 	// init true to match previous behaviour
 	private boolean myUseJacksonMessageConverter = true;
 
+	private boolean myPartitionedByMessageKey = false;
+
 	/**
 	 * Default true.  Used by IChannelNamer to decide how to qualify the channel name.
 	 */
@@ -60,4 +62,29 @@ public abstract class BaseChannelSettings implements IChannelSettings {
 	public void setUseJacksonMessageConverter(boolean theUseJacksonMessageConverter) {
 		myUseJacksonMessageConverter = theUseJacksonMessageConverter;
 	}
+
+	/**
+	 * Default false. If true, the concurrent consumers of the channel are run as single-threaded
+	 * lanes, and each message is handled by the lane chosen by hashing its message key (the
+	 * resource ID for subscription messages). Messages with the same key are then handled one
+	 * at a time, in the order they were sent.
+	 *
+	 * @since 7.8.0
+	 */
+	@Override
+	public boolean isPartitionedByMessageKey() {
+		return myPartitionedByMessageKey;
+	}
+
+	/**
+	 * Default false. If true, the concurrent consumers of the channel are run as single-threaded
+	 * lanes, and each message is handled by the lane chosen by hashing its message key (the
+	 * resource ID for subscription messages). Messages with the same key are then handled one
+	 * at a time, in the order they were sent.
+	 *
+	 * @since 7.8.0
+	 */
+	public void setPartitionedByMessageKey(boolean thePartitionedByMessageKey) {
+		myPartitionedByMessageKey = thePartitionedByMessageKey;
+	}
 }
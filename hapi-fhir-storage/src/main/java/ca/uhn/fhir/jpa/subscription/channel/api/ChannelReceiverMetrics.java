@@ -0,0 +1,126 @@
+/*-
+ * #%L
+ * HAPI FHIR Storage api
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.subscription.channel.api;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A point-in-time snapshot of the messages waiting in and being processed by an {@link IChannelReceiver}
+ *
+ * @see IChannelReceiver#getMetrics()
+ * @since 7.8.0
+ */
+public class ChannelReceiverMetrics {
+
+	private final int myQueueDepth;
+	private final List<LaneMetrics> myLanes;
+
+	/**
+	 * Constructor
+	 *
+	 * @param theQueueDepth The number of messages waiting to be processed
+	 * @param theLanes      The metrics for each lane, if the receiver processes messages in partitioned lanes
+	 */
+	public ChannelReceiverMetrics(int theQueueDepth, List<LaneMetrics> theLanes) {
+		myQueueDepth = theQueueDepth;
+		myLanes = Collections.unmodifiableList(theLanes);
+	}
+
+	/**
+	 * Returns the number of messages waiting to be processed, across all lanes
+	 */
+	public int getQueueDepth() {
+		return myQueueDepth;
+	}
+
+	/**
+	 * Returns the metrics for each lane if the receiver is
+	 * {@link BaseChannelSettings#setPartitionedByMessageKey(boolean) partitioned by message key},
+	 * or an empty list otherwise
+	 */
+	public List<LaneMetrics> getLanes() {
+		return myLanes;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+				.append("queueDepth", myQueueDepth)
+				.append("lanes", myLanes)
+				.toString();
+	}
+
+	public static class LaneMetrics {
+
+		private final int myQueueDepth;
+		private final boolean myActive;
+		private final long myProcessedCount;
+		private final double myUtilization;
+
+		/**
+		 * Constructor
+		 *
+		 * @param theQueueDepth     The number of messages waiting in this lane
+		 * @param theActive         Whether this lane is currently processing a message
+		 * @param theProcessedCount The number of messages this lane has processed
+		 * @param theUtilization    The fraction of time, between 0 and 1, this lane has spent processing messages
+		 */
+		public LaneMetrics(int theQueueDepth, boolean theActive, long theProcessedCount, double theUtilization) {
+			myQueueDepth = theQueueDepth;
+			myActive = theActive;
+			myProcessedCount = theProcessedCount;
+			myUtilization = theUtilization;
+		}
+
+		public int getQueueDepth() {
+			return myQueueDepth;
+		}
+
+		public boolean isActive() {
+			return myActive;
+		}
+
+		public long getProcessedCount() {
+			return myProcessedCount;
+		}
+
+		/**
+		 * Returns the fraction of time, between 0 and 1, this lane has spent processing
+		 * messages since it was created
+		 */
+		public double getUtilization() {
+			return myUtilization;
+		}
+
+		@Override
+		public String toString() {
+			return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+					.append("queueDepth", myQueueDepth)
+					.append("active", myActive)
+					.append("processedCount", myProcessedCount)
+					.append("utilization", myUtilization)
+					.toString();
+		}
+	}
+}
@@ -19,10 +19,22 @@
  */
 package ca.uhn.fhir.jpa.subscription.channel.api;
 
+import jakarta.annotation.Nullable;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.messaging.SubscribableChannel;
 import org.springframework.messaging.support.InterceptableChannel;
 
 public interface IChannelReceiver extends SubscribableChannel, InterceptableChannel, DisposableBean {
 	String getName();
+
+	/**
+	 * Returns a snapshot of the queue depth and lane utilization of this receiver, or
+	 * {@literal null} if the implementation doesn't track them
+	 *
+	 * @since 7.8.0
+	 */
+	@Nullable
+	default ChannelReceiverMetrics getMetrics() {
+		return null;
+	}
 }
@@ -23,4 +23,15 @@ public interface IChannelSettings {
 	boolean isQualifyChannelName();
 
 	boolean isUseJacksonMessageConverter();
+
+	/**
+	 * If true, messages are handled by single-threaded lanes chosen by hashing the message key, so
+	 * that messages with the same key are handled in order. Channel implementations which don't
+	 * support this may ignore it.
+	 *
+	 * @since 7.8.0
+	 */
+	default boolean isPartitionedByMessageKey() {
+		return false;
+	}
 }
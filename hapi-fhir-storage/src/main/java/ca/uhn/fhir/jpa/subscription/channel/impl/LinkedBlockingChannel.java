@@ -19,6 +19,7 @@
  */
 package ca.uhn.fhir.jpa.subscription.channel.impl;
 
+import ca.uhn.fhir.jpa.subscription.channel.api.ChannelReceiverMetrics;
 import ca.uhn.fhir.jpa.subscription.channel.api.IChannelProducer;
 import ca.uhn.fhir.jpa.subscription.channel.api.IChannelReceiver;
 import jakarta.annotation.Nonnull;
@@ -26,6 +27,7 @@ import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.support.ExecutorSubscribableChannel;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Optional;
 import java.util.concurrent.Executor;
 import java.util.function.Supplier;
@@ -36,11 +38,26 @@ public class LinkedBlockingChannel extends ExecutorSubscribableChannel implement
 
 	private final String myName;
 	private final Supplier<Integer> myQueueSizeSupplier;
+	private final PartitionedMessageExecutor myPartitionedExecutor;
 
 	public LinkedBlockingChannel(String theName, Executor theExecutor, Supplier<Integer> theQueueSizeSupplier) {
 		super(theExecutor);
 		myName = theName;
 		myQueueSizeSupplier = theQueueSizeSupplier;
+		myPartitionedExecutor = null;
+	}
+
+	/**
+	 * Creates a channel which handles messages on the lanes of the given executor, preserving
+	 * the order of messages with the same message key
+	 *
+	 * @since 7.8.0
+	 */
+	public LinkedBlockingChannel(String theName, PartitionedMessageExecutor thePartitionedExecutor) {
+		super(thePartitionedExecutor);
+		myName = theName;
+		myQueueSizeSupplier = thePartitionedExecutor::getQueueSize;
+		myPartitionedExecutor = thePartitionedExecutor;
 	}
 
 	public int getQueueSizeForUnitTest() {
@@ -56,6 +73,14 @@ public class LinkedBlockingChannel extends ExecutorSubscribableChannel implement
 		return myName;
 	}
 
+	@Override
+	public ChannelReceiverMetrics getMetrics() {
+		if (myPartitionedExecutor != null) {
+			return myPartitionedExecutor.getMetrics();
+		}
+		return new ChannelReceiverMetrics(defaultIfNull(myQueueSizeSupplier.get(), 0), Collections.emptyList());
+	}
+
 	@Override
 	public boolean hasSubscription(@Nonnull MessageHandler handler) {
 		return getSubscribers().stream()
@@ -68,12 +68,21 @@ public class LinkedBlockingChannelFactory implements IChannelFactory {
 		final String channelName = myChannelNamer.getChannelName(theChannelName, theChannelSettings);
 
 		return myChannels.computeIfAbsent(
-				channelName, t -> buildLinkedBlockingChannel(theConcurrentConsumers, channelName));
+				channelName,
+				t -> buildLinkedBlockingChannel(
+						theConcurrentConsumers, channelName, theChannelSettings.isPartitionedByMessageKey()));
 	}
 
 	@Nonnull
-	private LinkedBlockingChannel buildLinkedBlockingChannel(int theConcurrentConsumers, String theChannelName) {
+	private LinkedBlockingChannel buildLinkedBlockingChannel(
+			int theConcurrentConsumers, String theChannelName, boolean thePartitionedByMessageKey) {
 		String threadNamePrefix = theChannelName + "-";
+		if (thePartitionedByMessageKey) {
+			PartitionedMessageExecutor partitionedExecutor = new PartitionedMessageExecutor(
+					threadNamePrefix, theConcurrentConsumers, SubscriptionConstants.DELIVERY_EXECUTOR_QUEUE_SIZE);
+			return new LinkedBlockingChannel(theChannelName, partitionedExecutor);
+		}
+
 		ThreadPoolTaskExecutor threadPoolExecutor = ThreadPoolUtil.newThreadPool(
 				theConcurrentConsumers,
 				theConcurrentConsumers,
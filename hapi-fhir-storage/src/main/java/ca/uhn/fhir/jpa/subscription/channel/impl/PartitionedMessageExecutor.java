@@ -0,0 +1,158 @@
+/*-
+ * #%L
+ * HAPI FHIR Storage api
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.subscription.channel.impl;
+
+import ca.uhn.fhir.jpa.subscription.channel.api.ChannelReceiverMetrics;
+import ca.uhn.fhir.rest.server.messaging.json.BaseJsonMessage;
+import ca.uhn.fhir.util.ThreadPoolUtil;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.Validate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An executor which runs channel message handling tasks on a fixed number of single-threaded
+ * lanes. Each message is routed to a lane chosen by hashing its
+ * {@link BaseJsonMessage#getMessageKeyOrDefault() message key} (the resource ID for subscription
+ * messages), so messages with the same key are handled one at a time and in the order they
+ * were sent, while messages with different keys are handled in parallel. Messages without a
+ * key are spread across the lanes.
+ *
+ * @since 7.8.0
+ */
+public class PartitionedMessageExecutor implements Executor {
+
+	private final List<Lane> myLanes;
+	private final AtomicInteger myNextUnkeyedLane = new AtomicInteger();
+
+	/**
+	 * Constructor
+	 *
+	 * @param theThreadNamePrefix    The prefix for the lane thread names, which must end with a hyphen
+	 * @param theLaneCount           The number of lanes
+	 * @param theLaneQueueCapacity   The number of messages which can wait in each lane before senders are blocked
+	 */
+	public PartitionedMessageExecutor(String theThreadNamePrefix, int theLaneCount, int theLaneQueueCapacity) {
+		Validate.isTrue(theLaneCount > 0, "theLaneCount must be positive");
+		myLanes = new ArrayList<>(theLaneCount);
+		for (int i = 0; i < theLaneCount; i++) {
+			String threadNamePrefix = theThreadNamePrefix + "lane" + i + "-";
+			myLanes.add(new Lane(ThreadPoolUtil.newThreadPool(1, 1, threadNamePrefix, theLaneQueueCapacity)));
+		}
+	}
+
+	@Override
+	public void execute(@Nonnull Runnable theTask) {
+		myLanes.get(selectLane(theTask)).execute(theTask);
+	}
+
+	int selectLane(Runnable theTask) {
+		String key = null;
+		if (theTask instanceof MessageHandlingRunnable) {
+			key = getMessageKey(((MessageHandlingRunnable) theTask).getMessage());
+		}
+		if (key == null) {
+			return Math.floorMod(myNextUnkeyedLane.getAndIncrement(), myLanes.size());
+		}
+		return Math.floorMod(key.hashCode(), myLanes.size());
+	}
+
+	public int getLaneCount() {
+		return myLanes.size();
+	}
+
+	public int getQueueSize() {
+		int retVal = 0;
+		for (Lane next : myLanes) {
+			retVal += next.getQueueSize();
+		}
+		return retVal;
+	}
+
+	public ChannelReceiverMetrics getMetrics() {
+		List<ChannelReceiverMetrics.LaneMetrics> laneMetrics = new ArrayList<>(myLanes.size());
+		int queueDepth = 0;
+		for (Lane next : myLanes) {
+			ChannelReceiverMetrics.LaneMetrics metrics = next.getMetrics();
+			queueDepth += metrics.getQueueDepth();
+			laneMetrics.add(metrics);
+		}
+		return new ChannelReceiverMetrics(queueDepth, laneMetrics);
+	}
+
+	public void shutdown() {
+		myLanes.forEach(Lane::shutdown);
+	}
+
+	@Nullable
+	private static String getMessageKey(Message<?> theMessage) {
+		if (theMessage instanceof BaseJsonMessage) {
+			return ((BaseJsonMessage<?>) theMessage).getMessageKeyOrDefault();
+		}
+		return null;
+	}
+
+	private static class Lane {
+
+		private final ThreadPoolTaskExecutor myExecutor;
+		private final long myCreatedNanos = System.nanoTime();
+		private final LongAdder myProcessedCount = new LongAdder();
+		private final LongAdder myBusyNanos = new LongAdder();
+
+		private Lane(ThreadPoolTaskExecutor theExecutor) {
+			myExecutor = theExecutor;
+		}
+
+		void execute(Runnable theTask) {
+			myExecutor.execute(() -> {
+				long start = System.nanoTime();
+				try {
+					theTask.run();
+				} finally {
+					myBusyNanos.add(System.nanoTime() - start);
+					myProcessedCount.increment();
+				}
+			});
+		}
+
+		int getQueueSize() {
+			return myExecutor.getQueueSize();
+		}
+
+		ChannelReceiverMetrics.LaneMetrics getMetrics() {
+			long elapsedNanos = Math.max(System.nanoTime() - myCreatedNanos, 1);
+			double utilization = Math.min(1.0, myBusyNanos.sum() / (double) elapsedNanos);
+			return new ChannelReceiverMetrics.LaneMetrics(
+					getQueueSize(), myExecutor.getActiveCount() > 0, myProcessedCount.sum(), utilization);
+		}
+
+		void shutdown() {
+			myExecutor.shutdown();
+		}
+	}
+}
@@ -19,6 +19,7 @@
  */
 package ca.uhn.fhir.jpa.subscription.channel.subscription;
 
+import ca.uhn.fhir.jpa.subscription.channel.api.ChannelReceiverMetrics;
 import ca.uhn.fhir.jpa.subscription.channel.api.IChannelReceiver;
 import org.apache.commons.lang3.Validate;
 import org.springframework.messaging.Message;
@@ -70,4 +71,9 @@ public class BroadcastingSubscribableChannelWrapper extends AbstractSubscribable
 	public String getName() {
 		return myWrappedChannel.getName();
 	}
+
+	@Override
+	public ChannelReceiverMetrics getMetrics() {
+		return myWrappedChannel.getMetrics();
+	}
 }
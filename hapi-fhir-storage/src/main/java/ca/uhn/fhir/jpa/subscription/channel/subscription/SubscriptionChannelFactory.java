@@ -31,6 +31,8 @@ import org.apache.commons.lang3.Validate;
 
 public class SubscriptionChannelFactory {
 	private final IChannelFactory myChannelFactory;
+	private boolean myMatchingChannelPartitionedByMessageKey;
+	private boolean myDeliveryChannelPartitionedByMessageKey;
 
 	/**
 	 * Constructor
@@ -72,6 +74,7 @@ public class SubscriptionChannelFactory {
 	protected ChannelProducerSettings newProducerConfigForDeliveryChannel(ChannelProducerSettings theOptions) {
 		ChannelProducerSettings config = new ChannelProducerSettings();
 		config.setConcurrentConsumers(getDeliveryChannelConcurrentConsumers());
+		config.setPartitionedByMessageKey(isDeliveryChannelPartitionedByMessageKey());
 		config.setRetryConfiguration(theOptions.getRetryConfigurationParameters());
 		return config;
 	}
@@ -79,6 +82,7 @@ public class SubscriptionChannelFactory {
 	protected ChannelConsumerSettings newConsumerConfigForDeliveryChannel(ChannelConsumerSettings theOptions) {
 		ChannelConsumerSettings config = new ChannelConsumerSettings();
 		config.setConcurrentConsumers(getDeliveryChannelConcurrentConsumers());
+		config.setPartitionedByMessageKey(isDeliveryChannelPartitionedByMessageKey());
 		if (theOptions != null) {
 			config.setRetryConfiguration(theOptions.getRetryConfigurationParameters());
 		}
@@ -92,12 +96,14 @@ public class SubscriptionChannelFactory {
 			config.setQualifyChannelName(theOptions.isQualifyChannelName());
 		}
 		config.setConcurrentConsumers(getMatchingChannelConcurrentConsumers());
+		config.setPartitionedByMessageKey(isMatchingChannelPartitionedByMessageKey());
 		return config;
 	}
 
 	protected ChannelConsumerSettings newConsumerConfigForMatchingChannel(ChannelConsumerSettings theOptions) {
 		ChannelConsumerSettings config = new ChannelConsumerSettings();
 		config.setConcurrentConsumers(getMatchingChannelConcurrentConsumers());
+		config.setPartitionedByMessageKey(isMatchingChannelPartitionedByMessageKey());
 		if (theOptions != null) {
 			config.setQualifyChannelName(theOptions.isQualifyChannelName());
 			config.setRetryConfiguration(theOptions.getRetryConfigurationParameters());
@@ -113,6 +119,54 @@ public class SubscriptionChannelFactory {
 		return SubscriptionConstants.MATCHING_CHANNEL_CONCURRENT_CONSUMERS;
 	}
 
+	/**
+	 * If true (default is false), the matching channel handles modified resources on single-threaded
+	 * lanes keyed by resource ID, so that changes to the same resource are matched in the order they
+	 * were made while different resources are matched in parallel. Only applies to channel
+	 * implementations which support partitioning, and to channels created after it is set.
+	 *
+	 * @since 7.8.0
+	 */
+	public boolean isMatchingChannelPartitionedByMessageKey() {
+		return myMatchingChannelPartitionedByMessageKey;
+	}
+
+	/**
+	 * If true (default is false), the matching channel handles modified resources on single-threaded
+	 * lanes keyed by resource ID, so that changes to the same resource are matched in the order they
+	 * were made while different resources are matched in parallel. Only applies to channel
+	 * implementations which support partitioning, and to channels created after it is set.
+	 *
+	 * @since 7.8.0
+	 */
+	public void setMatchingChannelPartitionedByMessageKey(boolean theMatchingChannelPartitionedByMessageKey) {
+		myMatchingChannelPartitionedByMessageKey = theMatchingChannelPartitionedByMessageKey;
+	}
+
+	/**
+	 * If true (default is false), subscription delivery channels deliver on single-threaded lanes keyed
+	 * by resource ID, so that notifications about the same resource are delivered in order while
+	 * notifications about different resources are delivered in parallel. Only applies to channel
+	 * implementations which support partitioning, and to channels created after it is set.
+	 *
+	 * @since 7.8.0
+	 */
+	public boolean isDeliveryChannelPartitionedByMessageKey() {
+		return myDeliveryChannelPartitionedByMessageKey;
+	}
+
+	/**
+	 * If true (default is false), subscription delivery channels deliver on single-threaded lanes keyed
+	 * by resource ID, so that notifications about the same resource are delivered in order while
+	 * notifications about different resources are delivered in parallel. Only applies to channel
+	 * implementations which support partitioning, and to channels created after it is set.
+	 *
+	 * @since 7.8.0
+	 */
+	public void setDeliveryChannelPartitionedByMessageKey(boolean theDeliveryChannelPartitionedByMessageKey) {
+		myDeliveryChannelPartitionedByMessageKey = theDeliveryChannelPartitionedByMessageKey;
+	}
+
 	public IChannelFactory getChannelFactory() {
 		return myChannelFactory;
 	}
@@ -0,0 +1,325 @@
+/*-
+ * #%L
+ * HAPI FHIR Storage api
+ * %%
+ * Copyright (C) 2014 - 2024 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.util;
+
+import ca.uhn.fhir.jpa.model.dao.JpaPid;
+import ca.uhn.fhir.sl.cache.Cache;
+import org.apache.commons.lang3.Validate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A {@link Cache} keyed by {@link JpaPid} which stores the resource ID and partition ID of each
+ * key as primitives in open-addressing hash tables, rather than holding a key object plus a cache
+ * node per entry. This makes it much more compact than the general purpose caches for caches with
+ * very large numbers of entries, such as {@link MemoryCacheService.CacheEnum#PID_TO_FORCED_ID}.
+ * <p>
+ * Entries expire a fixed time after they were written. Once the cache is full, writing a new
+ * entry evicts an existing one using a clock sweep, which is closer to FIFO than to LRU.
+ * The table is split into segments which are each guarded by their own lock.
+ * </p>
+ * <p>
+ * Note that unlike Caffeine, {@link #get(JpaPid, Function)} does not block concurrent callers
+ * asking for the same key, so the mapping function may be invoked more than once for a key.
+ * </p>
+ */
+public class JpaPidKeyedCache<V> implements Cache<JpaPid, V> {
+
+	private static final int NO_PARTITION = Integer.MIN_VALUE;
+	private static final int SEGMENT_COUNT_BITS = 4;
+	private static final int SEGMENT_COUNT = 1 << SEGMENT_COUNT_BITS;
+
+	private final Segment[] mySegments;
+
+	public JpaPidKeyedCache(long theTimeoutMillis, long theMaximumSize) {
+		Validate.isTrue(theTimeoutMillis > 0, "Timeout must be a positive number");
+		Validate.isTrue(theMaximumSize > 0, "Maximum size must be a positive number");
+		Validate.isTrue(theMaximumSize <= Integer.MAX_VALUE / 2, "Maximum size is too large");
+
+		int segmentCapacity = (int) Math.max(1, (theMaximumSize + SEGMENT_COUNT - 1) / SEGMENT_COUNT);
+		mySegments = new Segment[SEGMENT_COUNT];
+		for (int i = 0; i < SEGMENT_COUNT; i++) {
+			mySegments[i] = new Segment(segmentCapacity, theTimeoutMillis);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V getIfPresent(JpaPid theKey) {
+		int partition = toPartition(theKey);
+		long id = toId(theKey);
+		int hash = hash(id, partition);
+		return (V) segmentFor(hash).get(hash, id, partition, now());
+	}
+
+	@Override
+	public V get(JpaPid theKey, Function<? super JpaPid, ? extends V> theMappingFunction) {
+		V retVal = getIfPresent(theKey);
+		if (retVal == null) {
+			retVal = theMappingFunction.apply(theKey);
+			if (retVal != null) {
+				put(theKey, retVal);
+			}
+		}
+		return retVal;
+	}
+
+	@Override
+	public Map<JpaPid, V> getAllPresent(Iterable<? extends JpaPid> theKeys) {
+		Map<JpaPid, V> retVal = new HashMap<>();
+		for (JpaPid next : theKeys) {
+			V value = getIfPresent(next);
+			if (value != null) {
+				retVal.put(next, value);
+			}
+		}
+		return retVal;
+	}
+
+	@Override
+	public void put(JpaPid theKey, V theValue) {
+		Validate.notNull(theValue, "theValue must not be null");
+		int partition = toPartition(theKey);
+		long id = toId(theKey);
+		int hash = hash(id, partition);
+		segmentFor(hash).put(hash, id, partition, theValue, now());
+	}
+
+	@Override
+	public void putAll(Map<? extends JpaPid, ? extends V> theMap) {
+		theMap.forEach(this::put);
+	}
+
+	@Override
+	public void invalidate(JpaPid theKey) {
+		int partition = toPartition(theKey);
+		long id = toId(theKey);
+		int hash = hash(id, partition);
+		segmentFor(hash).remove(hash, id, partition);
+	}
+
+	@Override
+	public void invalidateAll(Iterable<? extends JpaPid> theKeys) {
+		theKeys.forEach(this::invalidate);
+	}
+
+	@Override
+	public void invalidateAll() {
+		for (Segment next : mySegments) {
+			next.clear();
+		}
+	}
+
+	@Override
+	public long estimatedSize() {
+		long retVal = 0;
+		for (Segment next : mySegments) {
+			retVal += next.size();
+		}
+		return retVal;
+	}
+
+	@Override
+	public void cleanUp() {
+		long now = now();
+		for (Segment next : mySegments) {
+			next.removeExpired(now);
+		}
+	}
+
+	private Segment segmentFor(int theHash) {
+		return mySegments[theHash >>> (Integer.SIZE - SEGMENT_COUNT_BITS)];
+	}
+
+	private long now() {
+		return System.currentTimeMillis();
+	}
+
+	private static long toId(JpaPid theKey) {
+		Long retVal = theKey.getId();
+		Validate.notNull(retVal, "JpaPid must have an ID");
+		return retVal;
+	}
+
+	private static int toPartition(JpaPid theKey) {
+		Integer retVal = theKey.getPartitionId();
+		return retVal != null ? retVal : NO_PARTITION;
+	}
+
+	private static int hash(long theId, int thePartition) {
+		long hash = (theId ^ ((long) thePartition << 32)) * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	/**
+	 * Linear probing hash table. A slot is empty if its value is <code>null</code>.
+	 */
+	private static final class Segment {
+
+		private final long myTimeoutMillis;
+		private final int myCapacity;
+		private final int myMask;
+		private final long[] myIds;
+		private final int[] myPartitions;
+		private final long[] myWriteTimes;
+		private final Object[] myValues;
+		private int mySize;
+		private int myClockHand;
+
+		private Segment(int theCapacity, long theTimeoutMillis) {
+			myTimeoutMillis = theTimeoutMillis;
+			myCapacity = theCapacity;
+			// Keep the load factor at or below 0.75 so that probe sequences stay short
+			int tableSize = Integer.highestOneBit((int) (theCapacity * 4L / 3)) << 1;
+			myMask = tableSize - 1;
+			myIds = new long[tableSize];
+			myPartitions = new int[tableSize];
+			myWriteTimes = new long[tableSize];
+			myValues = new Object[tableSize];
+		}
+
+		private synchronized Object get(int theHash, long theId, int thePartition, long theNow) {
+			int index = indexOf(theHash, theId, thePartition);
+			if (index == -1) {
+				return null;
+			}
+			if (isExpired(index, theNow)) {
+				removeAt(index);
+				return null;
+			}
+			return myValues[index];
+		}
+
+		private synchronized void put(int theHash, long theId, int thePartition, Object theValue, long theNow) {
+			int index = indexOf(theHash, theId, thePartition);
+			if (index == -1) {
+				if (mySize >= myCapacity) {
+					evictOne(theNow);
+				}
+				index = theHash & myMask;
+				while (myValues[index] != null) {
+					index = (index + 1) & myMask;
+				}
+				myIds[index] = theId;
+				myPartitions[index] = thePartition;
+				mySize++;
+			}
+			myValues[index] = theValue;
+			myWriteTimes[index] = theNow;
+		}
+
+		private synchronized void remove(int theHash, long theId, int thePartition) {
+			int index = indexOf(theHash, theId, thePartition);
+			if (index != -1) {
+				removeAt(index);
+			}
+		}
+
+		private synchronized void removeExpired(long theNow) {
+			for (int i = 0; i <= myMask; ) {
+				if (myValues[i] != null && isExpired(i, theNow)) {
+					// Removing shifts later entries back into this slot, so check it again
+					removeAt(i);
+				} else {
+					i++;
+				}
+			}
+		}
+
+		private synchronized void clear() {
+			for (int i = 0; i <= myMask; i++) {
+				myValues[i] = null;
+			}
+			mySize = 0;
+		}
+
+		private synchronized int size() {
+			return mySize;
+		}
+
+		private int indexOf(int theHash, long theId, int thePartition) {
+			int index = theHash & myMask;
+			while (myValues[index] != null) {
+				if (myIds[index] == theId && myPartitions[index] == thePartition) {
+					return index;
+				}
+				index = (index + 1) & myMask;
+			}
+			return -1;
+		}
+
+		private boolean isExpired(int theIndex, long theNow) {
+			return theNow - myWriteTimes[theIndex] >= myTimeoutMillis;
+		}
+
+		/**
+		 * Removes the next occupied slot after the clock hand, preferring an expired entry
+		 * if one is found within a short distance
+		 */
+		private void evictOne(long theNow) {
+			int firstOccupied = -1;
+			for (int i = 0; i <= myMask; i++) {
+				int index = (myClockHand + i) & myMask;
+				if (myValues[index] != null) {
+					if (isExpired(index, theNow)) {
+						firstOccupied = index;
+						break;
+					}
+					if (firstOccupied == -1) {
+						firstOccupied = index;
+					}
+					if (i >= 16) {
+						break;
+					}
+				}
+			}
+			myClockHand = (firstOccupied + 1) & myMask;
+			removeAt(firstOccupied);
+		}
+
+		/**
+		 * Removes the entry at the given slot and shifts any following entries in the same
+		 * probe sequence back, so that no tombstones are needed
+		 */
+		private void removeAt(int theIndex) {
+			int empty = theIndex;
+			int index = theIndex;
+			while (true) {
+				index = (index + 1) & myMask;
+				if (myValues[index] == null) {
+					break;
+				}
+				int home = hash(myIds[index], myPartitions[index]) & myMask;
+				boolean canMove = empty <= index ? (home <= empty || home > index) : (home <= empty && home > index);
+				if (canMove) {
+					myIds[empty] = myIds[index];
+					myPartitions[empty] = myPartitions[index];
+					myWriteTimes[empty] = myWriteTimes[index];
+					myValues[empty] = myValues[index];
+					empty = index;
+				}
+			}
+			myValues[empty] = null;
+			mySize--;
+		}
+	}
+}
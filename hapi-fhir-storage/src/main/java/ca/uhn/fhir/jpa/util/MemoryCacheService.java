@@ -26,6 +26,7 @@ import ca.uhn.fhir.jpa.model.dao.JpaPid;
 import ca.uhn.fhir.jpa.model.entity.TagTypeEnum;
 import ca.uhn.fhir.sl.cache.Cache;
 import ca.uhn.fhir.sl.cache.CacheFactory;
+import com.google.common.annotations.VisibleForTesting;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.builder.EqualsBuilder;
@@ -38,10 +39,13 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
 
 import java.util.Collection;
 import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -50,14 +54,19 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 /**
  * This class acts as a central spot for all of the many Caffeine caches we use in HAPI FHIR.
  * <p>
- * The API is super simplistic, and caches are all 1-minute, max 10000 entries for starters. We could definitely add nuance to this,
- * which will be much easier now that this is being centralized. Some logging/monitoring would be good too.
+ * The API is super simplistic, and caches are all 1-minute, max 10000 entries by default. The timeout
+ * and maximum size of each individual cache can be adjusted using
+ * {@link JpaStorageSettings#setMemoryCacheTimeoutMillis(CacheEnum, Long)} and
+ * {@link JpaStorageSettings#setMemoryCacheMaximumSize(CacheEnum, Long)}, and hit/miss counts for
+ * each cache are available through {@link #getStatistics(CacheEnum)}.
  */
 // TODO: JA2 extract an interface for this class and use it everywhere
 public class MemoryCacheService {
 
 	private final JpaStorageSettings myStorageSettings;
-	private final EnumMap<CacheEnum, Cache<?, ?>> myCaches = new EnumMap<>(CacheEnum.class);
+	private final LongAdder[] myHitCounts = newCounters();
+	private final LongAdder[] myMissCounts = newCounters();
+	private volatile EnumMap<CacheEnum, Cache<?, ?>> myCaches;
 
 	public MemoryCacheService(JpaStorageSettings theStorageSettings) {
 		myStorageSettings = theStorageSettings;
@@ -66,10 +75,11 @@ public class MemoryCacheService {
 	}
 
 	private void populateCaches() {
+		EnumMap<CacheEnum, Cache<?, ?>> caches = new EnumMap<>(CacheEnum.class);
 		for (CacheEnum next : CacheEnum.values()) {
 
 			long timeoutSeconds;
-			int maximumSize;
+			long maximumSize;
 
 			switch (next) {
 				case NAME_TO_PARTITION:
@@ -91,10 +101,36 @@ public class MemoryCacheService {
 					break;
 			}
 
-			Cache<Object, Object> nextCache = CacheFactory.build(SECONDS.toMillis(timeoutSeconds), maximumSize);
+			long timeoutMillis = SECONDS.toMillis(timeoutSeconds);
+			Long configuredTimeoutMillis = myStorageSettings.getMemoryCacheTimeoutMillis(next);
+			if (configuredTimeoutMillis != null) {
+				timeoutMillis = configuredTimeoutMillis;
+			}
+			Long configuredMaximumSize = myStorageSettings.getMemoryCacheMaximumSize(next);
+			if (configuredMaximumSize != null) {
+				maximumSize = configuredMaximumSize;
+			}
+
+			Cache<?, ?> nextCache;
+			if (next == CacheEnum.PID_TO_FORCED_ID && myStorageSettings.isMemoryCacheCompactPidKeys()) {
+				nextCache = new JpaPidKeyedCache<>(timeoutMillis, maximumSize);
+			} else {
+				nextCache = CacheFactory.build(timeoutMillis, maximumSize);
+			}
 
-			myCaches.put(next, nextCache);
+			caches.put(next, nextCache);
 		}
+		myCaches = caches;
+	}
+
+	/**
+	 * Discards all caches and creates new ones using the current timeout and maximum size
+	 * settings in {@link JpaStorageSettings}. Statistics are not reset.
+	 *
+	 * @since 7.8.0
+	 */
+	public void refreshCaches() {
+		populateCaches();
 	}
 
 	public <K, T> T get(CacheEnum theCache, K theKey, Function<K, T> theSupplier) {
@@ -104,7 +140,13 @@ public class MemoryCacheService {
 
 	protected <K, T> T doGet(CacheEnum theCache, K theKey, Function<K, T> theSupplier) {
 		Cache<K, T> cache = getCache(theCache);
-		return cache.get(theKey, theSupplier);
+		boolean[] loaded = new boolean[1];
+		T retVal = cache.get(theKey, k -> {
+			loaded[0] = true;
+			return theSupplier.apply(k);
+		});
+		recordAccess(theCache, loaded[0] ? 0 : 1, loaded[0] ? 1 : 0);
+		return retVal;
 	}
 
 	/**
@@ -129,7 +171,9 @@ public class MemoryCacheService {
 	}
 
 	protected <K, V> V doGetIfPresent(CacheEnum theCache, K theKey) {
-		return (V) getCache(theCache).getIfPresent(theKey);
+		V retVal = (V) getCache(theCache).getIfPresent(theKey);
+		recordAccess(theCache, retVal != null ? 1 : 0, retVal != null ? 0 : 1);
+		return retVal;
 	}
 
 	public <K, V> void put(CacheEnum theCache, K theKey, V theValue) {
@@ -143,6 +187,21 @@ public class MemoryCacheService {
 		getCache(theCache).put(theKey, theValue);
 	}
 
+	/**
+	 * Puts all of the given entries into the cache
+	 *
+	 * @since 7.8.0
+	 */
+	public <K, V> void putAll(CacheEnum theCache, Map<K, V> theEntries) {
+		assert theEntries.keySet().stream().allMatch(k -> theCache.getKeyType().isAssignableFrom(k.getClass()));
+		doPutAll(theCache, theEntries);
+	}
+
+	protected <K, V> void doPutAll(CacheEnum theCache, Map<K, V> theEntries) {
+		Cache<K, V> cache = getCache(theCache);
+		cache.putAll(theEntries);
+	}
+
 	/**
 	 * This method registers a transaction synchronization that puts an entry in the cache
 	 * if and when the current database transaction successfully commits. If the
@@ -170,6 +229,28 @@ public class MemoryCacheService {
 		}
 	}
 
+	/**
+	 * Same as {@link #putAfterCommit(CacheEnum, Object, Object)} but for a collection of
+	 * entries, which are registered using a single transaction synchronization.
+	 *
+	 * @since 7.8.0
+	 */
+	public <K, V> void putAllAfterCommit(CacheEnum theCache, Map<K, V> theEntries) {
+		if (theEntries.isEmpty()) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					putAll(theCache, theEntries);
+				}
+			});
+		} else {
+			putAll(theCache, theEntries);
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	public <K, V> Map<K, V> getAllPresent(CacheEnum theCache, Collection<K> theKeys) {
 		return doGetAllPresent(theCache, theKeys);
@@ -177,7 +258,32 @@ public class MemoryCacheService {
 
 	@SuppressWarnings("unchecked")
 	protected <K, V> Map<K, V> doGetAllPresent(CacheEnum theCache, Collection<K> theKeys) {
-		return (Map<K, V>) getCache(theCache).getAllPresent(theKeys);
+		Map<K, V> retVal = (Map<K, V>) getCache(theCache).getAllPresent(theKeys);
+		recordAccess(theCache, retVal.size(), theKeys.size() - retVal.size());
+		return retVal;
+	}
+
+	/**
+	 * Fetch all of the given keys from the cache, and use the bulk loading function to
+	 * obtain any which are not present in a single call. Loaded values are put into
+	 * the cache immediately.
+	 *
+	 * @param theLoader Will be called with the keys which were not found in the cache (only if
+	 *                  there is at least one), and should return a map containing any values it was able to
+	 *                  load. Keys which are absent from the returned map are not cached.
+	 * @since 7.8.0
+	 */
+	public <K, V> Map<K, V> getAll(
+			CacheEnum theCache, Collection<K> theKeys, Function<Collection<K>, Map<K, V>> theLoader) {
+		Map<K, V> retVal = new HashMap<>(getAllPresent(theCache, theKeys));
+		if (retVal.size() < theKeys.size()) {
+			List<K> missing =
+					theKeys.stream().filter(t -> !retVal.containsKey(t)).collect(Collectors.toList());
+			Map<K, V> loaded = theLoader.apply(missing);
+			putAll(theCache, loaded);
+			retVal.putAll(loaded);
+		}
+		return retVal;
 	}
 
 	public void invalidateAllCaches() {
@@ -198,6 +304,110 @@ public class MemoryCacheService {
 		}
 	}
 
+	/**
+	 * Performs any pending maintenance (e.g. size based eviction) on all caches
+	 */
+	@VisibleForTesting
+	public void cleanUpForUnitTest() {
+		myCaches.values().forEach(Cache::cleanUp);
+	}
+
+	/**
+	 * Returns the hit/miss counts recorded for the given cache since this service was
+	 * created (or since {@link #resetStatistics()} was last called)
+	 *
+	 * @since 7.8.0
+	 */
+	public CacheStatistics getStatistics(CacheEnum theCache) {
+		int index = theCache.ordinal();
+		return new CacheStatistics(
+				theCache, myHitCounts[index].sum(), myMissCounts[index].sum(), getEstimatedSize(theCache));
+	}
+
+	/**
+	 * @since 7.8.0
+	 */
+	public void resetStatistics() {
+		for (int i = 0; i < myHitCounts.length; i++) {
+			myHitCounts[i].reset();
+			myMissCounts[i].reset();
+		}
+	}
+
+	private void recordAccess(CacheEnum theCache, int theHits, int theMisses) {
+		int index = theCache.ordinal();
+		if (theHits > 0) {
+			myHitCounts[index].add(theHits);
+		}
+		if (theMisses > 0) {
+			myMissCounts[index].add(theMisses);
+		}
+	}
+
+	private static LongAdder[] newCounters() {
+		LongAdder[] retVal = new LongAdder[CacheEnum.values().length];
+		for (int i = 0; i < retVal.length; i++) {
+			retVal[i] = new LongAdder();
+		}
+		return retVal;
+	}
+
+	/**
+	 * Point-in-time hit/miss counts for a single cache
+	 *
+	 * @see #getStatistics(CacheEnum)
+	 * @since 7.8.0
+	 */
+	public static class CacheStatistics {
+
+		private final CacheEnum myCache;
+		private final long myHitCount;
+		private final long myMissCount;
+		private final long myEstimatedSize;
+
+		public CacheStatistics(CacheEnum theCache, long theHitCount, long theMissCount, long theEstimatedSize) {
+			myCache = theCache;
+			myHitCount = theHitCount;
+			myMissCount = theMissCount;
+			myEstimatedSize = theEstimatedSize;
+		}
+
+		public CacheEnum getCache() {
+			return myCache;
+		}
+
+		public long getHitCount() {
+			return myHitCount;
+		}
+
+		public long getMissCount() {
+			return myMissCount;
+		}
+
+		public long getEstimatedSize() {
+			return myEstimatedSize;
+		}
+
+		/**
+		 * Returns the ratio of lookups which were served from the cache, or <code>1.0</code>
+		 * if there have not been any lookups
+		 */
+		public double getHitRatio() {
+			long requests = myHitCount + myMissCount;
+			return requests == 0 ? 1.0 : (double) myHitCount / requests;
+		}
+
+		@Override
+		public String toString() {
+			return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+					.append("cache", myCache)
+					.append("hits", myHitCount)
+					.append("misses", myMissCount)
+					.append("size", myEstimatedSize)
+					.toString();
+		}
+	}
+
 	public enum CacheEnum {
 		TAG_DEFINITION(TagDefinitionCacheKey.class),
 		/**
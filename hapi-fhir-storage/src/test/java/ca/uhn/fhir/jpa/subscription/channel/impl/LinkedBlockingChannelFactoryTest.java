@@ -1,9 +1,11 @@
 package ca.uhn.fhir.jpa.subscription.channel.impl;
 
 import ca.uhn.fhir.jpa.subscription.channel.api.ChannelConsumerSettings;
+import ca.uhn.fhir.jpa.subscription.channel.api.ChannelReceiverMetrics;
 import ca.uhn.fhir.jpa.subscription.channel.api.ChannelProducerSettings;
 import ca.uhn.fhir.jpa.subscription.channel.api.IChannelProducer;
 import ca.uhn.fhir.jpa.subscription.channel.api.IChannelReceiver;
+import ca.uhn.fhir.rest.server.messaging.json.BaseJsonMessage;
 import ca.uhn.test.concurrency.PointcutLatch;
 import jakarta.annotation.Nonnull;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,7 +16,10 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -100,6 +105,54 @@ class LinkedBlockingChannelFactoryTest {
 		successfulProcessedLatch.await(20, TimeUnit.SECONDS);
 	}
 
+	@Test
+	void testPartitionedByMessageKey_PreservesOrderPerKey() {
+		// setup
+		ChannelProducerSettings producerSettings = new ChannelProducerSettings();
+		producerSettings.setConcurrentConsumers(4);
+		producerSettings.setPartitionedByMessageKey(true);
+		ChannelConsumerSettings consumerSettings = new ChannelConsumerSettings();
+		consumerSettings.setConcurrentConsumers(4);
+		consumerSettings.setPartitionedByMessageKey(true);
+		IChannelProducer producer = myChannelFactory.getOrCreateProducer(TEST_CHANNEL_NAME, KeyedTestMessage.class, producerSettings);
+		IChannelReceiver receiver = myChannelFactory.getOrCreateReceiver(TEST_CHANNEL_NAME, KeyedTestMessage.class, consumerSettings);
+
+		Map<String, List<Integer>> keyToSequence = new ConcurrentHashMap<>();
+		AtomicInteger received = new AtomicInteger();
+		receiver.subscribe(msg -> {
+			KeyedTestMessage message = (KeyedTestMessage) msg;
+			keyToSequence.computeIfAbsent(message.getMessageKey(), k -> Collections.synchronizedList(new ArrayList<>())).add(message.getSequence());
+			received.incrementAndGet();
+		});
+
+		// execute
+		for (int i = 0; i < 200; i++) {
+			producer.send(new KeyedTestMessage("Patient/" + (i % 7), i));
+		}
+
+		// verify
+		await().until(() -> received.get() == 200);
+		assertThat(keyToSequence).hasSize(7);
+		for (List<Integer> next : keyToSequence.values()) {
+			assertThat(next).isSorted();
+		}
+
+		ChannelReceiverMetrics metrics = receiver.getMetrics();
+		assertThat(metrics).isNotNull();
+		assertThat(metrics.getLanes()).hasSize(4);
+		await().until(() -> receiver.getMetrics().getLanes().stream().mapToLong(ChannelReceiverMetrics.LaneMetrics::getProcessedCount).sum() == 200);
+		assertEquals(0, receiver.getMetrics().getQueueDepth());
+	}
+
+	@Test
+	void testNotPartitioned_MetricsHaveNoLanes() {
+		IChannelProducer producer = buildChannels(() -> {});
+		ChannelReceiverMetrics metrics = ((IChannelReceiver) producer).getMetrics();
+		assertThat(metrics).isNotNull();
+		assertThat(metrics.getLanes()).isEmpty();
+		assertEquals(0, metrics.getQueueDepth());
+	}
+
 	@Nonnull
 	private Runnable failTwiceThenProceed(CountDownLatch theSuccessfulProcessedLatch) {
 		AtomicInteger failCounter = new AtomicInteger(0);
@@ -149,6 +202,30 @@ class LinkedBlockingChannelFactoryTest {
 	}
 
 
+	static class KeyedTestMessage extends BaseJsonMessage<String> {
+		private final String myKey;
+		private final int mySequence;
+
+		KeyedTestMessage(String theKey, int theSequence) {
+			myKey = theKey;
+			mySequence = theSequence;
+		}
+
+		@Override
+		public String getPayload() {
+			return myKey + ":" + mySequence;
+		}
+
+		@Override
+		public String getMessageKey() {
+			return myKey;
+		}
+
+		int getSequence() {
+			return mySequence;
+		}
+	}
+
 	static class TestMessage implements Message<String> {
 		private final String payload;
 
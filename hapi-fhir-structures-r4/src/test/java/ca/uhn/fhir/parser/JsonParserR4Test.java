@@ -62,6 +62,7 @@ import jakarta.annotation.Nonnull;
 import org.testcontainers.shaded.com.trilead.ssh2.packets.PacketDisconnect;
 
 import java.io.IOException;
+import java.io.StringReader;
 import java.sql.Ref;
 import java.util.ArrayList;
 import java.util.Date;
@@ -101,6 +102,106 @@ public class JsonParserR4Test extends BaseTest {
 	@AfterEach
 	public void afterEach() {
 		ourCtx.getParserOptions().setAutoContainReferenceTargetsWithNoId(true);
+		ourCtx.getParserOptions().setStreamingJsonParsing(false);
+	}
+
+	static Bundle createTransactionBundleWithContainedResources(int theCount) {
+		Bundle retVal = new Bundle();
+		retVal.setType(Bundle.BundleType.TRANSACTION);
+		retVal.getMeta().addProfile("http://FOO");
+		for (int i = 0; i < theCount; i++) {
+			Patient patient = new Patient();
+			patient.setId("Patient/P" + i);
+			patient.addName().setFamily("FAMILY" + i).addGivenElement().setValue("GIVEN" + i).addExtension("http://ext", new StringType("EXT" + i));
+			patient.addIdentifier().setSystem("http://system").setValue("VALUE" + i);
+			Organization org = new Organization();
+			org.setId("#org");
+			org.setName("ORG" + i);
+			patient.getContained().add(org);
+			patient.getManagingOrganization().setReference("#org");
+			retVal.addEntry().setFullUrl("http://example.com/Patient/P" + i).setResource(patient).getRequest().setMethod(Bundle.HTTPVerb.PUT).setUrl("Patient/P" + i);
+		}
+		// An entry with no resource
+		retVal.addEntry().getRequest().setMethod(Bundle.HTTPVerb.DELETE).setUrl("Patient/DELETED");
+		return retVal;
+	}
+
+	@Test
+	public void testParseBundle_StreamingParsing() {
+		Bundle input = createTransactionBundleWithContainedResources(10);
+		String encoded = ourCtx.newJsonParser().encodeResourceToString(input);
+
+		Bundle expected = ourCtx.newJsonParser().parseResource(Bundle.class, encoded);
+		ourCtx.getParserOptions().setStreamingJsonParsing(true);
+		Bundle actual = ourCtx.newJsonParser().parseResource(Bundle.class, encoded);
+
+		assertEquals(11, actual.getEntry().size());
+		assertTrue(expected.equalsDeep(actual));
+		Patient patient = (Patient) actual.getEntry().get(3).getResource();
+		assertEquals("Patient/P3", patient.getIdElement().toUnqualifiedVersionless().getValue());
+		assertEquals("ORG3", ((Organization) patient.getManagingOrganization().getResource()).getName());
+		assertEquals("EXT3", patient.getNameFirstRep().getGiven().get(0).getExtensionString("http://ext"));
+		assertEquals(ourCtx.newJsonParser().encodeResourceToString(expected), ourCtx.newJsonParser().encodeResourceToString(actual));
+	}
+
+	@Test
+	public void testParseBundle_StreamingParsing_ResourceTypeNotFirst() {
+		String input = "{\"entry\":[{\"resource\":{\"resourceType\":\"Patient\",\"active\":true}}],\"type\":\"collection\",\"resourceType\":\"Bundle\"}";
+
+		ourCtx.getParserOptions().setStreamingJsonParsing(true);
+		Bundle actual = ourCtx.newJsonParser().parseResource(Bundle.class, input);
+
+		assertEquals(Bundle.BundleType.COLLECTION, actual.getType());
+		assertTrue(((Patient) actual.getEntry().get(0).getResource()).getActive());
+	}
+
+	@Test
+	public void testParseBundleEntries() {
+		Bundle input = createTransactionBundleWithContainedResources(10);
+		String encoded = ourCtx.newJsonParser().encodeResourceToString(input);
+		Bundle expected = ourCtx.newJsonParser().parseResource(Bundle.class, encoded);
+
+		List<IBaseResource> actual = new ArrayList<>();
+		ourCtx.newJsonParser().parseBundleEntries(new StringReader(encoded), actual::add);
+
+		assertEquals(10, actual.size());
+		for (int i = 0; i < actual.size(); i++) {
+			Patient expectedPatient = (Patient) expected.getEntry().get(i).getResource();
+			Patient actualPatient = (Patient) actual.get(i);
+			assertTrue(expectedPatient.equalsDeep(actualPatient));
+			assertEquals(expectedPatient.getIdElement().getValue(), actualPatient.getIdElement().getValue());
+			assertEquals("ORG" + i, ((Organization) actualPatient.getManagingOrganization().getResource()).getName());
+		}
+	}
+
+	@Test
+	public void testParseBundleEntries_NotABundle() {
+		try {
+			ourCtx.newJsonParser().parseBundleEntries(new StringReader("{\"resourceType\":\"Patient\",\"name\":[{\"family\":\"A\"}]}"), t -> fail());
+			fail();
+		} catch (DataFormatException e) {
+			assertThat(e.getMessage()).contains(Msg.code(2600));
+		}
+	}
+
+	@Test
+	public void testParseResource_StreamingParsing_InvalidContent() {
+		ourCtx.getParserOptions().setStreamingJsonParsing(true);
+		IParser parser = ourCtx.newJsonParser();
+
+		try {
+			parser.parseResource(Bundle.class, "[]");
+			fail();
+		} catch (DataFormatException e) {
+			assertThat(e.getMessage()).contains(Msg.code(2594));
+		}
+
+		try {
+			parser.parseResource(Bundle.class, "{\"type\":\"collection\"}");
+			fail();
+		} catch (DataFormatException e) {
+			assertThat(e.getMessage()).contains(Msg.code(1838));
+		}
 	}
 
 	@Test
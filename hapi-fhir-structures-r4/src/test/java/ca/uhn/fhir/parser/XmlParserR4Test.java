@@ -5,6 +5,7 @@ import ca.uhn.fhir.test.BaseTest;
 import ca.uhn.fhir.util.ClasspathUtil;
 import com.google.common.base.Charsets;
 import com.google.common.io.Resources;
+import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.r4.model.Appointment;
 import org.hl7.fhir.r4.model.AuditEvent;
 import org.hl7.fhir.r4.model.Bundle;
@@ -27,17 +28,52 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.StringReader;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
 
 import static ca.uhn.fhir.parser.JsonParserR4Test.createBundleWithCrossReferenceFullUrlsAndNoIds;
 import static ca.uhn.fhir.parser.JsonParserR4Test.createBundleWithCrossReferenceFullUrlsAndNoIds_NestedInParameters;
+import static ca.uhn.fhir.parser.JsonParserR4Test.createTransactionBundleWithContainedResources;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
 
 public class XmlParserR4Test extends BaseTest {
 	private static final Logger ourLog = LoggerFactory.getLogger(XmlParserR4Test.class);
 	private static FhirContext ourCtx = FhirContext.forR4();
+
+	@Test
+	public void testParseBundleEntries() {
+		Bundle input = createTransactionBundleWithContainedResources(10);
+		String encoded = ourCtx.newXmlParser().setPrettyPrint(true).encodeResourceToString(input);
+		Bundle expected = ourCtx.newXmlParser().parseResource(Bundle.class, encoded);
+
+		List<IBaseResource> actual = new ArrayList<>();
+		ourCtx.newXmlParser().parseBundleEntries(new StringReader(encoded), actual::add);
+
+		assertEquals(10, actual.size());
+		for (int i = 0; i < actual.size(); i++) {
+			Patient expectedPatient = (Patient) expected.getEntry().get(i).getResource();
+			Patient actualPatient = (Patient) actual.get(i);
+			assertTrue(expectedPatient.equalsDeep(actualPatient));
+			assertEquals(expectedPatient.getIdElement().getValue(), actualPatient.getIdElement().getValue());
+			assertEquals("ORG" + i, ((Organization) actualPatient.getManagingOrganization().getResource()).getName());
+		}
+	}
+
+	@Test
+	public void testParseBundleEntries_NotABundle() {
+		try {
+			ourCtx.newXmlParser().parseBundleEntries(new StringReader("<Patient xmlns=\"http://hl7.org/fhir\"/>"), t -> fail());
+			fail();
+		} catch (DataFormatException e) {
+			assertThat(e.getMessage()).contains("HAPI-2597");
+		}
+	}
 	
 	
 	private Composition createComposition(String sectionText) {
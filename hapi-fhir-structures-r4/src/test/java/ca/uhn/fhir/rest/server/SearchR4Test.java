@@ -6,6 +6,7 @@ import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.model.api.ResourceMetadataKeyEnum;
 import ca.uhn.fhir.model.valueset.BundleEntrySearchModeEnum;
 import ca.uhn.fhir.narrative.DefaultThymeleafNarrativeGenerator;
+import ca.uhn.fhir.parser.IParser;
 import ca.uhn.fhir.rest.annotation.IncludeParam;
 import ca.uhn.fhir.rest.annotation.OptionalParam;
 import ca.uhn.fhir.rest.annotation.Search;
@@ -83,6 +84,7 @@ public class SearchR4Test {
 	@AfterEach
 	public void after() {
 		myCtx.setNarrativeGenerator(null);
+		myRestfulServerExtension.getRestfulServer().setStreamingBundleResponses(false);
 	}
 
 	private Bundle executeSearchAndValidateHasLinkNext(HttpGet httpGet, EncodingEnum theExpectEncoding) throws IOException {
@@ -137,6 +139,34 @@ public class SearchR4Test {
 	}
 
 
+	@Test
+	public void testStreamingBundleResponses() throws Exception {
+		HttpGet httpGet = new HttpGet("http://localhost:" + myPort + "/Patient?identifier=foo%7Cbar&_count=50");
+		Bundle expected = executeSearch(httpGet, EncodingEnum.JSON);
+
+		myRestfulServerExtension.getRestfulServer().setStreamingBundleResponses(true);
+		Bundle actual = executeSearch(httpGet, EncodingEnum.JSON);
+
+		assertEquals(expected.getType(), actual.getType());
+		assertEquals(expected.getTotal(), actual.getTotal());
+		assertEquals(expected.getLink().size(), actual.getLink().size());
+		assertThat(actual.getEntry()).hasSize(50);
+		IParser parser = myCtx.newJsonParser();
+		for (int i = 0; i < expected.getEntry().size(); i++) {
+			assertEquals(parser.encodeToString(expected.getEntry().get(i)), parser.encodeToString(actual.getEntry().get(i)));
+		}
+	}
+
+	@Test
+	public void testStreamingBundleResponses_SummaryCount() throws Exception {
+		myRestfulServerExtension.getRestfulServer().setStreamingBundleResponses(true);
+
+		HttpGet httpGet = new HttpGet("http://localhost:" + myPort + "/Patient?identifier=foo%7Cbar&" + Constants.PARAM_SUMMARY + "=" + SummaryEnum.COUNT.getCode());
+		Bundle bundle = executeSearch(httpGet, EncodingEnum.JSON);
+		assertEquals(200, bundle.getTotal());
+		assertThat(bundle.getEntry()).isEmpty();
+	}
+
 	@Test
 	public void testPagingPreservesElements() throws Exception {
 		HttpGet httpGet;
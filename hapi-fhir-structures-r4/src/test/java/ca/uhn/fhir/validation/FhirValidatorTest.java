@@ -1,13 +1,22 @@
 package ca.uhn.fhir.validation;
 
 import ca.uhn.fhir.context.FhirContext;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Composition;
 import org.hl7.fhir.r4.model.Observation;
 import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Reference;
 import org.hl7.fhir.r4.model.StringType;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class FhirValidatorTest {
 	FhirContext ourFhirContext = FhirContext.forR4Cached();
@@ -33,4 +42,89 @@ public class FhirValidatorTest {
 		assertThat(patient.getContained()).hasSize(1);
 		assertEquals("heavy", ((Observation) patient.getContained().get(0)).getValue().toString());
 	}
+
+	@Test
+	public void testCreateBundleWithoutEntryResources() {
+		// setup
+		FhirValidator validator = new FhirValidator(ourFhirContext);
+		Bundle bundle = new Bundle();
+		bundle.setId("BUNDLE");
+		bundle.setType(Bundle.BundleType.TRANSACTION);
+		Patient patient = new Patient();
+		patient.setId("Patient/A/_history/2");
+		patient.addName().addGiven("bob");
+		bundle.addEntry()
+			.setFullUrl("http://example.com/Patient/A")
+			.setResource(patient)
+			.getRequest().setMethod(Bundle.HTTPVerb.PUT).setUrl("Patient/A");
+
+		// run
+		Bundle copy = (Bundle) validator.createBundleWithoutEntryResources(bundle);
+
+		// check
+		assertEquals("BUNDLE", copy.getIdElement().getIdPart());
+		assertEquals(Bundle.BundleType.TRANSACTION, copy.getType());
+		assertThat(copy.getEntry()).hasSize(1);
+		assertEquals("http://example.com/Patient/A", copy.getEntry().get(0).getFullUrl());
+		assertEquals("Patient/A", copy.getEntry().get(0).getRequest().getUrl());
+		Patient placeholder = (Patient) copy.getEntry().get(0).getResource();
+		assertEquals("Patient/A/_history/2", placeholder.getIdElement().getValue());
+		assertThat(placeholder.getName()).isEmpty();
+
+		// The original is untouched
+		assertThat(bundle.getEntry().get(0).getResource()).isSameAs(patient);
+		assertEquals("bob", patient.getNameFirstRep().getGivenAsSingleString());
+	}
+
+	@Test
+	public void testCreateBundleWithoutEntryResourcesKeepsReferences() {
+		// setup
+		FhirValidator validator = new FhirValidator(ourFhirContext);
+		Bundle bundle = new Bundle();
+		bundle.setType(Bundle.BundleType.DOCUMENT);
+		Composition composition = new Composition();
+		composition.setStatus(Composition.CompositionStatus.FINAL);
+		composition.getType().setText("Summary");
+		composition.setSubject(new Reference("urn:uuid:patient"));
+		composition.addAuthor(new Reference("Practitioner/A"));
+		composition.addSection().setTitle("Empty");
+		composition.addSection().setTitle("Results").addEntry(new Reference("urn:uuid:observation"));
+		bundle.addEntry().setFullUrl("urn:uuid:composition").setResource(composition);
+
+		// run
+		List<FhirValidator.BundleEntryReference> references = new ArrayList<>();
+		Bundle copy = (Bundle) validator.createBundleWithoutEntryResources(bundle, references);
+
+		// check
+		Composition placeholder = (Composition) copy.getEntry().get(0).getResource();
+		assertEquals("urn:uuid:patient", placeholder.getSubject().getReference());
+		assertEquals("Practitioner/A", placeholder.getAuthorFirstRep().getReference());
+		assertNull(placeholder.getStatus());
+		assertTrue(placeholder.getType().isEmpty());
+		// Only the section containing a reference is kept
+		assertThat(placeholder.getSection()).hasSize(1);
+		assertNull(placeholder.getSectionFirstRep().getTitle());
+		assertEquals("urn:uuid:observation", placeholder.getSectionFirstRep().getEntryFirstRep().getReference());
+		assertThat(references)
+			.extracting(FhirValidator.BundleEntryReference::getPath)
+			.containsExactly(
+				"Bundle.entry[0].resource.ofType(Composition).subject",
+				"Bundle.entry[0].resource.ofType(Composition).author[0]",
+				"Bundle.entry[0].resource.ofType(Composition).section[1].entry[0]");
+
+		// The original is untouched
+		assertEquals("Summary", composition.getType().getText());
+		assertThat(composition.getSection()).hasSize(2);
+	}
+
+	@Test
+	public void testIsLocatedInBundleEntryResource() {
+		assertTrue(FhirValidator.isLocatedInBundleEntryResource("Bundle.entry[0].resource"));
+		assertTrue(FhirValidator.isLocatedInBundleEntryResource("Bundle.entry[12].resource.ofType(Patient).name[0]"));
+		assertTrue(FhirValidator.isLocatedInBundleEntryResource("Bundle.entry[1].resource/*Patient/A*/.name"));
+		assertFalse(FhirValidator.isLocatedInBundleEntryResource("Bundle"));
+		assertFalse(FhirValidator.isLocatedInBundleEntryResource("Bundle.entry[0]"));
+		assertFalse(FhirValidator.isLocatedInBundleEntryResource("Bundle.entry[0].request"));
+		assertFalse(FhirValidator.isLocatedInBundleEntryResource(null));
+	}
 }
@@ -1,6 +1,7 @@
 package org.hl7.fhir.common.hapi.validation.support;
 
 import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.support.CodeValidationRequest;
 import ca.uhn.fhir.context.support.ConceptValidationOptions;
 import ca.uhn.fhir.context.support.IValidationSupport;
 import ca.uhn.fhir.context.support.LookupCodeRequest;
@@ -97,6 +98,17 @@ public abstract class BaseValidationSupportWrapper extends BaseValidationSupport
 				theValidationSupportContext, theValidationOptions, theCodeSystem, theCode, theDisplay, theValueSet);
 	}
 
+	@Nonnull
+	@Override
+	public List<IValidationSupport.CodeValidationResult> validateCodesInValueSet(
+			ValidationSupportContext theValidationSupportContext,
+			ConceptValidationOptions theValidationOptions,
+			@Nonnull List<CodeValidationRequest> theRequests,
+			@Nonnull IBaseResource theValueSet) {
+		return myWrap.validateCodesInValueSet(
+				theValidationSupportContext, theValidationOptions, theRequests, theValueSet);
+	}
+
 	@Override
 	public LookupCodeResult lookupCode(
 			ValidationSupportContext theValidationSupportContext, @Nonnull LookupCodeRequest theLookupCodeRequest) {
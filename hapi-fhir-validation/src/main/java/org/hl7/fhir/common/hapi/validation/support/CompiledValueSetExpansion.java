@@ -0,0 +1,148 @@
+package org.hl7.fhir.common.hapi.validation.support;
+
+import ca.uhn.fhir.util.FhirVersionIndependentConcept;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.apache.commons.lang3.StringUtils.defaultString;
+
+/**
+ * An immutable, compiled form of a ValueSet expansion which allows codes to be looked up
+ * without scanning the whole expansion. Concepts are grouped by CodeSystem URL, and each
+ * group is indexed in an open-addressed hash table keyed by the lower-cased code (so that
+ * lookups work for both case-sensitive and case-insensitive CodeSystems). Each concept
+ * carries its display name, so a lookup also provides the display for validation.
+ * <p>
+ * Instances are safe to share between threads.
+ * </p>
+ *
+ * @since 7.8.0
+ */
+final class CompiledValueSetExpansion {
+
+	/**
+	 * Marker for a ValueSet which could not be completely expanded in memory, so that
+	 * the expansion isn't attempted again for every code
+	 */
+	static final CompiledValueSetExpansion NOT_AVAILABLE = new CompiledValueSetExpansion(Collections.emptyList());
+
+	private final Map<String, CodeTable> mySystemToCodeTable;
+	private final int mySize;
+
+	CompiledValueSetExpansion(@Nonnull List<FhirVersionIndependentConcept> theConcepts) {
+		Map<String, List<FhirVersionIndependentConcept>> systemToConcepts = new HashMap<>();
+		for (FhirVersionIndependentConcept next : theConcepts) {
+			systemToConcepts.computeIfAbsent(defaultString(next.getSystem()), t -> new ArrayList<>()).add(next);
+		}
+
+		Map<String, CodeTable> systemToCodeTable = new HashMap<>(systemToConcepts.size() * 2);
+		for (Map.Entry<String, List<FhirVersionIndependentConcept>> next : systemToConcepts.entrySet()) {
+			systemToCodeTable.put(next.getKey(), new CodeTable(next.getValue()));
+		}
+
+		mySystemToCodeTable = systemToCodeTable;
+		mySize = theConcepts.size();
+	}
+
+	/**
+	 * @return The number of concepts in this expansion
+	 */
+	int size() {
+		return mySize;
+	}
+
+	/**
+	 * Returns all concepts in the expansion whose code matches the given code, ignoring
+	 * case. Callers are expected to apply case sensitivity, system version and display
+	 * checks to the (generally very small) returned list.
+	 *
+	 * @param theSystemUrl The CodeSystem URL (without version) to search, or <code>null</code> to
+	 *                     search all CodeSystems in the expansion
+	 * @param theCode      The code
+	 */
+	@Nonnull
+	List<FhirVersionIndependentConcept> findConcepts(@Nullable String theSystemUrl, @Nullable String theCode) {
+		if (theCode == null) {
+			return Collections.emptyList();
+		}
+		String key = toKey(theCode);
+
+		if (theSystemUrl != null) {
+			CodeTable table = mySystemToCodeTable.get(theSystemUrl);
+			if (table == null) {
+				return Collections.emptyList();
+			}
+			return table.find(key);
+		}
+
+		List<FhirVersionIndependentConcept> retVal = new ArrayList<>();
+		for (CodeTable next : mySystemToCodeTable.values()) {
+			retVal.addAll(next.find(key));
+		}
+		return retVal;
+	}
+
+	private static String toKey(String theCode) {
+		return theCode.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Open-addressed (linear probing) hash table of the concepts belonging to one CodeSystem.
+	 * The capacity is always a power of two and at least twice the number of concepts, so
+	 * probe sequences stay short and always terminate at an empty slot.
+	 */
+	private static final class CodeTable {
+
+		private final String[] myKeys;
+		private final FhirVersionIndependentConcept[] myConcepts;
+		private final int myMask;
+
+		private CodeTable(List<FhirVersionIndependentConcept> theConcepts) {
+			int capacity = Integer.highestOneBit(Math.max(theConcepts.size(), 1) * 2 - 1) << 1;
+			myKeys = new String[capacity];
+			myConcepts = new FhirVersionIndependentConcept[capacity];
+			myMask = capacity - 1;
+
+			for (FhirVersionIndependentConcept next : theConcepts) {
+				String key = toKey(defaultString(next.getCode()));
+				int index = indexFor(key);
+				while (myKeys[index] != null) {
+					index = (index + 1) & myMask;
+				}
+				myKeys[index] = key;
+				myConcepts[index] = next;
+			}
+		}
+
+		private List<FhirVersionIndependentConcept> find(String theKey) {
+			List<FhirVersionIndependentConcept> retVal = null;
+			int index = indexFor(theKey);
+			while (myKeys[index] != null) {
+				if (myKeys[index].equals(theKey)) {
+					if (retVal == null) {
+						retVal = new ArrayList<>(1);
+					}
+					retVal.add(myConcepts[index]);
+				}
+				index = (index + 1) & myMask;
+			}
+			return retVal != null ? retVal : Collections.emptyList();
+		}
+
+		/**
+		 * Spreads the high bits of the hash code into the low bits used by the mask,
+		 * in the same way as {@link HashMap}
+		 */
+		private int indexFor(String theKey) {
+			int hash = theKey.hashCode();
+			return (hash ^ (hash >>> 16)) & myMask;
+		}
+	}
+}
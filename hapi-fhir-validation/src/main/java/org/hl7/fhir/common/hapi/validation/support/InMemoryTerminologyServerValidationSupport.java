@@ -2,6 +2,7 @@ package org.hl7.fhir.common.hapi.validation.support;
 
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.context.support.CodeValidationRequest;
 import ca.uhn.fhir.context.support.ConceptValidationOptions;
 import ca.uhn.fhir.context.support.IValidationSupport;
 import ca.uhn.fhir.context.support.LookupCodeRequest;
@@ -11,6 +12,8 @@ import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.parser.IParser;
 import ca.uhn.fhir.util.FhirVersionIndependentConcept;
 import ca.uhn.hapi.converters.canonical.VersionCanonicalizer;
+import com.google.common.collect.MapMaker;
+import com.google.common.hash.Hashing;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.Validate;
@@ -28,14 +31,24 @@ import org.hl7.fhir.instance.model.api.IPrimitiveType;
 import org.hl7.fhir.r5.model.CanonicalType;
 import org.hl7.fhir.r5.model.CodeSystem;
 import org.hl7.fhir.r5.model.Enumerations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -56,10 +69,43 @@ import static org.hl7.fhir.common.hapi.validation.support.CommonCodeSystemsTermi
  */
 @SuppressWarnings("EnhancedSwitchMigration")
 public class InMemoryTerminologyServerValidationSupport implements IValidationSupport {
+	/**
+	 * Default value for {@link #setCompiledValueSetMaxConcepts(int)}
+	 *
+	 * @since 7.8.0
+	 */
+	public static final int DEFAULT_COMPILED_VALUESET_MAX_CONCEPTS = 1_000_000;
+
+	/**
+	 * Default value for {@link #setCompiledValueSetCacheTimeout(Duration)}. This is the same as the
+	 * timeout used by {@link ValidationSupportChain.CacheConfiguration#defaultValues()}.
+	 *
+	 * @since 7.8.0
+	 */
+	public static final Duration DEFAULT_COMPILED_VALUESET_CACHE_TIMEOUT =
+			Duration.ofMillis(ValidationSupportChain.CacheConfiguration.defaultValues().getCacheTimeout());
+
+	private static final Logger ourLog = LoggerFactory.getLogger(InMemoryTerminologyServerValidationSupport.class);
 	private static final String OUR_PIPE_CHARACTER = "|";
 	private final FhirContext myCtx;
 	private final VersionCanonicalizer myVersionCanonicalizer;
 	private IssueSeverity myIssueSeverityForCodeDisplayMismatch = IssueSeverity.WARNING;
+	private final LinkedHashMap<String, CompiledExpansionCacheEntry> myCompiledExpansions =
+			new LinkedHashMap<>(16, 0.75f, true);
+	/**
+	 * Expansions which are currently being compiled, so that concurrent callers for the same
+	 * ValueSet wait for a single compilation. Guarded by {@link #myCompiledExpansions}.
+	 */
+	private final Map<String, CompletableFuture<CompiledValueSetExpansion>> myCompiledExpansionsInProgress =
+			new HashMap<>();
+	/**
+	 * Content hashes of the ValueSet instances we've seen, keyed by instance identity so that
+	 * each instance is only encoded once
+	 */
+	private final Map<IBaseResource, String> myValueSetContentHashes = new MapMaker().weakKeys().makeMap();
+	private long myCompiledExpansionsConceptCount;
+	private volatile int myCompiledValueSetMaxConcepts = DEFAULT_COMPILED_VALUESET_MAX_CONCEPTS;
+	private volatile long myCompiledValueSetCacheTimeoutMillis = DEFAULT_COMPILED_VALUESET_CACHE_TIMEOUT.toMillis();
 
 	/**
 	 * Constructor
@@ -110,6 +156,68 @@ public class InMemoryTerminologyServerValidationSupport implements IValidationSu
 		myIssueSeverityForCodeDisplayMismatch = theIssueSeverityForCodeDisplayMismatch;
 	}
 
+	/**
+	 * Code validation against a ValueSet uses a compiled, hash-indexed form of the complete
+	 * ValueSet expansion, which is built once per ValueSet version and content, and reused until
+	 * it expires (see {@link #setCompiledValueSetCacheTimeout(Duration)}) or
+	 * {@link #invalidateCaches()} is called. This setting caps the total number of concepts
+	 * held in compiled expansions; the least recently used expansions are discarded when the
+	 * cap is exceeded. Set to <code>0</code> to disable compiled expansions. Defaults to
+	 * {@value #DEFAULT_COMPILED_VALUESET_MAX_CONCEPTS}.
+	 *
+	 * @since 7.8.0
+	 */
+	public int getCompiledValueSetMaxConcepts() {
+		return myCompiledValueSetMaxConcepts;
+	}
+
+	/**
+	 * Code validation against a ValueSet uses a compiled, hash-indexed form of the complete
+	 * ValueSet expansion, which is built once per ValueSet version and content, and reused until
+	 * it expires (see {@link #setCompiledValueSetCacheTimeout(Duration)}) or
+	 * {@link #invalidateCaches()} is called. This setting caps the total number of concepts
+	 * held in compiled expansions; the least recently used expansions are discarded when the
+	 * cap is exceeded. Set to <code>0</code> to disable compiled expansions. Defaults to
+	 * {@value #DEFAULT_COMPILED_VALUESET_MAX_CONCEPTS}.
+	 *
+	 * @since 7.8.0
+	 */
+	public void setCompiledValueSetMaxConcepts(int theCompiledValueSetMaxConcepts) {
+		Validate.isTrue(theCompiledValueSetMaxConcepts >= 0, "theCompiledValueSetMaxConcepts must not be negative");
+		myCompiledValueSetMaxConcepts = theCompiledValueSetMaxConcepts;
+		invalidateCaches();
+	}
+
+	/**
+	 * Compiled ValueSet expansions (see {@link #setCompiledValueSetMaxConcepts(int)}) are discarded
+	 * once this much time has passed since they were compiled, so that changes to the CodeSystems
+	 * they draw their codes from are eventually picked up. Defaults to
+	 * {@link #DEFAULT_COMPILED_VALUESET_CACHE_TIMEOUT}, which matches the default cache timeout
+	 * of {@link ValidationSupportChain}.
+	 *
+	 * @since 7.8.0
+	 */
+	public Duration getCompiledValueSetCacheTimeout() {
+		return Duration.ofMillis(myCompiledValueSetCacheTimeoutMillis);
+	}
+
+	/**
+	 * Compiled ValueSet expansions (see {@link #setCompiledValueSetMaxConcepts(int)}) are discarded
+	 * once this much time has passed since they were compiled, so that changes to the CodeSystems
+	 * they draw their codes from are eventually picked up. Defaults to
+	 * {@link #DEFAULT_COMPILED_VALUESET_CACHE_TIMEOUT}, which matches the default cache timeout
+	 * of {@link ValidationSupportChain}.
+	 *
+	 * @since 7.8.0
+	 */
+	public void setCompiledValueSetCacheTimeout(@Nonnull Duration theCompiledValueSetCacheTimeout) {
+		Validate.notNull(theCompiledValueSetCacheTimeout, "theCompiledValueSetCacheTimeout must not be null");
+		Validate.isTrue(
+				!theCompiledValueSetCacheTimeout.isNegative(), "theCompiledValueSetCacheTimeout must not be negative");
+		myCompiledValueSetCacheTimeoutMillis = theCompiledValueSetCacheTimeout.toMillis();
+		invalidateCaches();
+	}
+
 	@Override
 	public FhirContext getFhirContext() {
 		return myCtx;
@@ -251,8 +359,41 @@ public class InMemoryTerminologyServerValidationSupport implements IValidationSu
 			String theCode,
 			String theDisplay,
 			@Nonnull IBaseResource theValueSet) {
-		ValueSetAndMessages expansion;
 		String vsUrl = CommonCodeSystemsTerminologyService.getValueSetUrl(getFhirContext(), theValueSet);
+
+		CompiledValueSetExpansion compiledExpansion =
+				getCompiledExpansion(theValidationSupportContext, theValueSet, vsUrl);
+		CodeValidationResult compiledResult = validateCodeInCompiledExpansion(
+				theValidationSupportContext,
+				theOptions,
+				theCodeSystemUrlAndVersion,
+				theCode,
+				theDisplay,
+				compiledExpansion,
+				vsUrl);
+		if (compiledResult != null) {
+			return compiledResult;
+		}
+
+		return validateCodeInValueSetExpansion(
+				theValidationSupportContext,
+				theOptions,
+				theCodeSystemUrlAndVersion,
+				theCode,
+				theDisplay,
+				theValueSet,
+				vsUrl);
+	}
+
+	private CodeValidationResult validateCodeInValueSetExpansion(
+			ValidationSupportContext theValidationSupportContext,
+			ConceptValidationOptions theOptions,
+			String theCodeSystemUrlAndVersion,
+			String theCode,
+			String theDisplay,
+			IBaseResource theValueSet,
+			String vsUrl) {
+		ValueSetAndMessages expansion;
 		try {
 			expansion = expandValueSetToCanonical(
 					theValidationSupportContext, theValueSet, theCodeSystemUrlAndVersion, theCode);
@@ -302,6 +443,260 @@ public class InMemoryTerminologyServerValidationSupport implements IValidationSu
 				vsUrl);
 	}
 
+	/**
+	 * Validates all of the given codes against a single compiled expansion of the ValueSet.
+	 * Codes which are not found in the compiled expansion (or all codes, if the ValueSet can
+	 * not be completely expanded in memory) are validated individually, so that the resulting
+	 * messages are identical to {@link #validateCodeInValueSet}.
+	 */
+	@Nonnull
+	@Override
+	public List<CodeValidationResult> validateCodesInValueSet(
+			ValidationSupportContext theValidationSupportContext,
+			ConceptValidationOptions theOptions,
+			@Nonnull List<CodeValidationRequest> theRequests,
+			@Nonnull IBaseResource theValueSet) {
+		String vsUrl = CommonCodeSystemsTerminologyService.getValueSetUrl(getFhirContext(), theValueSet);
+
+		CompiledValueSetExpansion compiledExpansion =
+				getCompiledExpansion(theValidationSupportContext, theValueSet, vsUrl);
+		if (compiledExpansion == null && theRequests.size() > 1) {
+			// Not cacheable, but still worth compiling once for the whole group
+			compiledExpansion = compileExpansion(theValidationSupportContext, theValueSet);
+		}
+
+		List<CodeValidationResult> retVal = new ArrayList<>(theRequests.size());
+		for (CodeValidationRequest next : theRequests) {
+			CodeValidationResult result = validateCodeInCompiledExpansion(
+					theValidationSupportContext,
+					theOptions,
+					next.getSystem(),
+					next.getCode(),
+					next.getDisplay(),
+					compiledExpansion,
+					vsUrl);
+			if (result == null) {
+				result = validateCodeInValueSetExpansion(
+						theValidationSupportContext,
+						theOptions,
+						next.getSystem(),
+						next.getCode(),
+						next.getDisplay(),
+						theValueSet,
+						vsUrl);
+			}
+			retVal.add(result);
+		}
+		return retVal;
+	}
+
+	/**
+	 * Returns a successful (or display mismatch) result if the code is present in the compiled
+	 * expansion, or <code>null</code> if the code is not found or no compiled expansion is available.
+	 */
+	@Nullable
+	private CodeValidationResult validateCodeInCompiledExpansion(
+			ValidationSupportContext theValidationSupportContext,
+			ConceptValidationOptions theOptions,
+			String theCodeSystemUrlAndVersion,
+			String theCode,
+			String theDisplay,
+			@Nullable CompiledValueSetExpansion theCompiledExpansion,
+			String theValueSetUrl) {
+		if (theCompiledExpansion == null || theCompiledExpansion.size() == 0 || isBlank(theCode)) {
+			return null;
+		}
+
+		String systemUrl = null;
+		if (!theOptions.isInferSystem() && isNotBlank(theCodeSystemUrlAndVersion)) {
+			systemUrl = substringBefore(theCodeSystemUrlAndVersion, OUR_PIPE_CHARACTER);
+		}
+		List<FhirVersionIndependentConcept> candidates = theCompiledExpansion.findConcepts(systemUrl, theCode);
+		if (candidates.isEmpty()) {
+			return null;
+		}
+
+		return validateCodeInExpansionCodes(
+				theValidationSupportContext,
+				theOptions,
+				theCodeSystemUrlAndVersion,
+				theCode,
+				theDisplay,
+				candidates,
+				theValueSetUrl,
+				true);
+	}
+
+	/**
+	 * Returns the cached compiled expansion for the given ValueSet, compiling (and caching) it
+	 * if necessary. Returns <code>null</code> if compiled expansions are disabled or the
+	 * ValueSet has no URL to cache it under.
+	 */
+	@Nullable
+	private CompiledValueSetExpansion getCompiledExpansion(
+			ValidationSupportContext theValidationSupportContext, IBaseResource theValueSet, String theValueSetUrl) {
+		int maxConcepts = myCompiledValueSetMaxConcepts;
+		if (maxConcepts <= 0 || isBlank(theValueSetUrl)) {
+			return null;
+		}
+
+		String key = theValueSetUrl
+				+ OUR_PIPE_CHARACTER
+				+ defaultString(getValueSetVersion(theValueSet))
+				+ OUR_PIPE_CHARACTER
+				+ defaultString(theValueSet.getIdElement().getVersionIdPart())
+				+ OUR_PIPE_CHARACTER
+				+ getValueSetContentHash(theValueSet);
+
+		long now = System.currentTimeMillis();
+		CompletableFuture<CompiledValueSetExpansion> future;
+		boolean compileHere = false;
+		synchronized (myCompiledExpansions) {
+			CompiledExpansionCacheEntry cached = myCompiledExpansions.get(key);
+			if (cached != null) {
+				if (cached.myExpiryTime > now) {
+					return cached.myExpansion;
+				}
+				myCompiledExpansions.remove(key);
+				myCompiledExpansionsConceptCount -= getCacheWeight(cached.myExpansion);
+			}
+
+			future = myCompiledExpansionsInProgress.get(key);
+			if (future == null) {
+				future = new CompletableFuture<>();
+				myCompiledExpansionsInProgress.put(key, future);
+				compileHere = true;
+			}
+		}
+
+		if (!compileHere) {
+			// Another thread is already compiling this ValueSet, so wait for it instead of compiling it again
+			return awaitCompiledExpansion(future);
+		}
+
+		CompiledValueSetExpansion retVal;
+		try {
+			retVal = compileExpansion(theValidationSupportContext, theValueSet);
+		} catch (RuntimeException e) {
+			synchronized (myCompiledExpansions) {
+				myCompiledExpansionsInProgress.remove(key, future);
+			}
+			future.completeExceptionally(e);
+			throw e;
+		}
+
+		if (retVal.size() > maxConcepts) {
+			// Too large to keep, so remember that this ValueSet should be validated the
+			// normal way instead of repeating the full expansion for every code
+			ourLog.debug(
+					"In-memory expansion of ValueSet {} has {} codes, exceeding the compiled expansion cap of {}",
+					theValueSetUrl,
+					retVal.size(),
+					maxConcepts);
+			retVal = CompiledValueSetExpansion.NOT_AVAILABLE;
+		}
+
+		CompiledExpansionCacheEntry entry =
+				new CompiledExpansionCacheEntry(retVal, now + myCompiledValueSetCacheTimeoutMillis);
+		synchronized (myCompiledExpansions) {
+			myCompiledExpansionsInProgress.remove(key, future);
+			CompiledExpansionCacheEntry previous = myCompiledExpansions.put(key, entry);
+			if (previous != null) {
+				myCompiledExpansionsConceptCount -= getCacheWeight(previous.myExpansion);
+			}
+			myCompiledExpansionsConceptCount += getCacheWeight(retVal);
+
+			// Evict expired and least recently used expansions until we are back under the cap
+			Iterator<CompiledExpansionCacheEntry> iterator = myCompiledExpansions.values().iterator();
+			while (iterator.hasNext()) {
+				CompiledExpansionCacheEntry next = iterator.next();
+				boolean overCap = myCompiledExpansionsConceptCount > maxConcepts;
+				if (next != entry && (overCap || next.myExpiryTime <= now)) {
+					myCompiledExpansionsConceptCount -= getCacheWeight(next.myExpansion);
+					iterator.remove();
+				} else if (!overCap) {
+					break;
+				}
+			}
+		}
+		future.complete(retVal);
+
+		return retVal;
+	}
+
+	private static CompiledValueSetExpansion awaitCompiledExpansion(
+			CompletableFuture<CompiledValueSetExpansion> theFuture) {
+		try {
+			return theFuture.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns a hash of the complete ValueSet content, so that two ValueSets with the same URL
+	 * and version but different content never share a compiled expansion
+	 */
+	private String getValueSetContentHash(IBaseResource theValueSet) {
+		return myValueSetContentHashes.computeIfAbsent(theValueSet, t -> {
+			FhirContext ctx = getFhirVersionEnum(myCtx, t).newContextCached();
+			String encoded = ctx.newJsonParser().encodeResourceToString(t);
+			return Hashing.sha256().hashString(encoded, StandardCharsets.UTF_8).toString();
+		});
+	}
+
+	/**
+	 * Markers for ValueSets which can't be compiled still count as one concept, so that
+	 * they are eventually evicted too
+	 */
+	private static int getCacheWeight(CompiledValueSetExpansion theCompiledExpansion) {
+		return Math.max(theCompiledExpansion.size(), 1);
+	}
+
+	@Nonnull
+	private CompiledValueSetExpansion compileExpansion(
+			ValidationSupportContext theValidationSupportContext, IBaseResource theValueSet) {
+		ValueSetAndMessages expansion;
+		try {
+			expansion = expandValueSetToCanonical(theValidationSupportContext, theValueSet, null, null);
+		} catch (ExpansionCouldNotBeCompletedInternallyException e) {
+			ourLog.debug(
+					"Unable to compile in-memory expansion of ValueSet {}: {}",
+					theValueSet.getIdElement(),
+					e.getMessage());
+			return CompiledValueSetExpansion.NOT_AVAILABLE;
+		}
+
+		if (expansion == null || expansion.getValueSet() == null) {
+			return CompiledValueSetExpansion.NOT_AVAILABLE;
+		}
+
+		List<FhirVersionIndependentConcept> codes = new ArrayList<>();
+		flattenAndConvertCodesR5(expansion.getValueSet().getExpansion().getContains(), codes);
+		return new CompiledValueSetExpansion(codes);
+	}
+
+	@Nullable
+	private String getValueSetVersion(IBaseResource theValueSet) {
+		FhirContext ctx = getFhirVersionEnum(myCtx, theValueSet).newContextCached();
+		return ctx.newTerser().getSinglePrimitiveValueOrNull(theValueSet, "version");
+	}
+
+	/**
+	 * Discards all compiled ValueSet expansions
+	 */
+	@Override
+	public void invalidateCaches() {
+		synchronized (myCompiledExpansions) {
+			myCompiledExpansions.clear();
+			myCompiledExpansionsConceptCount = 0;
+		}
+		myValueSetContentHashes.clear();
+	}
+
 	@Override
 	@Nullable
 	public CodeValidationResult validateCode(
@@ -425,16 +820,6 @@ public class InMemoryTerminologyServerValidationSupport implements IValidationSu
 			String theValueSetUrl) {
 		assert theExpansion != null;
 
-		final CodeValidationResult codeValidationResult;
-
-		boolean caseSensitive = true;
-		IBaseResource codeSystemToValidateResource = null;
-		if (!theOptions.isInferSystem() && isNotBlank(theCodeSystemUrlAndVersionToValidate)) {
-			codeSystemToValidateResource = theValidationSupportContext
-					.getRootValidationSupport()
-					.fetchCodeSystem(theCodeSystemUrlAndVersionToValidate);
-		}
-
 		List<FhirVersionIndependentConcept> codes = new ArrayList<>();
 		switch (getFhirVersionEnum(
 				theValidationSupportContext.getRootValidationSupport().getFhirContext(), theExpansion)) {
@@ -487,6 +872,42 @@ public class InMemoryTerminologyServerValidationSupport implements IValidationSu
 						+ myCtx.getVersion().getVersion());
 		}
 
+		return validateCodeInExpansionCodes(
+				theValidationSupportContext,
+				theOptions,
+				theCodeSystemUrlAndVersionToValidate,
+				theCodeToValidate,
+				theDisplayToValidate,
+				codes,
+				theValueSetUrl,
+				false);
+	}
+
+	/**
+	 * @param theCodes           The (flattened) codes of the expansion to search
+	 * @param theNullIfNotFound If <code>true</code>, returns <code>null</code> instead of a failure
+	 *                           result if the code is not found in <code>theCodes</code>
+	 */
+	private CodeValidationResult validateCodeInExpansionCodes(
+			ValidationSupportContext theValidationSupportContext,
+			ConceptValidationOptions theOptions,
+			String theCodeSystemUrlAndVersionToValidate,
+			String theCodeToValidate,
+			String theDisplayToValidate,
+			List<FhirVersionIndependentConcept> theCodes,
+			String theValueSetUrl,
+			boolean theNullIfNotFound) {
+		final CodeValidationResult codeValidationResult;
+		List<FhirVersionIndependentConcept> codes = theCodes;
+
+		boolean caseSensitive = true;
+		IBaseResource codeSystemToValidateResource = null;
+		if (!theOptions.isInferSystem() && isNotBlank(theCodeSystemUrlAndVersionToValidate)) {
+			codeSystemToValidateResource = theValidationSupportContext
+					.getRootValidationSupport()
+					.fetchCodeSystem(theCodeSystemUrlAndVersionToValidate);
+		}
+
 		String codeSystemResourceName = null;
 		String codeSystemResourceVersion = null;
 		String codeSystemResourceContentMode = null;
@@ -567,6 +988,8 @@ public class InMemoryTerminologyServerValidationSupport implements IValidationSu
 				caseSensitive);
 		if (valueSetResult != null) {
 			codeValidationResult = valueSetResult;
+		} else if (theNullIfNotFound) {
+			codeValidationResult = null;
 		} else {
 			IValidationSupport.IssueSeverity severity;
 			String message;
@@ -1528,4 +1951,14 @@ public class InMemoryTerminologyServerValidationSupport implements IValidationSu
 			return myMessages;
 		}
 	}
+
+	private static class CompiledExpansionCacheEntry {
+		private final CompiledValueSetExpansion myExpansion;
+		private final long myExpiryTime;
+
+		private CompiledExpansionCacheEntry(CompiledValueSetExpansion theExpansion, long theExpiryTime) {
+			myExpansion = theExpansion;
+			myExpiryTime = theExpiryTime;
+		}
+	}
 }
@@ -2,6 +2,7 @@ package org.hl7.fhir.common.hapi.validation.support;
 
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.context.support.CodeValidationRequest;
 import ca.uhn.fhir.context.support.ConceptValidationOptions;
 import ca.uhn.fhir.context.support.DefaultProfileValidationSupport;
 import ca.uhn.fhir.context.support.IValidationSupport;
@@ -12,15 +13,20 @@ import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.rest.api.SummaryEnum;
 import ca.uhn.fhir.rest.client.api.IGenericClient;
 import ca.uhn.fhir.rest.gclient.IQuery;
+import ca.uhn.fhir.rest.server.exceptions.BaseServerResponseException;
 import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.util.BundleBuilder;
 import ca.uhn.fhir.util.BundleUtil;
+import ca.uhn.fhir.util.FhirTerser;
 import ca.uhn.fhir.util.Logs;
 import ca.uhn.fhir.util.ParametersUtil;
+import ca.uhn.fhir.util.bundle.BundleEntryParts;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseDatatype;
 import org.hl7.fhir.instance.model.api.IBaseOperationOutcome;
@@ -40,6 +46,7 @@ import org.hl7.fhir.r4.model.Type;
 import org.slf4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
@@ -65,6 +72,7 @@ public class RemoteTerminologyServiceValidationSupport extends BaseValidationSup
 
 	private String myBaseUrl;
 	private final List<Object> myClientInterceptors = new ArrayList<>();
+	private volatile boolean myBatchValidateCodeUnsupported;
 
 	/**
 	 * Constructor
@@ -124,6 +132,101 @@ public class RemoteTerminologyServiceValidationSupport extends BaseValidationSup
 		return invokeRemoteValidateCode(codeSystem, theCode, theDisplay, valueSetUrl, valueSet);
 	}
 
+	/**
+	 * Validates all of the given codes using a single FHIR <code>batch</code> Bundle containing one
+	 * <code>ValueSet/$validate-code</code> invocation per code, instead of one HTTP round trip per code.
+	 * If the remote server rejects the batch, or can not process an individual entry, the affected codes
+	 * are validated individually. Once a batch has been rejected, batches are not sent to that server
+	 * again and all codes are validated individually.
+	 */
+	@Nonnull
+	@Override
+	public List<CodeValidationResult> validateCodesInValueSet(
+			ValidationSupportContext theValidationSupportContext,
+			ConceptValidationOptions theOptions,
+			@Nonnull List<CodeValidationRequest> theRequests,
+			@Nonnull IBaseResource theValueSet) {
+		if (theRequests.size() < 2 || myBatchValidateCodeUnsupported) {
+			return super.validateCodesInValueSet(theValidationSupportContext, theOptions, theRequests, theValueSet);
+		}
+
+		IBaseResource valueSet = theValueSet;
+		String valueSetUrl = DefaultProfileValidationSupport.getConformanceResourceUrl(myCtx, valueSet);
+		if (isNotBlank(valueSetUrl)) {
+			valueSet = null;
+		} else {
+			valueSetUrl = null;
+		}
+
+		FhirTerser terser = myCtx.newTerser();
+		BundleBuilder bundleBuilder = new BundleBuilder(myCtx);
+		bundleBuilder.setType("batch");
+
+		String[] codeSystems = new String[theRequests.size()];
+		List<Integer> requestIndexes = new ArrayList<>(theRequests.size());
+		for (int i = 0; i < theRequests.size(); i++) {
+			CodeValidationRequest request = theRequests.get(i);
+			if (isBlank(request.getCode())) {
+				continue;
+			}
+
+			// some external validators require the system when the code is passed
+			// so let's try to get it from the VS if is not present
+			codeSystems[i] = request.getSystem();
+			if (isBlank(codeSystems[i])) {
+				codeSystems[i] = ValidationSupportUtils.extractCodeSystemForCode(theValueSet, request.getCode());
+			}
+
+			IBase entry = bundleBuilder.addEntry();
+			bundleBuilder.addToEntry(
+					entry,
+					"resource",
+					buildValidateCodeInputParameters(
+							codeSystems[i], request.getCode(), request.getDisplay(), valueSetUrl, valueSet));
+			terser.setElement(entry, "request.method", "POST");
+			terser.setElement(entry, "request.url", "ValueSet/$validate-code");
+			requestIndexes.add(i);
+		}
+
+		CodeValidationResult[] results = new CodeValidationResult[theRequests.size()];
+		if (requestIndexes.isEmpty()) {
+			return Arrays.asList(results);
+		}
+
+		List<BundleEntryParts> responseEntries;
+		try {
+			IBaseBundle response =
+					provideClient().transaction().withBundle(bundleBuilder.getBundle()).execute();
+			responseEntries = BundleUtil.toListOfEntries(myCtx, response);
+		} catch (BaseServerResponseException e) {
+			ourLog.warn(
+					"Batch $validate-code request with {} codes failed on {}, codes will be validated individually"
+							+ " from now on: {}",
+					requestIndexes.size(),
+					getBaseUrl(),
+					e.getMessage());
+			myBatchValidateCodeUnsupported = true;
+			return super.validateCodesInValueSet(theValidationSupportContext, theOptions, theRequests, theValueSet);
+		}
+
+		for (int i = 0; i < requestIndexes.size(); i++) {
+			int requestIndex = requestIndexes.get(i);
+			CodeValidationRequest request = theRequests.get(requestIndex);
+			IBaseResource output = i < responseEntries.size() ? responseEntries.get(i).getResource() : null;
+			if (output instanceof IBaseParameters) {
+				ValidationErrorMessageBuilder errorMessageBuilder = newValidateCodeErrorMessageBuilder(
+						codeSystems[requestIndex], request.getCode(), valueSetUrl, valueSet);
+				results[requestIndex] =
+						createCodeValidationResult((IBaseParameters) output, errorMessageBuilder, request.getCode());
+			} else {
+				results[requestIndex] = invokeRemoteValidateCode(
+						codeSystems[requestIndex], request.getCode(), request.getDisplay(), valueSetUrl, valueSet);
+			}
+		}
+
+		return Arrays.asList(results);
+	}
+
 	@Override
 	public IBaseResource fetchCodeSystem(String theSystem) {
 		// callers of this want the whole resource.
@@ -586,20 +689,8 @@ public class RemoteTerminologyServiceValidationSupport extends BaseValidationSup
 
 		IGenericClient client = provideClient();
 
-		// this message builder can be removed once we introduce a parameter object like CodeValidationRequest
-		ValidationErrorMessageBuilder errorMessageBuilder = theServerMessage -> {
-			if (theValueSetUrl == null && theValueSet == null) {
-				return getErrorMessage(
-						ERROR_CODE_UNKNOWN_CODE_IN_CODE_SYSTEM, theCodeSystem, theCode, getBaseUrl(), theServerMessage);
-			}
-			return getErrorMessage(
-					ERROR_CODE_UNKNOWN_CODE_IN_VALUE_SET,
-					theCodeSystem,
-					theCode,
-					theValueSetUrl,
-					getBaseUrl(),
-					theServerMessage);
-		};
+		ValidationErrorMessageBuilder errorMessageBuilder =
+				newValidateCodeErrorMessageBuilder(theCodeSystem, theCode, theValueSetUrl, theValueSet);
 
 		IBaseParameters input =
 				buildValidateCodeInputParameters(theCodeSystem, theCode, theDisplay, theValueSetUrl, theValueSet);
@@ -626,6 +717,23 @@ public class RemoteTerminologyServiceValidationSupport extends BaseValidationSup
 		}
 	}
 
+	private ValidationErrorMessageBuilder newValidateCodeErrorMessageBuilder(
+			String theCodeSystem, String theCode, String theValueSetUrl, IBaseResource theValueSet) {
+		return theServerMessage -> {
+			if (theValueSetUrl == null && theValueSet == null) {
+				return getErrorMessage(
+						ERROR_CODE_UNKNOWN_CODE_IN_CODE_SYSTEM, theCodeSystem, theCode, getBaseUrl(), theServerMessage);
+			}
+			return getErrorMessage(
+					ERROR_CODE_UNKNOWN_CODE_IN_VALUE_SET,
+					theCodeSystem,
+					theCode,
+					theValueSetUrl,
+					getBaseUrl(),
+					theServerMessage);
+		};
+	}
+
 	private CodeValidationResult createErrorCodeValidationResult(
 			CodeValidationIssueCode theIssueCode, String theMessage) {
 		IssueSeverity severity = IssueSeverity.ERROR;
@@ -801,6 +909,7 @@ public class RemoteTerminologyServiceValidationSupport extends BaseValidationSup
 	public void setBaseUrl(String theBaseUrl) {
 		Validate.notBlank(theBaseUrl, "theBaseUrl must be provided");
 		myBaseUrl = theBaseUrl;
+		myBatchValidateCodeUnsupported = false;
 	}
 
 	/**
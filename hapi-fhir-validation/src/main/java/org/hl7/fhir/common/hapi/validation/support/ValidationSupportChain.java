@@ -4,6 +4,7 @@ import ca.uhn.fhir.context.BaseRuntimeElementDefinition;
 import ca.uhn.fhir.context.ConfigurationException;
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.context.support.CodeValidationRequest;
 import ca.uhn.fhir.context.support.ConceptValidationOptions;
 import ca.uhn.fhir.context.support.IValidationSupport;
 import ca.uhn.fhir.context.support.LookupCodeRequest;
@@ -40,6 +41,7 @@ import java.util.UUID;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -145,6 +147,7 @@ public class ValidationSupportChain implements IValidationSupport {
 	private String myName = getClass().getSimpleName();
 	private ValidationSupportChainMetrics myMetrics;
 	private volatile boolean myHaveFetchedAllStructureDefinitions = false;
+	private final AtomicLong myCacheInvalidationCount = new AtomicLong();
 
 	/**
 	 * Constructor which initializes the chain with no modules (modules
@@ -359,6 +362,7 @@ public class ValidationSupportChain implements IValidationSupport {
 	public void invalidateCaches() {
 		ourLog.debug("Invalidating caches in {} validation support modules", myChain.size());
 		myHaveFetchedAllStructureDefinitions = false;
+		myCacheInvalidationCount.incrementAndGet();
 		for (IValidationSupport next : myChain) {
 			next.invalidateCaches();
 		}
@@ -374,6 +378,18 @@ public class ValidationSupportChain implements IValidationSupport {
 		}
 	}
 
+	/**
+	 * Returns the number of times that {@link #invalidateCaches()} has been called on this
+	 * chain (including implicitly, when a module is added). Callers which cache results
+	 * derived from the chain can include this value in their cache keys so that those
+	 * results are not reused after the chain's content has changed.
+	 *
+	 * @since 7.8.0
+	 */
+	public long getCacheInvalidationCount() {
+		return myCacheInvalidationCount.get();
+	}
+
 	/**
 	 * Invalidate the expiring cache, but not the permanent StructureDefinition cache
 	 *
@@ -862,6 +878,77 @@ public class ValidationSupportChain implements IValidationSupport {
 		return retVal.getValue();
 	}
 
+	@Nonnull
+	@Override
+	public List<CodeValidationResult> validateCodesInValueSet(
+			ValidationSupportContext theValidationSupportContext,
+			ConceptValidationOptions theOptions,
+			@Nonnull List<CodeValidationRequest> theRequests,
+			@Nonnull IBaseResource theValueSet) {
+		String url = CommonCodeSystemsTerminologyService.getValueSetUrl(getFhirContext(), theValueSet);
+
+		int count = theRequests.size();
+		CodeValidationResult[] results = new CodeValidationResult[count];
+		ValidateCodeKey[] keys = new ValidateCodeKey[count];
+		List<Integer> pendingIndexes = new ArrayList<>(count);
+		boolean[] resolvedFromCache = new boolean[count];
+		for (int i = 0; i < count; i++) {
+			CodeValidationRequest request = theRequests.get(i);
+			CacheValue<CodeValidationResult> cached = null;
+			if (isNotBlank(url)) {
+				keys[i] = new ValidateCodeKey(
+						theOptions, request.getSystem(), request.getCode(), request.getDisplay(), url);
+				cached = getFromCache(keys[i]);
+			}
+			if (cached != null) {
+				results[i] = cached.getValue();
+				resolvedFromCache[i] = true;
+			} else {
+				pendingIndexes.add(i);
+			}
+		}
+
+		for (IValidationSupport next : myChain) {
+			if (pendingIndexes.isEmpty()) {
+				break;
+			}
+			if (isBlank(url) || isValueSetSupported(theValidationSupportContext, next, url)) {
+				List<CodeValidationRequest> pendingRequests = new ArrayList<>(pendingIndexes.size());
+				for (Integer nextIndex : pendingIndexes) {
+					pendingRequests.add(theRequests.get(nextIndex));
+				}
+
+				List<CodeValidationResult> outcomes = next.validateCodesInValueSet(
+						theValidationSupportContext, theOptions, pendingRequests, theValueSet);
+
+				List<Integer> stillPending = new ArrayList<>();
+				for (int i = 0; i < pendingIndexes.size(); i++) {
+					CodeValidationResult outcome = i < outcomes.size() ? outcomes.get(i) : null;
+					if (outcome != null) {
+						results[pendingIndexes.get(i)] = outcome;
+					} else {
+						stillPending.add(pendingIndexes.get(i));
+					}
+				}
+				ourLog.debug(
+						"Validated {} of {} codes in ValueSet {} using {}",
+						pendingIndexes.size() - stillPending.size(),
+						pendingIndexes.size(),
+						theValueSet.getIdElement(),
+						next.getName());
+				pendingIndexes = stillPending;
+			}
+		}
+
+		for (int i = 0; i < count; i++) {
+			if (keys[i] != null && !resolvedFromCache[i]) {
+				putInCache(keys[i], results[i] != null ? new CacheValue<>(results[i]) : CacheValue.empty());
+			}
+		}
+
+		return Arrays.asList(results);
+	}
+
 	@Override
 	public LookupCodeResult lookupCode(
 			ValidationSupportContext theValidationSupportContext, @Nonnull LookupCodeRequest theLookupCodeRequest) {
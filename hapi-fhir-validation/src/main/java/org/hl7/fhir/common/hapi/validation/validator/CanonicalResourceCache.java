@@ -0,0 +1,312 @@
+package org.hl7.fhir.common.hapi.validation.validator;
+
+import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.context.support.IValidationSupport;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r5.model.PackageInformation;
+import org.hl7.fhir.r5.model.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static org.apache.commons.lang3.StringUtils.defaultString;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * A cache of conformance resources (StructureDefinitions, ValueSets, etc.) which have been
+ * converted into the canonical form used by the validator, including any generated
+ * StructureDefinition snapshots. Converting resources and generating snapshots is expensive,
+ * and is otherwise repeated by every {@link FhirInstanceValidator} (and every
+ * {@link VersionSpecificWorkerContextWrapper}). A single instance of this class may be shared
+ * by any number of validators in the same process using
+ * {@link FhirInstanceValidator#setCanonicalResourceCache(CanonicalResourceCache)}.
+ * <p>
+ * Entries are keyed by FHIR version, resource type, canonical URL and business version, and
+ * are never replaced once stored. Validators sharing a cache should therefore agree on the
+ * content of any resource with a given URL and version. Cached resources are shared between
+ * threads and must not be modified.
+ * </p>
+ * <p>
+ * The cache can be populated eagerly using {@link #warmUp(IValidationSupport, ExecutorService)},
+ * and can be written to disk using {@link #writeTo(Path)} so that a later process can
+ * {@link #loadFrom(Path) load} it instead of regenerating every snapshot. A loaded file is
+ * memory-mapped, and individual resources are only parsed when they are first requested.
+ * </p>
+ *
+ * @since 7.8.0
+ */
+public class CanonicalResourceCache {
+
+	private static final Logger ourLog = LoggerFactory.getLogger(CanonicalResourceCache.class);
+	private static final int FILE_MAGIC = 0x48415049;
+	private static final int FILE_FORMAT_VERSION = 1;
+
+	private final Map<String, Resource> myResources = new ConcurrentHashMap<>();
+	private volatile Map<String, PersistedResource> myPersistedResources = Collections.emptyMap();
+
+	/**
+	 * Returns the cached canonical resource for the given key, or <code>null</code>
+	 *
+	 * @see #createKey(FhirVersionEnum, String, String, String)
+	 */
+	@Nullable
+	public Resource get(@Nonnull String theKey) {
+		Resource retVal = myResources.get(theKey);
+		if (retVal == null) {
+			PersistedResource persisted = myPersistedResources.get(theKey);
+			if (persisted != null) {
+				retVal = myResources.computeIfAbsent(theKey, t -> persisted.parse());
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Stores a canonical resource, unless one is already stored for the given key
+	 *
+	 * @return The resource which is stored for the key after this call
+	 * @see #createKey(FhirVersionEnum, String, String, String)
+	 */
+	@Nonnull
+	public Resource put(@Nonnull String theKey, @Nonnull Resource theResource) {
+		Validate.notNull(theResource, "theResource must not be null");
+		Resource existing = get(theKey);
+		if (existing != null) {
+			return existing;
+		}
+		existing = myResources.putIfAbsent(theKey, theResource);
+		return existing != null ? existing : theResource;
+	}
+
+	/**
+	 * @return The number of resources held by this cache, including any which have been loaded
+	 * 		from disk but not yet parsed
+	 */
+	public int size() {
+		int retVal = myResources.size();
+		for (String next : myPersistedResources.keySet()) {
+			if (!myResources.containsKey(next)) {
+				retVal++;
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Discards all cached resources
+	 */
+	public void clear() {
+		myPersistedResources = Collections.emptyMap();
+		myResources.clear();
+	}
+
+	/**
+	 * Converts and generates snapshots for all StructureDefinitions supplied by the given
+	 * validation support module (e.g. a {@link org.hl7.fhir.common.hapi.validation.support.ValidationSupportChain}
+	 * containing one or more
+	 * {@link org.hl7.fhir.common.hapi.validation.support.NpmPackageValidationSupport NPM package modules}),
+	 * using the given executor to process them in parallel. The validation support must also be
+	 * able to supply the base definitions of any profiles, since these are needed in order to
+	 * generate snapshots. This method blocks until all StructureDefinitions have been processed.
+	 *
+	 * @return The number of StructureDefinitions which were processed without error
+	 */
+	public int warmUp(@Nonnull IValidationSupport theValidationSupport, @Nonnull ExecutorService theExecutorService) {
+		List<IBaseResource> structureDefinitions = theValidationSupport.fetchAllStructureDefinitions();
+		if (structureDefinitions == null || structureDefinitions.isEmpty()) {
+			return 0;
+		}
+
+		VersionSpecificWorkerContextWrapper workerContext =
+				VersionSpecificWorkerContextWrapper.newVersionSpecificWorkerContextWrapper(theValidationSupport);
+		workerContext.setCanonicalResourceCache(this);
+
+		ourLog.info("Warming up canonical resource cache with {} StructureDefinitions", structureDefinitions.size());
+		List<Future<Resource>> futures = new ArrayList<>(structureDefinitions.size());
+		for (IBaseResource next : structureDefinitions) {
+			futures.add(theExecutorService.submit(() -> workerContext.toCanonical(next)));
+		}
+
+		int retVal = 0;
+		for (Future<Resource> next : futures) {
+			try {
+				if (next.get() != null) {
+					retVal++;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InternalErrorException(Msg.code(2614) + "Interrupted while warming up cache", e);
+			} catch (ExecutionException e) {
+				ourLog.warn("Failed to cache StructureDefinition: {}", e.getCause().toString());
+			}
+		}
+
+		ourLog.info("Canonical resource cache now contains {} resources", size());
+		return retVal;
+	}
+
+	/**
+	 * Writes the contents of this cache to the given file, replacing it if it exists
+	 *
+	 * @see #loadFrom(Path)
+	 */
+	public void writeTo(@Nonnull Path theFile) throws IOException {
+		Map<String, Resource> resources = new HashMap<>();
+		for (String next : myPersistedResources.keySet()) {
+			resources.put(next, get(next));
+		}
+		resources.putAll(myResources);
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(theFile)))) {
+			out.writeInt(FILE_MAGIC);
+			out.writeInt(FILE_FORMAT_VERSION);
+			out.writeInt(resources.size());
+			for (Map.Entry<String, Resource> next : resources.entrySet()) {
+				Resource resource = next.getValue();
+				String sourcePackageId =
+						resource.getSourcePackage() != null ? resource.getSourcePackage().getId() : null;
+				String encoded = VersionSpecificWorkerContextWrapper.FHIR_CONTEXT_R5
+						.newJsonParser()
+						.encodeResourceToString(resource);
+
+				writeString(out, next.getKey());
+				writeString(out, defaultString(sourcePackageId));
+				writeString(out, encoded);
+			}
+		}
+
+		ourLog.info("Wrote {} canonical resources to {}", resources.size(), theFile);
+	}
+
+	/**
+	 * Loads resources previously written using {@link #writeTo(Path)}. The file is memory-mapped,
+	 * and each resource is parsed the first time it is requested. Resources which are already
+	 * held by this cache are not replaced. The file must not be modified while it is in use.
+	 */
+	public void loadFrom(@Nonnull Path theFile) throws IOException {
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(theFile, StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		if (buffer.remaining() < 12 || buffer.getInt() != FILE_MAGIC) {
+			throw new IOException(Msg.code(2615) + "File is not a canonical resource cache: " + theFile);
+		}
+		int formatVersion = buffer.getInt();
+		if (formatVersion != FILE_FORMAT_VERSION) {
+			throw new IOException(Msg.code(2616) + "Unsupported canonical resource cache format version "
+					+ formatVersion + " in file: " + theFile);
+		}
+
+		int count = buffer.getInt();
+		Map<String, PersistedResource> persistedResources = new HashMap<>(myPersistedResources);
+		for (int i = 0; i < count; i++) {
+			String key = readString(buffer);
+			String sourcePackageId = readString(buffer);
+			int length = buffer.getInt();
+			int offset = buffer.position();
+			buffer.position(offset + length);
+			persistedResources.putIfAbsent(key, new PersistedResource(buffer, offset, length, sourcePackageId));
+		}
+		myPersistedResources = persistedResources;
+
+		ourLog.info("Loaded index of {} canonical resources from {}", count, theFile);
+	}
+
+	/**
+	 * Creates a cache key
+	 *
+	 * @param theFhirVersion   The FHIR version of the source resource (i.e. before conversion to the canonical form)
+	 * @param theResourceType  The resource type
+	 * @param theUrl           The canonical URL
+	 * @param theVersion       The business version, if any
+	 */
+	@Nonnull
+	public static String createKey(
+			@Nonnull FhirVersionEnum theFhirVersion,
+			@Nonnull String theResourceType,
+			@Nonnull String theUrl,
+			@Nullable String theVersion) {
+		StringBuilder retVal = new StringBuilder()
+				.append(theFhirVersion.name())
+				.append('/')
+				.append(theResourceType)
+				.append('/')
+				.append(theUrl);
+		if (isNotBlank(theVersion)) {
+			retVal.append('|').append(theVersion);
+		}
+		return retVal.toString();
+	}
+
+	private static void writeString(DataOutputStream theOutput, String theString) throws IOException {
+		byte[] bytes = theString.getBytes(StandardCharsets.UTF_8);
+		theOutput.writeInt(bytes.length);
+		theOutput.write(bytes);
+	}
+
+	private static String readString(ByteBuffer theBuffer) {
+		int length = theBuffer.getInt();
+		byte[] bytes = new byte[length];
+		theBuffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * A resource in a memory-mapped cache file which has not yet been parsed
+	 */
+	private static class PersistedResource {
+
+		private final ByteBuffer myBuffer;
+		private final int myOffset;
+		private final int myLength;
+		private final String mySourcePackageId;
+
+		private PersistedResource(ByteBuffer theBuffer, int theOffset, int theLength, String theSourcePackageId) {
+			myBuffer = theBuffer;
+			myOffset = theOffset;
+			myLength = theLength;
+			mySourcePackageId = theSourcePackageId;
+		}
+
+		private Resource parse() {
+			ByteBuffer buffer = myBuffer.duplicate();
+			buffer.position(myOffset);
+			buffer.limit(myOffset + myLength);
+			String encoded = StandardCharsets.UTF_8.decode(buffer).toString();
+
+			Resource retVal = (Resource) VersionSpecificWorkerContextWrapper.FHIR_CONTEXT_R5
+					.newJsonParser()
+					.parseResource(encoded);
+			if (isNotBlank(mySourcePackageId)) {
+				retVal.setSourcePackage(new PackageInformation(mySourcePackageId, null, null, new Date()));
+			}
+			return retVal;
+		}
+	}
+}
@@ -9,6 +9,7 @@ import ca.uhn.fhir.validation.IValidationContext;
 import com.google.common.annotations.VisibleForTesting;
 import jakarta.annotation.Nonnull;
 import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.common.hapi.validation.support.ValidationSupportChain;
 import org.hl7.fhir.exceptions.FHIRException;
 import org.hl7.fhir.exceptions.PathEngineException;
 import org.hl7.fhir.r5.fhirpath.FHIRPathEngine;
@@ -41,6 +42,8 @@ public class FhirInstanceValidator extends BaseValidatorBridge implements IInsta
 	private List<String> myExtensionDomains = Collections.emptyList();
 	private IValidatorResourceFetcher validatorResourceFetcher;
 	private IValidationPolicyAdvisor validatorPolicyAdvisor = new FhirDefaultPolicyAdvisor();
+	private ValidationResultCache myValidationResultCache;
+	private CanonicalResourceCache myCanonicalResourceCache;
 
 	/**
 	 * Constructor
@@ -223,8 +226,109 @@ public class FhirInstanceValidator extends BaseValidatorBridge implements IInsta
 		return myExtensionDomains;
 	}
 
+	/**
+	 * If set (default is <code>null</code>), validation results are stored in the given cache and
+	 * reused when an identical resource is validated again against the same profiles with the
+	 * same settings. Results are discarded whenever {@link #invalidateCaches()} is called, or
+	 * when the caches of the underlying {@link ValidationSupportChain} are invalidated.
+	 *
+	 * @since 7.8.0
+	 */
+	public ValidationResultCache getValidationResultCache() {
+		return myValidationResultCache;
+	}
+
+	/**
+	 * If set (default is <code>null</code>), validation results are stored in the given cache and
+	 * reused when an identical resource is validated again against the same profiles with the
+	 * same settings. Results are discarded whenever {@link #invalidateCaches()} is called, or
+	 * when the caches of the underlying {@link ValidationSupportChain} are invalidated.
+	 *
+	 * @since 7.8.0
+	 */
+	public void setValidationResultCache(ValidationResultCache theValidationResultCache) {
+		myValidationResultCache = theValidationResultCache;
+	}
+
+	/**
+	 * If set (default is <code>null</code>), converted conformance resources and generated
+	 * StructureDefinition snapshots are stored in the given cache, which may be shared with
+	 * other validators so that this work is only done once per process. Note that this cache
+	 * is not cleared by {@link #invalidateCaches()}.
+	 *
+	 * @since 7.8.0
+	 */
+	public CanonicalResourceCache getCanonicalResourceCache() {
+		return myCanonicalResourceCache;
+	}
+
+	/**
+	 * If set (default is <code>null</code>), converted conformance resources and generated
+	 * StructureDefinition snapshots are stored in the given cache, which may be shared with
+	 * other validators so that this work is only done once per process. Note that this cache
+	 * is not cleared by {@link #invalidateCaches()}.
+	 *
+	 * @since 7.8.0
+	 */
+	public void setCanonicalResourceCache(CanonicalResourceCache theCanonicalResourceCache) {
+		myCanonicalResourceCache = theCanonicalResourceCache;
+		if (myWrappedWorkerContext != null) {
+			myWrappedWorkerContext.setCanonicalResourceCache(theCanonicalResourceCache);
+		}
+	}
+
 	@Override
 	protected List<ValidationMessage> validate(IValidationContext<?> theValidationCtx) {
+		ValidationResultCache validationResultCache = myValidationResultCache;
+		if (validationResultCache == null) {
+			return validateUncached(theValidationCtx);
+		}
+
+		String key = ValidationResultCache.createKey(
+				theValidationCtx.getResourceAsString(),
+				theValidationCtx.getResourceAsStringEncoding(),
+				theValidationCtx.getOptions().getProfiles(),
+				getValidatorConfigurationKey());
+		return validationResultCache.getOrValidate(key, () -> validateUncached(theValidationCtx));
+	}
+
+	/**
+	 * Describes everything other than the resource and profiles which affects the validation
+	 * outcome, for use in {@link ValidationResultCache} keys
+	 */
+	private String getValidatorConfigurationKey() {
+		long supportVersion = 0;
+		if (myValidationSupport instanceof ValidationSupportChain) {
+			supportVersion = ((ValidationSupportChain) myValidationSupport).getCacheInvalidationCount();
+		}
+		return new StringBuilder()
+				.append(System.identityHashCode(myValidationSupport))
+				.append('/')
+				.append(supportVersion)
+				.append('/')
+				.append(isAnyExtensionsAllowed())
+				.append('/')
+				.append(getBestPracticeWarningLevel())
+				.append('/')
+				.append(isErrorForUnknownProfiles())
+				.append('/')
+				.append(getExtensionDomains())
+				.append('/')
+				.append(isNoTerminologyChecks())
+				.append('/')
+				.append(isNoExtensibleWarnings())
+				.append('/')
+				.append(isNoBindingMsgSuppressed())
+				.append('/')
+				.append(isAssumeValidRestReferences())
+				.append('/')
+				.append(System.identityHashCode(getValidatorResourceFetcher()))
+				.append('/')
+				.append(System.identityHashCode(getValidatorPolicyAdvisor()))
+				.toString();
+	}
+
+	private List<ValidationMessage> validateUncached(IValidationContext<?> theValidationCtx) {
 		VersionSpecificWorkerContextWrapper wrappedWorkerContext = provideWorkerContext();
 
 		return new ValidatorWrapper()
@@ -247,6 +351,7 @@ public class FhirInstanceValidator extends BaseValidatorBridge implements IInsta
 		if (wrappedWorkerContext == null) {
 			wrappedWorkerContext =
 					VersionSpecificWorkerContextWrapper.newVersionSpecificWorkerContextWrapper(myValidationSupport);
+			wrappedWorkerContext.setCanonicalResourceCache(myCanonicalResourceCache);
 		}
 		myWrappedWorkerContext = wrappedWorkerContext;
 		return wrappedWorkerContext;
@@ -290,6 +395,9 @@ public class FhirInstanceValidator extends BaseValidatorBridge implements IInsta
 		if (myWrappedWorkerContext != null) {
 			myWrappedWorkerContext.invalidateCaches();
 		}
+		if (myValidationResultCache != null) {
+			myValidationResultCache.invalidateAll();
+		}
 	}
 
 	public static class NullEvaluationContext implements FHIRPathEngine.IEvaluationContext {
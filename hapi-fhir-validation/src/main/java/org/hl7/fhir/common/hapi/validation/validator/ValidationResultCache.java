@@ -0,0 +1,153 @@
+package org.hl7.fhir.common.hapi.validation.validator;
+
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.sl.cache.Cache;
+import ca.uhn.fhir.sl.cache.CacheFactory;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.apache.commons.lang3.time.DateUtils;
+import org.hl7.fhir.utilities.validation.ValidationMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static org.apache.commons.lang3.StringUtils.defaultString;
+
+/**
+ * An optional, bounded cache of instance validation results. When one of these is supplied to
+ * {@link FhirInstanceValidator#setValidationResultCache(ValidationResultCache)}, validating a
+ * resource which is byte-for-byte identical to one that has already been validated (against
+ * the same profiles, with the same validator settings, and without the validation support
+ * chain having been invalidated in between) returns the stored result instead of running the
+ * validator again.
+ * <p>
+ * Entries are keyed by a SHA-256 hash of the inputs, so the cache does not hold on to the
+ * validated resources themselves. Instances are thread safe and may be shared between
+ * validators.
+ * </p>
+ *
+ * @since 7.8.0
+ */
+public class ValidationResultCache {
+
+	public static final int DEFAULT_MAX_SIZE = 1000;
+	public static final long DEFAULT_EXPIRE_AFTER_WRITE_MILLIS = 10 * DateUtils.MILLIS_PER_MINUTE;
+
+	private final Cache<String, List<ValidationMessage>> myCache;
+	private final LongAdder myHitCount = new LongAdder();
+	private final LongAdder myMissCount = new LongAdder();
+
+	/**
+	 * Constructor which uses a maximum size of {@link #DEFAULT_MAX_SIZE} entries and an
+	 * expiry of {@link #DEFAULT_EXPIRE_AFTER_WRITE_MILLIS}
+	 */
+	public ValidationResultCache() {
+		this(DEFAULT_MAX_SIZE, DEFAULT_EXPIRE_AFTER_WRITE_MILLIS);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theMaxSize                 The maximum number of results to hold
+	 * @param theExpireAfterWriteMillis How long a result may be reused for after it is stored
+	 */
+	public ValidationResultCache(int theMaxSize, long theExpireAfterWriteMillis) {
+		Validate.isTrue(theMaxSize > 0, "theMaxSize must be greater than 0");
+		Validate.isTrue(theExpireAfterWriteMillis > 0, "theExpireAfterWriteMillis must be greater than 0");
+		myCache = CacheFactory.build(theExpireAfterWriteMillis, theMaxSize);
+	}
+
+	/**
+	 * Returns the stored result for the given key, or invokes the validator and stores its
+	 * result if there is none
+	 */
+	@Nonnull
+	List<ValidationMessage> getOrValidate(String theKey, Supplier<List<ValidationMessage>> theValidator) {
+		List<ValidationMessage> retVal = myCache.getIfPresent(theKey);
+		if (retVal != null) {
+			myHitCount.increment();
+			return retVal;
+		}
+
+		myMissCount.increment();
+		retVal = Collections.unmodifiableList(new ArrayList<>(theValidator.get()));
+		myCache.put(theKey, retVal);
+		return retVal;
+	}
+
+	/**
+	 * Creates a canonical cache key for a validation request. Profile URLs are sorted so
+	 * that their order does not affect the key.
+	 *
+	 * @param theEncodedResource        The resource being validated, in its encoded form
+	 * @param theEncoding               The encoding of the resource
+	 * @param theProfiles               Any profiles the resource is being explicitly validated against
+	 * @param theValidatorConfiguration A string describing the validator settings which affect the result
+	 */
+	@Nonnull
+	static String createKey(
+			@Nonnull String theEncodedResource,
+			@Nullable EncodingEnum theEncoding,
+			@Nonnull Collection<String> theProfiles,
+			@Nonnull String theValidatorConfiguration) {
+		Hasher hasher = Hashing.sha256().newHasher();
+		hasher.putString(theValidatorConfiguration, StandardCharsets.UTF_8);
+		hasher.putByte((byte) 0);
+		for (String next : new TreeSet<>(theProfiles)) {
+			hasher.putString(defaultString(next), StandardCharsets.UTF_8);
+			hasher.putByte((byte) 0);
+		}
+		hasher.putString(theEncoding != null ? theEncoding.name() : "", StandardCharsets.UTF_8);
+		hasher.putByte((byte) 0);
+		hasher.putString(theEncodedResource, StandardCharsets.UTF_8);
+		return hasher.hash().toString();
+	}
+
+	/**
+	 * Discards all stored results. This does not reset the hit and miss counts.
+	 */
+	public void invalidateAll() {
+		myCache.invalidateAll();
+	}
+
+	/**
+	 * @return The number of validations which were answered from the cache
+	 */
+	public long getHitCount() {
+		return myHitCount.sum();
+	}
+
+	/**
+	 * @return The number of validations which were not found in the cache, and were therefore performed
+	 */
+	public long getMissCount() {
+		return myMissCount.sum();
+	}
+
+	/**
+	 * @return The approximate number of results currently stored
+	 */
+	public long getSize() {
+		return myCache.estimatedSize();
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+				.append("hits", getHitCount())
+				.append("misses", getMissCount())
+				.append("size", getSize())
+				.toString();
+	}
+}
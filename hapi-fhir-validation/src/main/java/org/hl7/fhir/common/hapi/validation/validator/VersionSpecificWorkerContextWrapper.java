@@ -2,6 +2,8 @@ package org.hl7.fhir.common.hapi.validation.validator;
 
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.context.RuntimeResourceDefinition;
+import ca.uhn.fhir.context.support.CodeValidationRequest;
 import ca.uhn.fhir.context.support.ConceptValidationOptions;
 import ca.uhn.fhir.context.support.DefaultProfileValidationSupport;
 import ca.uhn.fhir.context.support.IValidationSupport;
@@ -9,6 +11,7 @@ import ca.uhn.fhir.context.support.ValidationSupportContext;
 import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.rest.server.exceptions.BaseServerResponseException;
 import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.util.FhirTerser;
 import ca.uhn.hapi.converters.canonical.VersionCanonicalizer;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
@@ -95,6 +98,7 @@ public class VersionSpecificWorkerContextWrapper extends I18nBase implements IWo
 	private volatile Set<String> myAllPrimitiveTypes;
 	private Parameters myExpansionProfile;
 	private volatile FHIRPathEngine myFHIRPathEngine;
+	private volatile CanonicalResourceCache myCanonicalResourceCache;
 
 	public VersionSpecificWorkerContextWrapper(
 			ValidationSupportContext theValidationSupportContext, VersionCanonicalizer theVersionCanonicalizer) {
@@ -768,9 +772,38 @@ public class VersionSpecificWorkerContextWrapper extends I18nBase implements IWo
 	@Override
 	public void validateCodeBatch(
 			ValidationOptions options, List<? extends CodingValidationRequest> codes, ValueSet vs) {
+		if (vs == null || codes.size() < 2) {
+			for (CodingValidationRequest next : codes) {
+				ValidationResult outcome = validateCode(options, next.getCoding(), vs);
+				next.setResult(outcome);
+			}
+			return;
+		}
+
+		IBaseResource convertedVs;
+		try {
+			convertedVs = myVersionCanonicalizer.valueSetFromValidatorCanonical(vs);
+		} catch (FHIRException e) {
+			throw new InternalErrorException(Msg.code(2613) + e);
+		}
+
+		ConceptValidationOptions validationOptions = convertConceptValidationOptions(options);
+		List<CodeValidationRequest> requests = new ArrayList<>(codes.size());
 		for (CodingValidationRequest next : codes) {
-			ValidationResult outcome = validateCode(options, next.getCoding(), vs);
-			next.setResult(outcome);
+			Coding coding = next.getCoding();
+			requests.add(new CodeValidationRequest(coding.getSystem(), coding.getCode(), coding.getDisplay()));
+		}
+
+		List<IValidationSupport.CodeValidationResult> results = myValidationSupportContext
+				.getRootValidationSupport()
+				.validateCodesInValueSet(myValidationSupportContext, validationOptions, requests, convertedVs);
+
+		for (int i = 0; i < codes.size(); i++) {
+			CodeValidationRequest request = requests.get(i);
+			IValidationSupport.CodeValidationResult result = results.get(i);
+			addCodeSystemIssues(
+					result, validationOptions, request.getSystem(), request.getCode(), request.getDisplay());
+			codes.get(i).setResult(convertValidationResult(request.getSystem(), result));
 		}
 	}
 
@@ -807,14 +840,24 @@ public class VersionSpecificWorkerContextWrapper extends I18nBase implements IWo
 				.getRootValidationSupport()
 				.validateCodeInValueSet(
 						myValidationSupportContext, theValidationOptions, theSystem, theCode, theDisplay, theValueSet);
-		if (result != null && isNotBlank(theSystem)) {
+		addCodeSystemIssues(result, theValidationOptions, theSystem, theCode, theDisplay);
+		return result;
+	}
+
+	private void addCodeSystemIssues(
+			@Nullable IValidationSupport.CodeValidationResult theValueSetResult,
+			ConceptValidationOptions theValidationOptions,
+			String theSystem,
+			String theCode,
+			String theDisplay) {
+		if (theValueSetResult != null && isNotBlank(theSystem)) {
 			/* We got a value set result, which could be successful, or could contain errors/warnings. The code
 			might also be invalid in the code system, so we will check that as well and add those issues
 			to our result.
 			*/
 			IValidationSupport.CodeValidationResult codeSystemResult =
 					validateCodeInCodeSystem(theValidationOptions, theSystem, theCode, theDisplay);
-			final boolean valueSetResultContainsInvalidDisplay = result.getIssues().stream()
+			final boolean valueSetResultContainsInvalidDisplay = theValueSetResult.getIssues().stream()
 					.anyMatch(VersionSpecificWorkerContextWrapper::hasInvalidDisplayDetailCode);
 			if (codeSystemResult != null) {
 				for (IValidationSupport.CodeValidationIssue codeValidationIssue : codeSystemResult.getIssues()) {
@@ -822,12 +865,11 @@ public class VersionSpecificWorkerContextWrapper extends I18nBase implements IWo
 					issues from code system validation, they will only repeat what was already caught.
 					*/
 					if (!hasInvalidDisplayDetailCode(codeValidationIssue) || !valueSetResultContainsInvalidDisplay) {
-						result.addIssue(codeValidationIssue);
+						theValueSetResult.addIssue(codeValidationIssue);
 					}
 				}
 			}
 		}
-		return result;
 	}
 
 	private static boolean hasInvalidDisplayDetailCode(IValidationSupport.CodeValidationIssue theIssue) {
@@ -1066,6 +1108,19 @@ public class VersionSpecificWorkerContextWrapper extends I18nBase implements IWo
 		synchronized (theResource) {
 			canonical = (Resource) theResource.getUserData(CANONICAL_USERDATA_KEY);
 			if (canonical == null) {
+				CanonicalResourceCache canonicalResourceCache = myCanonicalResourceCache;
+				String canonicalResourceCacheKey = null;
+				if (canonicalResourceCache != null) {
+					canonicalResourceCacheKey = getCanonicalResourceCacheKey(theResource);
+					if (canonicalResourceCacheKey != null) {
+						canonical = canonicalResourceCache.get(canonicalResourceCacheKey);
+						if (canonical != null) {
+							theResource.setUserData(CANONICAL_USERDATA_KEY, canonical);
+							return canonical;
+						}
+					}
+				}
+
 				boolean storeCanonical = true;
 				canonical = myVersionCanonicalizer.resourceToValidatorCanonical(theResource);
 
@@ -1115,6 +1170,9 @@ public class VersionSpecificWorkerContextWrapper extends I18nBase implements IWo
 				}
 
 				if (storeCanonical) {
+					if (canonicalResourceCacheKey != null) {
+						canonical = canonicalResourceCache.put(canonicalResourceCacheKey, canonical);
+					}
 					theResource.setUserData(CANONICAL_USERDATA_KEY, canonical);
 				}
 			}
@@ -1122,6 +1180,47 @@ public class VersionSpecificWorkerContextWrapper extends I18nBase implements IWo
 		return canonical;
 	}
 
+	/**
+	 * Converts the given resource to its canonical form, generating a snapshot if needed
+	 * and storing the result in the {@link #setCanonicalResourceCache(CanonicalResourceCache) shared cache}
+	 */
+	Resource toCanonical(@Nonnull IBaseResource theResource) {
+		return convertToCanonicalVersionAndGenerateSnapshot(theResource, false);
+	}
+
+	@Nullable
+	private String getCanonicalResourceCacheKey(@Nonnull IBaseResource theResource) {
+		FhirContext fhirContext = myValidationSupportContext.getRootValidationSupport().getFhirContext();
+		RuntimeResourceDefinition resourceDef = fhirContext.getResourceDefinition(theResource);
+		if (resourceDef.getChildByName("url") == null) {
+			return null;
+		}
+
+		FhirTerser terser = fhirContext.newTerser();
+		String url = terser.getSinglePrimitiveValueOrNull(theResource, "url");
+		if (isBlank(url)) {
+			return null;
+		}
+		String version = null;
+		if (resourceDef.getChildByName("version") != null) {
+			version = terser.getSinglePrimitiveValueOrNull(theResource, "version");
+		}
+
+		return CanonicalResourceCache.createKey(
+				fhirContext.getVersion().getVersion(), fhirContext.getResourceType(theResource), url, version);
+	}
+
+	/**
+	 * Sets a cache of canonical resources (including generated snapshots) which may be shared
+	 * with other instances. If <code>null</code> (the default), converted resources are only
+	 * cached against the source resource instances supplied by the validation support.
+	 *
+	 * @since 7.8.0
+	 */
+	public void setCanonicalResourceCache(@Nullable CanonicalResourceCache theCanonicalResourceCache) {
+		myCanonicalResourceCache = theCanonicalResourceCache;
+	}
+
 	private FHIRPathEngine getFHIRPathEngine() {
 		FHIRPathEngine retVal = myFHIRPathEngine;
 		if (retVal == null) {
@@ -13,6 +13,8 @@ import ca.uhn.fhir.rest.annotation.IdParam;
 import ca.uhn.fhir.rest.annotation.OptionalParam;
 import ca.uhn.fhir.rest.annotation.ResourceParam;
 import ca.uhn.fhir.rest.annotation.Search;
+import ca.uhn.fhir.rest.annotation.Transaction;
+import ca.uhn.fhir.rest.annotation.TransactionParam;
 import ca.uhn.fhir.rest.api.Constants;
 import ca.uhn.fhir.rest.api.MethodOutcome;
 import ca.uhn.fhir.rest.api.RequestTypeEnum;
@@ -39,10 +41,13 @@ import org.apache.http.entity.StringEntity;
 import org.hl7.fhir.common.hapi.validation.validator.FhirInstanceValidator;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.instance.model.api.IIdType;
+import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.Enumerations.AdministrativeGender;
 import org.hl7.fhir.r4.model.IdType;
 import org.hl7.fhir.r4.model.Narrative;
+import org.hl7.fhir.r4.model.Observation;
 import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Reference;
 import org.hl7.fhir.utilities.xhtml.XhtmlNode;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -53,6 +58,8 @@ import org.mockito.Mockito;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -462,6 +469,57 @@ public class RequestValidatingInterceptorR4Test extends BaseValidationTestWithIn
 		assertThat(status.toString()).doesNotContain("X-FHIR-Request-Validation");
 	}
 
+	@Test
+	public void testTransactionValidatedConcurrently() throws Exception {
+		myInterceptor.setFailOnSeverity(ResultSeverityEnum.ERROR);
+		myInterceptor.addValidatorModule(new FhirInstanceValidator(ourCtx));
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(2);
+		myInterceptor.setConcurrentBundleValidationExecutorService(executor);
+		TransactionProvider transactionProvider = new TransactionProvider();
+		ourServlet.registerProvider(transactionProvider);
+		try {
+			Bundle bundle = new Bundle();
+			bundle.setType(Bundle.BundleType.TRANSACTION);
+			Patient patient = new Patient();
+			patient.setActive(true);
+			bundle.addEntry()
+					.setFullUrl("urn:uuid:patient")
+					.setResource(patient)
+					.getRequest()
+					.setMethod(Bundle.HTTPVerb.POST)
+					.setUrl("Patient");
+			Observation observation = new Observation();
+			observation.setStatus(Observation.ObservationStatus.FINAL);
+			observation.getCode().setText("Heart rate");
+			observation.setSubject(new Reference("urn:uuid:missing"));
+			bundle.addEntry()
+					.setFullUrl("urn:uuid:observation")
+					.setResource(observation)
+					.getRequest()
+					.setMethod(Bundle.HTTPVerb.POST)
+					.setUrl("Observation");
+			String encoded = ourCtx.newJsonParser().encodeResourceToString(bundle);
+
+			HttpPost httpPost = new HttpPost("http://localhost:" + ourPort + "/");
+			httpPost.setEntity(new StringEntity(encoded, ContentType.create(Constants.CT_FHIR_JSON, "UTF-8")));
+
+			try (CloseableHttpResponse status = ourClient.getClient().execute(httpPost)) {
+				String responseContent = IOUtils.toString(status.getEntity().getContent(), Charsets.UTF_8);
+				ourLog.info("Response was:\n{}", responseContent);
+
+				assertEquals(422, status.getStatusLine().getStatusCode());
+				assertThat(responseContent).contains("Reference urn:uuid:missing does not match the fullUrl");
+				assertThat(transactionProvider.myLastTransaction).isNull();
+			}
+
+			// Each entry is validated on the executor, the Bundle itself on the request thread
+			assertEquals(2, executor.getTaskCount());
+		} finally {
+			ourServlet.unregisterProvider(transactionProvider);
+			executor.shutdown();
+		}
+	}
+
 	@Test
 	public void testCreateXmlValidNoValidatorsSpecified() throws Exception {
 		Patient patient = new Patient();
@@ -597,6 +655,19 @@ public class RequestValidatingInterceptorR4Test extends BaseValidationTestWithIn
 
 	}
 
+	public static class TransactionProvider {
+
+		private Bundle myLastTransaction;
+
+		@Transaction
+		public Bundle transaction(@TransactionParam Bundle theBundle) {
+			myLastTransaction = theBundle;
+			Bundle retVal = new Bundle();
+			retVal.setType(Bundle.BundleType.TRANSACTIONRESPONSE);
+			return retVal;
+		}
+	}
+
 	@AfterAll
 	public static void afterClassClearContext() throws Exception {
 		TestUtil.randomizeLocaleAndTimezone();
@@ -1,6 +1,7 @@
 package org.hl7.fhir.common.hapi.validation.support;
 
 import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.support.CodeValidationRequest;
 import ca.uhn.fhir.context.support.ConceptValidationOptions;
 import ca.uhn.fhir.context.support.DefaultProfileValidationSupport;
 import ca.uhn.fhir.context.support.IValidationSupport;
@@ -18,8 +19,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -245,6 +254,186 @@ public class InMemoryTerminologyServerValidationSupportTest extends BaseValidati
 
 	}
 
+	@Test
+	public void testValidateCodesInValueSet_EnumeratedValueSet() {
+		ValueSet vs = new ValueSet();
+		vs.setUrl("http://vs");
+		vs
+			.getCompose()
+			.addInclude()
+			.setSystem("http://cs")
+			.addConcept(new ValueSet.ConceptReferenceComponent(new CodeType("code1")))
+			.addConcept(new ValueSet.ConceptReferenceComponent(new CodeType("code2")));
+		myPrePopulated.addValueSet(vs);
+
+		ValidationSupportContext valCtx = new ValidationSupportContext(myChain);
+		ConceptValidationOptions options = new ConceptValidationOptions();
+		List<CodeValidationRequest> requests = List.of(
+			new CodeValidationRequest("http://cs", "code1", null),
+			new CodeValidationRequest("http://cs", "code99", null),
+			new CodeValidationRequest("http://cs", "code2", null));
+
+		List<IValidationSupport.CodeValidationResult> outcomes = mySvc.validateCodesInValueSet(valCtx, options, requests, vs);
+		assertThat(outcomes).hasSize(3);
+
+		assertTrue(outcomes.get(0).isOk());
+		assertEquals("code1", outcomes.get(0).getCode());
+		assertEquals("Code was validated against in-memory expansion of ValueSet: http://vs", outcomes.get(0).getSourceDetails());
+
+		// Codes which are not in the expansion produce the same outcome as single code validation
+		IValidationSupport.CodeValidationResult expected = mySvc.validateCodeInValueSet(valCtx, options, "http://cs", "code99", null, vs);
+		assertFalse(outcomes.get(1).isOk());
+		assertEquals(expected.getMessage(), outcomes.get(1).getMessage());
+		assertEquals(IValidationSupport.IssueSeverity.ERROR, outcomes.get(1).getSeverity());
+
+		assertTrue(outcomes.get(2).isOk());
+		assertEquals("code2", outcomes.get(2).getCode());
+	}
+
+	@Test
+	public void testValidateCodeInValueSet_CompiledExpansionReusedUntilCachesInvalidated() {
+		ValueSet vs = new ValueSet();
+		vs.setUrl("http://vs");
+		vs.setVersion("1");
+		ValueSet.ConceptSetComponent include = vs
+			.getCompose()
+			.addInclude()
+			.setSystem("http://cs");
+		for (int i = 0; i < 1000; i++) {
+			include.addConcept(new ValueSet.ConceptReferenceComponent(new CodeType("code" + i)).setDisplay("Display " + i));
+		}
+		myPrePopulated.addValueSet(vs);
+
+		ValidationSupportContext valCtx = new ValidationSupportContext(myChain);
+		ConceptValidationOptions options = new ConceptValidationOptions().setValidateDisplay(true);
+
+		IValidationSupport.CodeValidationResult outcome = mySvc.validateCodeInValueSet(valCtx, options, "http://cs", "code500", "Display 500", vs);
+		assertTrue(outcome.isOk());
+		assertEquals("Display 500", outcome.getDisplay());
+
+		outcome = mySvc.validateCodeInValueSet(valCtx, options, "http://cs", "code500", "Wrong", vs);
+		assertEquals(IValidationSupport.IssueSeverity.WARNING, outcome.getSeverity());
+
+		// The content hash is only calculated once per ValueSet instance, so changes to
+		// the same instance are not seen until the caches are invalidated
+		include.getConcept().removeIf(t -> t.getCode().equals("code500"));
+		outcome = mySvc.validateCodeInValueSet(valCtx, options, "http://cs", "code500", null, vs);
+		assertTrue(outcome.isOk());
+
+		mySvc.invalidateCaches();
+		outcome = mySvc.validateCodeInValueSet(valCtx, options, "http://cs", "code500", null, vs);
+		assertFalse(outcome.isOk());
+
+		// Compiled expansions can be disabled
+		include.addConcept().setCode("code500");
+		mySvc.setCompiledValueSetMaxConcepts(0);
+		outcome = mySvc.validateCodeInValueSet(valCtx, options, "http://cs", "code500", null, vs);
+		assertTrue(outcome.isOk());
+		include.getConcept().removeIf(t -> t.getCode().equals("code500"));
+		outcome = mySvc.validateCodeInValueSet(valCtx, options, "http://cs", "code500", null, vs);
+		assertFalse(outcome.isOk());
+	}
+
+	@Test
+	public void testValidateCodeInValueSet_CompiledExpansionKeyedByContent() {
+		ValueSet vs = new ValueSet();
+		vs.setUrl("http://vs");
+		vs.setVersion("1");
+		vs.getCompose().addInclude().setSystem("http://cs").addConcept().setCode("code1");
+
+		ValidationSupportContext valCtx = new ValidationSupportContext(myChain);
+		ConceptValidationOptions options = new ConceptValidationOptions();
+		assertTrue(mySvc.validateCodeInValueSet(valCtx, options, "http://cs", "code1", null, vs).isOk());
+
+		// Same URL and version, but different content
+		ValueSet vs2 = vs.copy();
+		vs2.getCompose().getIncludeFirstRep().getConcept().clear();
+		vs2.getCompose().getIncludeFirstRep().addConcept().setCode("code2");
+		assertFalse(mySvc.validateCodeInValueSet(valCtx, options, "http://cs", "code1", null, vs2).isOk());
+		assertTrue(mySvc.validateCodeInValueSet(valCtx, options, "http://cs", "code2", null, vs2).isOk());
+	}
+
+	@Test
+	public void testValidateCodeInValueSet_CompiledExpansionExpires() throws InterruptedException {
+		mySvc.setCompiledValueSetCacheTimeout(Duration.ofMillis(50));
+
+		ValueSet vs = new ValueSet();
+		vs.setUrl("http://vs");
+		vs.setVersion("1");
+		ValueSet.ConceptSetComponent include = vs.getCompose().addInclude().setSystem("http://cs");
+		include.addConcept().setCode("code1");
+
+		ValidationSupportContext valCtx = new ValidationSupportContext(myChain);
+		ConceptValidationOptions options = new ConceptValidationOptions();
+		assertTrue(mySvc.validateCodeInValueSet(valCtx, options, "http://cs", "code1", null, vs).isOk());
+
+		include.getConcept().clear();
+		Thread.sleep(100);
+		assertFalse(mySvc.validateCodeInValueSet(valCtx, options, "http://cs", "code1", null, vs).isOk());
+	}
+
+	@Test
+	public void testValidateCodeInValueSet_CompiledExpansionCompiledOnceForConcurrentCallers() throws Exception {
+		CodeSystem cs = new CodeSystem();
+		cs.setUrl("http://cs");
+		cs.setContent(CodeSystem.CodeSystemContentMode.COMPLETE);
+		for (int i = 0; i < 100; i++) {
+			cs.addConcept().setCode("code" + i);
+		}
+		ValueSet vs = new ValueSet();
+		vs.setUrl("http://vs");
+		vs.getCompose().addInclude().setSystem("http://cs");
+
+		AtomicInteger codeSystemFetchCount = new AtomicInteger();
+		PrePopulatedValidationSupport prePopulated = new PrePopulatedValidationSupport(myCtx) {
+			@Override
+			public IBaseResource fetchCodeSystem(String theSystem) {
+				codeSystemFetchCount.incrementAndGet();
+				try {
+					// Slow enough for the concurrent callers below to overlap
+					Thread.sleep(50);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return super.fetchCodeSystem(theSystem);
+			}
+		};
+		prePopulated.addCodeSystem(cs);
+		ValidationSupportChain chain = new ValidationSupportChain(ValidationSupportChain.CacheConfiguration.disabled(), mySvc, prePopulated, myDefaultSupport);
+		ValidationSupportContext valCtx = new ValidationSupportContext(chain);
+		ConceptValidationOptions options = new ConceptValidationOptions();
+
+		// Find out how many fetches compiling and validating take, and how many validating alone takes
+		assertTrue(mySvc.validateCodeInValueSet(valCtx, options, "http://cs", "code1", null, vs).isOk());
+		int compileAndValidateFetchCount = codeSystemFetchCount.getAndSet(0);
+		assertTrue(mySvc.validateCodeInValueSet(valCtx, options, "http://cs", "code1", null, vs).isOk());
+		int validateFetchCount = codeSystemFetchCount.getAndSet(0);
+		assertThat(compileAndValidateFetchCount).isGreaterThan(validateFetchCount);
+
+		mySvc.invalidateCaches();
+		int threadCount = 10;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			CountDownLatch startLatch = new CountDownLatch(1);
+			List<Future<IValidationSupport.CodeValidationResult>> futures = new ArrayList<>();
+			for (int i = 0; i < threadCount; i++) {
+				futures.add(executor.submit(() -> {
+					startLatch.await();
+					return mySvc.validateCodeInValueSet(valCtx, options, "http://cs", "code1", null, vs);
+				}));
+			}
+			startLatch.countDown();
+			for (Future<IValidationSupport.CodeValidationResult> next : futures) {
+				assertTrue(next.get().isOk());
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		// Only one of the callers compiled the expansion
+		assertEquals(compileAndValidateFetchCount + (threadCount - 1) * validateFetchCount, codeSystemFetchCount.get());
+	}
+
 	@Test
 	public void testValidateCode_UnknownCodeSystem_EnumeratedValueSet_MultipleIncludes() {
 		ValueSet vs = new ValueSet();
@@ -2,6 +2,7 @@ package org.hl7.fhir.common.hapi.validation.support;
 
 import ca.uhn.fhir.context.ConfigurationException;
 import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.support.CodeValidationRequest;
 import ca.uhn.fhir.context.support.ConceptValidationOptions;
 import ca.uhn.fhir.context.support.DefaultProfileValidationSupport;
 import ca.uhn.fhir.context.support.IValidationSupport;
@@ -300,6 +301,47 @@ public class ValidationSupportChainTest extends BaseTest {
 		}
 	}
 
+	@ParameterizedTest
+	@ValueSource(booleans = {true, false})
+	public void testValidateCodesInValueSet(boolean theUseCache) {
+		// Setup
+		prepareMock(myValidationSupport0, myValidationSupport1, myValidationSupport2);
+		ValidationSupportChain chain = new ValidationSupportChain(newCacheConfiguration(theUseCache), myValidationSupport0, myValidationSupport1, myValidationSupport2);
+
+		IValidationSupport.CodeValidationResult result0 = new IValidationSupport.CodeValidationResult().setCode(CODE_0);
+		IValidationSupport.CodeValidationResult result1 = new IValidationSupport.CodeValidationResult().setCode("code-1");
+		when(myValidationSupport0.isValueSetSupported(any(), eq(VALUE_SET_URL_0))).thenReturn(false);
+		when(myValidationSupport1.isValueSetSupported(any(), eq(VALUE_SET_URL_0))).thenReturn(true);
+		when(myValidationSupport2.isValueSetSupported(any(), eq(VALUE_SET_URL_0))).thenReturn(true);
+		when(myValidationSupport1.validateCodesInValueSet(any(), any(), any(), any())).thenReturn(Lists.newArrayList(result0, null));
+		when(myValidationSupport2.validateCodesInValueSet(any(), any(), any(), any())).thenReturn(Lists.newArrayList(result1));
+
+		ValueSet inputValueSet = new ValueSet();
+		inputValueSet.setUrl(VALUE_SET_URL_0);
+		List<CodeValidationRequest> requests = List.of(
+			new CodeValidationRequest(CODE_SYSTEM_URL_0, CODE_0, DISPLAY_0),
+			new CodeValidationRequest(CODE_SYSTEM_URL_0, "code-1", null));
+
+		// Test
+		List<IValidationSupport.CodeValidationResult> results = chain.validateCodesInValueSet(newValidationCtx(chain), new ConceptValidationOptions(), requests, inputValueSet);
+
+		// Verify
+		assertThat(results).containsExactly(result0, result1);
+		verify(myValidationSupport0, never()).validateCodesInValueSet(any(), any(), any(), any());
+		verify(myValidationSupport1, times(1)).validateCodesInValueSet(any(), any(), eq(requests), any());
+		verify(myValidationSupport2, times(1)).validateCodesInValueSet(any(), any(), eq(List.of(requests.get(1))), any());
+		verify(myValidationSupport0, never()).validateCodeInValueSet(any(), any(), any(), any(), any(), any());
+
+		// Test again (should use cache)
+		List<IValidationSupport.CodeValidationResult> results2 = chain.validateCodesInValueSet(newValidationCtx(chain), new ConceptValidationOptions(), requests, inputValueSet);
+
+		// Verify
+		assertThat(results2).containsExactly(result0, result1);
+		int expectedInvocations = theUseCache ? 1 : 2;
+		verify(myValidationSupport1, times(expectedInvocations)).validateCodesInValueSet(any(), any(), any(), any());
+		verify(myValidationSupport2, times(expectedInvocations)).validateCodesInValueSet(any(), any(), any(), any());
+	}
+
 	@ParameterizedTest
 	@CsvSource({
 		"true,  true",
@@ -0,0 +1,128 @@
+package org.hl7.fhir.common.hapi.validation.validator;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.context.support.IValidationSupport;
+import org.hl7.fhir.common.hapi.validation.support.PrePopulatedValidationSupport;
+import org.hl7.fhir.common.hapi.validation.support.ValidationSupportChain;
+import org.hl7.fhir.r4.model.StructureDefinition;
+import org.hl7.fhir.r5.model.Resource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class CanonicalResourceCacheTest {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+	private static final String PROFILE_URL = "http://example.com/StructureDefinition/MyPatient";
+	private static final String PROFILE_KEY =
+		CanonicalResourceCache.createKey(FhirVersionEnum.R4, "StructureDefinition", PROFILE_URL, "1.0");
+
+	private final ExecutorService myExecutorService = Executors.newFixedThreadPool(2);
+
+	@AfterEach
+	public void after() {
+		myExecutorService.shutdown();
+	}
+
+	@Test
+	public void testCreateKey() {
+		assertEquals("R4/StructureDefinition/http://foo|1.0", CanonicalResourceCache.createKey(FhirVersionEnum.R4, "StructureDefinition", "http://foo", "1.0"));
+		assertEquals("R4/ValueSet/http://foo", CanonicalResourceCache.createKey(FhirVersionEnum.R4, "ValueSet", "http://foo", null));
+	}
+
+	@Test
+	public void testSnapshotSharedBetweenWorkerContexts() {
+		CanonicalResourceCache cache = new CanonicalResourceCache();
+
+		VersionSpecificWorkerContextWrapper workerContext1 = newWorkerContext(newValidationSupport(), cache);
+		VersionSpecificWorkerContextWrapper workerContext2 = newWorkerContext(newValidationSupport(), cache);
+
+		org.hl7.fhir.r5.model.StructureDefinition profile1 = workerContext1.fetchResource(org.hl7.fhir.r5.model.StructureDefinition.class, PROFILE_URL);
+		assertThat(profile1.getSnapshot().getElement()).isNotEmpty();
+		assertSame(profile1, cache.get(PROFILE_KEY));
+
+		// The second context uses different source resource instances, but gets the cached conversion
+		org.hl7.fhir.r5.model.StructureDefinition profile2 = workerContext2.fetchResource(org.hl7.fhir.r5.model.StructureDefinition.class, PROFILE_URL);
+		assertSame(profile1, profile2);
+	}
+
+	@Test
+	public void testWarmUp() {
+		CanonicalResourceCache cache = new CanonicalResourceCache();
+
+		int count = cache.warmUp(newValidationSupport(), myExecutorService);
+
+		assertEquals(2, count);
+		assertEquals(2, cache.size());
+		org.hl7.fhir.r5.model.StructureDefinition profile = (org.hl7.fhir.r5.model.StructureDefinition) cache.get(PROFILE_KEY);
+		assertThat(profile.getSnapshot().getElement()).isNotEmpty();
+	}
+
+	@Test
+	public void testWriteAndLoad(@TempDir Path theTempDir) throws IOException {
+		CanonicalResourceCache cache = new CanonicalResourceCache();
+		cache.warmUp(newValidationSupport(), myExecutorService);
+		Path file = theTempDir.resolve("canonical-resources.bin");
+
+		cache.writeTo(file);
+
+		CanonicalResourceCache loaded = new CanonicalResourceCache();
+		loaded.loadFrom(file);
+		assertEquals(2, loaded.size());
+		Resource profile = loaded.get(PROFILE_KEY);
+		assertThat(profile).isInstanceOf(org.hl7.fhir.r5.model.StructureDefinition.class);
+		assertEquals(
+			((org.hl7.fhir.r5.model.StructureDefinition) cache.get(PROFILE_KEY)).getSnapshot().getElement().size(),
+			((org.hl7.fhir.r5.model.StructureDefinition) profile).getSnapshot().getElement().size());
+		assertSame(profile, loaded.get(PROFILE_KEY));
+		assertNull(loaded.get(CanonicalResourceCache.createKey(FhirVersionEnum.R4, "StructureDefinition", "http://foo", null)));
+
+		// A worker context using the loaded cache does not need to generate the snapshot again
+		VersionSpecificWorkerContextWrapper workerContext = newWorkerContext(newValidationSupport(), loaded);
+		assertSame(profile, workerContext.fetchResource(org.hl7.fhir.r5.model.StructureDefinition.class, PROFILE_URL));
+	}
+
+	private static VersionSpecificWorkerContextWrapper newWorkerContext(IValidationSupport theValidationSupport, CanonicalResourceCache theCache) {
+		VersionSpecificWorkerContextWrapper retVal = VersionSpecificWorkerContextWrapper.newVersionSpecificWorkerContextWrapper(theValidationSupport);
+		retVal.setCanonicalResourceCache(theCache);
+		return retVal;
+	}
+
+	/**
+	 * Creates a validation support module containing a differential-only profile
+	 * and its base definition, as freshly parsed resource instances
+	 */
+	private static IValidationSupport newValidationSupport() {
+		StructureDefinition base = (StructureDefinition) ourCtx.getValidationSupport().fetchStructureDefinition("http://hl7.org/fhir/StructureDefinition/Patient");
+		base = base.copy();
+
+		StructureDefinition profile = new StructureDefinition();
+		profile.setUrl(PROFILE_URL);
+		profile.setVersion("1.0");
+		profile.setName("MyPatient");
+		profile.setStatus(org.hl7.fhir.r4.model.Enumerations.PublicationStatus.ACTIVE);
+		profile.setKind(StructureDefinition.StructureDefinitionKind.RESOURCE);
+		profile.setAbstract(false);
+		profile.setType("Patient");
+		profile.setBaseDefinition("http://hl7.org/fhir/StructureDefinition/Patient");
+		profile.setDerivation(StructureDefinition.TypeDerivationRule.CONSTRAINT);
+		profile.getDifferential().addElement().setId("Patient.birthDate").setPath("Patient.birthDate").setMin(1);
+
+		PrePopulatedValidationSupport prePopulated = new PrePopulatedValidationSupport(ourCtx);
+		prePopulated.addStructureDefinition(base);
+		prePopulated.addStructureDefinition(profile);
+		return new ValidationSupportChain(prePopulated);
+	}
+
+}
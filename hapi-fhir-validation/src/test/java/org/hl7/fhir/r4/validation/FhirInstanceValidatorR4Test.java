@@ -30,6 +30,7 @@ import org.hl7.fhir.common.hapi.validation.support.PrePopulatedValidationSupport
 import org.hl7.fhir.common.hapi.validation.support.SnapshotGeneratingValidationSupport;
 import org.hl7.fhir.common.hapi.validation.support.ValidationSupportChain;
 import org.hl7.fhir.common.hapi.validation.validator.FhirInstanceValidator;
+import org.hl7.fhir.common.hapi.validation.validator.ValidationResultCache;
 import org.hl7.fhir.common.hapi.validation.validator.VersionSpecificWorkerContextWrapper;
 import org.hl7.fhir.exceptions.FHIRException;
 import org.hl7.fhir.instance.model.api.IBaseResource;
@@ -45,6 +46,7 @@ import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.Bundle.BundleEntryComponent;
 import org.hl7.fhir.r4.model.CodeSystem;
 import org.hl7.fhir.r4.model.CodeType;
+import org.hl7.fhir.r4.model.Composition;
 import org.hl7.fhir.r4.model.Consent;
 import org.hl7.fhir.r4.model.ContactPoint;
 import org.hl7.fhir.r4.model.DateTimeType;
@@ -96,6 +98,7 @@ import org.mockito.stubbing.Answer;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -813,6 +816,40 @@ public class FhirInstanceValidatorR4Test extends BaseTest {
 		assertThat(output.getMessages().size()).as(output.toString()).isEqualTo(0);
 	}
 
+	@Test
+	public void testValidateWithValidationResultCache() {
+		ValidationResultCache cache = new ValidationResultCache();
+		myInstanceVal.setValidationResultCache(cache);
+		String input = "{\"resourceType\":\"Patient\",\"id\":\"123\",\"foo\":\"123\"}";
+
+		ValidationResult output = myFhirValidator.validateWithResult(input);
+		assertThat(output.getMessages()).extracting(SingleValidationMessage::getMessage)
+			.contains("Unrecognized property 'foo'");
+		assertEquals(0, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+
+		// Identical input is answered from the cache
+		ValidationResult output2 = myFhirValidator.validateWithResult(input);
+		assertEquals(output.getMessages(), output2.getMessages());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+
+		// Different settings are not
+		myInstanceVal.setNoTerminologyChecks(true);
+		myFhirValidator.validateWithResult(input);
+		assertEquals(1, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+
+		// Nor is anything after the validation support chain has been invalidated
+		myValidationSupport.invalidateCaches();
+		myFhirValidator.validateWithResult(input);
+		assertEquals(1, cache.getHitCount());
+		assertEquals(3, cache.getMissCount());
+		myFhirValidator.validateWithResult(input);
+		assertEquals(2, cache.getHitCount());
+		assertEquals(3, cache.getMissCount());
+	}
+
 	@Test
 	public void testValidateRawJsonResourceBadAttributes() {
 		String input =
@@ -1542,6 +1579,112 @@ public class FhirInstanceValidatorR4Test extends BaseTest {
 
 	}
 
+	@Test
+	public void testValidateBundleConcurrentlyWithStructureValidation() {
+		// Two entries with the same fullUrl violate a Bundle-level (cross-entry) rule, and
+		// each entry also has a problem of its own
+		Bundle bundle = new Bundle();
+		bundle.setType(Bundle.BundleType.COLLECTION);
+		for (int i = 0; i < 2; i++) {
+			Patient patient = new Patient();
+			patient.setId("Patient/A");
+			patient.addExtension().setUrl("http://example.com/unknown-extension").setValue(new StringType("A"));
+			bundle.addEntry().setFullUrl("http://example.com/Patient/A").setResource(patient);
+		}
+
+		myInstanceVal.setAnyExtensionsAllowed(false);
+		myFhirValidator.setConcurrentBundleValidation(true);
+		try {
+			// Without the structure pass, only the entries are validated
+			ValidationResult output = myFhirValidator.validateWithResult(bundle);
+			List<SingleValidationMessage> entryMessages = logResultsAndReturnNonInformationalOnes(output);
+			assertThat(entryMessages).isNotEmpty();
+			assertThat(entryMessages).allMatch(t -> t.getLocationString().matches("Bundle\\.entry\\[[01]]\\.resource\\.ofType\\(Patient\\).*"));
+			assertThat(entryMessages).anyMatch(t -> t.getLocationString().startsWith("Bundle.entry[0]"));
+			assertThat(entryMessages).anyMatch(t -> t.getLocationString().startsWith("Bundle.entry[1]"));
+
+			// With it, the cross-entry rule is checked too, and the entry messages are unchanged
+			myFhirValidator.setConcurrentBundleStructureValidation(true);
+			output = myFhirValidator.validateWithResult(bundle);
+			List<SingleValidationMessage> allMessages = logResultsAndReturnNonInformationalOnes(output);
+			assertThat(allMessages)
+				.filteredOn(t -> t.getLocationString().contains(".resource.ofType(Patient)"))
+				.hasSize(entryMessages.size());
+			assertThat(allMessages)
+				.filteredOn(t -> !t.getLocationString().contains(".resource"))
+				.anyMatch(t -> t.getSeverity() == ResultSeverityEnum.ERROR);
+		} finally {
+			myFhirValidator.setConcurrentBundleValidation(false);
+			myFhirValidator.setConcurrentBundleStructureValidation(false);
+		}
+	}
+
+	@Test
+	public void testValidateDocumentBundleConcurrentlyWithStructureValidation() {
+		Patient patient = new Patient();
+		patient.addName().setFamily("Smith");
+		Observation observation = new Observation();
+		observation.setStatus(ObservationStatus.FINAL);
+		observation.getCode().setText("Weight");
+		observation.setSubject(new Reference("urn:uuid:patient"));
+		Composition composition = new Composition();
+		composition.setStatus(Composition.CompositionStatus.FINAL);
+		composition.getType().setText("Summary");
+		composition.setDate(new Date());
+		composition.setTitle("Summary");
+		composition.setSubject(new Reference("urn:uuid:patient"));
+		composition.addAuthor(new Reference("urn:uuid:patient"));
+		composition.addSection().setTitle("Results").addEntry(new Reference("urn:uuid:observation"));
+
+		Bundle bundle = new Bundle();
+		bundle.setType(Bundle.BundleType.DOCUMENT);
+		bundle.getIdentifier().setSystem("http://example.com").setValue("1");
+		bundle.setTimestamp(new Date());
+		bundle.addEntry().setFullUrl("urn:uuid:composition").setResource(composition);
+		bundle.addEntry().setFullUrl("urn:uuid:patient").setResource(patient);
+		bundle.addEntry().setFullUrl("urn:uuid:observation").setResource(observation);
+
+		try {
+			// The Bundle-level messages (e.g. about entries which can't be reached from the
+			// Composition) are the same as when the whole Bundle is validated at once
+			Set<String> expected = getBundleLevelMessages(myFhirValidator.validateWithResult(bundle));
+			myFhirValidator.setConcurrentBundleValidation(true);
+			myFhirValidator.setConcurrentBundleStructureValidation(true);
+			assertEquals(expected, getBundleLevelMessages(myFhirValidator.validateWithResult(bundle)));
+
+			// Removing a link from the Composition makes the Observation unreachable
+			composition.getSectionFirstRep().getEntry().clear();
+			myFhirValidator.setConcurrentBundleValidation(false);
+			myFhirValidator.setConcurrentBundleStructureValidation(false);
+			Set<String> expectedUnreachable = getBundleLevelMessages(myFhirValidator.validateWithResult(bundle));
+			assertThat(expectedUnreachable).isNotEqualTo(expected);
+			myFhirValidator.setConcurrentBundleValidation(true);
+			myFhirValidator.setConcurrentBundleStructureValidation(true);
+			assertEquals(expectedUnreachable, getBundleLevelMessages(myFhirValidator.validateWithResult(bundle)));
+
+			// References between entries are resolved against the Bundle
+			observation.addPerformer(new Reference("urn:uuid:missing"));
+			List<SingleValidationMessage> messages = myFhirValidator.validateWithResult(bundle).getMessages();
+			assertThat(messages).anySatisfy(t -> {
+				assertEquals(ResultSeverityEnum.ERROR, t.getSeverity());
+				assertEquals("Bundle.entry[2].resource.ofType(Observation).performer[0]", t.getLocationString());
+				assertThat(t.getMessage()).contains("urn:uuid:missing");
+			});
+			assertThat(messages).noneMatch(t -> t.getMessage().equals("Reference urn:uuid:patient does not match the fullUrl of any entry in the Bundle"));
+		} finally {
+			myFhirValidator.setConcurrentBundleValidation(false);
+			myFhirValidator.setConcurrentBundleStructureValidation(false);
+		}
+	}
+
+	private static Set<String> getBundleLevelMessages(ValidationResult theResult) {
+		return theResult.getMessages().stream()
+			.filter(t -> t.getSeverity() != ResultSeverityEnum.INFORMATION)
+			.filter(t -> !t.getLocationString().contains(".resource"))
+			.map(t -> t.getSeverity() + " " + t.getLocationString() + " " + t.getMessage())
+			.collect(Collectors.toSet());
+	}
+
 	@Disabled
 	@Test
 	public void testValidateBundleMultithreaded() throws IOException {
@@ -1,6 +1,7 @@
 package org.hl7.fhir.r4.validation;
 
 import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.support.CodeValidationRequest;
 import ca.uhn.fhir.context.support.ConceptValidationOptions;
 import ca.uhn.fhir.context.support.IValidationSupport.CodeValidationResult;
 import ca.uhn.fhir.jpa.model.util.JpaConstants;
@@ -37,6 +38,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import static ca.uhn.fhir.test.utilities.validation.IValidationProviders.CODE;
@@ -150,6 +152,41 @@ public class RemoteTerminologyValidateCodeR4Test implements IRemoteTerminologyVa
 		assertNull(outcome.getMessage());
 	}
 
+	@Test
+	void validateCodesInValueSet_batchNotSupported_batchOnlyAttemptedOnce() {
+		createValueSetReturnParameters(true, DISPLAY, null, null);
+
+		ValueSet valueSet = new ValueSet();
+		valueSet.setUrl(VALUE_SET_URL);
+		List<CodeValidationRequest> requests = List.of(
+				new CodeValidationRequest(CODE_SYSTEM, CODE, DISPLAY),
+				new CodeValidationRequest(CODE_SYSTEM, CODE, DISPLAY));
+
+		// The test server has no transaction/batch provider, so it rejects the batch Bundle
+		AtomicInteger batchRequestCount = new AtomicInteger();
+		mySvc.addClientInterceptor(new IClientInterceptor() {
+			@Override
+			public void interceptRequest(IHttpRequest theRequest) {
+				if ("POST".equals(theRequest.getHttpVerbName()) && !theRequest.getUri().contains("$validate-code")) {
+					batchRequestCount.incrementAndGet();
+				}
+			}
+
+			@Override
+			public void interceptResponse(IHttpResponse theResponse) { }
+		});
+
+		for (int i = 0; i < 3; i++) {
+			List<CodeValidationResult> outcomes = mySvc.validateCodesInValueSet(null, new ConceptValidationOptions(), requests, valueSet);
+			assertThat(outcomes).hasSize(2);
+			assertThat(outcomes).allSatisfy(outcome -> {
+				assertEquals(CODE, outcome.getCode());
+				assertNull(outcome.getSeverity());
+			});
+		}
+		assertEquals(1, batchRequestCount.get());
+	}
+
 	@Override
 	public Parameters createParameters(Boolean theResult, String theDisplay, String theMessage, IBaseResource theIssuesResource) {
 		Parameters parameters = new Parameters()